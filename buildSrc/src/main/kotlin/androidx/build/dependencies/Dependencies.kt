@@ -30,6 +30,8 @@ const val GUAVA = "com.google.guava:guava:21.0"
 const val GUAVA_ANDROID = "com.google.guava:guava:23.6-android"
 const val INTELLIJ_ANNOTATIONS = "com.intellij:annotations:12.0"
 const val JAVAPOET = "com.squareup:javapoet:1.8.0"
+const val JMH_CORE = "org.openjdk.jmh:jmh-core:1.21"
+const val JMH_GENERATOR_ANNPROCESS = "org.openjdk.jmh:jmh-generator-annprocess:1.21"
 const val JSR250 = "javax.annotation:javax.annotation-api:1.2"
 const val JUNIT = "junit:junit:4.12"
 const val KOTLIN_STDLIB = "org.jetbrains.kotlin:kotlin-stdlib:1.2.41"
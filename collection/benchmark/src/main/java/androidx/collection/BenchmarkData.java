@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import java.util.Random;
+
+/**
+ * Shared inputs for the collection benchmarks. Keys are generated up front so that boxing and
+ * random number generation are not part of the measured work.
+ */
+final class BenchmarkData {
+    private static final long SEED = 0x5eed;
+
+    /** Distinct int keys in random order. */
+    static int[] shuffledInts(int size) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i * 7;
+        }
+        shuffle(keys, new Random(SEED));
+        return keys;
+    }
+
+    /** Distinct long keys in random order. */
+    static long[] shuffledLongs(int size) {
+        int[] ints = shuffledInts(size);
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ints[i] * 0x100000001L;
+        }
+        return keys;
+    }
+
+    /** Distinct boxed keys in random order. */
+    static Integer[] shuffledIntegers(int size) {
+        int[] ints = shuffledInts(size);
+        Integer[] keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ints[i];
+        }
+        return keys;
+    }
+
+    private static void shuffle(int[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    private BenchmarkData() {
+    }
+}
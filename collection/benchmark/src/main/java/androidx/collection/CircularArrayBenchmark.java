@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CircularArray} and {@link CircularIntArray} against {@link ArrayDeque} when
+ * used as a queue that grows to {@code size} elements and is then drained.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CircularArrayBenchmark {
+    private static final Integer ELEMENT = 42;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    @Benchmark
+    public int circularArrayQueue() {
+        CircularArray<Integer> array = new CircularArray<>();
+        for (int i = 0; i < size; i++) {
+            array.addLast(ELEMENT);
+        }
+        int sum = 0;
+        while (!array.isEmpty()) {
+            sum += array.popFirst();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int circularIntArrayQueue() {
+        CircularIntArray array = new CircularIntArray();
+        for (int i = 0; i < size; i++) {
+            array.addLast(i);
+        }
+        int sum = 0;
+        while (!array.isEmpty()) {
+            sum += array.popFirst();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int arrayDequeQueue() {
+        ArrayDeque<Integer> deque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(ELEMENT);
+        }
+        int sum = 0;
+        while (!deque.isEmpty()) {
+            sum += deque.pollFirst();
+        }
+        return sum;
+    }
+}
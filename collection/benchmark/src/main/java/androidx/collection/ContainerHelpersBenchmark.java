@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards {@link ContainerHelpers#binarySearch}, which every sparse array and array map lookup
+ * goes through, against {@link Arrays#binarySearch}. Scores are per {@code size} searches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerHelpersBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private int[] mSortedInts;
+    private int[] mIntQueries;
+    private long[] mSortedLongs;
+    private long[] mLongQueries;
+
+    @Setup
+    public void setup() {
+        mIntQueries = BenchmarkData.shuffledInts(size);
+        mSortedInts = mIntQueries.clone();
+        Arrays.sort(mSortedInts);
+        mLongQueries = BenchmarkData.shuffledLongs(size);
+        mSortedLongs = mLongQueries.clone();
+        Arrays.sort(mSortedLongs);
+    }
+
+    @Benchmark
+    public void containerHelpersInt(Blackhole blackhole) {
+        for (int query : mIntQueries) {
+            blackhole.consume(ContainerHelpers.binarySearch(mSortedInts, size, query));
+        }
+    }
+
+    @Benchmark
+    public void arraysInt(Blackhole blackhole) {
+        for (int query : mIntQueries) {
+            blackhole.consume(Arrays.binarySearch(mSortedInts, 0, size, query));
+        }
+    }
+
+    @Benchmark
+    public void containerHelpersLong(Blackhole blackhole) {
+        for (long query : mLongQueries) {
+            blackhole.consume(ContainerHelpers.binarySearch(mSortedLongs, size, query));
+        }
+    }
+
+    @Benchmark
+    public void arraysLong(Blackhole blackhole) {
+        for (long query : mLongQueries) {
+            blackhole.consume(Arrays.binarySearch(mSortedLongs, 0, size, query));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a skewed access trace against the LRU caches. A cache of {@code size} entries sees
+ * keys drawn from a key space four times as large, with low keys much more popular than high
+ * ones, and every miss is followed by a put. Scores are per trace of {@code 4 * size}
+ * accesses, except for the multi-threaded benchmarks which time a single access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LruCacheBenchmark {
+    private static final int THREADS = 8;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private Integer[] mTrace;
+    private LruCache<Integer, Integer> mLruCache;
+    private LruCache<Integer, Integer> mAdmissionLruCache;
+    private ConcurrentLruCache<Integer, Integer> mConcurrentLruCache;
+    private LinkedHashMap<Integer, Integer> mLinkedHashMap;
+
+    @Setup
+    public void setup() {
+        int keySpace = size * 4;
+        Integer[] keys = BenchmarkData.shuffledIntegers(keySpace);
+        Random random = new Random(size);
+        mTrace = new Integer[keySpace];
+        for (int i = 0; i < mTrace.length; i++) {
+            double r = random.nextDouble();
+            mTrace[i] = keys[(int) (keySpace * r * r * r)];
+        }
+
+        mLruCache = new LruCache<>(size);
+        mAdmissionLruCache = new LruCache<>(size, true);
+        mConcurrentLruCache = new ConcurrentLruCache<>(size, THREADS);
+        final int maxSize = size;
+        mLinkedHashMap = new LinkedHashMap<Integer, Integer>(0, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Benchmark
+    public int lruCache() {
+        return replay(mLruCache);
+    }
+
+    @Benchmark
+    public int lruCacheWithFrequencyAdmission() {
+        return replay(mAdmissionLruCache);
+    }
+
+    @Benchmark
+    public int concurrentLruCache() {
+        int hits = 0;
+        for (Integer key : mTrace) {
+            if (mConcurrentLruCache.get(key) != null) {
+                hits++;
+            } else {
+                mConcurrentLruCache.put(key, key);
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int linkedHashMap() {
+        int hits = 0;
+        for (Integer key : mTrace) {
+            if (mLinkedHashMap.get(key) != null) {
+                hits++;
+            } else {
+                mLinkedHashMap.put(key, key);
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Integer lruCacheContended(ThreadState state) {
+        Integer key = mTrace[state.next(mTrace.length)];
+        Integer value = mLruCache.get(key);
+        if (value == null) {
+            mLruCache.put(key, key);
+        }
+        return value;
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Integer concurrentLruCacheContended(ThreadState state) {
+        Integer key = mTrace[state.next(mTrace.length)];
+        Integer value = mConcurrentLruCache.get(key);
+        if (value == null) {
+            mConcurrentLruCache.put(key, key);
+        }
+        return value;
+    }
+
+    private int replay(LruCache<Integer, Integer> cache) {
+        int hits = 0;
+        for (Integer key : mTrace) {
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(key, key);
+            }
+        }
+        return hits;
+    }
+
+    /** Per-thread position in the shared trace. */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private int mIndex = (int) Thread.currentThread().getId();
+
+        int next(int length) {
+            mIndex = (mIndex + 1) % length;
+            return mIndex;
+        }
+    }
+}
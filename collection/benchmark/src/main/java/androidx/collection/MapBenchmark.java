@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the object keyed maps against {@link HashMap}. Each benchmark inserts, looks up or
+ * removes every key once, so scores are per {@code size} operations. The remove benchmarks
+ * include copying the populated map first.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private Integer[] mKeys;
+    private SimpleArrayMap<Integer, Integer> mSimpleArrayMap;
+    private ArrayMap<Integer, Integer> mArrayMap;
+    private ScatterMap<Integer, Integer> mScatterMap;
+    private HashMap<Integer, Integer> mHashMap;
+
+    @Setup
+    public void setup() {
+        mKeys = BenchmarkData.shuffledIntegers(size);
+        mSimpleArrayMap = new SimpleArrayMap<>();
+        mArrayMap = new ArrayMap<>();
+        mScatterMap = new ScatterMap<>();
+        mHashMap = new HashMap<>();
+        for (Integer key : mKeys) {
+            mSimpleArrayMap.put(key, key);
+            mArrayMap.put(key, key);
+            mScatterMap.put(key, key);
+            mHashMap.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public SimpleArrayMap<Integer, Integer> simpleArrayMapPut() {
+        SimpleArrayMap<Integer, Integer> map = new SimpleArrayMap<>();
+        for (Integer key : mKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public ArrayMap<Integer, Integer> arrayMapPut() {
+        ArrayMap<Integer, Integer> map = new ArrayMap<>();
+        for (Integer key : mKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public ScatterMap<Integer, Integer> scatterMapPut() {
+        ScatterMap<Integer, Integer> map = new ScatterMap<>();
+        for (Integer key : mKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public HashMap<Integer, Integer> hashMapPut() {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (Integer key : mKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void simpleArrayMapGet(Blackhole blackhole) {
+        for (Integer key : mKeys) {
+            blackhole.consume(mSimpleArrayMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void arrayMapGet(Blackhole blackhole) {
+        for (Integer key : mKeys) {
+            blackhole.consume(mArrayMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void scatterMapGet(Blackhole blackhole) {
+        for (Integer key : mKeys) {
+            blackhole.consume(mScatterMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void hashMapGet(Blackhole blackhole) {
+        for (Integer key : mKeys) {
+            blackhole.consume(mHashMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void arrayMapIterate(Blackhole blackhole) {
+        for (int i = 0, n = mArrayMap.size(); i < n; i++) {
+            blackhole.consume(mArrayMap.valueAt(i));
+        }
+    }
+
+    @Benchmark
+    public void scatterMapIterate(Blackhole blackhole) {
+        for (int i = 0, n = mScatterMap.size(); i < n; i++) {
+            blackhole.consume(mScatterMap.valueAt(i));
+        }
+    }
+
+    @Benchmark
+    public void hashMapIterate(Blackhole blackhole) {
+        for (Integer value : mHashMap.values()) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public int simpleArrayMapRemove() {
+        SimpleArrayMap<Integer, Integer> map = new SimpleArrayMap<>(mSimpleArrayMap);
+        for (Integer key : mKeys) {
+            map.remove(key);
+        }
+        return map.size();
+    }
+
+    @Benchmark
+    public int scatterMapRemove() {
+        ScatterMap<Integer, Integer> map = new ScatterMap<>(mHashMap);
+        for (Integer key : mKeys) {
+            map.remove(key);
+        }
+        return map.size();
+    }
+
+    @Benchmark
+    public int hashMapRemove() {
+        HashMap<Integer, Integer> map = new HashMap<>(mHashMap);
+        for (Integer key : mKeys) {
+            map.remove(key);
+        }
+        return map.size();
+    }
+}
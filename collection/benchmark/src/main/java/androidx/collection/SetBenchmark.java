@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ArraySet} and {@link ScatterSet} against {@link HashSet}. Each benchmark adds
+ * or looks up every value once, so scores are per {@code size} operations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private Integer[] mValues;
+    private ArraySet<Integer> mArraySet;
+    private ScatterSet<Integer> mScatterSet;
+    private HashSet<Integer> mHashSet;
+
+    @Setup
+    public void setup() {
+        mValues = BenchmarkData.shuffledIntegers(size);
+        mArraySet = new ArraySet<>();
+        mScatterSet = new ScatterSet<>();
+        mHashSet = new HashSet<>();
+        for (Integer value : mValues) {
+            mArraySet.add(value);
+            mScatterSet.add(value);
+            mHashSet.add(value);
+        }
+    }
+
+    @Benchmark
+    public ArraySet<Integer> arraySetAdd() {
+        ArraySet<Integer> set = new ArraySet<>();
+        for (Integer value : mValues) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public ScatterSet<Integer> scatterSetAdd() {
+        ScatterSet<Integer> set = new ScatterSet<>();
+        for (Integer value : mValues) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public HashSet<Integer> hashSetAdd() {
+        HashSet<Integer> set = new HashSet<>();
+        for (Integer value : mValues) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public void arraySetContains(Blackhole blackhole) {
+        for (Integer value : mValues) {
+            blackhole.consume(mArraySet.contains(value));
+        }
+    }
+
+    @Benchmark
+    public void scatterSetContains(Blackhole blackhole) {
+        for (Integer value : mValues) {
+            blackhole.consume(mScatterSet.contains(value));
+        }
+    }
+
+    @Benchmark
+    public void hashSetContains(Blackhole blackhole) {
+        for (Integer value : mValues) {
+            blackhole.consume(mHashSet.contains(value));
+        }
+    }
+}
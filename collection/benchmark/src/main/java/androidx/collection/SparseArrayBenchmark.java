@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive keyed containers against {@link HashMap}. Keys are inserted in random
+ * order, which is the worst case for the binary searched sparse arrays, and in ascending order,
+ * which lets them append. Scores are per {@code size} operations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SparseArrayBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private int[] mIntKeys;
+    private long[] mLongKeys;
+    private Integer[] mBoxedKeys;
+    private SparseArrayCompat<Object> mSparseArray;
+    private LongSparseArray<Object> mLongSparseArray;
+    private IntObjectMap<Object> mIntObjectMap;
+    private HashMap<Integer, Object> mHashMap;
+
+    @Setup
+    public void setup() {
+        mIntKeys = BenchmarkData.shuffledInts(size);
+        mLongKeys = BenchmarkData.shuffledLongs(size);
+        mBoxedKeys = BenchmarkData.shuffledIntegers(size);
+        mSparseArray = new SparseArrayCompat<>();
+        mLongSparseArray = new LongSparseArray<>();
+        mIntObjectMap = new IntObjectMap<>();
+        mHashMap = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            mSparseArray.put(mIntKeys[i], this);
+            mLongSparseArray.put(mLongKeys[i], this);
+            mIntObjectMap.put(mIntKeys[i], this);
+            mHashMap.put(mBoxedKeys[i], this);
+        }
+    }
+
+    @Benchmark
+    public SparseArrayCompat<Object> sparseArrayPutRandom() {
+        SparseArrayCompat<Object> array = new SparseArrayCompat<>();
+        for (int key : mIntKeys) {
+            array.put(key, this);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public SparseArrayCompat<Object> sparseArrayBuilderRandom() {
+        SparseArrayCompat.Builder<Object> builder = new SparseArrayCompat.Builder<>();
+        for (int key : mIntKeys) {
+            builder.put(key, this);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public SparseArrayCompat<Object> sparseArrayAppendAscending() {
+        SparseArrayCompat<Object> array = new SparseArrayCompat<>();
+        for (int key = 0; key < size; key++) {
+            array.append(key, this);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public LongSparseArray<Object> longSparseArrayPutRandom() {
+        LongSparseArray<Object> array = new LongSparseArray<>();
+        for (long key : mLongKeys) {
+            array.put(key, this);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public IntObjectMap<Object> intObjectMapPutRandom() {
+        IntObjectMap<Object> map = new IntObjectMap<>();
+        for (int key : mIntKeys) {
+            map.put(key, this);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public HashMap<Integer, Object> hashMapPutRandom() {
+        HashMap<Integer, Object> map = new HashMap<>();
+        for (int key : mIntKeys) {
+            map.put(key, this);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void sparseArrayGet(Blackhole blackhole) {
+        for (int key : mIntKeys) {
+            blackhole.consume(mSparseArray.get(key));
+        }
+    }
+
+    @Benchmark
+    public void longSparseArrayGet(Blackhole blackhole) {
+        for (long key : mLongKeys) {
+            blackhole.consume(mLongSparseArray.get(key));
+        }
+    }
+
+    @Benchmark
+    public void intObjectMapGet(Blackhole blackhole) {
+        for (int key : mIntKeys) {
+            blackhole.consume(mIntObjectMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void hashMapGet(Blackhole blackhole) {
+        for (Integer key : mBoxedKeys) {
+            blackhole.consume(mHashMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public int sparseArrayRemoveAndCompact() {
+        SparseArrayCompat<Object> array = mSparseArray.clone();
+        for (int i = 0; i < size; i += 2) {
+            array.remove(mIntKeys[i]);
+        }
+        // size() triggers the deferred garbage collection of removed entries.
+        return array.size();
+    }
+
+    @Benchmark
+    public int intObjectMapRemove() {
+        IntObjectMap<Object> map = mIntObjectMap.clone();
+        for (int i = 0; i < size; i += 2) {
+            map.remove(mIntKeys[i]);
+        }
+        return map.size();
+    }
+}
@@ -20,6 +20,8 @@ class ContainerHelpers {
     static final int[] EMPTY_INTS = new int[0];
     static final long[] EMPTY_LONGS = new long[0];
     static final Object[] EMPTY_OBJECTS = new Object[0];
+    // A single always-empty slot, so lookups in an empty hash container need no special case.
+    static final int[] EMPTY_SLOTS = new int[1];
 
     public static int idealIntArraySize(int need) {
         return idealByteArraySize(need * 4) / 4;
@@ -80,6 +82,162 @@ class ContainerHelpers {
         return ~lo;  // value not present
     }
 
+    // Stable merge sort of the first size keys, moving each value along with its key.
+    static void sort(int[] keys, Object[] values, int size) {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = keys[i - 1] <= keys[i];
+        }
+        if (sorted) {
+            return;
+        }
+
+        int[] srcKeys = keys;
+        Object[] srcValues = values;
+        int[] dstKeys = new int[size];
+        Object[] dstValues = new Object[size];
+        for (int width = 1; width < size; width <<= 1) {
+            for (int lo = 0; lo < size; lo += width << 1) {
+                final int mid = Math.min(lo + width, size);
+                final int hi = Math.min(lo + (width << 1), size);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    if (j >= hi || (i < mid && srcKeys[i] <= srcKeys[j])) {
+                        dstKeys[k] = srcKeys[i];
+                        dstValues[k] = srcValues[i++];
+                    } else {
+                        dstKeys[k] = srcKeys[j];
+                        dstValues[k] = srcValues[j++];
+                    }
+                }
+            }
+            int[] tmpKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tmpKeys;
+            Object[] tmpValues = srcValues;
+            srcValues = dstValues;
+            dstValues = tmpValues;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, size);
+            System.arraycopy(srcValues, 0, values, 0, size);
+        }
+    }
+
+    static void sort(long[] keys, Object[] values, int size) {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = keys[i - 1] <= keys[i];
+        }
+        if (sorted) {
+            return;
+        }
+
+        long[] srcKeys = keys;
+        Object[] srcValues = values;
+        long[] dstKeys = new long[size];
+        Object[] dstValues = new Object[size];
+        for (int width = 1; width < size; width <<= 1) {
+            for (int lo = 0; lo < size; lo += width << 1) {
+                final int mid = Math.min(lo + width, size);
+                final int hi = Math.min(lo + (width << 1), size);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    if (j >= hi || (i < mid && srcKeys[i] <= srcKeys[j])) {
+                        dstKeys[k] = srcKeys[i];
+                        dstValues[k] = srcValues[i++];
+                    } else {
+                        dstKeys[k] = srcKeys[j];
+                        dstValues[k] = srcValues[j++];
+                    }
+                }
+            }
+            long[] tmpKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tmpKeys;
+            Object[] tmpValues = srcValues;
+            srcValues = dstValues;
+            dstValues = tmpValues;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, size);
+            System.arraycopy(srcValues, 0, values, 0, size);
+        }
+    }
+
+    // The hash based containers keep their entries densely packed in parallel arrays and index
+    // them through an open-addressing slot table. Each occupied slot stores the entry index + 1,
+    // zero marks an empty slot, and collisions are resolved by linear probing. The table size is
+    // a power of two at least twice the entry capacity so that probe sequences stay short.
+
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int idealSlotTableSize(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1;
+    }
+
+    static int[] buildSlots(int[] hashes, int size, int capacity) {
+        int[] slots = new int[idealSlotTableSize(capacity)];
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hashes[i] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+        return slots;
+    }
+
+    // Removes the entry at index from the slot table and moves the last entry into its place.
+    // The caller is responsible for moving the keys and values the same way.
+    static void removeSlot(int[] slots, int[] hashes, int index, int size) {
+        int mask = slots.length - 1;
+        int hole = slotOf(slots, hashes[index], index);
+
+        // Backward shift deletion: pull later members of the probe sequence into the hole so
+        // that no tombstones are needed.
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int entry = slots[slot];
+            if (entry == 0) {
+                break;
+            }
+            int home = hashes[entry - 1] & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                slots[hole] = entry;
+                hole = slot;
+            }
+        }
+        slots[hole] = 0;
+
+        int last = size - 1;
+        if (index != last) {
+            slots[slotOf(slots, hashes[last], last)] = index + 1;
+            hashes[index] = hashes[last];
+        }
+    }
+
+    private static int slotOf(int[] slots, int hash, int index) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != index + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
     private ContainerHelpers() {
     }
 }
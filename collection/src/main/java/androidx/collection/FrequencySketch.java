@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+/**
+ * A count-min sketch estimating how often keys have been accessed recently, used by
+ * {@link LruCache} to decide whether a new entry is worth evicting an existing one for.
+ *
+ * <p>Each key is counted in four rows of 4-bit counters, sixteen of which are packed in a
+ * long, and its frequency is the minimum of its four counters. Once the number of recorded
+ * accesses reaches ten times the width of a row, every counter is halved so that keys which
+ * are no longer accessed age out of the sketch.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+    private static final int MIN_WIDTH = 64;
+    private static final int MAX_WIDTH = 1 << 15;
+    // Counters per expected key in each row, which keeps collisions rare.
+    private static final int WIDTH_PER_ENTRY = 8;
+
+    private final long[] mTable;
+    private final int mWidth;
+    private final int mSampleSize;
+    private int mSampleCount;
+
+    /**
+     * @param expectedEntries the number of keys that are expected to be cached. The sketch
+     *     is sized for this number of keys, within fixed bounds, and does not grow.
+     */
+    FrequencySketch(int expectedEntries) {
+        int width = MIN_WIDTH;
+        while (width < MAX_WIDTH && width < (long) expectedEntries * WIDTH_PER_ENTRY) {
+            width <<= 1;
+        }
+        mWidth = width;
+        mSampleSize = 10 * width;
+        // Four rows of width 4-bit counters, sixteen counters per long.
+        mTable = new long[width / 4];
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return row * mWidth + ((int) h & (mWidth - 1));
+    }
+
+    /**
+     * Returns the estimated number of recent accesses of the key with the given hash code,
+     * between 0 and 15.
+     */
+    int frequency(int hash) {
+        hash = ContainerHelpers.hash(hash);
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            int index = indexOf(hash, row);
+            int count = (int) ((mTable[index >>> 4] >>> ((index & 15) << 2)) & 0xf);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access of the key with the given hash code, aging all counters when the
+     * sample period has elapsed.
+     */
+    void increment(int hash) {
+        hash = ContainerHelpers.hash(hash);
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            int index = indexOf(hash, row);
+            int shift = (index & 15) << 2;
+            long counter = (mTable[index >>> 4] >>> shift) & 0xf;
+            if (counter < MAX_COUNT) {
+                mTable[index >>> 4] += 1L << shift;
+                added = true;
+            }
+        }
+
+        if (added && ++mSampleCount >= mSampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        final long[] table = mTable;
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        mSampleCount /= 2;
+    }
+}
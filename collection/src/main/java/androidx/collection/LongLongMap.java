@@ -0,0 +1,292 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import java.util.Arrays;
+
+/**
+ * LongLongMap maps longs to longs using an open-addressing hash table. Neither keys nor
+ * values are auto-boxed and no entry object is allocated for each mapping.
+ *
+ * <p>Unlike {@link SparseArrayCompat}, lookups, insertions and removals take constant time on
+ * average, which makes this container appropriate for data structures holding large numbers of
+ * items. Mappings are stored densely so that they can be iterated without allocating, using
+ * {@link #keyAt(int)} and {@link #valueAt(int)} with indices in the range
+ * <code>0...size()-1</code>. Iteration order is unspecified, and removing a mapping may move
+ * the last mapping into the removed index.</p>
+ */
+public class LongLongMap implements Cloneable {
+    private int[] mHashes;
+    private long[] mKeys;
+    private long[] mValues;
+    private int[] mSlots;
+    private int mSize;
+
+    /**
+     * Creates a new LongLongMap containing no mappings.
+     */
+    public LongLongMap() {
+        this(10);
+    }
+
+    /**
+     * Creates a new LongLongMap containing no mappings that will not
+     * require any additional memory allocation to store the specified
+     * number of mappings.  If you supply an initial capacity of 0, the
+     * map will be initialized with a light-weight representation
+     * not requiring any additional array allocations.
+     */
+    public LongLongMap(int initialCapacity) {
+        if (initialCapacity == 0) {
+            mHashes = ContainerHelpers.EMPTY_INTS;
+            mKeys = ContainerHelpers.EMPTY_LONGS;
+            mValues = ContainerHelpers.EMPTY_LONGS;
+            mSlots = ContainerHelpers.EMPTY_SLOTS;
+        } else {
+            initialCapacity = ContainerHelpers.idealLongArraySize(initialCapacity);
+            mHashes = new int[initialCapacity];
+            mKeys = new long[initialCapacity];
+            mValues = new long[initialCapacity];
+            mSlots = new int[ContainerHelpers.idealSlotTableSize(initialCapacity)];
+        }
+        mSize = 0;
+    }
+
+    @Override
+    public LongLongMap clone() {
+        LongLongMap clone = null;
+        try {
+            clone = (LongLongMap) super.clone();
+            clone.mHashes = mHashes.clone();
+            clone.mKeys = mKeys.clone();
+            clone.mValues = mValues.clone();
+            clone.mSlots = mSlots.clone();
+        } catch (CloneNotSupportedException cnse) {
+            /* ignore */
+        }
+        return clone;
+    }
+
+    private int findSlot(long key, int hash) {
+        final int[] slots = mSlots;
+        final int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return ~slot;
+            }
+            if (mKeys[entry - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Gets the long mapped from the specified key, or <code>0</code>
+     * if no such mapping has been made.
+     */
+    public long get(long key) {
+        return get(key, 0);
+    }
+
+    /**
+     * Gets the long mapped from the specified key, or the specified value
+     * if no such mapping has been made.
+     */
+    public long get(long key, long valueIfKeyNotFound) {
+        int slot = findSlot(key, ContainerHelpers.hash(key));
+        return slot < 0 ? valueIfKeyNotFound : mValues[mSlots[slot] - 1];
+    }
+
+    /**
+     * Returns true if the specified key is mapped.
+     */
+    public boolean containsKey(long key) {
+        return findSlot(key, ContainerHelpers.hash(key)) >= 0;
+    }
+
+    /**
+     * Adds a mapping from the specified key to the specified value,
+     * replacing the previous mapping from the specified key if there
+     * was one.
+     */
+    public void put(long key, long value) {
+        final int hash = ContainerHelpers.hash(key);
+        int slot = findSlot(key, hash);
+
+        if (slot >= 0) {
+            mValues[mSlots[slot] - 1] = value;
+            return;
+        }
+
+        if (mSize >= mKeys.length) {
+            ensureCapacity(ContainerHelpers.idealLongArraySize(mSize + 1));
+            slot = findSlot(key, hash);
+        }
+
+        final int index = mSize;
+        mHashes[index] = hash;
+        mKeys[index] = key;
+        mValues[index] = value;
+        mSlots[~slot] = index + 1;
+        mSize = index + 1;
+    }
+
+    /**
+     * Ensures the map has room for at least {@code minimumCapacity} mappings
+     * without further allocation.
+     */
+    public void ensureCapacity(int minimumCapacity) {
+        if (mKeys.length < minimumCapacity) {
+            mHashes = Arrays.copyOf(mHashes, minimumCapacity);
+            mKeys = Arrays.copyOf(mKeys, minimumCapacity);
+            mValues = Arrays.copyOf(mValues, minimumCapacity);
+            mSlots = ContainerHelpers.buildSlots(mHashes, mSize, minimumCapacity);
+        }
+    }
+
+    /**
+     * Removes the mapping from the specified key, if there was any.
+     */
+    public void delete(long key) {
+        int slot = findSlot(key, ContainerHelpers.hash(key));
+        if (slot >= 0) {
+            removeAt(mSlots[slot] - 1);
+        }
+    }
+
+    /**
+     * Alias for {@link #delete(long)}.
+     */
+    public void remove(long key) {
+        delete(key);
+    }
+
+    /**
+     * Removes the mapping at the specified index. The last mapping is moved
+     * into the removed index.
+     */
+    public void removeAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        ContainerHelpers.removeSlot(mSlots, mHashes, index, mSize);
+        final int last = mSize - 1;
+        mKeys[index] = mKeys[last];
+        mValues[index] = mValues[last];
+        mSize = last;
+    }
+
+    /**
+     * Returns the number of key-value mappings that this LongLongMap
+     * currently stores.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Return true if size() is 0.
+     * @return true if size() is 0.
+     */
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, returns
+     * the key from the <code>index</code>th key-value mapping that this
+     * LongLongMap stores.
+     */
+    public long keyAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return mKeys[index];
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, returns
+     * the value from the <code>index</code>th key-value mapping that this
+     * LongLongMap stores.
+     */
+    public long valueAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return mValues[index];
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, sets a new
+     * value for the <code>index</code>th key-value mapping that this
+     * LongLongMap stores.
+     */
+    public void setValueAt(int index, long value) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        mValues[index] = value;
+    }
+
+    /**
+     * Returns the index for which {@link #keyAt} would return the
+     * specified key, or a negative number if the specified
+     * key is not mapped.
+     */
+    public int indexOfKey(long key) {
+        int slot = findSlot(key, ContainerHelpers.hash(key));
+        return slot < 0 ? -1 : mSlots[slot] - 1;
+    }
+
+    /**
+     * Removes all key-value mappings from this LongLongMap.
+     */
+    public void clear() {
+        if (mSize != 0) {
+            Arrays.fill(mSlots, 0);
+            mSize = 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation composes a string by iterating over its mappings.
+     */
+    @Override
+    public String toString() {
+        if (mSize <= 0) {
+            return "{}";
+        }
+
+        StringBuilder buffer = new StringBuilder(mSize * 28);
+        buffer.append('{');
+        for (int i = 0; i < mSize; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(mKeys[i]);
+            buffer.append('=');
+            buffer.append(mValues[i]);
+        }
+        buffer.append('}');
+        return buffer.toString();
+    }
+}
@@ -26,13 +26,26 @@ import java.util.Map;
  * this implementation is still used; it does not try to switch to the
  * framework's implementation. See the framework SDK documentation for a class
  * overview.
+ *
+ * <p>A cache created with {@link #LruCache(int, boolean)} can additionally filter which
+ * entries it admits by how frequently their keys have been accessed recently. New entries
+ * first go into a small admission window that holds about one percent of the cache. When
+ * the window overflows and the cache is full, its least recently used entry only replaces
+ * the least recently used entry of the rest of the cache if its key has been accessed more
+ * often, so that a one-off scan through many keys cannot flush frequently used entries.
  */
 public class LruCache<K, V> {
     private final LinkedHashMap<K, V> map;
 
+    /** Newly added entries when admission is filtered, otherwise null. */
+    private final LinkedHashMap<K, V> window;
+    private final FrequencySketch sketch;
+
     /** Size of this cache in units. Not necessarily the number of elements. */
     private int size;
     private int maxSize;
+    private int windowSize;
+    private int windowMaxSize;
 
     private int putCount;
     private int createCount;
@@ -46,11 +59,34 @@ public class LruCache<K, V> {
      *     this is the maximum sum of the sizes of the entries in this cache.
      */
     public LruCache(int maxSize) {
+        this(maxSize, false);
+    }
+
+    /**
+     * @param maxSize for caches that do not override {@link #sizeOf}, this is
+     *     the maximum number of entries in the cache. For all other caches,
+     *     this is the maximum sum of the sizes of the entries in this cache.
+     * @param frequencyAdmission true to only let new entries displace existing
+     *     ones if their keys have been accessed more frequently.
+     */
+    public LruCache(int maxSize, boolean frequencyAdmission) {
         if (maxSize <= 0) {
             throw new IllegalArgumentException("maxSize <= 0");
         }
         this.maxSize = maxSize;
         this.map = new LinkedHashMap<K, V>(0, 0.75f, true);
+        if (frequencyAdmission) {
+            this.window = new LinkedHashMap<K, V>(0, 0.75f, true);
+            this.sketch = new FrequencySketch(maxSize);
+            this.windowMaxSize = windowMaxSize(maxSize);
+        } else {
+            this.window = null;
+            this.sketch = null;
+        }
+    }
+
+    private static int windowMaxSize(int maxSize) {
+        return Math.max(1, maxSize / 100);
     }
 
     /**
@@ -65,6 +101,7 @@ public class LruCache<K, V> {
 
         synchronized (this) {
             this.maxSize = maxSize;
+            this.windowMaxSize = windowMaxSize(maxSize);
         }
         trimToSize(maxSize);
     }
@@ -82,7 +119,10 @@ public class LruCache<K, V> {
 
         V mapValue;
         synchronized (this) {
-            mapValue = map.get(key);
+            if (sketch != null) {
+                sketch.increment(key.hashCode());
+            }
+            mapValue = getEntry(key);
             if (mapValue != null) {
                 hitCount++;
                 return mapValue;
@@ -104,14 +144,12 @@ public class LruCache<K, V> {
 
         synchronized (this) {
             createCount++;
-            mapValue = map.put(key, createdValue);
+            mapValue = getEntry(key);
 
-            if (mapValue != null) {
-                // There was a conflict so undo that last put
-                map.put(key, mapValue);
-            } else {
-                size += safeSizeOf(key, createdValue);
+            if (mapValue == null) {
+                putEntry(key, createdValue);
             }
+            // Otherwise there was a conflict, keep the value that is already cached.
         }
 
         if (mapValue != null) {
@@ -137,11 +175,10 @@ public class LruCache<K, V> {
         V previous;
         synchronized (this) {
             putCount++;
-            size += safeSizeOf(key, value);
-            previous = map.put(key, value);
-            if (previous != null) {
-                size -= safeSizeOf(key, previous);
+            if (sketch != null) {
+                sketch.increment(key.hashCode());
             }
+            previous = putEntry(key, value);
         }
 
         if (previous != null) {
@@ -164,20 +201,21 @@ public class LruCache<K, V> {
             K key;
             V value;
             synchronized (this) {
-                if (size < 0 || (map.isEmpty() && size != 0)) {
+                boolean empty = map.isEmpty() && (window == null || window.isEmpty());
+                if (size < 0 || (empty && size != 0)) {
                     throw new IllegalStateException(getClass().getName()
                             + ".sizeOf() is reporting inconsistent results!");
                 }
 
-                if (size <= maxSize || map.isEmpty()) {
+                if (size <= maxSize || empty) {
+                    if (window != null) {
+                        drainWindow();
+                    }
                     break;
                 }
 
-                Map.Entry<K, V> toEvict = map.entrySet().iterator().next();
-                key = toEvict.getKey();
-                value = toEvict.getValue();
-                map.remove(key);
-                size -= safeSizeOf(key, value);
+                key = selectVictim();
+                value = removeEntry(key);
                 evictionCount++;
             }
 
@@ -197,10 +235,7 @@ public class LruCache<K, V> {
 
         V previous;
         synchronized (this) {
-            previous = map.remove(key);
-            if (previous != null) {
-                size -= safeSizeOf(key, previous);
-            }
+            previous = removeEntry(key);
         }
 
         if (previous != null) {
@@ -210,6 +245,86 @@ public class LruCache<K, V> {
         return previous;
     }
 
+    private V getEntry(K key) {
+        V value = map.get(key);
+        if (value == null && window != null) {
+            value = window.get(key);
+        }
+        return value;
+    }
+
+    private V putEntry(K key, V value) {
+        final int entrySize = safeSizeOf(key, value);
+        size += entrySize;
+        V previous;
+        if (window != null && !map.containsKey(key)) {
+            windowSize += entrySize;
+            previous = window.put(key, value);
+            if (previous != null) {
+                windowSize -= safeSizeOf(key, previous);
+            }
+        } else {
+            previous = map.put(key, value);
+        }
+        if (previous != null) {
+            size -= safeSizeOf(key, previous);
+        }
+        return previous;
+    }
+
+    private V removeEntry(K key) {
+        V previous = map.remove(key);
+        if (previous == null && window != null) {
+            previous = window.remove(key);
+            if (previous != null) {
+                windowSize -= safeSizeOf(key, previous);
+            }
+        }
+        if (previous != null) {
+            size -= safeSizeOf(key, previous);
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the key of the entry to evict. When the admission window has overflowed, its
+     * least recently used entry competes with the least recently used entry of the rest of
+     * the cache, and the winner is moved out of the window.
+     */
+    private K selectVictim() {
+        K victim = map.isEmpty() ? null : map.entrySet().iterator().next().getKey();
+        if (window == null || window.isEmpty()) {
+            return victim;
+        }
+        Map.Entry<K, V> candidate = window.entrySet().iterator().next();
+        if (victim == null) {
+            return candidate.getKey();
+        }
+        if (windowSize <= windowMaxSize) {
+            return victim;
+        }
+        if (sketch.frequency(candidate.getKey().hashCode())
+                > sketch.frequency(victim.hashCode())) {
+            admit(candidate.getKey(), candidate.getValue());
+            return victim;
+        }
+        return candidate.getKey();
+    }
+
+    /** Moves entries out of the admission window while the cache has room for them. */
+    private void drainWindow() {
+        while (windowSize > windowMaxSize && !window.isEmpty()) {
+            Map.Entry<K, V> candidate = window.entrySet().iterator().next();
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    private void admit(K key, V value) {
+        window.remove(key);
+        windowSize -= safeSizeOf(key, value);
+        map.put(key, value);
+    }
+
     /**
      * Called for entries that have been evicted or removed. This method is
      * invoked when a value is evicted to make space, removed by a call to
@@ -332,7 +447,11 @@ public class LruCache<K, V> {
      * recently accessed to most recently accessed.
      */
     public synchronized final Map<K, V> snapshot() {
-        return new LinkedHashMap<K, V>(map);
+        LinkedHashMap<K, V> snapshot = new LinkedHashMap<K, V>(map);
+        if (window != null) {
+            snapshot.putAll(window);
+        }
+        return snapshot;
     }
 
     @Override public synchronized final String toString() {
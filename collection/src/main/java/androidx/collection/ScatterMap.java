@@ -0,0 +1,554 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ScatterMap is a generic key->value mapping data structure intended for maps that grow
+ * beyond the sizes {@link ArrayMap} is suited for.  Like ArrayMap, it keeps its mappings
+ * in array data structures -- an integer array of hash codes and Object arrays of the keys
+ * and values -- and does not create an extra object for every entry put in to the map.
+ * Unlike ArrayMap, keys are located through an open-addressing hash table rather than a
+ * binary search, so adds and removes take constant time on average instead of shifting
+ * the contents of the arrays.
+ *
+ * <p>Mappings can be iterated without allocating using {@link #keyAt(int)} and
+ * {@link #valueAt(int)} with indices in the range <code>0...size()-1</code>.  Iteration
+ * order is unspecified, and removing a mapping may move the last mapping into the removed
+ * index.</p>
+ *
+ * <p>For small maps, up to hundreds of items, {@link ArrayMap} uses less memory and
+ * should be preferred.</p>
+ */
+public class ScatterMap<K, V> implements Map<K, V> {
+    private int[] mHashes;
+    private Object[] mKeys;
+    private Object[] mValues;
+    private int[] mSlots;
+    private int mSize;
+
+    MapCollections<K, V> mCollections;
+
+    /**
+     * Create a new empty ScatterMap.
+     */
+    public ScatterMap() {
+        this(0);
+    }
+
+    /**
+     * Create a new ScatterMap with a given initial capacity.
+     */
+    public ScatterMap(int capacity) {
+        if (capacity == 0) {
+            mHashes = ContainerHelpers.EMPTY_INTS;
+            mKeys = ContainerHelpers.EMPTY_OBJECTS;
+            mValues = ContainerHelpers.EMPTY_OBJECTS;
+            mSlots = ContainerHelpers.EMPTY_SLOTS;
+        } else {
+            mHashes = new int[capacity];
+            mKeys = new Object[capacity];
+            mValues = new Object[capacity];
+            mSlots = new int[ContainerHelpers.idealSlotTableSize(capacity)];
+        }
+        mSize = 0;
+    }
+
+    /**
+     * Create a new ScatterMap with the mappings from the given map.
+     */
+    public ScatterMap(Map<? extends K, ? extends V> map) {
+        this(map.size());
+        putAll(map);
+    }
+
+    private static int hashOf(Object key) {
+        return key == null ? 0 : ContainerHelpers.hash(key.hashCode());
+    }
+
+    private int findSlot(Object key, int hash) {
+        final int[] slots = mSlots;
+        final int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return ~slot;
+            }
+            if (mHashes[entry - 1] == hash && ContainerHelpers.equal(key, mKeys[entry - 1])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Make the map empty.  All storage is retained.
+     */
+    @Override
+    public void clear() {
+        if (mSize != 0) {
+            Arrays.fill(mSlots, 0);
+            Arrays.fill(mKeys, 0, mSize, null);
+            Arrays.fill(mValues, 0, mSize, null);
+            mSize = 0;
+        }
+    }
+
+    /**
+     * Ensure the map has enough capacity to hold <var>minimumCapacity</var> items.
+     */
+    public void ensureCapacity(int minimumCapacity) {
+        if (mKeys.length < minimumCapacity) {
+            mHashes = Arrays.copyOf(mHashes, minimumCapacity);
+            mKeys = Arrays.copyOf(mKeys, minimumCapacity);
+            mValues = Arrays.copyOf(mValues, minimumCapacity);
+            mSlots = ContainerHelpers.buildSlots(mHashes, mSize, minimumCapacity);
+        }
+    }
+
+    /**
+     * Check whether a key exists in the map.
+     *
+     * @param key The key to search for.
+     * @return Returns true if the key exists, else false.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns the index of a key in the map.
+     *
+     * @param key The key to search for.
+     * @return Returns the index of the key if it exists, else a negative integer.
+     */
+    public int indexOfKey(Object key) {
+        int slot = findSlot(key, hashOf(key));
+        return slot < 0 ? -1 : mSlots[slot] - 1;
+    }
+
+    /**
+     * Returns an index for which {@link #valueAt} would return the specified value,
+     * or a negative number if no keys map to the specified value.
+     *
+     * <p>Beware that this is a linear search, unlike lookups by key.</p>
+     */
+    public int indexOfValue(Object value) {
+        final Object[] values = mValues;
+        for (int i = 0; i < mSize; i++) {
+            if (ContainerHelpers.equal(value, values[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check whether a value exists in the map.  This requires a linear search
+     * through the entire map.
+     *
+     * @param value The value to search for.
+     * @return Returns true if the value exists, else false.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    /**
+     * Retrieve a value from the map.
+     *
+     * @param key The key of the value to retrieve.
+     * @return Returns the value associated with the given key,
+     * or null if there is no such key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int slot = findSlot(key, hashOf(key));
+        return slot < 0 ? null : (V) mValues[mSlots[slot] - 1];
+    }
+
+    /**
+     * Return the key at the given index in the map.
+     *
+     * @param index The desired index, must be between 0 and {@link #size()}-1.
+     * @return Returns the key stored at the given index.
+     */
+    @SuppressWarnings("unchecked")
+    public K keyAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return (K) mKeys[index];
+    }
+
+    /**
+     * Return the value at the given index in the map.
+     *
+     * @param index The desired index, must be between 0 and {@link #size()}-1.
+     * @return Returns the value stored at the given index.
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return (V) mValues[index];
+    }
+
+    /**
+     * Set the value at a given index in the map.
+     *
+     * @param index The desired index, must be between 0 and {@link #size()}-1.
+     * @param value The new value to store at this index.
+     * @return Returns the previous value at the given index.
+     */
+    @SuppressWarnings("unchecked")
+    public V setValueAt(int index, V value) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        V old = (V) mValues[index];
+        mValues[index] = value;
+        return old;
+    }
+
+    /**
+     * Return true if the map contains no items.
+     */
+    @Override
+    public boolean isEmpty() {
+        return mSize <= 0;
+    }
+
+    /**
+     * Add a new value to the map.
+     *
+     * @param key The key under which to store the value.  May be null.  If
+     * this key already exists in the map, its value will be replaced.
+     * @param value The value to store for the given key.
+     * @return Returns the old value that was stored for the given key, or null if there
+     * was no such key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        final int hash = hashOf(key);
+        int slot = findSlot(key, hash);
+
+        if (slot >= 0) {
+            final int index = mSlots[slot] - 1;
+            V old = (V) mValues[index];
+            mValues[index] = value;
+            return old;
+        }
+
+        if (mSize >= mKeys.length) {
+            ensureCapacity(ContainerHelpers.idealIntArraySize(mSize + 1));
+            slot = findSlot(key, hash);
+        }
+
+        final int index = mSize;
+        mHashes[index] = hash;
+        mKeys[index] = key;
+        mValues[index] = value;
+        mSlots[~slot] = index + 1;
+        mSize = index + 1;
+        return null;
+    }
+
+    /**
+     * Perform a {@link #put(Object, Object)} of all key/value pairs in <var>map</var>
+     *
+     * @param map The map whose contents are to be retrieved.
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        ensureCapacity(mSize + map.size());
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Remove an existing key from the map.
+     *
+     * @param key The key of the mapping to remove.
+     * @return Returns the value that was stored under the key, or null if there
+     * was no such key.
+     */
+    @Override
+    public V remove(Object key) {
+        int slot = findSlot(key, hashOf(key));
+        if (slot >= 0) {
+            return removeAt(mSlots[slot] - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Remove the key/value mapping at the given index.  The last mapping is moved
+     * into the removed index.
+     *
+     * @param index The desired index, must be between 0 and {@link #size()}-1.
+     * @return Returns the value that was stored at this index.
+     */
+    @SuppressWarnings("unchecked")
+    public V removeAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        final V old = (V) mValues[index];
+        ContainerHelpers.removeSlot(mSlots, mHashes, index, mSize);
+        final int last = mSize - 1;
+        mKeys[index] = mKeys[last];
+        mValues[index] = mValues[last];
+        mKeys[last] = null;
+        mValues[last] = null;
+        mSize = last;
+        return old;
+    }
+
+    /**
+     * Return the number of items in this map.
+     */
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation returns false if the object is not a map, or
+     * if the maps have different sizes. Otherwise, for each key in this map,
+     * values of both maps are compared. If the values for any key are not
+     * equal, the method returns false, otherwise it returns true.
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) object;
+            if (size() != map.size()) {
+                return false;
+            }
+
+            try {
+                for (int i = 0; i < mSize; i++) {
+                    Object key = mKeys[i];
+                    Object mine = mValues[i];
+                    Object theirs = map.get(key);
+                    if (mine == null) {
+                        if (theirs != null || !map.containsKey(key)) {
+                            return false;
+                        }
+                    } else if (!mine.equals(theirs)) {
+                        return false;
+                    }
+                }
+            } catch (NullPointerException ignored) {
+                return false;
+            } catch (ClassCastException ignored) {
+                return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        final Object[] keys = mKeys;
+        final Object[] values = mValues;
+        int result = 0;
+        for (int i = 0, s = mSize; i < s; i++) {
+            Object key = keys[i];
+            Object value = values[i];
+            result += (key == null ? 0 : key.hashCode())
+                    ^ (value == null ? 0 : value.hashCode());
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation composes a string by iterating over its mappings. If
+     * this map contains itself as a key or a value, the string "(this Map)"
+     * will appear in its place.
+     */
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "{}";
+        }
+
+        StringBuilder buffer = new StringBuilder(mSize * 28);
+        buffer.append('{');
+        for (int i = 0; i < mSize; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            Object key = mKeys[i];
+            if (key != this) {
+                buffer.append(key);
+            } else {
+                buffer.append("(this Map)");
+            }
+            buffer.append('=');
+            Object value = mValues[i];
+            if (value != this) {
+                buffer.append(value);
+            } else {
+                buffer.append("(this Map)");
+            }
+        }
+        buffer.append('}');
+        return buffer.toString();
+    }
+
+    // ------------------------------------------------------------------------
+    // Interop with traditional Java containers.  Not as efficient as using
+    // specialized collection APIs.
+    // ------------------------------------------------------------------------
+
+    private MapCollections<K, V> getCollection() {
+        if (mCollections == null) {
+            mCollections = new MapCollections<K, V>() {
+                @Override
+                protected int colGetSize() {
+                    return mSize;
+                }
+
+                @Override
+                protected Object colGetEntry(int index, int offset) {
+                    return offset == 0 ? mKeys[index] : ScatterMap.this.mValues[index];
+                }
+
+                @Override
+                protected int colIndexOfKey(Object key) {
+                    return indexOfKey(key);
+                }
+
+                @Override
+                protected int colIndexOfValue(Object value) {
+                    return indexOfValue(value);
+                }
+
+                @Override
+                protected Map<K, V> colGetMap() {
+                    return ScatterMap.this;
+                }
+
+                @Override
+                protected void colPut(K key, V value) {
+                    put(key, value);
+                }
+
+                @Override
+                protected V colSetValue(int index, V value) {
+                    return setValueAt(index, value);
+                }
+
+                @Override
+                protected void colRemoveAt(int index) {
+                    removeAt(index);
+                }
+
+                @Override
+                protected void colClear() {
+                    clear();
+                }
+            };
+        }
+        return mCollections;
+    }
+
+    /**
+     * Determine if the map contains all of the keys in the given collection.
+     * @param collection The collection whose contents are to be checked against.
+     * @return Returns true if this map contains a key for every entry
+     * in <var>collection</var>, else returns false.
+     */
+    public boolean containsAll(Collection<?> collection) {
+        return MapCollections.containsAllHelper(this, collection);
+    }
+
+    /**
+     * Remove all keys in the map that exist in the given collection.
+     * @param collection The collection whose contents are to be used to remove keys.
+     * @return Returns true if any keys were removed from the map, else false.
+     */
+    public boolean removeAll(Collection<?> collection) {
+        return MapCollections.removeAllHelper(this, collection);
+    }
+
+    /**
+     * Remove all keys in the map that do <b>not</b> exist in the given collection.
+     * @param collection The collection whose contents are to be used to determine which
+     * keys to keep.
+     * @return Returns true if any keys were removed from the map, else false.
+     */
+    public boolean retainAll(Collection<?> collection) {
+        return MapCollections.retainAllHelper(this, collection);
+    }
+
+    /**
+     * Return a {@link java.util.Set} for iterating over and interacting with all mappings
+     * in the map.
+     *
+     * <p><b>Note:</b> the {@link java.util.Map.Entry Map.Entry} object returned by its
+     * iterator is a single object that exists for the entire iterator, so you can
+     * <b>not</b> hold on to it after calling {@link java.util.Iterator#next() Iterator.next}.
+     * </p>
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return getCollection().getEntrySet();
+    }
+
+    /**
+     * Return a {@link java.util.Set} for iterating over and interacting with all keys
+     * in the map.
+     */
+    @Override
+    public Set<K> keySet() {
+        return getCollection().getKeySet();
+    }
+
+    /**
+     * Return a {@link java.util.Collection} for iterating over and interacting with all values
+     * in the map.
+     */
+    @Override
+    public Collection<V> values() {
+        return getCollection().getValues();
+    }
+}
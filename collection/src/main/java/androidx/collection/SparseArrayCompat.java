@@ -16,6 +16,10 @@
 
 package androidx.collection;
 
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
 /**
  * SparseArrays map integers to Objects.  Unlike a normal array of Objects,
  * there can be gaps in the indices.  It is intended to be more memory efficient
@@ -159,6 +163,26 @@ public class SparseArrayCompat<E> implements Cloneable {
         }
     }
 
+    /**
+     * Removes the mappings for all keys from {@code fromKey}, inclusive, to
+     * {@code toKey}, exclusive.
+     */
+    public void removeKeyRange(int fromKey, int toKey) {
+        if (fromKey >= toKey) {
+            return;
+        }
+        // Removed entries keep their keys until the next gc(), so the keys are still sorted.
+        int start = ContainerHelpers.binarySearch(mKeys, mSize, fromKey);
+        if (start < 0) {
+            start = ~start;
+        }
+        int end = ContainerHelpers.binarySearch(mKeys, mSize, toKey);
+        if (end < 0) {
+            end = ~end;
+        }
+        removeAtRange(start, end - start);
+    }
+
     private void gc() {
         // Log.e("SparseArray", "gc start with " + mSize);
 
@@ -383,6 +407,61 @@ public class SparseArrayCompat<E> implements Cloneable {
         mSize = pos + 1;
     }
 
+    /**
+     * Copies all of the mappings from {@code other} into this SparseArrayCompat,
+     * replacing the mappings for keys that are already present. The two
+     * arrays are merged in a single pass, which is much cheaper than calling
+     * {@link #put} for each mapping when their keys interleave.
+     */
+    public void putAll(@NonNull SparseArrayCompat<? extends E> other) {
+        final int otherSize = other.size();
+        if (otherSize == 0) {
+            return;
+        }
+        if (mGarbage) {
+            gc();
+        }
+
+        final int[] otherKeys = other.mKeys;
+        final Object[] otherValues = other.mValues;
+        if (mSize == 0 || otherKeys[0] > mKeys[mSize - 1]) {
+            // Every key is greater than the existing ones, so the mappings can be appended.
+            if (mSize + otherSize > mKeys.length) {
+                int n = ContainerHelpers.idealIntArraySize(mSize + otherSize);
+                mKeys = Arrays.copyOf(mKeys, n);
+                mValues = Arrays.copyOf(mValues, n);
+            }
+            System.arraycopy(otherKeys, 0, mKeys, mSize, otherSize);
+            System.arraycopy(otherValues, 0, mValues, mSize, otherSize);
+            mSize += otherSize;
+            return;
+        }
+
+        int n = ContainerHelpers.idealIntArraySize(mSize + otherSize);
+        int[] nkeys = new int[n];
+        Object[] nvalues = new Object[n];
+        int i = 0;
+        int j = 0;
+        int o = 0;
+        while (i < mSize || j < otherSize) {
+            if (j >= otherSize || (i < mSize && mKeys[i] < otherKeys[j])) {
+                nkeys[o] = mKeys[i];
+                nvalues[o] = mValues[i++];
+            } else {
+                if (i < mSize && mKeys[i] == otherKeys[j]) {
+                    i++;
+                }
+                nkeys[o] = otherKeys[j];
+                nvalues[o] = otherValues[j++];
+            }
+            o++;
+        }
+
+        mKeys = nkeys;
+        mValues = nvalues;
+        mSize = o;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -415,4 +494,87 @@ public class SparseArrayCompat<E> implements Cloneable {
         buffer.append('}');
         return buffer.toString();
     }
+
+    /**
+     * Builds a SparseArrayCompat from mappings added in any key order. Mappings are
+     * appended as they are added and sorted once when {@link #build()} is
+     * called, so loading n mappings takes O(n log n) time instead of the
+     * O(n<sup>2</sup>) of calling {@link SparseArrayCompat#put} with keys in random order.
+     *
+     * @param <E> the type of the values
+     */
+    public static final class Builder<E> {
+        private int[] mKeys;
+        private Object[] mValues;
+        private int mSize;
+
+        /**
+         * Creates a new Builder.
+         */
+        public Builder() {
+            this(10);
+        }
+
+        /**
+         * Creates a new Builder that will not require any additional memory
+         * allocation to hold the specified number of mappings.
+         */
+        public Builder(int initialCapacity) {
+            initialCapacity = ContainerHelpers.idealIntArraySize(initialCapacity);
+            mKeys = new int[initialCapacity];
+            mValues = new Object[initialCapacity];
+        }
+
+        /**
+         * Adds a mapping from the specified key to the specified value. If
+         * the same key is added more than once, the value added last wins.
+         */
+        @NonNull
+        public Builder<E> put(int key, E value) {
+            if (mSize >= mKeys.length) {
+                int n = ContainerHelpers.idealIntArraySize(mSize + 1);
+                mKeys = Arrays.copyOf(mKeys, n);
+                mValues = Arrays.copyOf(mValues, n);
+            }
+            mKeys[mSize] = key;
+            mValues[mSize] = value;
+            mSize++;
+            return this;
+        }
+
+        /**
+         * Returns a new SparseArrayCompat holding the mappings added so far and resets
+         * this Builder.
+         */
+        @NonNull
+        public SparseArrayCompat<E> build() {
+            final int[] keys = mKeys;
+            final Object[] values = mValues;
+            final int size = mSize;
+            ContainerHelpers.sort(keys, values, size);
+
+            // The sort is stable, so the last value added for a key is the last one in its run.
+            int o = 0;
+            for (int i = 0; i < size; i++) {
+                if (o > 0 && keys[o - 1] == keys[i]) {
+                    values[o - 1] = values[i];
+                } else {
+                    keys[o] = keys[i];
+                    values[o] = values[i];
+                    o++;
+                }
+            }
+            Arrays.fill(values, o, size, null);
+
+            SparseArrayCompat<E> array = new SparseArrayCompat<>(0);
+            array.mKeys = keys;
+            array.mValues = values;
+            array.mSize = o;
+
+            mKeys = ContainerHelpers.EMPTY_INTS;
+            mValues = ContainerHelpers.EMPTY_OBJECTS;
+            mSize = 0;
+            return array;
+        }
+    }
 }
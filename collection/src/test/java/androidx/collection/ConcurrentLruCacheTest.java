@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentLruCacheTest {
+    @Test
+    public void singleSegmentIsExactLru() {
+        final List<String> evicted = new ArrayList<>();
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(3, 1) {
+            @Override
+            protected void entryRemoved(boolean evicted1, String key, String oldValue,
+                    String newValue) {
+                if (evicted1) {
+                    evicted.add(key);
+                }
+            }
+        };
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        cache.get("a");
+        cache.put("d", "D");
+
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.evictionCount());
+        assertEquals("[b]", evicted.toString());
+
+        cache.evictAll();
+        assertEquals(0, cache.size());
+        assertEquals(4, cache.evictionCount());
+    }
+
+    @Test
+    public void segmentsNeverExceedMaxSize() {
+        ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(1, 4);
+        for (int key = 0; key < 100; key++) {
+            cache.put(key, key);
+            assertEquals(1, cache.size());
+        }
+
+        cache = new ConcurrentLruCache<>(10, 4);
+        for (int key = 0; key < 1000; key++) {
+            cache.put(key, key);
+            assertTrue(cache.size() <= 10);
+        }
+
+        cache.resize(5);
+        assertTrue(cache.size() <= 5);
+        for (int key = 0; key < 1000; key++) {
+            cache.put(key, key);
+            assertTrue(cache.size() <= 5);
+        }
+    }
+
+    @Test
+    public void resizeBelowSegmentCountKeepsOneEntryPerSegment() {
+        ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(16, 16);
+        cache.resize(4);
+        assertEquals(4, cache.maxSize());
+        // small integers hash to a segment each
+        for (int key = 0; key < 16; key++) {
+            cache.put(key, key);
+        }
+        for (int key = 0; key < 16; key++) {
+            assertEquals(Integer.valueOf(key), cache.get(key));
+        }
+        assertEquals(16, cache.size());
+        assertEquals(0, cache.evictionCount());
+
+        // a second key of a segment replaces the first one
+        cache.put(16, 16);
+        assertNull(cache.get(0));
+        assertEquals(16, cache.size());
+    }
+
+    @Test
+    public void createAndCount() {
+        ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<Integer, String>(100) {
+            @Override
+            protected String create(Integer key) {
+                return key % 2 == 0 ? Integer.toString(key) : null;
+            }
+        };
+        assertEquals("2", cache.get(2));
+        assertNull(cache.get(3));
+        assertEquals("2", cache.get(2));
+        assertEquals(1, cache.createCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void concurrentAccessStaysWithinMaxSize() throws InterruptedException {
+        final AtomicInteger removed = new AtomicInteger();
+        final ConcurrentLruCache<Integer, Integer> cache =
+                new ConcurrentLruCache<Integer, Integer>(512, 8) {
+                    @Override
+                    protected void entryRemoved(boolean evicted, Integer key, Integer oldValue,
+                            Integer newValue) {
+                        removed.incrementAndGet();
+                    }
+                };
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 20000; i++) {
+                        int key = random.nextInt(4096);
+                        if (cache.get(key) == null) {
+                            cache.put(key, key);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(cache.size() <= cache.maxSize());
+        assertEquals(8 * 20000, cache.hitCount() + cache.missCount());
+        assertEquals(cache.putCount(), cache.size() + removed.get());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntIntMapTest {
+    @Test
+    public void putGetRemove() {
+        IntIntMap map = new IntIntMap(0);
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get(1, -1));
+
+        map.put(1, 10);
+        map.put(Integer.MIN_VALUE, 20);
+        map.put(0, 30);
+        assertEquals(3, map.size());
+        assertEquals(10, map.get(1));
+        assertEquals(20, map.get(Integer.MIN_VALUE));
+        assertEquals(30, map.get(0));
+
+        map.put(1, 11);
+        assertEquals(3, map.size());
+        assertEquals(11, map.get(1));
+
+        map.remove(Integer.MIN_VALUE);
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey(Integer.MIN_VALUE));
+        assertTrue(map.containsKey(0));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void matchesHashMap() {
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // A small key range forces plenty of collisions, replacements and removals.
+            int key = random.nextInt(5000) * 64;
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < map.size(); i++) {
+            int key = map.keyAt(i);
+            assertEquals(i, map.indexOfKey(key));
+            assertEquals(expected.get(key).intValue(), map.valueAt(i));
+        }
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), map.get(entry.getKey()));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class IntObjectMapTest {
+    @Test
+    public void removeMovesLastEntry() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, Integer.toString(i));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            map.remove(i);
+        }
+
+        assertEquals(50, map.size());
+        for (int i = 0; i < 100; i++) {
+            if (i % 2 == 0) {
+                assertNull(map.get(i));
+            } else {
+                assertEquals(Integer.toString(i), map.get(i));
+            }
+        }
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals(Integer.toString(map.keyAt(i)), map.valueAt(i));
+        }
+    }
+
+    @Test
+    public void cloneIsIndependent() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "one");
+        IntObjectMap<String> clone = map.clone();
+        clone.put(2, "two");
+        map.remove(1);
+
+        assertEquals(0, map.size());
+        assertEquals(2, clone.size());
+        assertSame("one", clone.get(1));
+        assertEquals(0, clone.indexOfValue(clone.get(clone.keyAt(0))));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongLongMapTest {
+    @Test
+    public void putGetRemove() {
+        LongLongMap map = new LongLongMap(0);
+        assertTrue(map.isEmpty());
+        assertEquals(-1L, map.get(1L, -1L));
+
+        map.put(1L, 10L);
+        map.put(Long.MIN_VALUE, Long.MAX_VALUE);
+        map.put(0L, Long.MIN_VALUE);
+        assertEquals(3, map.size());
+        assertEquals(10L, map.get(1L));
+        assertEquals(Long.MAX_VALUE, map.get(Long.MIN_VALUE));
+        assertEquals(Long.MIN_VALUE, map.get(0L));
+
+        map.put(1L, 11L);
+        assertEquals(3, map.size());
+        assertEquals(11L, map.get(1L));
+
+        map.remove(Long.MIN_VALUE);
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey(Long.MIN_VALUE));
+        assertTrue(map.containsKey(0L));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1L));
+    }
+
+    @Test
+    public void removeShiftsCollidingEntriesBack() {
+        // Keys whose hashes share their low bits land in one probe chain of the slot table.
+        long[] keys = new long[4];
+        int count = 0;
+        for (long key = 1; count < keys.length; key++) {
+            if ((ContainerHelpers.hash(key) & 63) == (ContainerHelpers.hash(0L) & 63)) {
+                keys[count++] = key;
+            }
+        }
+        LongLongMap map = new LongLongMap(keys.length);
+        for (long key : keys) {
+            map.put(key, key * 10L);
+        }
+
+        map.remove(keys[0]);
+        map.remove(keys[2]);
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey(keys[0]));
+        assertFalse(map.containsKey(keys[2]));
+        assertEquals(keys[1] * 10L, map.get(keys[1]));
+        assertEquals(keys[3] * 10L, map.get(keys[3]));
+
+        map.put(keys[0], 1L);
+        assertEquals(3, map.size());
+        assertEquals(1L, map.get(keys[0]));
+        assertEquals(keys[3] * 10L, map.get(keys[3]));
+    }
+
+    @Test
+    public void matchesHashMap() {
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // A small key range forces plenty of collisions, replacements and removals.
+            long key = random.nextInt(5000) * 64L;
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                long value = random.nextLong();
+                map.put(key, value);
+                expected.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < map.size(); i++) {
+            long key = map.keyAt(i);
+            assertEquals(i, map.indexOfKey(key));
+            assertEquals(expected.get(key).longValue(), map.valueAt(i));
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().longValue(), map.get(entry.getKey()));
+        }
+    }
+}
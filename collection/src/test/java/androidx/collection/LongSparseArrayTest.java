@@ -16,6 +16,7 @@
 
 package androidx.collection;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -50,4 +51,32 @@ public class LongSparseArrayTest {
         assertTrue(LongSparseArray.isEmpty());
     }
 
+    @Test
+    public void builderAndPutAll() {
+        LongSparseArray.Builder<String> builder = new LongSparseArray.Builder<>(0);
+        for (long i = 9; i >= 0; i--) {
+            builder.put(i * Integer.MAX_VALUE, "b" + i);
+        }
+        builder.put(0, "first");
+        LongSparseArray<String> array = builder.build();
+        assertEquals(10, array.size());
+        assertEquals("first", array.valueAt(0));
+        for (int i = 1; i < array.size(); i++) {
+            assertTrue(array.keyAt(i - 1) < array.keyAt(i));
+        }
+
+        LongSparseArray<String> other = new LongSparseArray<>();
+        other.put(1, "x");
+        other.put(Integer.MAX_VALUE, "y");
+        array.putAll(other);
+        assertEquals(11, array.size());
+        assertEquals("y", array.get(Integer.MAX_VALUE));
+
+        array.removeKeyRange(2, 3L * Integer.MAX_VALUE);
+        assertEquals("{0=first, 1=x, " + 3L * Integer.MAX_VALUE + "=b3, "
+                + 4L * Integer.MAX_VALUE + "=b4, " + 5L * Integer.MAX_VALUE + "=b5, "
+                + 6L * Integer.MAX_VALUE + "=b6, " + 7L * Integer.MAX_VALUE + "=b7, "
+                + 8L * Integer.MAX_VALUE + "=b8, " + 9L * Integer.MAX_VALUE + "=b9}",
+                array.toString());
+    }
 }
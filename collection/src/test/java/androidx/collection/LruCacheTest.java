@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class LruCacheTest {
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        LruCache<String, String> cache = new LruCache<>(3);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        cache.get("a");
+        cache.put("d", "D");
+
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals(1, cache.evictionCount());
+        assertEquals("[c, d, a]", cache.snapshot().keySet().toString());
+    }
+
+    @Test
+    public void frequencyAdmissionSurvivesScan() {
+        LruCache<Integer, Integer> lru = new LruCache<>(100);
+        LruCache<Integer, Integer> filtered = new LruCache<>(100, true);
+        for (LruCache<Integer, Integer> cache : Arrays.asList(lru, filtered)) {
+            for (int round = 0; round < 5; round++) {
+                for (int key = 0; key < 50; key++) {
+                    if (cache.get(key) == null) {
+                        cache.put(key, key);
+                    }
+                }
+            }
+            // A one-off scan through keys that are never requested again.
+            for (int key = 1000; key < 2000; key++) {
+                if (cache.get(key) == null) {
+                    cache.put(key, key);
+                }
+            }
+            assertTrue(cache.size() <= cache.maxSize());
+        }
+
+        int lruHits = lru.hitCount();
+        int filteredHits = filtered.hitCount();
+        for (int key = 0; key < 50; key++) {
+            lru.get(key);
+            filtered.get(key);
+        }
+        assertEquals(0, lru.hitCount() - lruHits);
+        assertEquals(50, filtered.hitCount() - filteredHits);
+    }
+
+    @Test
+    public void frequencyAdmissionEvictAll() {
+        LruCache<Integer, Integer> cache = new LruCache<>(10, true);
+        for (int key = 0; key < 20; key++) {
+            cache.put(key, key);
+        }
+        assertEquals(10, cache.size());
+        assertEquals(10, cache.snapshot().size());
+        cache.evictAll();
+        assertEquals(0, cache.size());
+        assertEquals(20, cache.evictionCount());
+    }
+}
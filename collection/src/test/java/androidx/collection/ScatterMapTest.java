@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+public class ScatterMapTest {
+    @Test
+    public void matchesHashMap() {
+        ScatterMap<String, Integer> map = new ScatterMap<>();
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50000; i++) {
+            String key = random.nextInt(10) == 0 ? null : Integer.toString(random.nextInt(3000));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals(i, map.indexOfKey(map.keyAt(i)));
+        }
+    }
+
+    @Test
+    public void iteratorRemove() {
+        ScatterMap<Integer, Integer> map = new ScatterMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator();
+        int visited = 0;
+        while (it.hasNext()) {
+            Map.Entry<Integer, Integer> entry = it.next();
+            visited++;
+            if (entry.getKey() % 3 != 0) {
+                it.remove();
+            }
+        }
+
+        assertEquals(1000, visited);
+        assertEquals(334, map.size());
+        for (int i = 0; i < 1000; i++) {
+            if (i % 3 == 0) {
+                assertEquals(Integer.valueOf(i), map.get(i));
+            } else {
+                assertNull(map.get(i));
+            }
+        }
+
+        map.keySet().retainAll(Collections.singleton(3));
+        assertEquals(1, map.size());
+        assertTrue(map.containsKey(3));
+        map.clear();
+        assertFalse(map.containsKey(3));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ScatterSetTest {
+    @Test
+    public void addRemove() {
+        ScatterSet<String> set = new ScatterSet<>();
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(set.add("value" + i));
+            expected.add("value" + i);
+        }
+        assertFalse(set.add("value0"));
+        for (int i = 0; i < 5000; i += 2) {
+            assertTrue(set.remove("value" + i));
+            expected.remove("value" + i);
+        }
+        assertFalse(set.remove("value0"));
+
+        assertEquals(expected, set);
+        assertEquals(set, expected);
+        assertEquals(expected.hashCode(), set.hashCode());
+
+        set.removeAll(Arrays.asList("value1", "value3"));
+        assertEquals(2498, set.size());
+        assertTrue(set.add(null));
+        assertTrue(set.contains(null));
+    }
+}
@@ -16,11 +16,15 @@
 
 package androidx.collection;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import java.util.Random;
+
 public class SparseArrayCompatTest {
     @Test
     public void isEmpty() throws Exception {
@@ -49,4 +53,59 @@ public class SparseArrayCompatTest {
         sparseArrayCompat.remove(key2);
         assertTrue(sparseArrayCompat.isEmpty());
     }
+
+    @Test
+    public void builderMatchesPut() {
+        SparseArrayCompat<Integer> expected = new SparseArrayCompat<>();
+        SparseArrayCompat.Builder<Integer> builder = new SparseArrayCompat.Builder<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            int key = random.nextInt(5000) - 2500;
+            expected.put(key, i);
+            builder.put(key, i);
+        }
+
+        SparseArrayCompat<Integer> built = builder.build();
+        assertEquals(expected.size(), built.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.keyAt(i), built.keyAt(i));
+            assertEquals(expected.valueAt(i), built.valueAt(i));
+        }
+        assertEquals(0, builder.build().size());
+    }
+
+    @Test
+    public void putAllMergesAndReplaces() {
+        SparseArrayCompat<String> array = new SparseArrayCompat<>();
+        SparseArrayCompat<String> other = new SparseArrayCompat<>();
+        for (int i = 0; i < 10; i++) {
+            array.put(i * 2, "a" + i);
+            other.put(i * 3, "b" + i);
+        }
+        array.remove(4);
+        array.putAll(other);
+
+        assertEquals("{0=b0, 2=a1, 3=b1, 6=b2, 8=a4, 9=b3, 10=a5, 12=b4, 14=a7, 15=b5, "
+                + "16=a8, 18=b6, 21=b7, 24=b8, 27=b9}", array.toString());
+
+        SparseArrayCompat<String> tail = new SparseArrayCompat<>();
+        tail.put(100, "c");
+        array.putAll(tail);
+        assertEquals(16, array.size());
+        assertEquals("c", array.get(100));
+    }
+
+    @Test
+    public void removeKeyRange() {
+        SparseArrayCompat<String> array = new SparseArrayCompat<>();
+        for (int i = 0; i < 10; i++) {
+            array.put(i * 10, Integer.toString(i));
+        }
+        array.removeKeyRange(15, 50);
+        assertEquals("{0=0, 10=1, 50=5, 60=6, 70=7, 80=8, 90=9}", array.toString());
+        array.removeKeyRange(-100, 11);
+        array.removeKeyRange(90, 1000);
+        assertEquals("{50=5, 60=6, 70=7, 80=8}", array.toString());
+        assertNull(array.get(90));
+    }
 }
@@ -27,10 +27,24 @@ import androidx.sqlite.db.SupportSQLiteOpenHelper;
 
 class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
     private final OpenHelper mDelegate;
+    // null unless read connections were requested for a database file.
+    private final FrameworkSQLiteReadConnectionPool mReadPool;
+    private volatile boolean mWriteAheadLoggingEnabled;
 
     FrameworkSQLiteOpenHelper(Context context, String name,
             Callback callback) {
+        this(context, name, callback, 0);
+    }
+
+    FrameworkSQLiteOpenHelper(Context context, String name,
+            Callback callback, int readConnectionPoolSize) {
         mDelegate = createDelegate(context, name, callback);
+        if (name != null && readConnectionPoolSize > 0) {
+            mReadPool = new FrameworkSQLiteReadConnectionPool(readConnectionPoolSize, callback,
+                    mDelegate.mErrorHandler);
+        } else {
+            mReadPool = null;
+        }
     }
 
     private OpenHelper createDelegate(Context context, String name, Callback callback) {
@@ -47,6 +61,11 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
     @androidx.annotation.RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
     public void setWriteAheadLoggingEnabled(boolean enabled) {
         mDelegate.setWriteAheadLoggingEnabled(enabled);
+        mWriteAheadLoggingEnabled = enabled;
+        if (!enabled && mReadPool != null) {
+            // readers would hold shared locks on a rollback journal database and block writes.
+            mReadPool.close();
+        }
     }
 
     @Override
@@ -54,14 +73,28 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
         return mDelegate.getWritableSupportDatabase();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If this helper was created with read connections and write-ahead logging is enabled, this
+     * returns one of the read-only connections instead, which must only be used for queries.
+     */
     @Override
     public SupportSQLiteDatabase getReadableDatabase() {
-        return mDelegate.getReadableSupportDatabase();
+        if (mReadPool == null || !mWriteAheadLoggingEnabled) {
+            return mDelegate.getReadableSupportDatabase();
+        }
+        // make sure the database is created and migrated before attaching readers to the file.
+        final SupportSQLiteDatabase writer = mDelegate.getWritableSupportDatabase();
+        return mReadPool.acquire(writer.getPath());
     }
 
     @Override
     public void close() {
         mDelegate.close();
+        if (mReadPool != null) {
+            mReadPool.close();
+        }
     }
 
     static class OpenHelper extends SQLiteOpenHelper {
@@ -72,34 +105,55 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
          */
         final FrameworkSQLiteDatabase[] mDbRef;
         final Callback mCallback;
+        final DatabaseErrorHandler mErrorHandler;
         // see b/78359448
         private boolean mMigrated;
+        /**
+         * The database returned by the last successful {@link #getWritableSupportDatabase()},
+         * which lets callers skip the lock once the database is open.
+         */
+        private volatile FrameworkSQLiteDatabase mWritableDb;
 
         OpenHelper(Context context, String name, final FrameworkSQLiteDatabase[] dbRef,
                 final Callback callback) {
-            super(context, name, null, callback.version,
-                    new DatabaseErrorHandler() {
-                        @Override
-                        public void onCorruption(SQLiteDatabase dbObj) {
-                            FrameworkSQLiteDatabase db = dbRef[0];
-                            if (db != null) {
-                                callback.onCorruption(db);
-                            }
-                        }
-                    });
+            this(context, name, dbRef, callback, new DatabaseErrorHandler() {
+                @Override
+                public void onCorruption(SQLiteDatabase dbObj) {
+                    FrameworkSQLiteDatabase db = dbRef[0];
+                    if (db != null) {
+                        callback.onCorruption(db);
+                    }
+                }
+            });
+        }
+
+        private OpenHelper(Context context, String name, FrameworkSQLiteDatabase[] dbRef,
+                Callback callback, DatabaseErrorHandler errorHandler) {
+            super(context, name, null, callback.version, errorHandler);
             mCallback = callback;
             mDbRef = dbRef;
+            mErrorHandler = errorHandler;
         }
 
-        synchronized SupportSQLiteDatabase getWritableSupportDatabase() {
+        SupportSQLiteDatabase getWritableSupportDatabase() {
+            final FrameworkSQLiteDatabase openDb = mWritableDb;
+            if (openDb != null && openDb.isOpen()) {
+                return openDb;
+            }
+            return openWritableSupportDatabase();
+        }
+
+        private synchronized SupportSQLiteDatabase openWritableSupportDatabase() {
             mMigrated = false;
             SQLiteDatabase db = super.getWritableDatabase();
             if (mMigrated) {
                 // there might be a connection w/ stale structure, we should re-open.
                 close();
-                return getWritableSupportDatabase();
+                return openWritableSupportDatabase();
             }
-            return getWrappedDb(db);
+            FrameworkSQLiteDatabase wrapped = getWrappedDb(db);
+            mWritableDb = wrapped;
+            return wrapped;
         }
 
         synchronized SupportSQLiteDatabase getReadableSupportDatabase() {
@@ -154,6 +208,7 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
 
         @Override
         public synchronized void close() {
+            mWritableDb = null;
             super.close();
             mDbRef[0] = null;
         }
@@ -24,9 +24,39 @@ import androidx.sqlite.db.SupportSQLiteOpenHelper;
  */
 @SuppressWarnings("unused")
 public final class FrameworkSQLiteOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+    private final int mReadConnectionPoolSize;
+
+    /**
+     * Creates a factory whose open helpers use a single database connection.
+     */
+    public FrameworkSQLiteOpenHelperFactory() {
+        this(0);
+    }
+
+    /**
+     * Creates a factory whose open helpers keep a pool of read-only connections next to the
+     * writable one.
+     * <p>
+     * When write-ahead logging is enabled on an open helper created by this factory,
+     * {@link SupportSQLiteOpenHelper#getReadableDatabase()} returns one of
+     * {@code readConnectionPoolSize} read-only connections to the database file, so queries
+     * running on different threads do not wait for each other or for the writer. The pool is
+     * not used for in-memory databases or when write-ahead logging is disabled.
+     *
+     * @param readConnectionPoolSize The number of read-only connections, or 0 to disable the
+     *                               pool.
+     */
+    public FrameworkSQLiteOpenHelperFactory(int readConnectionPoolSize) {
+        if (readConnectionPoolSize < 0) {
+            throw new IllegalArgumentException("Read connection pool size cannot be negative: "
+                    + readConnectionPoolSize);
+        }
+        mReadConnectionPoolSize = readConnectionPoolSize;
+    }
+
     @Override
     public SupportSQLiteOpenHelper create(SupportSQLiteOpenHelper.Configuration configuration) {
-        return new FrameworkSQLiteOpenHelper(
-                configuration.context, configuration.name, configuration.callback);
+        return new FrameworkSQLiteOpenHelper(configuration.context, configuration.name,
+                configuration.callback, mReadConnectionPoolSize);
     }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.sqlite.db.framework;
+
+import android.database.DatabaseErrorHandler;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed set of read-only connections to a write-ahead logging database file.
+ * <p>
+ * Each connection is a separate {@link SQLiteDatabase} opened with
+ * {@link SQLiteDatabase#OPEN_READONLY}, so queries handed out to different connections run in
+ * parallel with each other and with the writer. Connections are opened lazily and handed out
+ * round-robin without taking a lock once they are open. Every new connection is passed to
+ * {@link SupportSQLiteOpenHelper.Callback#onConfigure} like the writable one.
+ */
+class FrameworkSQLiteReadConnectionPool {
+    private final AtomicReferenceArray<FrameworkSQLiteDatabase> mConnections;
+    private final AtomicInteger mNextConnection = new AtomicInteger();
+    private final SupportSQLiteOpenHelper.Callback mCallback;
+    private final DatabaseErrorHandler mErrorHandler;
+
+    /**
+     * @param size The number of read-only connections, must be positive.
+     * @param callback The callback that configures each new connection.
+     * @param errorHandler The handler to notify when a read-only connection detects corruption.
+     */
+    FrameworkSQLiteReadConnectionPool(int size, SupportSQLiteOpenHelper.Callback callback,
+            DatabaseErrorHandler errorHandler) {
+        mConnections = new AtomicReferenceArray<>(size);
+        mCallback = callback;
+        mErrorHandler = errorHandler;
+    }
+
+    /**
+     * Returns one of the read-only connections to the database at the given path, opening it if
+     * necessary.
+     * <p>
+     * The writer must already be open so that the database file has been created, migrated and
+     * switched to write-ahead logging before any reader attaches to it.
+     *
+     * @param path The path of the database file.
+     * @return A read-only database.
+     */
+    FrameworkSQLiteDatabase acquire(String path) {
+        final int index = (mNextConnection.getAndIncrement() & Integer.MAX_VALUE)
+                % mConnections.length();
+        FrameworkSQLiteDatabase connection = mConnections.get(index);
+        if (connection != null && connection.isOpen()) {
+            return connection;
+        }
+        synchronized (this) {
+            connection = mConnections.get(index);
+            if (connection == null || !connection.isOpen()) {
+                connection = new FrameworkSQLiteDatabase(SQLiteDatabase.openDatabase(path, null,
+                        SQLiteDatabase.OPEN_READONLY, mErrorHandler));
+                mCallback.onConfigure(connection);
+                mConnections.set(index, connection);
+            }
+            return connection;
+        }
+    }
+
+    /**
+     * Closes all open read-only connections. Cursors that are still open keep their connection
+     * alive until they are closed.
+     */
+    synchronized void close() {
+        for (int i = 0; i < mConnections.length(); i++) {
+            FrameworkSQLiteDatabase connection = mConnections.getAndSet(i, null);
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (IOException ignored) {
+                    // closing the framework database never throws
+                }
+            }
+        }
+    }
+}
@@ -53,6 +53,12 @@ import java.lang.annotation.Target;
  * query as: {@code SELECT * FROM user WHERE uid IN(?, ?, ?)} and bind each item in the
  * {@code userIds} array into the statement.
  * <p>
+ * SQLite limits the number of bind arguments of a query to 999. If the list is the only item of an
+ * {@code IN} condition that every returned or modified row has to satisfy, Room splits larger lists
+ * into chunks and runs the query once per chunk in a single transaction, merging the results. This
+ * is done for queries that return a {@link java.util.List} without ordering, limiting, grouping or
+ * aggregating rows, and for UPDATE or DELETE queries.
+ * <p>
  * There are 3 types of queries supported in {@code Query} methods: SELECT, UPDATE and DELETE.
  * <p>
  * For SELECT queries, Room will infer the result contents from the method's return type and
@@ -62,6 +68,14 @@ import java.lang.annotation.Target;
  * query may return {@link android.database.Cursor Cursor} or any query result can be wrapped in
  * a {@link androidx.lifecycle.LiveData LiveData}.
  * <p>
+ * A query may also return a {@code CloseableIterator}, which converts the rows one at a time as
+ * they are read instead of loading the whole result into memory. The cursor stays open until the
+ * last row is read or the iterator is closed, so always close an iterator you stop reading early.
+ * A plain {@link java.util.Iterator Iterator} return type is also accepted; its value implements
+ * {@link java.io.Closeable Closeable} in the same way. The rows are read after the method
+ * returns, so iterator results cannot have {@link Relation} fields and the method cannot be
+ * annotated with {@link Transaction}.
+ * <p>
  * <b>RxJava2</b> If you are using RxJava2, you can also return {@code Flowable<T>} or
  * {@code Publisher<T>} from query methods. Since Reactive Streams does not allow {@code null}, if
  * the query returns a nullable type, it will not dispatch anything if the value is {@code null}
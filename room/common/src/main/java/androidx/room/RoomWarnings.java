@@ -134,6 +134,31 @@ public class RoomWarnings {
     public static final String RELATION_QUERY_WITHOUT_TRANSACTION =
             "ROOM_RELATION_QUERY_WITHOUT_TRANSACTION";
 
+    /**
+     * Reported when the query plan of a @Query method reads every row of a table because there is
+     * no index the query can use.
+     * <p>
+     * Query plans are only checked if the {@code room.verifyQueryPlans} annotation processor
+     * argument is set to {@code true}.
+     */
+    public static final String QUERY_PLAN_FULL_TABLE_SCAN = "ROOM_QUERY_PLAN_FULL_TABLE_SCAN";
+
+    /**
+     * Reported when the query plan of a @Query method sorts the result in a temporary b-tree for
+     * an ORDER BY, GROUP BY or DISTINCT clause because there is no index in the required order.
+     * <p>
+     * Query plans are only checked if the {@code room.verifyQueryPlans} annotation processor
+     * argument is set to {@code true}.
+     */
+    public static final String QUERY_PLAN_TEMP_B_TREE = "ROOM_QUERY_PLAN_TEMP_B_TREE";
+
+    /**
+     * Reported when a @Query method returns a {@code DataSource.Factory} with {@code Long} keys but
+     * the query is ordered by something else than the primary key. Such a query cannot be paged by
+     * its key, so it is paged by LIMIT and OFFSET, which slows down deep into the results.
+     */
+    public static final String PAGING_ORDER_NOT_BY_KEY = "ROOM_PAGING_ORDER_NOT_BY_KEY";
+
     /** @deprecated This type should not be instantiated as it contains only static methods. */
     @Deprecated
     @SuppressWarnings("PrivateConstructorForUtilityClass")
@@ -18,6 +18,7 @@ package androidx.room
 
 import androidx.room.processor.Context
 import androidx.room.processor.DatabaseProcessor
+import androidx.room.parser.SqlParser
 import androidx.room.processor.ProcessorErrors
 import androidx.room.vo.DaoMethod
 import androidx.room.vo.Warning
@@ -40,7 +41,13 @@ class RoomProcessor : BasicAnnotationProcessor() {
     }
 
     override fun getSupportedOptions(): MutableSet<String> {
-        return Context.ARG_OPTIONS.toMutableSet()
+        val supportedOptions = Context.ARG_OPTIONS.toMutableSet()
+        // Room is registered as a dynamic incremental processor, see
+        // META-INF/gradle/incremental.annotation.processors
+        if (Context.isIncremental(processingEnv)) {
+            supportedOptions.add(AGGREGATING_ANNOTATION_PROCESSOR_OPTION)
+        }
+        return supportedOptions
     }
 
     override fun getSupportedSourceVersion(): SourceVersion {
@@ -52,6 +59,13 @@ class RoomProcessor : BasicAnnotationProcessor() {
                 elementsByAnnotation: SetMultimap<Class<out Annotation>, Element>
         ): MutableSet<Element> {
             // TODO multi step support
+            // parse all queries up front on multiple threads, the processors below then find
+            // them in the SqlParser cache
+            elementsByAnnotation[Query::class.java]?.let { queryMethods ->
+                SqlParser.parseAll(queryMethods.mapNotNull {
+                    it.getAnnotation(Query::class.java)?.value
+                })
+            }
             val databases = elementsByAnnotation[Database::class.java]
                     ?.map {
                         DatabaseProcessor(context, MoreElements.asType(it)).process()
@@ -87,7 +101,8 @@ class RoomProcessor : BasicAnnotationProcessor() {
             return mutableSetOf()
         }
         override fun annotations(): MutableSet<out Class<out Annotation>> {
-            return mutableSetOf(Database::class.java, Dao::class.java, Entity::class.java)
+            return mutableSetOf(Database::class.java, Dao::class.java, Entity::class.java,
+                    Query::class.java)
         }
 
         /**
@@ -121,4 +136,13 @@ class RoomProcessor : BasicAnnotationProcessor() {
     }
 
     abstract class ContextBoundProcessingStep(val context: Context) : ProcessingStep
+
+    companion object {
+        /**
+         * Tells Gradle that the processor is aggregating: its outputs depend on all annotated
+         * types, which Gradle then reprocesses on every incremental compilation.
+         */
+        const val AGGREGATING_ANNOTATION_PROCESSOR_OPTION =
+                "org.gradle.annotation.processing.aggregating"
+    }
 }
@@ -47,6 +47,8 @@ object SupportDbTypeNames {
 
 object RoomTypeNames {
     val STRING_UTIL: ClassName = ClassName.get("androidx.room.util", "StringUtil")
+    val CHUNK_UTIL: ClassName = ClassName.get("androidx.room.util", "ChunkUtil")
+    val CURSOR_UTIL: ClassName = ClassName.get("androidx.room.util", "CursorUtil")
     val ROOM_DB: ClassName = ClassName.get("androidx.room", "RoomDatabase")
     val ROOM_DB_CONFIG: ClassName = ClassName.get("androidx.room",
             "DatabaseConfiguration")
@@ -76,6 +78,14 @@ object RoomTypeNames {
             ClassName.get("androidx.room.util", "TableInfo.Index")
     val LIMIT_OFFSET_DATA_SOURCE: ClassName =
             ClassName.get("androidx.room.paging", "LimitOffsetDataSource")
+    val KEYSET_DATA_SOURCE: ClassName =
+            ClassName.get("androidx.room.paging", "KeysetDataSource")
+    val PAGE_KEYED_LIMIT_OFFSET_DATA_SOURCE: ClassName =
+            ClassName.get("androidx.room.paging", "PageKeyedLimitOffsetDataSource")
+    val CURSOR_ITERATOR: ClassName =
+            ClassName.get("androidx.room.util", "CursorIterator")
+    val CLOSEABLE_ITERATOR: ClassName =
+            ClassName.get("androidx.room", "CloseableIterator")
 }
 
 object PagingTypeNames {
@@ -96,12 +106,16 @@ object LifecyclesTypeNames {
 object AndroidTypeNames {
     val CURSOR: ClassName = ClassName.get("android.database", "Cursor")
     val ARRAY_MAP: ClassName = ClassName.get("androidx.collection", "ArrayMap")
+    val LONG_SPARSE_ARRAY: ClassName = ClassName.get("androidx.collection", "LongSparseArray")
     val BUILD: ClassName = ClassName.get("android.os", "Build")
 }
 
 object CommonTypeNames {
     val LIST = ClassName.get("java.util", "List")
     val SET = ClassName.get("java.util", "Set")
+    val ITERATOR = ClassName.get("java.util", "Iterator")
+    val COLLECTION = ClassName.get("java.util", "Collection")
+    val ARRAY_LIST = ClassName.get("java.util", "ArrayList")
     val STRING = ClassName.get("java.lang", "String")
     val INTEGER = ClassName.get("java.lang", "Integer")
     val OPTIONAL = ClassName.get("java.util", "Optional")
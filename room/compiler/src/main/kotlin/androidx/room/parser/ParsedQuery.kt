@@ -38,6 +38,11 @@ data class Section(val text: String, val type: SectionType) {
 
 data class Table(val name: String, val alias: String)
 
+/**
+ * A term of the ORDER BY clause of a query, with the expression as it is written in the query.
+ */
+data class OrderingTerm(val expression: String, val collation: String?, val descending: Boolean)
+
 data class ParsedQuery(
         val original: String,
         val type: QueryType,
@@ -45,7 +50,12 @@ data class ParsedQuery(
         // pairs of table name and alias,
         val tables: Set<Table>,
         val syntaxErrors: List<String>,
-        val runtimeQueryPlaceholder: Boolean) {
+        val runtimeQueryPlaceholder: Boolean,
+        // bind variables that are the only item of an IN (...) list, which can be split into
+        // multiple statements without changing the result. See QueryVisitor.
+        val chunkableInputs: Set<String> = emptySet(),
+        // the ORDER BY clause of the query itself, not of its sub queries
+        val orderingTerms: List<OrderingTerm> = emptyList()) {
     companion object {
         val STARTS_WITH_NUMBER = "^\\?[0-9]".toRegex()
         val MISSING = ParsedQuery("missing query", QueryType.UNKNOWN, emptyList(), emptySet(),
@@ -20,10 +20,15 @@ import androidx.room.ColumnInfo
 import org.antlr.v4.runtime.ANTLRInputStream
 import org.antlr.v4.runtime.BaseErrorListener
 import org.antlr.v4.runtime.CommonTokenStream
+import org.antlr.v4.runtime.ParserRuleContext
 import org.antlr.v4.runtime.RecognitionException
 import org.antlr.v4.runtime.Recognizer
 import org.antlr.v4.runtime.tree.ParseTree
 import org.antlr.v4.runtime.tree.TerminalNode
+import java.util.Collections
+import java.util.LinkedHashMap
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
 import javax.annotation.processing.ProcessingEnvironment
 import javax.lang.model.type.TypeKind
 import javax.lang.model.type.TypeMirror
@@ -32,7 +37,7 @@ import javax.lang.model.type.TypeMirror
 class QueryVisitor(
         private val original: String,
         private val syntaxErrors: ArrayList<String>,
-        statement: ParseTree,
+        private val statement: ParseTree,
         private val forRuntimeQuery: Boolean
 ) : SQLiteBaseVisitor<Void?>() {
     private val bindingExpressions = arrayListOf<TerminalNode>()
@@ -41,6 +46,11 @@ class QueryVisitor(
     private val withClauseNames = mutableSetOf<String>()
     private val queryType: QueryType
 
+    companion object {
+        private val AGGREGATE_FUNCTION =
+                "(?i)(COUNT|SUM|AVG|MIN|MAX|TOTAL|GROUP_CONCAT)\\(".toRegex()
+    }
+
     init {
         queryType = (0 until statement.childCount).map {
             findQueryType(statement.getChild(it))
@@ -89,7 +99,114 @@ class QueryVisitor(
                 inputs = bindingExpressions.sortedBy { it.sourceInterval.a },
                 tables = tableNames,
                 syntaxErrors = syntaxErrors,
-                runtimeQueryPlaceholder = forRuntimeQuery)
+                runtimeQueryPlaceholder = forRuntimeQuery,
+                chunkableInputs = findChunkableInputs(),
+                orderingTerms = findOrderingTerms())
+    }
+
+    private fun findOrderingTerms(): List<OrderingTerm> {
+        val terms = (0 until statement.childCount).map { statement.getChild(it) }
+                .map {
+                    when (it) {
+                        is SQLiteParser.Factored_select_stmtContext -> it.ordering_term()
+                        is SQLiteParser.Compound_select_stmtContext -> it.ordering_term()
+                        is SQLiteParser.Simple_select_stmtContext -> it.ordering_term()
+                        is SQLiteParser.Select_stmtContext -> it.ordering_term()
+                        else -> null
+                    }
+                }
+                .firstOrNull { it != null } ?: return emptyList()
+        return terms.map {
+            OrderingTerm(
+                    expression = it.expr().text,
+                    collation = it.collation_name()?.text,
+                    descending = it.K_DESC() != null)
+        }
+    }
+
+    /**
+     * Finds the bind variables that are used once, as the only item of an IN (...) list that has
+     * to be true for a row to be affected or returned by the query.
+     *
+     * Running the query once for each part of such a list and merging the results is the same as
+     * running it with the whole list, which lets Room split lists that have more items than SQLite
+     * can bind.
+     */
+    private fun findChunkableInputs(): Set<String> {
+        val usageCounts = bindingExpressions.groupingBy { it.text }.eachCount()
+        return bindingExpressions
+                .filter { usageCounts[it.text] == 1 && isChunkable(it) }
+                .map { it.text }
+                .toSet()
+    }
+
+    private fun isChunkable(bindParameter: TerminalNode): Boolean {
+        val bindExpr = bindParameter.parent as? SQLiteParser.ExprContext ?: return false
+        val inExpr = bindExpr.getParent() as? SQLiteParser.ExprContext ?: return false
+        if (inExpr.K_IN() == null || inExpr.K_NOT() != null || inExpr.select_stmt() != null ||
+                inExpr.expr().size != 2 || inExpr.expr(1) !== bindExpr) {
+            return false
+        }
+        // the IN expression must be one of the terms the WHERE clause requires
+        var child: ParserRuleContext = inExpr
+        var parent = inExpr.getParent()
+        while (parent is SQLiteParser.ExprContext) {
+            val isConjunction = parent.K_AND() != null && parent.K_BETWEEN() == null
+            val isParenthesized = parent.childCount == 3 && parent.getChild(0).text == "(" &&
+                    parent.expr().size == 1
+            if (!isConjunction && !isParenthesized) {
+                return false
+            }
+            child = parent
+            parent = parent.getParent()
+        }
+        return when (parent) {
+            is SQLiteParser.Select_coreContext -> isWhereClause(parent, parent.K_WHERE(), child) &&
+                    parent.K_DISTINCT() == null && parent.K_GROUP() == null &&
+                    parent.result_column().none { AGGREGATE_FUNCTION.containsMatchIn(it.text) } &&
+                    isSingleSelect(parent.getParent())
+            is SQLiteParser.Select_or_valuesContext ->
+                isWhereClause(parent, parent.K_WHERE(), child) &&
+                        parent.K_DISTINCT() == null && parent.K_GROUP() == null &&
+                        parent.result_column().none {
+                            AGGREGATE_FUNCTION.containsMatchIn(it.text)
+                        } &&
+                        isSingleSelect(parent.getParent())
+            is SQLiteParser.Delete_stmtContext -> true
+            is SQLiteParser.Delete_stmt_limitedContext -> parent.K_LIMIT() == null
+            is SQLiteParser.Update_stmtContext -> isWhereClause(parent, parent.K_WHERE(), child)
+            is SQLiteParser.Update_stmt_limitedContext ->
+                parent.K_LIMIT() == null && isWhereClause(parent, parent.K_WHERE(), child)
+            else -> false
+        }
+    }
+
+    private fun isWhereClause(
+            statement: ParserRuleContext,
+            where: TerminalNode?,
+            expr: ParserRuleContext
+    ): Boolean {
+        return where != null && statement.children.indexOf(expr) ==
+                statement.children.indexOf(where) + 1
+    }
+
+    /**
+     * Returns true if the given statement is the query itself, rather than a sub query, and
+     * selects from a single SELECT without ordering or limiting the rows.
+     */
+    private fun isSingleSelect(statement: ParserRuleContext?): Boolean {
+        if (statement?.getParent() !is SQLiteParser.Sql_stmtContext) {
+            return false
+        }
+        return when (statement) {
+            is SQLiteParser.Factored_select_stmtContext -> statement.select_core().size == 1 &&
+                    statement.K_ORDER() == null && statement.K_LIMIT() == null
+            is SQLiteParser.Simple_select_stmtContext ->
+                statement.K_ORDER() == null && statement.K_LIMIT() == null
+            is SQLiteParser.Select_stmtContext -> statement.select_or_values().size == 1 &&
+                    statement.K_ORDER() == null && statement.K_LIMIT() == null
+            else -> false
+        }
     }
 
     override fun visitCommon_table_expression(
@@ -132,7 +249,46 @@ class QueryVisitor(
 class SqlParser {
     companion object {
         private val INVALID_IDENTIFIER_CHARS = arrayOf('`', '\"')
+        private const val PARSE_CACHE_SIZE = 1000
+        // The result of parsing only depends on the query text, so it is kept for the lifetime
+        // of the processor, across rounds and databases.
+        private val PARSE_CACHE: MutableMap<String, ParsedQuery> = Collections.synchronizedMap(
+                object : LinkedHashMap<String, ParsedQuery>(16, 0.75f, true) {
+                    override fun removeEldestEntry(
+                            eldest: MutableMap.MutableEntry<String, ParsedQuery>?
+                    ): Boolean = size > PARSE_CACHE_SIZE
+                })
+
         fun parse(input: String): ParsedQuery {
+            val parsed = PARSE_CACHE[input] ?: parseQuery(input).also {
+                PARSE_CACHE[input] = it
+            }
+            // callers assign the result info of the verifier, which must not leak into the cache
+            return parsed.copy()
+        }
+
+        /**
+         * Parses the given queries on multiple threads so that subsequent calls to [parse] find
+         * them in the cache.
+         */
+        fun parseAll(inputs: Collection<String>) {
+            val queries = inputs.distinct().filterNot { PARSE_CACHE.containsKey(it) }
+            val threads = Math.min(queries.size, Runtime.getRuntime().availableProcessors())
+            if (threads < 2) {
+                queries.forEach { parse(it) }
+                return
+            }
+            val executor = Executors.newFixedThreadPool(threads)
+            try {
+                queries.map { query ->
+                    executor.submit(Callable { parse(query) })
+                }.forEach { it.get() }
+            } finally {
+                executor.shutdown()
+            }
+        }
+
+        private fun parseQuery(input: String): ParsedQuery {
             val inputStream = ANTLRInputStream(input)
             val lexer = SQLiteLexer(inputStream)
             val tokenStream = CommonTokenStream(lexer)
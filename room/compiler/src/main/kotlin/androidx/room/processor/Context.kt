@@ -51,6 +51,11 @@ class Context private constructor(
         val ARG_OPTIONS by lazy {
             ProcessorOptions.values().map { it.argName }
         }
+
+        fun isIncremental(processingEnv: ProcessingEnvironment): Boolean {
+            return processingEnv.options[ProcessorOptions.OPTION_INCREMENTAL.argName]
+                    ?.toBoolean() ?: false
+        }
     }
 
     constructor(processingEnv: ProcessingEnvironment) : this(
@@ -75,6 +80,11 @@ class Context private constructor(
         }
     }
 
+    val verifyQueryPlans by lazy {
+        processingEnv.options[ProcessorOptions.OPTION_VERIFY_QUERY_PLANS.argName]?.toBoolean()
+                ?: false
+    }
+
     fun <T> collectLogs(handler: (Context) -> T): Pair<T, RLog.CollectingMessager> {
         val collector = RLog.CollectingMessager()
         val subContext = Context(processingEnv = processingEnv,
@@ -110,6 +120,8 @@ class Context private constructor(
     }
 
     enum class ProcessorOptions(val argName: String) {
-        OPTION_SCHEMA_FOLDER("room.schemaLocation")
+        OPTION_SCHEMA_FOLDER("room.schemaLocation"),
+        OPTION_VERIFY_QUERY_PLANS("room.verifyQueryPlans"),
+        OPTION_INCREMENTAL("room.incremental")
     }
 }
@@ -489,6 +489,26 @@ object ProcessorErrors {
 
     val PAGING_SPECIFY_DATA_SOURCE_TYPE = "For now, Room only supports PositionalDataSource class."
 
+    val PAGING_KEYSET_REQUIRES_INTEGER_PRIMARY_KEY = "A DataSource.Factory with Long keys is" +
+            " paged by the primary key of the returned entity. It can only be used when the" +
+            " query returns an entity with a single INTEGER primary key. Use Integer keys to" +
+            " page by position instead."
+
+    fun pagingOrderNotByKey(keyColumn: String): String {
+        return "The query is not ordered by the primary key $keyColumn in ascending order, so" +
+                " the DataSource.Factory cannot page it by its key without changing the order" +
+                " of the results. It is paged by LIMIT and OFFSET instead, which gets slower the" +
+                " deeper into the results a page is. Order the query by $keyColumn or leave" +
+                " out the ORDER BY clause to page by the key."
+    }
+
+    val ITERATOR_QUERY_CANNOT_HAVE_RELATIONS = "Query methods returning an Iterator convert" +
+            " rows one at a time and cannot fetch @Relation fields. Return a List instead."
+
+    val ITERATOR_QUERY_CANNOT_BE_TRANSACTION = "Query methods returning an Iterator read their" +
+            " rows after the method returns, outside of any transaction. Remove @Transaction or" +
+            " return a List instead."
+
     fun primaryKeyNull(field: String): String {
         return "You must annotate primary keys with @NonNull. \"$field\" is nullable. SQLite " +
                 "considers this a " +
@@ -24,6 +24,7 @@ import androidx.room.ext.hasAnnotation
 import androidx.room.parser.ParsedQuery
 import androidx.room.parser.QueryType
 import androidx.room.parser.SqlParser
+import androidx.room.solver.query.result.IteratorQueryResultBinder
 import androidx.room.solver.query.result.LiveDataQueryResultBinder
 import androidx.room.solver.query.result.PojoRowAdapter
 import androidx.room.verifier.DatabaseVerificaitonErrors
@@ -82,6 +83,8 @@ class QueryMethodProcessor(
             if (query.resultInfo?.error != null) {
                 context.logger.e(executableElement,
                         DatabaseVerificaitonErrors.cannotVerifyQuery(query.resultInfo!!.error!!))
+            } else if (query.resultInfo != null && context.verifyQueryPlans) {
+                verifyQueryPlan(query)
             }
 
             context.checker.check(executableType.returnType.kind != TypeKind.ERROR,
@@ -116,6 +119,9 @@ class QueryMethodProcessor(
             QueryType.SELECT -> executableElement.hasAnnotation(Transaction::class)
             else -> true
         }
+        context.checker.check(
+                resultBinder !is IteratorQueryResultBinder || !inTransaction,
+                executableElement, ProcessorErrors.ITERATOR_QUERY_CANNOT_BE_TRANSACTION)
 
         if (query.type == QueryType.SELECT && !inTransaction) {
             // put a warning if it is has relations and not annotated w/ transaction
@@ -163,4 +169,17 @@ class QueryMethodProcessor(
         }
         return queryMethod
     }
+
+    private fun verifyQueryPlan(query: ParsedQuery) {
+        val verifier = dbVerifier ?: return
+        val plan = verifier.explain(query.original) ?: return
+        plan.findFullTableScans(verifier.entities.map { it.tableName }).forEach {
+            context.logger.w(Warning.QUERY_PLAN_FULL_TABLE_SCAN, executableElement,
+                    DatabaseVerificaitonErrors.fullTableScan(it))
+        }
+        plan.findTempBTrees().forEach {
+            context.logger.w(Warning.QUERY_PLAN_TEMP_B_TREE, executableElement,
+                    DatabaseVerificaitonErrors.tempBTree(it))
+        }
+    }
 }
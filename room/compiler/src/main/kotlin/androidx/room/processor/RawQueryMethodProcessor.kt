@@ -24,6 +24,7 @@ import androidx.room.ext.toListOfClassTypes
 import androidx.room.ext.typeName
 import androidx.room.parser.SqlParser
 import androidx.room.processor.ProcessorErrors.RAW_QUERY_STRING_PARAMETER_REMOVED
+import androidx.room.solver.query.result.IteratorQueryResultBinder
 import androidx.room.vo.RawQueryMethod
 import com.google.auto.common.AnnotationMirrors
 import com.google.auto.common.MoreElements
@@ -58,6 +59,9 @@ class RawQueryMethodProcessor(
 
         val runtimeQueryParam = findRuntimeQueryParameter()
         val inTransaction = executableElement.hasAnnotation(Transaction::class)
+        context.checker.check(
+                resultBinder !is IteratorQueryResultBinder || !inTransaction,
+                executableElement, ProcessorErrors.ITERATOR_QUERY_CANNOT_BE_TRANSACTION)
         val rawQueryMethod = RawQueryMethod(
                 element = executableElement,
                 name = executableElement.simpleName.toString(),
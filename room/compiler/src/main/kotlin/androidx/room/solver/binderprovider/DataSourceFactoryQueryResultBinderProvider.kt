@@ -18,13 +18,17 @@ package androidx.room.solver.binderprovider
 
 import androidx.room.ext.PagingTypeNames
 import androidx.room.parser.ParsedQuery
+import androidx.room.parser.SQLTypeAffinity
 import androidx.room.processor.Context
 import androidx.room.processor.ProcessorErrors
 import androidx.room.solver.QueryResultBinderProvider
 import androidx.room.solver.query.result.DataSourceFactoryQueryResultBinder
+import androidx.room.solver.query.result.EntityRowAdapter
+import androidx.room.solver.query.result.KeysetDataSourceQueryResultBinder
 import androidx.room.solver.query.result.ListQueryResultAdapter
 import androidx.room.solver.query.result.PositionalDataSourceQueryResultBinder
 import androidx.room.solver.query.result.QueryResultBinder
+import androidx.room.vo.Warning
 import javax.lang.model.type.DeclaredType
 import javax.lang.model.type.TypeMirror
 
@@ -45,10 +49,46 @@ class DataSourceFactoryQueryResultBinderProvider(val context: Context) : QueryRe
 
         val tableNames = ((adapter?.accessedTableNames() ?: emptyList())
                 + query.tables.map { it.name }).toSet()
+        if (isLongKey(declared.typeArguments[0])) {
+            val keyField = (adapter?.rowAdapter as? EntityRowAdapter)?.entity?.primaryKey?.fields
+                    ?.singleOrNull()
+                    ?.takeIf { it.parent == null && it.affinity == SQLTypeAffinity.INTEGER }
+            if (keyField == null) {
+                context.logger.e(ProcessorErrors.PAGING_KEYSET_REQUIRES_INTEGER_PRIMARY_KEY)
+            } else if (isOrderedByKey(query, keyField.columnName)) {
+                val keysetBinder = KeysetDataSourceQueryResultBinder(adapter, tableNames, keyField)
+                return DataSourceFactoryQueryResultBinder(keysetBinder)
+            } else {
+                // paging by the key would discard the order of the query.
+                context.logger.w(Warning.PAGING_ORDER_NOT_BY_KEY,
+                        ProcessorErrors.pagingOrderNotByKey(keyField.columnName))
+                val pageKeyedBinder = PositionalDataSourceQueryResultBinder(adapter, tableNames,
+                        pageKeyed = true)
+                return DataSourceFactoryQueryResultBinder(pageKeyedBinder)
+            }
+        }
         val countedBinder = PositionalDataSourceQueryResultBinder(adapter, tableNames)
         return DataSourceFactoryQueryResultBinder(countedBinder)
     }
 
+    /**
+     * Returns true if the query is not ordered or only ordered by the given key in ascending
+     * order, which is the order KeysetDataSource returns the rows in.
+     */
+    private fun isOrderedByKey(query: ParsedQuery, keyColumn: String): Boolean {
+        val term = query.orderingTerms.singleOrNull() ?: return query.orderingTerms.isEmpty()
+        // the key may be qualified by its table and be escaped
+        val column = term.expression.substringAfterLast('.').trim('`', '"', '\'', '[', ']')
+        return column.equals(keyColumn, ignoreCase = true) && term.collation == null &&
+                !term.descending
+    }
+
+    private fun isLongKey(keyType: TypeMirror): Boolean {
+        val boxedLong = context.processingEnv.elementUtils
+                .getTypeElement("java.lang.Long").asType()
+        return context.processingEnv.typeUtils.isSameType(keyType, boxedLong)
+    }
+
     override fun matches(declared: DeclaredType): Boolean =
             declared.typeArguments.size == 2 && isLivePagedList(declared)
 
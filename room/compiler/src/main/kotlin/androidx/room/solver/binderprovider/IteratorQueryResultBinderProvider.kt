@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.solver.binderprovider
+
+import androidx.room.ext.CommonTypeNames
+import androidx.room.ext.RoomTypeNames
+import androidx.room.parser.ParsedQuery
+import androidx.room.processor.Context
+import androidx.room.processor.ProcessorErrors
+import androidx.room.solver.QueryResultBinderProvider
+import androidx.room.solver.query.result.IteratorQueryResultBinder
+import androidx.room.solver.query.result.ListQueryResultAdapter
+import androidx.room.solver.query.result.QueryResultBinder
+import javax.lang.model.type.DeclaredType
+import javax.lang.model.type.TypeMirror
+
+/**
+ * Binds query methods returning a CloseableIterator, or a plain Iterator that must be cast to
+ * Closeable to be closed early.
+ */
+class IteratorQueryResultBinderProvider(val context: Context) : QueryResultBinderProvider {
+    private val iteratorTypeMirrors: List<TypeMirror> by lazy {
+        val elementUtils = context.processingEnv.elementUtils
+        // the closeable iterator is only in the classpath if room-runtime is.
+        listOfNotNull(
+                elementUtils.getTypeElement(CommonTypeNames.ITERATOR.toString()),
+                elementUtils.getTypeElement(RoomTypeNames.CLOSEABLE_ITERATOR.toString())
+        ).map { it.asType() }
+    }
+
+    override fun provide(declared: DeclaredType, query: ParsedQuery): QueryResultBinder {
+        val typeArg = declared.typeArguments.first()
+        val adapter = context.typeAdapterStore.findRowAdapter(typeArg, query)?.let {
+            ListQueryResultAdapter(it)
+        }
+        if (adapter?.rowAdapter?.onCursorFinished() != null) {
+            context.logger.e(ProcessorErrors.ITERATOR_QUERY_CANNOT_HAVE_RELATIONS)
+        }
+        return IteratorQueryResultBinder(adapter)
+    }
+
+    override fun matches(declared: DeclaredType): Boolean {
+        if (declared.typeArguments.size != 1) {
+            return false
+        }
+        val typeUtils = context.processingEnv.typeUtils
+        val erasure = typeUtils.erasure(declared)
+        return iteratorTypeMirrors.any {
+            typeUtils.isSameType(erasure, typeUtils.erasure(it))
+        }
+    }
+}
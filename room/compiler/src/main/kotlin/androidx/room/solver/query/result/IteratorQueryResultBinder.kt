@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.solver.query.result
+
+import androidx.room.ext.AndroidTypeNames
+import androidx.room.ext.L
+import androidx.room.ext.N
+import androidx.room.ext.RoomTypeNames
+import androidx.room.ext.T
+import androidx.room.ext.typeName
+import androidx.room.solver.CodeGenScope
+import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.ParameterizedTypeName
+import com.squareup.javapoet.TypeName
+import com.squareup.javapoet.TypeSpec
+import javax.lang.model.element.Modifier
+
+/**
+ * Returns a CursorIterator which converts the rows of the query one at a time, as they are read,
+ * instead of loading all of them into a list.
+ * <p>
+ * The rows are read after the method returns, so these methods cannot run in a transaction.
+ * QueryMethodProcessor rejects @Transaction on them.
+ */
+class IteratorQueryResultBinder(val listAdapter: ListQueryResultAdapter?)
+    : QueryResultBinder(listAdapter) {
+    val itemTypeName: TypeName = listAdapter?.rowAdapter?.out?.typeName() ?: TypeName.OBJECT
+    val typeName: ParameterizedTypeName = ParameterizedTypeName.get(
+            RoomTypeNames.CURSOR_ITERATOR, itemTypeName)
+    override fun convertAndReturn(roomSQLiteQueryVar: String,
+                                  canReleaseQuery: Boolean,
+                                  dbField: FieldSpec,
+                                  inTransaction: Boolean,
+                                  scope: CodeGenScope) {
+        val builder = scope.builder()
+        val cursorVar = scope.getTmpVar("_cursor")
+        builder.addStatement("final $T $L = $N.query($L)", AndroidTypeNames.CURSOR, cursorVar,
+                dbField, roomSQLiteQueryVar)
+        builder.beginControlFlow("try").apply {
+            listAdapter?.rowAdapter?.onCursorReady(cursorVar, scope)
+            // the iterator owns the cursor from now on and releases the query when it is closed.
+            val queryArg = if (canReleaseQuery) roomSQLiteQueryVar else "null"
+            val spec = TypeSpec.anonymousClassBuilder("$L, $L", cursorVar, queryArg).apply {
+                superclass(typeName)
+                addMethod(createConvertRowMethod(scope))
+            }.build()
+            builder.addStatement("return $L", spec)
+        }
+        val exceptionVar = scope.getTmpVar("_e")
+        builder.nextControlFlow("catch ($T $L)", RuntimeException::class.java, exceptionVar)
+                .apply {
+            builder.addStatement("$L.close()", cursorVar)
+            if (canReleaseQuery) {
+                builder.addStatement("$L.release()", roomSQLiteQueryVar)
+            }
+            builder.addStatement("throw $L", exceptionVar)
+        }
+        builder.endControlFlow()
+    }
+
+    private fun createConvertRowMethod(scope: CodeGenScope): MethodSpec =
+            MethodSpec.methodBuilder("convertRow").apply {
+                addAnnotation(Override::class.java)
+                addModifiers(Modifier.PROTECTED)
+                returns(itemTypeName)
+                val cursorParam = ParameterSpec.builder(AndroidTypeNames.CURSOR, "cursor")
+                        .build()
+                addParameter(cursorParam)
+                val rowScope = scope.fork()
+                val itemVar = rowScope.getTmpVar("_item")
+                rowScope.builder().addStatement("final $T $L", itemTypeName, itemVar)
+                listAdapter?.rowAdapter?.convert(itemVar, cursorParam.name, rowScope)
+                addCode(rowScope.builder().build())
+                addStatement("return $L", itemVar)
+            }.build()
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.solver.query.result
+
+import androidx.annotation.NonNull
+import androidx.room.ext.L
+import androidx.room.ext.N
+import androidx.room.ext.RoomTypeNames
+import androidx.room.ext.S
+import androidx.room.solver.CodeGenScope
+import androidx.room.vo.Field
+import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.ParameterizedTypeName
+import com.squareup.javapoet.TypeName
+import com.squareup.javapoet.TypeSpec
+import javax.lang.model.element.Modifier
+
+/**
+ * Returns a KeysetDataSource which pages the query by seeking on the given integer key field
+ * instead of using LIMIT/OFFSET.
+ */
+class KeysetDataSourceQueryResultBinder(
+        listAdapter: ListQueryResultAdapter?,
+        tableNames: Set<String>,
+        val keyField: Field) : DataSourceQueryResultBinder(listAdapter, tableNames) {
+    override val keyTypeName: TypeName = TypeName.LONG.box()
+    override val typeName: ParameterizedTypeName = ParameterizedTypeName.get(
+            RoomTypeNames.KEYSET_DATA_SOURCE, itemTypeName)
+    override fun convertAndReturn(roomSQLiteQueryVar: String,
+                                  canReleaseQuery: Boolean,
+                                  dbField: FieldSpec,
+                                  inTransaction: Boolean,
+                                  scope: CodeGenScope) {
+        // see PositionalDataSourceQueryResultBinder for why the first comma is in the string
+        val tableNamesList = tableNames.joinToString("") { ", \"$it\"" }
+        val spec = TypeSpec.anonymousClassBuilder("$N, $L, $S, $L $L",
+                dbField, roomSQLiteQueryVar, keyField.columnName, inTransaction,
+                tableNamesList).apply {
+            superclass(typeName)
+            addMethod(createConvertRowsMethod(scope))
+            addMethod(createGetKeyMethod(scope))
+        }.build()
+        scope.builder().apply {
+            addStatement("return $L", spec)
+        }
+    }
+
+    private fun createGetKeyMethod(scope: CodeGenScope): MethodSpec =
+            MethodSpec.methodBuilder("getKey").apply {
+                addAnnotation(Override::class.java)
+                addModifiers(Modifier.PUBLIC)
+                returns(keyTypeName)
+                val itemParam = ParameterSpec.builder(itemTypeName, "item")
+                        .addAnnotation(NonNull::class.java)
+                        .build()
+                addParameter(itemParam)
+                val keyVar = scope.getTmpVar("_key")
+                val code = CodeBlock.builder()
+                keyField.getter.writeGet(itemParam.name, keyVar, code)
+                addCode(code.build())
+                addStatement("return (long) $L", keyVar)
+            }.build()
+}
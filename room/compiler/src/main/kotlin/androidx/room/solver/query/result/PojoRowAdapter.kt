@@ -17,6 +17,7 @@
 package androidx.room.solver.query.result
 
 import androidx.room.ext.L
+import androidx.room.ext.RoomTypeNames
 import androidx.room.ext.S
 import androidx.room.ext.T
 import androidx.room.processor.Context
@@ -43,6 +44,8 @@ class PojoRowAdapter(
         val pojo: Pojo, out: TypeMirror) : RowAdapter(out) {
     val mapping: Mapping
     val relationCollectors: List<RelationCollector>
+    // index of each matched field's column in the query result, known when info is not null
+    private val matchedColumnIndices = arrayListOf<Int>()
 
     init {
         // toMutableList documentation is not clear if it copies so lets be safe.
@@ -50,7 +53,7 @@ class PojoRowAdapter(
         val unusedColumns = arrayListOf<String>()
         val matchedFields: List<Field>
         if (info != null) {
-            matchedFields = info.columns.mapNotNull { column ->
+            matchedFields = info.columns.withIndex().mapNotNull { (index, column) ->
                 // first check remaining, otherwise check any. maybe developer wants to map the same
                 // column into 2 fields. (if they want to post process etc)
                 val field = remainingFields.firstOrNull { it.columnName == column.name } ?:
@@ -60,6 +63,7 @@ class PojoRowAdapter(
                     null
                 } else {
                     remainingFields.remove(field)
+                    matchedColumnIndices.add(index)
                     field
                 }
             }
@@ -109,16 +113,20 @@ class PojoRowAdapter(
 
     override fun onCursorReady(cursorVarName: String, scope: CodeGenScope) {
         relationCollectors.forEach { it.writeInitCode(scope) }
-        mapping.fieldsWithIndices = mapping.matchedFields.map {
-            val indexVar = scope.getTmpVar("_cursorIndexOf${it.name.stripNonJava().capitalize()}")
-            val indexMethod = if (info == null) {
-                "getColumnIndex"
+        mapping.fieldsWithIndices = mapping.matchedFields.mapIndexed { index, field ->
+            val indexVar = scope.getTmpVar(
+                    "_cursorIndexOf${field.name.stripNonJava().capitalize()}")
+            if (info == null) {
+                scope.builder().addStatement("final $T $L = $L.getColumnIndex($S)",
+                        TypeName.INT, indexVar, cursorVarName, field.columnName)
             } else {
-                "getColumnIndexOrThrow"
+                // the result columns are known, so check the expected index before resolving
+                // the column by name
+                scope.builder().addStatement("final $T $L = $T.getColumnIndexOrThrow($L, $S, $L)",
+                        TypeName.INT, indexVar, RoomTypeNames.CURSOR_UTIL, cursorVarName,
+                        field.columnName, matchedColumnIndices[index])
             }
-            scope.builder().addStatement("final $T $L = $L.$L($S)",
-                    TypeName.INT, indexVar, cursorVarName, indexMethod, it.columnName)
-            FieldWithIndex(field = it, indexVar = indexVar, alwaysExists = info != null)
+            FieldWithIndex(field = field, indexVar = indexVar, alwaysExists = info != null)
         }
     }
 
@@ -141,9 +149,7 @@ class PojoRowAdapter(
                 null
             } else {
                 { scope ->
-                    relationCollectors.forEach { collector ->
-                        collector.writeCollectionCode(scope)
-                    }
+                    RelationCollector.writeCollectionCode(relationCollectors, scope)
                 }
             }
 
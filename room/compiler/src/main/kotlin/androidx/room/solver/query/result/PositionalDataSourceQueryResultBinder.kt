@@ -16,27 +16,37 @@
 
 package androidx.room.solver.query.result
 
-import androidx.room.ext.AndroidTypeNames
-import androidx.room.ext.CommonTypeNames
 import androidx.room.ext.L
 import androidx.room.ext.N
 import androidx.room.ext.RoomTypeNames
+import androidx.room.ext.T
 import androidx.room.ext.typeName
 import androidx.room.solver.CodeGenScope
 import com.squareup.javapoet.FieldSpec
-import com.squareup.javapoet.MethodSpec
-import com.squareup.javapoet.ParameterSpec
 import com.squareup.javapoet.ParameterizedTypeName
 import com.squareup.javapoet.TypeName
 import com.squareup.javapoet.TypeSpec
-import javax.lang.model.element.Modifier
 
+/**
+ * Returns a LimitOffsetDataSource, which is wrapped into a PageKeyedLimitOffsetDataSource if the
+ * DataSource.Factory has Long keys.
+ */
 class PositionalDataSourceQueryResultBinder(
-        val listAdapter: ListQueryResultAdapter?,
-        val tableNames: Set<String>) : QueryResultBinder(listAdapter) {
-    val itemTypeName: TypeName = listAdapter?.rowAdapter?.out?.typeName() ?: TypeName.OBJECT
-    val typeName: ParameterizedTypeName = ParameterizedTypeName.get(
+        listAdapter: ListQueryResultAdapter?,
+        tableNames: Set<String>,
+        val pageKeyed: Boolean = false) : DataSourceQueryResultBinder(listAdapter, tableNames) {
+    override val keyTypeName: TypeName = if (pageKeyed) {
+        TypeName.LONG.box()
+    } else {
+        Integer::class.typeName()
+    }
+    private val limitOffsetTypeName: ParameterizedTypeName = ParameterizedTypeName.get(
             RoomTypeNames.LIMIT_OFFSET_DATA_SOURCE, itemTypeName)
+    override val typeName: ParameterizedTypeName = if (pageKeyed) {
+        ParameterizedTypeName.get(RoomTypeNames.PAGE_KEYED_LIMIT_OFFSET_DATA_SOURCE, itemTypeName)
+    } else {
+        limitOffsetTypeName
+    }
     override fun convertAndReturn(roomSQLiteQueryVar: String,
                                   canReleaseQuery: Boolean,
                                   dbField: FieldSpec,
@@ -48,26 +58,15 @@ class PositionalDataSourceQueryResultBinder(
         val tableNamesList = tableNames.joinToString("") { ", \"$it\"" }
         val spec = TypeSpec.anonymousClassBuilder("$N, $L, $L $L",
                 dbField, roomSQLiteQueryVar, inTransaction, tableNamesList).apply {
-            superclass(typeName)
+            superclass(limitOffsetTypeName)
             addMethod(createConvertRowsMethod(scope))
         }.build()
         scope.builder().apply {
-            addStatement("return $L", spec)
+            if (pageKeyed) {
+                addStatement("return new $T($L)", typeName, spec)
+            } else {
+                addStatement("return $L", spec)
+            }
         }
     }
-
-    private fun createConvertRowsMethod(scope: CodeGenScope): MethodSpec =
-            MethodSpec.methodBuilder("convertRows").apply {
-                addAnnotation(Override::class.java)
-                addModifiers(Modifier.PROTECTED)
-                returns(ParameterizedTypeName.get(CommonTypeNames.LIST, itemTypeName))
-                val cursorParam = ParameterSpec.builder(AndroidTypeNames.CURSOR, "cursor")
-                        .build()
-                addParameter(cursorParam)
-                val resultVar = scope.getTmpVar("_res")
-                val rowsScope = scope.fork()
-                listAdapter?.convert(resultVar, cursorParam.name, rowsScope)
-                addCode(rowsScope.builder().build())
-                addStatement("return $L", resultVar)
-            }.build()
 }
@@ -24,6 +24,20 @@ object DatabaseVerificaitonErrors {
         return CANNOT_VERIFY_QUERY.format(exception.message)
     }
 
+    private val FULL_TABLE_SCAN: String = "The query reads every row of the %s table because" +
+            " there is no index it can use. Consider adding an index on the columns the query" +
+            " filters by, or suppress this warning if the query needs all rows."
+    fun fullTableScan(tableName: String): String {
+        return FULL_TABLE_SCAN.format(tableName)
+    }
+
+    private val TEMP_B_TREE: String = "The query sorts its result in a temporary b-tree for" +
+            " %s because there is no index in that order. Consider adding an index on the" +
+            " sorted columns."
+    fun tempBTree(clause: String): String {
+        return TEMP_B_TREE.format(clause)
+    }
+
     private val CANNOT_CREATE_SQLITE_CONNECTION: String = "Room cannot create an SQLite" +
             " connection to verify the queries. Query verification will be disabled. Error: %s"
     fun cannotCreateConnection(exception: Exception): String {
@@ -19,12 +19,14 @@ package androidx.room.verifier
 import androidx.room.processor.Context
 import androidx.room.vo.Entity
 import androidx.room.vo.Warning
+import collect
 import columnInfo
 import org.sqlite.JDBC
 import java.io.File
 import java.sql.Connection
 import java.sql.DriverManager
 import java.sql.SQLException
+import java.sql.Types
 import java.util.UUID
 import java.util.regex.Pattern
 import javax.lang.model.element.Element
@@ -97,6 +99,12 @@ class DatabaseVerifier private constructor(
         entities.forEach { entity ->
             val stmt = connection.createStatement()
             stmt.executeUpdate(stripLocalizeCollations(entity.createTableQuery))
+            if (context.verifyQueryPlans) {
+                // query plans depend on the indices
+                entity.indices.forEach {
+                    stmt.executeUpdate(it.createQuery(entity.tableName))
+                }
+            }
         }
     }
 
@@ -109,6 +117,33 @@ class DatabaseVerifier private constructor(
         }
     }
 
+    /**
+     * Returns the plan SQLite chooses for the given query, or null if it cannot be explained.
+     */
+    fun explain(sql: String): QueryPlan? {
+        return try {
+            val stmt = connection.prepareStatement(
+                    "EXPLAIN QUERY PLAN ${stripLocalizeCollations(sql)}")
+            // AutoCloseable.use needs kotlin-stdlib-jdk7, so close the statement by hand.
+            try {
+                // the plan does not depend on the values of the arguments
+                (1..stmt.parameterMetaData.parameterCount).forEach {
+                    stmt.setNull(it, Types.NULL)
+                }
+                val resultSet = stmt.executeQuery()
+                try {
+                    QueryPlan(resultSet.collect { it.getString("detail") })
+                } finally {
+                    resultSet.close()
+                }
+            } finally {
+                stmt.close()
+            }
+        } catch (ex: SQLException) {
+            null
+        }
+    }
+
     private fun stripLocalizeCollations(sql: String) =
         COLLATE_LOCALIZED_UNICODE_PATTERN.matcher(sql).replaceAll(" COLLATE NOCASE")
 
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.verifier
+
+/**
+ * The output of `EXPLAIN QUERY PLAN` for a query, one detail per step.
+ */
+data class QueryPlan(val details: List<String>) {
+    companion object {
+        // SQLite 3.24 and older print "SCAN TABLE name", newer versions omit "TABLE".
+        private val SCAN = "^SCAN (TABLE )?(\\S+)(.*)$".toRegex()
+        private val TEMP_B_TREE = "^USE TEMP B-TREE FOR (.+)$".toRegex()
+    }
+
+    /**
+     * Returns the tables among the given ones that are read row by row without an index.
+     */
+    fun findFullTableScans(tableNames: Collection<String>): List<String> {
+        return details.mapNotNull { SCAN.find(it.trim()) }
+                .filterNot { it.groupValues[3].contains("INDEX") ||
+                        it.groupValues[3].contains("PRIMARY KEY") }
+                .map { it.groupValues[2] }
+                .filter { table -> tableNames.any { it.equals(table, ignoreCase = true) } }
+    }
+
+    /**
+     * Returns the clauses, such as `ORDER BY`, that are evaluated by sorting the result in a
+     * temporary b-tree because no index provides the order.
+     */
+    fun findTempBTrees(): List<String> {
+        return details.mapNotNull { TEMP_B_TREE.find(it.trim())?.groupValues?.get(1) }
+    }
+}
@@ -18,6 +18,9 @@ package androidx.room.vo
 
 import androidx.room.ext.typeName
 import androidx.room.parser.ParsedQuery
+import androidx.room.parser.QueryType
+import androidx.room.solver.query.result.InstantQueryResultBinder
+import androidx.room.solver.query.result.ListQueryResultAdapter
 import androidx.room.solver.query.result.QueryResultBinder
 import com.squareup.javapoet.TypeName
 import javax.lang.model.element.ExecutableElement
@@ -49,4 +52,27 @@ data class QueryMethod(val element: ExecutableElement, val query: ParsedQuery, v
     val returnsValue by lazy {
         returnType.typeName() != TypeName.VOID
     }
+
+    /**
+     * The collection or array parameter that is split into chunks which fit into SQLite's bind
+     * argument limit, running the query once per chunk, or null if the query cannot be split.
+     */
+    val chunkedParameter by lazy {
+        val param = parameters.singleOrNull { it.queryParamAdapter?.isMultiple ?: false }
+        if (param == null || !query.chunkableInputs.contains(":${param.sqlName}")) {
+            return@lazy null
+        }
+        val canMergeResults = when (query.type) {
+            QueryType.SELECT -> {
+                // rows are collected into a single list, @Relation fields need all of them first
+                val adapter = queryResultBinder.adapter
+                queryResultBinder is InstantQueryResultBinder &&
+                        adapter is ListQueryResultAdapter &&
+                        adapter.rowAdapter?.onCursorFinished() == null
+            }
+            QueryType.DELETE, QueryType.UPDATE -> true
+            else -> false
+        }
+        if (canMergeResults) param else null
+    }
 }
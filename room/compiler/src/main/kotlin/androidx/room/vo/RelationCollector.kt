@@ -29,19 +29,24 @@ import androidx.room.processor.Context
 import androidx.room.processor.ProcessorErrors.CANNOT_FIND_QUERY_RESULT_ADAPTER
 import androidx.room.processor.ProcessorErrors.relationAffinityMismatch
 import androidx.room.solver.CodeGenScope
+import androidx.room.solver.query.parameter.LongSparseArrayKeyQueryParameterAdapter
 import androidx.room.solver.query.result.RowAdapter
 import androidx.room.solver.query.result.SingleColumnRowAdapter
 import androidx.room.verifier.DatabaseVerificaitonErrors
+import androidx.room.writer.DaoWriter
 import androidx.room.writer.QueryWriter
 import androidx.room.writer.RelationCollectorMethodWriter
 import com.squareup.javapoet.ArrayTypeName
 import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.ParameterizedTypeName
 import com.squareup.javapoet.TypeName
+import com.squareup.javapoet.TypeSpec
 import stripNonJava
 import java.util.ArrayList
 import java.util.HashSet
+import javax.lang.model.element.Modifier
 import javax.lang.model.type.TypeKind
 import javax.lang.model.type.TypeMirror
 
@@ -59,6 +64,9 @@ data class RelationCollector(val relation: Relation,
     // set when writing the code generator in writeInitCode
     lateinit var varName: String
 
+    // integer keys are collected into a LongSparseArray to avoid boxing them
+    val usesLongSparseArray = mapTypeName.rawType == AndroidTypeNames.LONG_SPARSE_ARRAY
+
     fun writeInitCode(scope: CodeGenScope) {
         val tmpVar = scope.getTmpVar(
                 "_collection${relation.field.getPath().stripNonJava().capitalize()}")
@@ -100,6 +108,20 @@ data class RelationCollector(val relation: Relation,
         }
     }
 
+    // the fetch is wrapped in a Runnable so that the database can run it on another thread
+    private fun createCollectionRunnable(scope: CodeGenScope): TypeSpec {
+        val method = scope.writer
+                .getOrCreateMethod(RelationCollectorMethodWriter(this))
+        return TypeSpec.anonymousClassBuilder("").apply {
+            superclass(Runnable::class.java)
+            addMethod(MethodSpec.methodBuilder("run").apply {
+                addAnnotation(Override::class.java)
+                addModifiers(Modifier.PUBLIC)
+                addStatement("$N($L)", method, varName)
+            }.build())
+        }.build()
+    }
+
     fun readKey(cursorVarName: String, indexVar: String?, scope: CodeGenScope,
                 postRead: CodeBlock.Builder.(String) -> Unit) {
         val cursorGetter = when (affinity) {
@@ -123,6 +145,21 @@ data class RelationCollector(val relation: Relation,
     }
 
     companion object {
+        /**
+         * Fetches the relations of all given collectors. If there are multiple, they are passed
+         * to the database together so that it can load them in parallel.
+         */
+        fun writeCollectionCode(collectors: List<RelationCollector>, scope: CodeGenScope) {
+            if (collectors.size < 2) {
+                collectors.forEach { it.writeCollectionCode(scope) }
+                return
+            }
+            val runnables = collectors.map { it.createCollectionRunnable(scope) }
+            scope.builder().addStatement(
+                    "$N.runRelationQueries(${runnables.joinToString(", ") { "\$L" }})",
+                    DaoWriter.dbField, *runnables.toTypedArray())
+        }
+
         fun createCollectors(
                 baseContext: Context,
                 relations: List<Relation>
@@ -143,7 +180,14 @@ data class RelationCollector(val relation: Relation,
                                     childAffinity = childAffinity))
                     SQLTypeAffinity.TEXT
                 }
-                val keyType = keyTypeFor(context, affinity)
+                val canUseLongSparseArray = affinity == SQLTypeAffinity.INTEGER &&
+                        context.processingEnv.elementUtils.getTypeElement(
+                                AndroidTypeNames.LONG_SPARSE_ARRAY.toString()) != null
+                val keyType = if (canUseLongSparseArray) {
+                    TypeName.LONG
+                } else {
+                    keyTypeFor(context, affinity)
+                }
                 val collectionTypeName = if (relation.field.typeName is ParameterizedTypeName) {
                     val paramType = relation.field.typeName as ParameterizedTypeName
                     if (paramType.rawType == CommonTypeNames.LIST) {
@@ -168,10 +212,12 @@ data class RelationCollector(val relation: Relation,
                 } else {
                     ClassName.get(java.util.HashMap::class.java)
                 }
-                val tmpMapType = ParameterizedTypeName.get(mapClass, keyType, collectionTypeName)
-                val keyTypeMirror = keyTypeMirrorFor(context, affinity)
-                val set = context.processingEnv.elementUtils.getTypeElement("java.util.Set")
-                val keySet = context.processingEnv.typeUtils.getDeclaredType(set, keyTypeMirror)
+                val tmpMapType = if (canUseLongSparseArray) {
+                    ParameterizedTypeName.get(AndroidTypeNames.LONG_SPARSE_ARRAY,
+                            collectionTypeName)
+                } else {
+                    ParameterizedTypeName.get(mapClass, keyType, collectionTypeName)
+                }
                 val loadAllQuery = relation.createLoadAllSql()
                 val parsedQuery = SqlParser.parse(loadAllQuery)
                 context.checker.check(parsedQuery.errors.isEmpty(), relation.field.element,
@@ -186,12 +232,29 @@ data class RelationCollector(val relation: Relation,
                 }
                 val resultInfo = parsedQuery.resultInfo
 
-                val queryParam = QueryParameter(
-                        name = RelationCollectorMethodWriter.KEY_SET_VARIABLE,
-                        sqlName = RelationCollectorMethodWriter.KEY_SET_VARIABLE,
-                        type = keySet,
-                        queryParamAdapter =
-                                context.typeAdapterStore.findQueryParameterAdapter(keySet))
+                val queryParam = if (canUseLongSparseArray) {
+                    // bind the keys of the map directly instead of boxing them into a key set
+                    val types = context.processingEnv.typeUtils
+                    val longSparseArray = context.processingEnv.elementUtils
+                            .getTypeElement(AndroidTypeNames.LONG_SPARSE_ARRAY.toString())
+                    QueryParameter(
+                            name = RelationCollectorMethodWriter.MAP_VARIABLE,
+                            sqlName = RelationCollectorMethodWriter.MAP_VARIABLE,
+                            type = types.getDeclaredType(longSparseArray,
+                                    types.getWildcardType(null, null)),
+                            queryParamAdapter = LongSparseArrayKeyQueryParameterAdapter())
+                } else {
+                    val keyTypeMirror = keyTypeMirrorFor(context, affinity)
+                    val set = context.processingEnv.elementUtils.getTypeElement("java.util.Set")
+                    val keySet = context.processingEnv.typeUtils.getDeclaredType(set,
+                            keyTypeMirror)
+                    QueryParameter(
+                            name = RelationCollectorMethodWriter.KEY_SET_VARIABLE,
+                            sqlName = RelationCollectorMethodWriter.KEY_SET_VARIABLE,
+                            type = keySet,
+                            queryParamAdapter =
+                                    context.typeAdapterStore.findQueryParameterAdapter(keySet))
+                }
                 val queryWriter = QueryWriter(
                         parameters = listOf(queryParam),
                         sectionToParamMapping = listOf(Pair(parsedQuery.bindSections.first(),
@@ -33,7 +33,10 @@ enum class Warning(val publicKey: String) {
     MISSING_SCHEMA_LOCATION("ROOM_MISSING_SCHEMA_LOCATION"),
     MISSING_INDEX_ON_FOREIGN_KEY_CHILD("ROOM_MISSING_FOREIGN_KEY_CHILD_INDEX"),
     RELATION_QUERY_WITHOUT_TRANSACTION("ROOM_RELATION_QUERY_WITHOUT_TRANSACTION"),
-    DEFAULT_CONSTRUCTOR("ROOM_DEFAULT_CONSTRUCTOR");
+    DEFAULT_CONSTRUCTOR("ROOM_DEFAULT_CONSTRUCTOR"),
+    QUERY_PLAN_FULL_TABLE_SCAN("ROOM_QUERY_PLAN_FULL_TABLE_SCAN"),
+    QUERY_PLAN_TEMP_B_TREE("ROOM_QUERY_PLAN_TEMP_B_TREE"),
+    PAGING_ORDER_NOT_BY_KEY("ROOM_PAGING_ORDER_NOT_BY_KEY");
 
     companion object {
         val PUBLIC_KEY_MAP = Warning.values().associateBy { it.publicKey }
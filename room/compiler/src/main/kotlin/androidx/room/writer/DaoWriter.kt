@@ -16,6 +16,8 @@
 
 package androidx.room.writer
 
+import androidx.room.ext.AndroidTypeNames
+import androidx.room.ext.CommonTypeNames
 import androidx.room.ext.L
 import androidx.room.ext.N
 import androidx.room.ext.RoomTypeNames
@@ -28,6 +30,7 @@ import androidx.room.solver.CodeGenScope
 import androidx.room.vo.Dao
 import androidx.room.vo.Entity
 import androidx.room.vo.InsertionMethod
+import androidx.room.vo.QueryParameter
 import androidx.room.vo.QueryMethod
 import androidx.room.vo.RawQueryMethod
 import androidx.room.vo.ShortcutMethod
@@ -38,6 +41,7 @@ import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
 import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.ParameterizedTypeName
 import com.squareup.javapoet.TypeName
 import com.squareup.javapoet.TypeSpec
 import me.eugeniomarletti.kotlin.metadata.shadow.load.java.JvmAbi
@@ -92,6 +96,7 @@ class DaoWriter(val dao: Dao, val processingEnv: ProcessingEnvironment)
                 createPreparedDeleteOrUpdateQueries(preparedDeleteOrUpdateQueries)
 
         builder.apply {
+            addOriginatingElement(dao.element)
             addModifiers(PUBLIC)
             if (dao.element.kind == ElementKind.INTERFACE) {
                 addSuperinterface(dao.typeName)
@@ -270,7 +275,11 @@ class DaoWriter(val dao: Dao, val processingEnv: ProcessingEnvironment)
 
     private fun createSelectMethod(method: QueryMethod): MethodSpec {
         return overrideWithoutAnnotations(method.element, declaredDao).apply {
-            addCode(createQueryMethodBody(method))
+            if (method.chunkedParameter != null) {
+                addCode(createChunkedQueryMethodBody(method))
+            } else {
+                addCode(createQueryMethodBody(method))
+            }
         }.build()
     }
 
@@ -328,7 +337,11 @@ class DaoWriter(val dao: Dao, val processingEnv: ProcessingEnvironment)
 
     private fun createDeleteOrUpdateQueryMethod(method: QueryMethod): MethodSpec {
         return overrideWithoutAnnotations(method.element, declaredDao).apply {
-            addCode(createDeleteOrUpdateQueryMethodBody(method))
+            if (method.chunkedParameter != null) {
+                addCode(createChunkedDeleteOrUpdateQueryMethodBody(method))
+            } else {
+                addCode(createDeleteOrUpdateQueryMethodBody(method))
+            }
         }.build()
     }
 
@@ -495,7 +508,7 @@ class DaoWriter(val dao: Dao, val processingEnv: ProcessingEnvironment)
         val stmtVar = scope.getTmpVar("_stmt")
         val listSizeArgs = queryWriter.prepareQuery(sqlVar, scope)
         scope.builder().apply {
-            addStatement("$T $L = $N.compileStatement($L)",
+            addStatement("final $T $L = $N.acquireStatement($L)",
                     SupportDbTypeNames.SQLITE_STMT, stmtVar, dbField, sqlVar)
             queryWriter.bindArgs(stmtVar, listSizeArgs, scope)
             addStatement("$N.beginTransaction()", dbField)
@@ -513,12 +526,177 @@ class DaoWriter(val dao: Dao, val processingEnv: ProcessingEnvironment)
             }
             nextControlFlow("finally").apply {
                 addStatement("$N.endTransaction()", dbField)
+                addStatement("$N.releaseStatement($L, $L)", dbField, sqlVar, stmtVar)
             }
             endControlFlow()
         }
         return scope.builder().build()
     }
 
+    /**
+     * @Query with delete action, whose IN (...) list is split to fit into the bind argument limit
+     */
+    private fun createChunkedDeleteOrUpdateQueryMethodBody(method: QueryMethod): CodeBlock {
+        val scope = CodeGenScope(this)
+        val chunkVar = scope.getTmpVar("_chunk")
+        val queryWriter = createChunkQueryWriter(method, chunkVar)
+        val totalVar = scope.getTmpVar("_total")
+        scope.builder().apply {
+            if (method.returnsValue) {
+                addStatement("$T $L = 0", method.returnType.typeName(), totalVar)
+            }
+            addStatement("$N.beginTransaction()", dbField)
+            beginControlFlow("try").apply {
+                beginChunkLoop(method, chunkVar, scope)
+                val sqlVar = scope.getTmpVar("_sql")
+                val stmtVar = scope.getTmpVar("_stmt")
+                val listSizeArgs = queryWriter.prepareQuery(sqlVar, scope)
+                addStatement("final $T $L = $N.acquireStatement($L)",
+                        SupportDbTypeNames.SQLITE_STMT, stmtVar, dbField, sqlVar)
+                beginControlFlow("try").apply {
+                    queryWriter.bindArgs(stmtVar, listSizeArgs, scope)
+                    if (method.returnsValue) {
+                        addStatement("$L += $L.executeUpdateDelete()", totalVar, stmtVar)
+                    } else {
+                        addStatement("$L.executeUpdateDelete()", stmtVar)
+                    }
+                }
+                nextControlFlow("finally").apply {
+                    addStatement("$N.releaseStatement($L, $L)", dbField, sqlVar, stmtVar)
+                }
+                endControlFlow()
+                endControlFlow()
+                addStatement("$N.setTransactionSuccessful()", dbField)
+                if (method.returnsValue) {
+                    addStatement("return $L", totalVar)
+                }
+            }
+            nextControlFlow("finally").apply {
+                addStatement("$N.endTransaction()", dbField)
+            }
+            endControlFlow()
+        }
+        return scope.builder().build()
+    }
+
+    /**
+     * @Query returning a List, whose IN (...) list is split to fit into the bind argument limit.
+     * The rows of all chunks are collected into the same list.
+     */
+    private fun createChunkedQueryMethodBody(method: QueryMethod): CodeBlock {
+        val scope = CodeGenScope(this)
+        val chunkVar = scope.getTmpVar("_chunk")
+        val queryWriter = createChunkQueryWriter(method, chunkVar)
+        val rowAdapter = method.queryResultBinder.adapter!!.rowAdapter!!
+        val itemTypeName = rowAdapter.out.typeName()
+        val resultVar = scope.getTmpVar("_result")
+        val chunksVar = scope.getTmpVar("_chunks")
+        val inTransactionVar = scope.getTmpVar("_inTransaction")
+        scope.builder().apply {
+            addStatement("final $T $L = $L", ParameterizedTypeName.get(CommonTypeNames.LIST,
+                    chunkTypeName(method.chunkedParameter!!)), chunksVar,
+                    createChunkCall(method))
+            addStatement("final $T $L = new $T()",
+                    ParameterizedTypeName.get(CommonTypeNames.LIST, itemTypeName), resultVar,
+                    ParameterizedTypeName.get(CommonTypeNames.ARRAY_LIST, itemTypeName))
+            // read all chunks from the same snapshot of the database
+            addStatement("final $T $L = $L", TypeName.BOOLEAN, inTransactionVar,
+                    if (method.inTransaction) "true" else "$chunksVar.size() > 1")
+            beginControlFlow("if ($L)", inTransactionVar)
+                    .addStatement("$N.beginTransaction()", dbField)
+                    .endControlFlow()
+            beginControlFlow("try").apply {
+                beginControlFlow("for ($T $L : $L)", chunkTypeName(method.chunkedParameter!!),
+                        chunkVar, chunksVar)
+                val sqlVar = scope.getTmpVar("_sql")
+                val roomSQLiteQueryVar = scope.getTmpVar("_statement")
+                queryWriter.prepareReadAndBind(sqlVar, roomSQLiteQueryVar, scope)
+                val cursorVar = scope.getTmpVar("_cursor")
+                addStatement("final $T $L = $N.query($L)", AndroidTypeNames.CURSOR, cursorVar,
+                        dbField, roomSQLiteQueryVar)
+                beginControlFlow("try").apply {
+                    rowAdapter.onCursorReady(cursorVar, scope)
+                    val itemVar = scope.getTmpVar("_item")
+                    beginControlFlow("while($L.moveToNext())", cursorVar).apply {
+                        addStatement("final $T $L", itemTypeName, itemVar)
+                        rowAdapter.convert(itemVar, cursorVar, scope)
+                        addStatement("$L.add($L)", resultVar, itemVar)
+                    }
+                    endControlFlow()
+                }
+                nextControlFlow("finally").apply {
+                    addStatement("$L.close()", cursorVar)
+                    addStatement("$L.release()", roomSQLiteQueryVar)
+                }
+                endControlFlow()
+                endControlFlow()
+                beginControlFlow("if ($L)", inTransactionVar)
+                        .addStatement("$N.setTransactionSuccessful()", dbField)
+                        .endControlFlow()
+            }
+            nextControlFlow("finally").apply {
+                beginControlFlow("if ($L)", inTransactionVar)
+                        .addStatement("$N.endTransaction()", dbField)
+                        .endControlFlow()
+            }
+            endControlFlow()
+            addStatement("return $L", resultVar)
+        }
+        return scope.builder().build()
+    }
+
+    private fun CodeBlock.Builder.beginChunkLoop(
+            method: QueryMethod,
+            chunkVar: String,
+            scope: CodeGenScope
+    ) {
+        val chunksVar = scope.getTmpVar("_chunks")
+        addStatement("final $T $L = $L", ParameterizedTypeName.get(CommonTypeNames.LIST,
+                chunkTypeName(method.chunkedParameter!!)), chunksVar, createChunkCall(method))
+        beginControlFlow("for ($T $L : $L)", chunkTypeName(method.chunkedParameter!!), chunkVar,
+                chunksVar)
+    }
+
+    /**
+     * Splits the chunked parameter into parts that fit into the bind argument limit together
+     * with the other arguments of the query.
+     */
+    private fun createChunkCall(method: QueryMethod): CodeBlock {
+        val param = method.chunkedParameter!!
+        val otherArgCount = method.sectionToParamMapping.count { it.second != param }
+        val chunkSize = if (otherArgCount == 0) {
+            CodeBlock.of("$T.MAX_BIND_PARAMETER_CNT", RoomTypeNames.ROOM_DB)
+        } else {
+            CodeBlock.of("$T.MAX_BIND_PARAMETER_CNT - $L", RoomTypeNames.ROOM_DB, otherArgCount)
+        }
+        val chunkMethod = if (param.type.kind == TypeKind.ARRAY) "chunkArray" else "chunk"
+        return CodeBlock.of("$T.$L($L, $L)", RoomTypeNames.CHUNK_UTIL, chunkMethod, param.name,
+                chunkSize)
+    }
+
+    private fun chunkTypeName(param: QueryParameter): TypeName {
+        return if (param.type.kind == TypeKind.ARRAY) {
+            param.type.typeName()
+        } else {
+            val itemType = MoreTypes.asDeclared(param.type).typeArguments.first()
+            ParameterizedTypeName.get(CommonTypeNames.COLLECTION, itemType.typeName())
+        }
+    }
+
+    /**
+     * Creates a QueryWriter which binds the chunk variable instead of the chunked parameter.
+     */
+    private fun createChunkQueryWriter(method: QueryMethod, chunkVar: String): QueryWriter {
+        val param = method.chunkedParameter!!
+        val chunkParam = param.copy(name = chunkVar)
+        return QueryWriter(
+                parameters = method.parameters.map { if (it == param) chunkParam else it },
+                sectionToParamMapping = method.sectionToParamMapping.map {
+                    if (it.second == param) Pair(it.first, chunkParam) else it
+                },
+                query = method.query)
+    }
+
     private fun createQueryMethodBody(method: QueryMethod): CodeBlock {
         val queryWriter = QueryWriter(method)
         val scope = CodeGenScope(this)
@@ -46,6 +46,9 @@ class DatabaseWriter(val database: Database) : ClassWriter(database.implTypeName
     override fun createTypeSpecBuilder(): TypeSpec.Builder {
         val builder = TypeSpec.classBuilder(database.implTypeName)
         builder.apply {
+            addOriginatingElement(database.element)
+            database.entities.forEach { addOriginatingElement(it.element) }
+            database.daoMethods.forEach { addOriginatingElement(it.dao.element) }
             addModifiers(PUBLIC)
             superclass(database.typeName)
             addMethod(createCreateOpenHelper())
@@ -41,6 +41,7 @@ class RelationCollectorMethodWriter(private val collector: RelationCollector)
                 "As${collector.relation.pojoTypeName.toString().stripNonJava()}") {
     companion object {
         val KEY_SET_VARIABLE = "__mapKeySet"
+        val MAP_VARIABLE = "_map"
     }
     override fun getUniqueKey(): String {
         val relation = collector.relation
@@ -56,7 +57,7 @@ class RelationCollectorMethodWriter(private val collector: RelationCollector)
         val scope = CodeGenScope(writer)
         val relation = collector.relation
 
-        val param = ParameterSpec.builder(collector.mapTypeName, "_map")
+        val param = ParameterSpec.builder(collector.mapTypeName, MAP_VARIABLE)
                 .addModifiers(Modifier.FINAL)
                 .build()
         val sqlQueryVar = scope.getTmpVar("_sql")
@@ -67,14 +68,22 @@ class RelationCollectorMethodWriter(private val collector: RelationCollector)
         val stmtVar = scope.getTmpVar("_stmt")
         scope.builder().apply {
 
-            val keySetType = ParameterizedTypeName.get(
-                    ClassName.get(Set::class.java), collector.keyTypeName
-            )
-            addStatement("final $T $L = $N.keySet()", keySetType, keySetVar, param)
-            beginControlFlow("if ($L.isEmpty())", keySetVar).apply {
-                addStatement("return")
+            if (collector.usesLongSparseArray) {
+                // the keys are bound straight from the map
+                beginControlFlow("if ($N.isEmpty())", param).apply {
+                    addStatement("return")
+                }
+                endControlFlow()
+            } else {
+                val keySetType = ParameterizedTypeName.get(
+                        ClassName.get(Set::class.java), collector.keyTypeName
+                )
+                addStatement("final $T $L = $N.keySet()", keySetType, keySetVar, param)
+                beginControlFlow("if ($L.isEmpty())", keySetVar).apply {
+                    addStatement("return")
+                }
+                endControlFlow()
             }
-            endControlFlow()
             addStatement("// check if the size is too big, if so divide")
             beginControlFlow("if($N.size() > $T.MAX_BIND_PARAMETER_CNT)",
                     param, RoomTypeNames.ROOM_DB).apply {
@@ -7,6 +7,8 @@ import androidx.lifecycle.LiveData;
 import androidx.room.InvalidationTracker.Observer;
 import androidx.room.RoomDatabase;
 import androidx.room.RoomSQLiteQuery;
+import androidx.room.util.ChunkUtil;
+import androidx.room.util.CursorUtil;
 import androidx.room.util.StringUtil;
 import java.lang.Integer;
 import java.lang.Override;
@@ -14,6 +16,7 @@ import java.lang.String;
 import java.lang.StringBuilder;
 import java.lang.SuppressWarnings;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.Generated;
@@ -48,8 +51,8 @@ public class ComplexDao_Impl extends ComplexDao {
         _statement.bindLong(_argIndex, id);
         final Cursor _cursor = __db.query(_statement);
         try {
-            final int _cursorIndexOfFullName = _cursor.getColumnIndexOrThrow("fullName");
-            final int _cursorIndexOfId = _cursor.getColumnIndexOrThrow("id");
+            final int _cursorIndexOfFullName = CursorUtil.getColumnIndexOrThrow(_cursor, "fullName", 0);
+            final int _cursorIndexOfId = CursorUtil.getColumnIndexOrThrow(_cursor, "id", 1);
             final List<ComplexDao.FullName> _result = new ArrayList<ComplexDao.FullName>(_cursor.getCount());
             while(_cursor.moveToNext()) {
                 final ComplexDao.FullName _item;
@@ -73,10 +76,10 @@ public class ComplexDao_Impl extends ComplexDao {
         _statement.bindLong(_argIndex, id);
         final Cursor _cursor = __db.query(_statement);
         try {
-            final int _cursorIndexOfUid = _cursor.getColumnIndexOrThrow("uid");
-            final int _cursorIndexOfName = _cursor.getColumnIndexOrThrow("name");
-            final int _cursorIndexOfLastName = _cursor.getColumnIndexOrThrow("lastName");
-            final int _cursorIndexOfAge = _cursor.getColumnIndexOrThrow("ageColumn");
+            final int _cursorIndexOfUid = CursorUtil.getColumnIndexOrThrow(_cursor, "uid", 0);
+            final int _cursorIndexOfName = CursorUtil.getColumnIndexOrThrow(_cursor, "name", 1);
+            final int _cursorIndexOfLastName = CursorUtil.getColumnIndexOrThrow(_cursor, "lastName", 2);
+            final int _cursorIndexOfAge = CursorUtil.getColumnIndexOrThrow(_cursor, "ageColumn", 3);
             final User _result;
             if(_cursor.moveToFirst()) {
                 _result = new User();
@@ -114,10 +117,10 @@ public class ComplexDao_Impl extends ComplexDao {
         }
         final Cursor _cursor = __db.query(_statement);
         try {
-            final int _cursorIndexOfUid = _cursor.getColumnIndexOrThrow("uid");
-            final int _cursorIndexOfName = _cursor.getColumnIndexOrThrow("name");
-            final int _cursorIndexOfLastName = _cursor.getColumnIndexOrThrow("lastName");
-            final int _cursorIndexOfAge = _cursor.getColumnIndexOrThrow("ageColumn");
+            final int _cursorIndexOfUid = CursorUtil.getColumnIndexOrThrow(_cursor, "uid", 0);
+            final int _cursorIndexOfName = CursorUtil.getColumnIndexOrThrow(_cursor, "name", 1);
+            final int _cursorIndexOfLastName = CursorUtil.getColumnIndexOrThrow(_cursor, "lastName", 2);
+            final int _cursorIndexOfAge = CursorUtil.getColumnIndexOrThrow(_cursor, "ageColumn", 3);
             final User _result;
             if(_cursor.moveToFirst()) {
                 _result = new User();
@@ -139,42 +142,58 @@ public class ComplexDao_Impl extends ComplexDao {
 
     @Override
     public List<User> loadAllByIds(int... ids) {
-        StringBuilder _stringBuilder = StringUtil.newStringBuilder();
-        _stringBuilder.append("SELECT * FROM user where uid IN (");
-        final int _inputSize = ids.length;
-        StringUtil.appendPlaceholders(_stringBuilder, _inputSize);
-        _stringBuilder.append(")");
-        final String _sql = _stringBuilder.toString();
-        final int _argCount = 0 + _inputSize;
-        final RoomSQLiteQuery _statement = RoomSQLiteQuery.acquire(_sql, _argCount);
-        int _argIndex = 1;
-        for (int _item : ids) {
-            _statement.bindLong(_argIndex, _item);
-            _argIndex ++;
+        final List<int[]> _chunks = ChunkUtil.chunkArray(ids, RoomDatabase.MAX_BIND_PARAMETER_CNT);
+        final List<User> _result = new ArrayList<User>();
+        final boolean _inTransaction = _chunks.size() > 1;
+        if (_inTransaction) {
+            __db.beginTransaction();
         }
-        final Cursor _cursor = __db.query(_statement);
         try {
-            final int _cursorIndexOfUid = _cursor.getColumnIndexOrThrow("uid");
-            final int _cursorIndexOfName = _cursor.getColumnIndexOrThrow("name");
-            final int _cursorIndexOfLastName = _cursor.getColumnIndexOrThrow("lastName");
-            final int _cursorIndexOfAge = _cursor.getColumnIndexOrThrow("ageColumn");
-            final List<User> _result = new ArrayList<User>(_cursor.getCount());
-            while(_cursor.moveToNext()) {
-                final User _item_1;
-                _item_1 = new User();
-                _item_1.uid = _cursor.getInt(_cursorIndexOfUid);
-                _item_1.name = _cursor.getString(_cursorIndexOfName);
-                final String _tmpLastName;
-                _tmpLastName = _cursor.getString(_cursorIndexOfLastName);
-                _item_1.setLastName(_tmpLastName);
-                _item_1.age = _cursor.getInt(_cursorIndexOfAge);
-                _result.add(_item_1);
+            for (int[] _chunk : _chunks) {
+                StringBuilder _stringBuilder = StringUtil.newStringBuilder();
+                _stringBuilder.append("SELECT * FROM user where uid IN (");
+                final int _inputSize = _chunk.length;
+                StringUtil.appendPlaceholders(_stringBuilder, _inputSize);
+                _stringBuilder.append(")");
+                final String _sql = _stringBuilder.toString();
+                final int _argCount = 0 + _inputSize;
+                final RoomSQLiteQuery _statement = RoomSQLiteQuery.acquire(_sql, _argCount);
+                int _argIndex = 1;
+                for (int _item : _chunk) {
+                    _statement.bindLong(_argIndex, _item);
+                    _argIndex ++;
+                }
+                final Cursor _cursor = __db.query(_statement);
+                try {
+                    final int _cursorIndexOfUid = CursorUtil.getColumnIndexOrThrow(_cursor, "uid", 0);
+                    final int _cursorIndexOfName = CursorUtil.getColumnIndexOrThrow(_cursor, "name", 1);
+                    final int _cursorIndexOfLastName = CursorUtil.getColumnIndexOrThrow(_cursor, "lastName", 2);
+                    final int _cursorIndexOfAge = CursorUtil.getColumnIndexOrThrow(_cursor, "ageColumn", 3);
+                    while(_cursor.moveToNext()) {
+                        final User _item_1;
+                        _item_1 = new User();
+                        _item_1.uid = _cursor.getInt(_cursorIndexOfUid);
+                        _item_1.name = _cursor.getString(_cursorIndexOfName);
+                        final String _tmpLastName;
+                        _tmpLastName = _cursor.getString(_cursorIndexOfLastName);
+                        _item_1.setLastName(_tmpLastName);
+                        _item_1.age = _cursor.getInt(_cursorIndexOfAge);
+                        _result.add(_item_1);
+                    }
+                } finally {
+                    _cursor.close();
+                    _statement.release();
+                }
+            }
+            if (_inTransaction) {
+                __db.setTransactionSuccessful();
             }
-            return _result;
         } finally {
-            _cursor.close();
-            _statement.release();
+            if (_inTransaction) {
+                __db.endTransaction();
+            }
         }
+        return _result;
     }
 
     @Override
@@ -232,40 +251,56 @@ public class ComplexDao_Impl extends ComplexDao {
 
     @Override
     public List<Integer> getAllAgesAsList(List<Integer> ids) {
-        StringBuilder _stringBuilder = StringUtil.newStringBuilder();
-        _stringBuilder.append("SELECT ageColumn FROM user where uid IN(");
-        final int _inputSize = ids.size();
-        StringUtil.appendPlaceholders(_stringBuilder, _inputSize);
-        _stringBuilder.append(")");
-        final String _sql = _stringBuilder.toString();
-        final int _argCount = 0 + _inputSize;
-        final RoomSQLiteQuery _statement = RoomSQLiteQuery.acquire(_sql, _argCount);
-        int _argIndex = 1;
-        for (Integer _item : ids) {
-            if (_item == null) {
-                _statement.bindNull(_argIndex);
-            } else {
-                _statement.bindLong(_argIndex, _item);
-            }
-            _argIndex ++;
+        final List<Collection<Integer>> _chunks = ChunkUtil.chunk(ids, RoomDatabase.MAX_BIND_PARAMETER_CNT);
+        final List<Integer> _result = new ArrayList<Integer>();
+        final boolean _inTransaction = _chunks.size() > 1;
+        if (_inTransaction) {
+            __db.beginTransaction();
         }
-        final Cursor _cursor = __db.query(_statement);
         try {
-            final List<Integer> _result = new ArrayList<Integer>(_cursor.getCount());
-            while(_cursor.moveToNext()) {
-                final Integer _item_1;
-                if (_cursor.isNull(0)) {
-                    _item_1 = null;
-                } else {
-                    _item_1 = _cursor.getInt(0);
+            for (Collection<Integer> _chunk : _chunks) {
+                StringBuilder _stringBuilder = StringUtil.newStringBuilder();
+                _stringBuilder.append("SELECT ageColumn FROM user where uid IN(");
+                final int _inputSize = _chunk.size();
+                StringUtil.appendPlaceholders(_stringBuilder, _inputSize);
+                _stringBuilder.append(")");
+                final String _sql = _stringBuilder.toString();
+                final int _argCount = 0 + _inputSize;
+                final RoomSQLiteQuery _statement = RoomSQLiteQuery.acquire(_sql, _argCount);
+                int _argIndex = 1;
+                for (Integer _item : _chunk) {
+                    if (_item == null) {
+                        _statement.bindNull(_argIndex);
+                    } else {
+                        _statement.bindLong(_argIndex, _item);
+                    }
+                    _argIndex ++;
+                }
+                final Cursor _cursor = __db.query(_statement);
+                try {
+                    while(_cursor.moveToNext()) {
+                        final Integer _item_1;
+                        if (_cursor.isNull(0)) {
+                            _item_1 = null;
+                        } else {
+                            _item_1 = _cursor.getInt(0);
+                        }
+                        _result.add(_item_1);
+                    }
+                } finally {
+                    _cursor.close();
+                    _statement.release();
                 }
-                _result.add(_item_1);
             }
-            return _result;
+            if (_inTransaction) {
+                __db.setTransactionSuccessful();
+            }
         } finally {
-            _cursor.close();
-            _statement.release();
+            if (_inTransaction) {
+                __db.endTransaction();
+            }
         }
+        return _result;
     }
 
     @Override
@@ -290,10 +325,10 @@ public class ComplexDao_Impl extends ComplexDao {
                 }
                 final Cursor _cursor = __db.query(_statement);
                 try {
-                    final int _cursorIndexOfUid = _cursor.getColumnIndexOrThrow("uid");
-                    final int _cursorIndexOfName = _cursor.getColumnIndexOrThrow("name");
-                    final int _cursorIndexOfLastName = _cursor.getColumnIndexOrThrow("lastName");
-                    final int _cursorIndexOfAge = _cursor.getColumnIndexOrThrow("ageColumn");
+                    final int _cursorIndexOfUid = CursorUtil.getColumnIndexOrThrow(_cursor, "uid", 0);
+                    final int _cursorIndexOfName = CursorUtil.getColumnIndexOrThrow(_cursor, "name", 1);
+                    final int _cursorIndexOfLastName = CursorUtil.getColumnIndexOrThrow(_cursor, "lastName", 2);
+                    final int _cursorIndexOfAge = CursorUtil.getColumnIndexOrThrow(_cursor, "ageColumn", 3);
                     final User _result;
                     if(_cursor.moveToFirst()) {
                         _result = new User();
@@ -350,10 +385,10 @@ public class ComplexDao_Impl extends ComplexDao {
                 }
                 final Cursor _cursor = __db.query(_statement);
                 try {
-                    final int _cursorIndexOfUid = _cursor.getColumnIndexOrThrow("uid");
-                    final int _cursorIndexOfName = _cursor.getColumnIndexOrThrow("name");
-                    final int _cursorIndexOfLastName = _cursor.getColumnIndexOrThrow("lastName");
-                    final int _cursorIndexOfAge = _cursor.getColumnIndexOrThrow("ageColumn");
+                    final int _cursorIndexOfUid = CursorUtil.getColumnIndexOrThrow(_cursor, "uid", 0);
+                    final int _cursorIndexOfName = CursorUtil.getColumnIndexOrThrow(_cursor, "name", 1);
+                    final int _cursorIndexOfLastName = CursorUtil.getColumnIndexOrThrow(_cursor, "lastName", 2);
+                    final int _cursorIndexOfAge = CursorUtil.getColumnIndexOrThrow(_cursor, "ageColumn", 3);
                     final List<User> _result = new ArrayList<User>(_cursor.getCount());
                     while(_cursor.moveToNext()) {
                         final User _item_1;
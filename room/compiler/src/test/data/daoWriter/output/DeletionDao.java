@@ -3,6 +3,7 @@ package foo.bar;
 import androidx.room.EntityDeletionOrUpdateAdapter;
 import androidx.room.RoomDatabase;
 import androidx.room.SharedSQLiteStatement;
+import androidx.room.util.ChunkUtil;
 import androidx.room.util.StringUtil;
 import androidx.sqlite.db.SupportSQLiteStatement;
 import java.lang.Override;
@@ -218,23 +219,31 @@ public class DeletionDao_Impl implements DeletionDao {
 
   @Override
   public int deleteByUidList(int... uid) {
-    StringBuilder _stringBuilder = StringUtil.newStringBuilder();
-    _stringBuilder.append("DELETE FROM user where uid IN(");
-    final int _inputSize = uid.length;
-    StringUtil.appendPlaceholders(_stringBuilder, _inputSize);
-    _stringBuilder.append(")");
-    final String _sql = _stringBuilder.toString();
-    SupportSQLiteStatement _stmt = __db.compileStatement(_sql);
-    int _argIndex = 1;
-    for (int _item : uid) {
-      _stmt.bindLong(_argIndex, _item);
-      _argIndex ++;
-    }
+    int _total = 0;
     __db.beginTransaction();
     try {
-      final int _result = _stmt.executeUpdateDelete();
+      final List<int[]> _chunks = ChunkUtil.chunkArray(uid, RoomDatabase.MAX_BIND_PARAMETER_CNT);
+      for (int[] _chunk : _chunks) {
+        StringBuilder _stringBuilder = StringUtil.newStringBuilder();
+        _stringBuilder.append("DELETE FROM user where uid IN(");
+        final int _inputSize = _chunk.length;
+        StringUtil.appendPlaceholders(_stringBuilder, _inputSize);
+        _stringBuilder.append(")");
+        final String _sql = _stringBuilder.toString();
+        final SupportSQLiteStatement _stmt = __db.acquireStatement(_sql);
+        try {
+          int _argIndex = 1;
+          for (int _item : _chunk) {
+            _stmt.bindLong(_argIndex, _item);
+            _argIndex ++;
+          }
+          _total += _stmt.executeUpdateDelete();
+        } finally {
+          __db.releaseStatement(_sql, _stmt);
+        }
+      }
       __db.setTransactionSuccessful();
-      return _result;
+      return _total;
     } finally {
       __db.endTransaction();
     }
@@ -16,8 +16,10 @@
 
 package androidx.room.parser
 
+import androidx.room.verifier.QueryResultInfo
 import org.hamcrest.CoreMatchers.`is`
 import org.hamcrest.CoreMatchers.not
+import org.hamcrest.CoreMatchers.nullValue
 import org.hamcrest.MatcherAssert.assertThat
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -57,6 +59,62 @@ class SqlParserTest {
         assertThat(parsed.type, `is`(QueryType.UPDATE))
     }
 
+    @Test
+    fun chunkableInputs() {
+        mapOf(
+                "SELECT * FROM users WHERE id IN (:ids)" to setOf(":ids"),
+                "SELECT * FROM users WHERE name = :name AND (id IN (:ids))" to setOf(":ids"),
+                "DELETE FROM users WHERE id IN (:ids)" to setOf(":ids"),
+                "UPDATE users SET name = :name WHERE id IN (:ids)" to setOf(":ids"),
+                "SELECT * FROM users WHERE id NOT IN (:ids)" to emptySet(),
+                "SELECT * FROM users WHERE id IN (:ids) OR name = :name" to emptySet(),
+                "SELECT * FROM users WHERE id IN (:ids, :other)" to emptySet(),
+                "SELECT * FROM users WHERE id IN (:ids) AND age IN (:ids)" to emptySet(),
+                "SELECT * FROM users WHERE id IN (:ids) ORDER BY name" to emptySet(),
+                "SELECT * FROM users WHERE id IN (:ids) LIMIT 3" to emptySet(),
+                "SELECT DISTINCT name FROM users WHERE id IN (:ids)" to emptySet(),
+                "SELECT COUNT(*) FROM users WHERE id IN (:ids)" to emptySet(),
+                "SELECT * FROM users WHERE id IN (SELECT id FROM books WHERE id IN (:ids))"
+                        to emptySet()
+        ).forEach { (query, chunkable) ->
+            assertThat(query, SqlParser.parse(query).chunkableInputs, `is`(chunkable))
+        }
+    }
+
+    @Test
+    fun orderingTerms() {
+        mapOf(
+                "SELECT * FROM users" to emptyList<OrderingTerm>(),
+                "SELECT * FROM users ORDER BY id" to listOf(OrderingTerm("id", null, false)),
+                "SELECT * FROM users u ORDER BY u.`name` COLLATE NOCASE DESC, id ASC" to listOf(
+                        OrderingTerm("u.`name`", "NOCASE", true),
+                        OrderingTerm("id", null, false)),
+                "SELECT * FROM users WHERE id IN (SELECT id FROM books ORDER BY id LIMIT 3)"
+                        to emptyList<OrderingTerm>()
+        ).forEach { (query, terms) ->
+            assertThat(query, SqlParser.parse(query).orderingTerms, `is`(terms))
+        }
+    }
+
+    @Test
+    fun parseReturnsCopies() {
+        val query = "SELECT * FROM users WHERE id = :id"
+        val first = SqlParser.parse(query)
+        first.resultInfo = QueryResultInfo(emptyList())
+        val second = SqlParser.parse(query)
+        assertThat(second, `is`(first))
+        assertThat(second.resultInfo, `is`(nullValue()))
+    }
+
+    @Test
+    fun parseAll() {
+        val queries = listOf("SELECT * FROM users", "DELETE FROM users WHERE id = :id",
+                "SELECT * FROM users", "SELECT * FROM")
+        SqlParser.parseAll(queries)
+        assertThat(SqlParser.parse(queries[1]).type, `is`(QueryType.DELETE))
+        assertThat(SqlParser.parse(queries[3]).errors, not(emptyList()))
+    }
+
     @Test
     fun explain() {
         assertErrors("EXPLAIN QUERY PLAN SELECT * FROM users",
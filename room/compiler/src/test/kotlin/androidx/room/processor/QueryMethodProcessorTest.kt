@@ -24,6 +24,7 @@ import androidx.room.PrimaryKey
 import androidx.room.Query
 import androidx.room.Relation
 import androidx.room.Transaction
+import androidx.room.ext.AndroidTypeNames
 import androidx.room.ext.CommonTypeNames
 import androidx.room.ext.LifecyclesTypeNames
 import androidx.room.ext.PagingTypeNames
@@ -32,9 +33,12 @@ import androidx.room.ext.typeName
 import androidx.room.parser.Table
 import androidx.room.processor.ProcessorErrors.CANNOT_FIND_QUERY_RESULT_ADAPTER
 import androidx.room.solver.query.result.DataSourceFactoryQueryResultBinder
+import androidx.room.solver.query.result.IteratorQueryResultBinder
+import androidx.room.solver.query.result.KeysetDataSourceQueryResultBinder
 import androidx.room.solver.query.result.ListQueryResultAdapter
 import androidx.room.solver.query.result.LiveDataQueryResultBinder
 import androidx.room.solver.query.result.PojoRowAdapter
+import androidx.room.solver.query.result.PositionalDataSourceQueryResultBinder
 import androidx.room.solver.query.result.SingleEntityQueryResultAdapter
 import androidx.room.testing.TestInvocation
 import androidx.room.testing.TestProcessor
@@ -472,7 +476,7 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
                     instanceOf(DataSourceFactoryQueryResultBinder::class.java))
             val tableNames =
                     (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
-                            .positionalDataSourceQueryResultBinder.tableNames
+                            .dataSourceQueryResultBinder.tableNames
             assertEquals(setOf("user"), tableNames)
         }.compilesWithoutError()
     }
@@ -493,11 +497,130 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
                     instanceOf(DataSourceFactoryQueryResultBinder::class.java))
             val tableNames =
                     (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
-                            .positionalDataSourceQueryResultBinder.tableNames
+                            .dataSourceQueryResultBinder.tableNames
             assertEquals(setOf("User", "Book"), tableNames)
         }.compilesWithoutError()
     }
 
+    @Test
+    fun testIteratorQuery() {
+        singleQueryMethod(
+                """
+                @Query("select * from user")
+                abstract java.util.Iterator<User> iterateUsers();
+                """
+        ) { parsedQuery, _ ->
+            assertThat(parsedQuery.queryResultBinder,
+                    instanceOf(IteratorQueryResultBinder::class.java))
+            assertThat((parsedQuery.queryResultBinder as IteratorQueryResultBinder).itemTypeName,
+                    `is`(COMMON.USER_TYPE_NAME as TypeName))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testCloseableIteratorQuery() {
+        singleQueryMethod(
+                """
+                @Query("select * from user")
+                abstract androidx.room.CloseableIterator<User> iterateUsers();
+                """
+        ) { parsedQuery, _ ->
+            assertThat(parsedQuery.queryResultBinder,
+                    instanceOf(IteratorQueryResultBinder::class.java))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testIteratorQueryInTransaction() {
+        singleQueryMethod(
+                """
+                @Transaction
+                @Query("select * from user")
+                abstract androidx.room.CloseableIterator<User> iterateUsers();
+                """
+        ) { _, _ ->
+        }.failsToCompile()
+                .withErrorContaining(ProcessorErrors.ITERATOR_QUERY_CANNOT_BE_TRANSACTION)
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery() {
+        singleQueryMethod(
+                """
+                @Query("select * from user")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<Long, User>
+                userDataSourceFactory();
+                """
+        ) { parsedQuery, _ ->
+            assertThat(parsedQuery.queryResultBinder,
+                    instanceOf(DataSourceFactoryQueryResultBinder::class.java))
+            val binder = (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
+                    .dataSourceQueryResultBinder
+            assertThat(binder, instanceOf(KeysetDataSourceQueryResultBinder::class.java))
+            assertThat((binder as KeysetDataSourceQueryResultBinder).keyField.columnName,
+                    `is`("uid"))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery_notEntity() {
+        singleQueryMethod(
+                """
+                @Query("select name from user")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<Long, String>
+                nameDataSourceFactory();
+                """
+        ) { _, _ ->
+        }.failsToCompile().withErrorContaining(
+                ProcessorErrors.PAGING_KEYSET_REQUIRES_INTEGER_PRIMARY_KEY)
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery_orderedByKey() {
+        singleQueryMethod(
+                """
+                @Query("select * from user order by `User`.`uid` asc")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<Long, User>
+                userDataSourceFactory();
+                """
+        ) { parsedQuery, _ ->
+            val binder = (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
+                    .dataSourceQueryResultBinder
+            assertThat(binder, instanceOf(KeysetDataSourceQueryResultBinder::class.java))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery_orderedByOtherColumn() {
+        singleQueryMethod(
+                """
+                @Query("select * from user order by name")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<Long, User>
+                userDataSourceFactory();
+                """
+        ) { parsedQuery, _ ->
+            val binder = (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
+                    .dataSourceQueryResultBinder
+            assertThat(binder, instanceOf(PositionalDataSourceQueryResultBinder::class.java))
+            assertThat((binder as PositionalDataSourceQueryResultBinder).pageKeyed, `is`(true))
+        }.compilesWithoutError().withWarningContaining(ProcessorErrors.pagingOrderNotByKey("uid"))
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery_orderedByKeyDescending() {
+        singleQueryMethod(
+                """
+                @Query("select * from user order by uid desc")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<Long, User>
+                userDataSourceFactory();
+                """
+        ) { parsedQuery, _ ->
+            val binder = (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
+                    .dataSourceQueryResultBinder
+            assertThat(binder, instanceOf(PositionalDataSourceQueryResultBinder::class.java))
+        }.compilesWithoutError().withWarningContaining(ProcessorErrors.pagingOrderNotByKey("uid"))
+    }
+
     @Test
     fun query_detectTransaction_delete() {
         singleQueryMethod(
@@ -608,6 +731,30 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
             .withWarningCount(0)
     }
 
+    @Test
+    fun relationWithLongKey() {
+        singleQueryMethod(
+            """
+                static class UserWithFriends extends User {
+                   @Relation(parentColumn = "uid", entityColumn = "uid", entity = User.class)
+                   java.util.List<User> friends;
+                }
+                @Transaction
+                @Query("select * from user")
+                abstract java.util.List<UserWithFriends> loadUsers();
+            """) { method, _ ->
+            val listAdapter = method.queryResultBinder.adapter as ListQueryResultAdapter
+            val pojoRowAdapter = listAdapter.rowAdapter as PojoRowAdapter
+            val collector = pojoRowAdapter.relationCollectors.first()
+            assertThat(collector.usesLongSparseArray, `is`(true))
+            assertThat(collector.keyTypeName, `is`(TypeName.LONG))
+            assertThat(collector.mapTypeName, `is`(
+                ParameterizedTypeName.get(AndroidTypeNames.LONG_SPARSE_ARRAY,
+                    collector.collectionTypeName)
+            ))
+        }.compilesWithoutError()
+    }
+
     @Test
     fun pojo_renamedColumn() {
         pojoTest("""
@@ -819,7 +966,8 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
                     JavaFileObjects.forSourceString(
                         "foo.bar.MyClass",
                         DAO_PREFIX + input.joinToString("\n") + DAO_SUFFIX
-                    ), COMMON.LIVE_DATA, COMMON.COMPUTABLE_LIVE_DATA, COMMON.USER, COMMON.BOOK
+                    ), COMMON.LIVE_DATA, COMMON.COMPUTABLE_LIVE_DATA, COMMON.USER, COMMON.BOOK,
+                    COMMON.LONG_SPARSE_ARRAY
                 )
             )
             .processedWith(TestProcessor.builder()
@@ -20,6 +20,7 @@ import androidx.room.Entity
 import androidx.room.PrimaryKey
 import androidx.room.Query
 import androidx.room.Relation
+import androidx.room.ext.AndroidTypeNames
 import androidx.room.ext.LifecyclesTypeNames
 import androidx.room.ext.PagingTypeNames
 import androidx.room.ext.ReactiveStreamsTypeNames
@@ -94,6 +95,11 @@ object COMMON {
         loadJavaCode("common/input/PositionalDataSource.java",
                 PagingTypeNames.POSITIONAL_DATA_SOURCE.toString())
     }
+
+    val LONG_SPARSE_ARRAY by lazy {
+        loadJavaCode("common/input/LongSparseArray.java",
+                AndroidTypeNames.LONG_SPARSE_ARRAY.toString())
+    }
 }
 fun testCodeGenScope(): CodeGenScope {
     return CodeGenScope(Mockito.mock(ClassWriter::class.java))
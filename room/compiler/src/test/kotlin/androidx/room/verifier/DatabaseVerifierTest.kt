@@ -33,6 +33,7 @@ import columnNames
 import org.hamcrest.CoreMatchers.`is`
 import org.hamcrest.CoreMatchers.hasItem
 import org.hamcrest.CoreMatchers.notNullValue
+import org.hamcrest.CoreMatchers.nullValue
 import org.hamcrest.MatcherAssert.assertThat
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -185,6 +186,42 @@ class DatabaseVerifierTest(private val useLocalizedCollation: Boolean) {
         }.compilesWithoutError()
     }
 
+    @Test
+    fun testExplainFullTableScan() {
+        simpleRun { invocation ->
+            val verifier = createVerifier(invocation)
+            val plan = verifier.explain("select * from User where name = :name")
+            assertThat(plan?.findFullTableScans(listOf("User")), `is`(listOf("User")))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testExplainPrimaryKeySearch() {
+        simpleRun { invocation ->
+            val verifier = createVerifier(invocation)
+            val plan = verifier.explain("select * from User where id = :id")
+            assertThat(plan?.findFullTableScans(listOf("User")), `is`(emptyList()))
+            assertThat(plan?.findTempBTrees(), `is`(emptyList()))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testExplainOrderBy() {
+        simpleRun { invocation ->
+            val verifier = createVerifier(invocation)
+            val plan = verifier.explain("select * from User order by name")
+            assertThat(plan?.findTempBTrees(), `is`(listOf("ORDER BY")))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testExplainBadQuery() {
+        simpleRun { invocation ->
+            val verifier = createVerifier(invocation)
+            assertThat(verifier.explain("select foo from User"), `is`(nullValue()))
+        }.compilesWithoutError()
+    }
+
     private fun validQueryTest(sql: String, cb: (QueryResultInfo) -> Unit) {
         simpleRun { invocation ->
             val verifier = createVerifier(invocation)
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.verifier
+
+import org.hamcrest.CoreMatchers.`is`
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+
+@RunWith(JUnit4::class)
+class QueryPlanTest {
+    @Test
+    fun fullTableScans() {
+        val plan = QueryPlan(listOf(
+                "SCAN TABLE User",
+                "SCAN TABLE Book AS b",
+                "SCAN TABLE Pet USING COVERING INDEX index_Pet_name",
+                "SEARCH TABLE Toy USING INTEGER PRIMARY KEY (rowid=?)",
+                "SCAN SUBQUERY 1"))
+        assertThat(plan.findFullTableScans(listOf("User", "Book", "Pet", "Toy")),
+                `is`(listOf("User", "Book")))
+    }
+
+    @Test
+    fun fullTableScans_newFormat() {
+        val plan = QueryPlan(listOf("SCAN user", "SCAN Pet USING INDEX index_Pet_name"))
+        assertThat(plan.findFullTableScans(listOf("User", "Pet")), `is`(listOf("user")))
+    }
+
+    @Test
+    fun tempBTrees() {
+        val plan = QueryPlan(listOf(
+                "SCAN TABLE User",
+                "USE TEMP B-TREE FOR GROUP BY",
+                "USE TEMP B-TREE FOR ORDER BY"))
+        assertThat(plan.findTempBTrees(), `is`(listOf("GROUP BY", "ORDER BY")))
+    }
+}
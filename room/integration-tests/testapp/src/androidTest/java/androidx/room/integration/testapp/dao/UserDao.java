@@ -20,12 +20,14 @@ import android.database.Cursor;
 
 import androidx.lifecycle.LiveData;
 import androidx.paging.DataSource;
+import androidx.room.CloseableIterator;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.RawQuery;
+import androidx.room.RoomWarnings;
 import androidx.room.Transaction;
 import androidx.room.Update;
 import androidx.room.integration.testapp.TestDatabase;
@@ -92,6 +94,12 @@ public abstract class UserDao {
     @Insert
     public abstract void insertAll(User[] users);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertOrReplaceAll(List<User> users);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    public abstract void insertOrIgnoreAll(List<User> users);
+
     @Query("select * from user where mAdmin = :isAdmin")
     public abstract List<User> findByAdmin(boolean isAdmin);
 
@@ -209,6 +217,16 @@ public abstract class UserDao {
     @Query("SELECT * FROM user ORDER BY mAge DESC")
     public abstract DataSource.Factory<Integer, User> loadUsersByAgeDesc();
 
+    @Query("SELECT * FROM user where mAge > :age")
+    public abstract DataSource.Factory<Long, User> loadKeysetPagedByAge(int age);
+
+    @SuppressWarnings(RoomWarnings.PAGING_ORDER_NOT_BY_KEY)
+    @Query("SELECT * FROM user ORDER BY mAge DESC")
+    public abstract DataSource.Factory<Long, User> loadKeyedUsersByAgeDesc();
+
+    @Query("SELECT * FROM user ORDER BY mId")
+    public abstract CloseableIterator<User> iterateUsers();
+
     @Query("DELETE FROM User WHERE mId IN (:ids) AND mAge == :age")
     public abstract int deleteByAgeAndIds(int age, List<Integer> ids);
 
@@ -31,7 +31,9 @@ import android.support.test.InstrumentationRegistry;
 import android.support.test.filters.SmallTest;
 import android.support.test.runner.AndroidJUnit4;
 
+import androidx.annotation.NonNull;
 import androidx.room.Room;
+import androidx.room.RoomDatabase;
 import androidx.room.migration.Migration;
 import androidx.room.testing.MigrationTestHelper;
 import androidx.room.util.TableInfo;
@@ -45,7 +47,11 @@ import org.junit.runner.RunWith;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Test custom database migrations.
@@ -258,6 +264,36 @@ public class MigrationTest {
         db.close();
     }
 
+    @Test
+    public void openAsyncReportsMigrationSteps() throws Exception {
+        helper.createDatabase(TEST_DB, 1).close();
+        final List<Migration> migrated = new ArrayList<>();
+        final List<Integer> steps = new ArrayList<>();
+        Context targetContext = InstrumentationRegistry.getTargetContext();
+        MigrationDb db = Room.databaseBuilder(targetContext, MigrationDb.class, TEST_DB)
+                .addMigrations(ALL_MIGRATIONS)
+                .addCallback(new RoomDatabase.Callback() {
+                    @Override
+                    public void onMigrationStep(@NonNull SupportSQLiteDatabase db,
+                            @NonNull Migration migration, int step, int stepCount) {
+                        assertThat(stepCount, is(ALL_MIGRATIONS.length));
+                        migrated.add(migration);
+                        steps.add(step);
+                    }
+                })
+                .build();
+        helper.closeWhenFinished(db);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            db.openAsync(executor).get();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(db.isOpen(), is(true));
+        assertThat(migrated, is(Arrays.asList(ALL_MIGRATIONS)));
+        assertThat(steps, is(Arrays.asList(0, 1, 2, 3, 4, 5)));
+    }
+
     @Test
     public void failWithIdentityCheck() throws IOException {
         for (int i = 1; i < MigrationDb.LATEST_VERSION; i++) {
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.integration.testapp.paging;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.support.test.filters.SmallTest;
+import android.support.test.runner.AndroidJUnit4;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.DataSource;
+import androidx.paging.ItemKeyedDataSource;
+import androidx.paging.PageKeyedDataSource;
+import androidx.room.integration.testapp.test.TestDatabaseTest;
+import androidx.room.integration.testapp.test.TestUtil;
+import androidx.room.integration.testapp.vo.User;
+import androidx.room.paging.KeysetDataSource;
+import androidx.room.paging.PageKeyedLimitOffsetDataSource;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class KeysetDataSourceTest extends TestDatabaseTest {
+
+    @After
+    public void teardown() {
+        mUserDao.deleteEverything();
+    }
+
+    private KeysetDataSource<User> loadKeysetPaged() {
+        DataSource<Long, User> dataSource = mUserDao.loadKeysetPagedByAge(0).create();
+        assertThat(dataSource, instanceOf(KeysetDataSource.class));
+        return (KeysetDataSource<User>) dataSource;
+    }
+
+    @Test
+    public void loadInitial_withoutPlaceholders() {
+        List<User> users = createUsers(10);
+        InitialResult result = new InitialResult();
+        loadKeysetPaged().loadInitial(
+                new ItemKeyedDataSource.LoadInitialParams<Long>(null, 4, false), result);
+        assertThat(result.mData, is(users.subList(0, 4)));
+        // the rows are not counted without placeholders
+        assertThat(result.mTotalCount, is(-1));
+    }
+
+    @Test
+    public void loadInitial_withPlaceholders() {
+        List<User> users = createUsers(10);
+        InitialResult result = new InitialResult();
+        loadKeysetPaged().loadInitial(
+                new ItemKeyedDataSource.LoadInitialParams<>(3L, 4, true), result);
+        assertThat(result.mData, is(users.subList(3, 7)));
+        assertThat(result.mPosition, is(3));
+        assertThat(result.mTotalCount, is(10));
+    }
+
+    @Test
+    public void loadAfterAndBefore() {
+        List<User> users = createUsers(10);
+        KeysetDataSource<User> dataSource = loadKeysetPaged();
+        Result after = new Result();
+        dataSource.loadAfter(new ItemKeyedDataSource.LoadParams<>(5L, 3), after);
+        assertThat(after.mData, is(users.subList(6, 9)));
+
+        Result before = new Result();
+        dataSource.loadBefore(new ItemKeyedDataSource.LoadParams<>(5L, 3), before);
+        assertThat(before.mData, is(users.subList(2, 5)));
+
+        Result end = new Result();
+        dataSource.loadAfter(new ItemKeyedDataSource.LoadParams<>(9L, 3), end);
+        assertThat(end.mData.isEmpty(), is(true));
+    }
+
+    @Test
+    public void orderedByOtherColumn_pagedByPosition() {
+        List<User> users = createUsers(10);
+        DataSource<Long, User> dataSource = mUserDao.loadKeyedUsersByAgeDesc().create();
+        assertThat(dataSource, instanceOf(PageKeyedLimitOffsetDataSource.class));
+        PageKeyedLimitOffsetDataSource<User> pageKeyed =
+                (PageKeyedLimitOffsetDataSource<User>) dataSource;
+
+        PageInitialResult initial = new PageInitialResult();
+        pageKeyed.loadInitial(new PageKeyedDataSource.LoadInitialParams<Long>(4, false), initial);
+        // the users are created with descending ages, so the order of the query is kept
+        assertThat(initial.mData, is(users.subList(0, 4)));
+        assertThat(initial.mNextKey, is(4L));
+
+        PageResult last = new PageResult();
+        pageKeyed.loadAfter(new PageKeyedDataSource.LoadParams<>(8L, 4), last);
+        assertThat(last.mData, is(users.subList(8, 10)));
+        assertThat(last.mNextKey, is(nullValue()));
+    }
+
+    @NonNull
+    private List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = TestUtil.createUser(i);
+            user.setAge(100 - i);
+            mUserDao.insert(user);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static class Result extends ItemKeyedDataSource.LoadCallback<User> {
+        List<User> mData;
+
+        @Override
+        public void onResult(@NonNull List<User> data) {
+            mData = data;
+        }
+    }
+
+    private static class InitialResult extends ItemKeyedDataSource.LoadInitialCallback<User> {
+        List<User> mData;
+        int mPosition = -1;
+        int mTotalCount = -1;
+
+        @Override
+        public void onResult(@NonNull List<User> data, int position, int totalCount) {
+            mData = data;
+            mPosition = position;
+            mTotalCount = totalCount;
+        }
+
+        @Override
+        public void onResult(@NonNull List<User> data) {
+            mData = data;
+        }
+    }
+
+    private static class PageInitialResult
+            extends PageKeyedDataSource.LoadInitialCallback<Long, User> {
+        List<User> mData;
+        Long mNextKey;
+
+        @Override
+        public void onResult(@NonNull List<User> data, int position, int totalCount,
+                @Nullable Long previousPageKey, @Nullable Long nextPageKey) {
+            mData = data;
+            mNextKey = nextPageKey;
+        }
+
+        @Override
+        public void onResult(@NonNull List<User> data, @Nullable Long previousPageKey,
+                @Nullable Long nextPageKey) {
+            mData = data;
+            mNextKey = nextPageKey;
+        }
+    }
+
+    private static class PageResult extends PageKeyedDataSource.LoadCallback<Long, User> {
+        List<User> mData;
+        Long mNextKey;
+
+        @Override
+        public void onResult(@NonNull List<User> data, @Nullable Long adjacentPageKey) {
+            mData = data;
+            mNextKey = adjacentPageKey;
+        }
+    }
+}
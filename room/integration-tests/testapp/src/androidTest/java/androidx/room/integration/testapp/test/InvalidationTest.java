@@ -131,6 +131,37 @@ public class InvalidationTest {
         assertThat(observer.getInvalidatedTables(), hasItem("User"));
     }
 
+    @Test
+    public void testRowObserverAddedAgain() throws InterruptedException, TimeoutException {
+        mUserDao.insert(TestUtil.createUser(3));
+        mUserDao.insert(TestUtil.createUser(5));
+        final RowLoggingObserver first = new RowLoggingObserver(3);
+        mDb.getInvalidationTracker().addObserver(first);
+        drain();
+        // triggers are not dropped inside a transaction, so row 3 is still logged.
+        mDb.runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                mDb.getInvalidationTracker().removeObserver(first);
+                mUserDao.updateById(3, "foo");
+            }
+        });
+        drain();
+        assertThat(first.getInvalidatedTables(), nullValue());
+
+        // the update of row 3 happened while it was not observed.
+        RowLoggingObserver second = new RowLoggingObserver(3);
+        mDb.getInvalidationTracker().addObserver(second);
+        drain();
+        mUserDao.updateById(5, "bar");
+        drain();
+        assertThat(second.getInvalidatedTables(), nullValue());
+
+        mUserDao.updateById(3, "baz");
+        drain();
+        assertThat(second.getInvalidatedTables(), hasItem("User"));
+    }
+
     private static class LoggingObserver extends InvalidationTracker.Observer {
         private Set<String> mInvalidatedTables;
 
@@ -147,4 +178,21 @@ public class InvalidationTest {
             return mInvalidatedTables;
         }
     }
+
+    private static class RowLoggingObserver extends InvalidationTracker.RowObserver {
+        private Set<String> mInvalidatedTables;
+
+        RowLoggingObserver(long rowId) {
+            super("User", rowId);
+        }
+
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            mInvalidatedTables = tables;
+        }
+
+        Set<String> getInvalidatedTables() {
+            return mInvalidatedTables;
+        }
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.integration.testapp.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import android.support.test.filters.MediumTest;
+import android.support.test.runner.AndroidJUnit4;
+
+import androidx.room.CloseableIterator;
+import androidx.room.integration.testapp.vo.User;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@MediumTest
+@RunWith(AndroidJUnit4.class)
+public class IteratorQueryTest extends TestDatabaseTest {
+    @Test
+    public void empty() {
+        CloseableIterator<User> iterator = mUserDao.iterateUsers();
+        assertThat(iterator.hasNext(), is(false));
+        iterator.close();
+    }
+
+    @Test
+    public void fullIteration() {
+        List<User> users = insertUsers(3, 0);
+        assertThat(readAll(mUserDao.iterateUsers()), is(users));
+    }
+
+    @Test
+    public void moreRowsThanOneCursorWindow() {
+        // 5000 rows of more than 1kB do not fit into the 2MB cursor window, so the cursor has to
+        // move its window while the rows are read.
+        List<User> users = insertUsers(5000, 1024);
+        List<User> read = readAll(mUserDao.iterateUsers());
+        assertThat(read.size(), is(users.size()));
+        assertThat(read.get(0), is(users.get(0)));
+        assertThat(read.get(read.size() - 1), is(users.get(users.size() - 1)));
+    }
+
+    @Test
+    public void closeEarly() {
+        List<User> users = insertUsers(3, 0);
+        CloseableIterator<User> iterator = mUserDao.iterateUsers();
+        assertThat(iterator.next(), is(users.get(0)));
+        iterator.close();
+        assertThat(iterator.hasNext(), is(false));
+        try {
+            iterator.next();
+            fail("Expected the closed iterator to have no rows");
+        } catch (NoSuchElementException expected) {
+            // the cursor is closed
+        }
+        // the database can still be written after the cursor is closed
+        mUserDao.deleteEverything();
+        assertThat(mUserDao.count(), is(0));
+    }
+
+    private List<User> insertUsers(int count, int nameLength) {
+        char[] name = new char[nameLength];
+        Arrays.fill(name, 'x');
+        User[] users = new User[count];
+        for (int i = 0; i < count; i++) {
+            users[i] = TestUtil.createUser(i);
+            if (nameLength > 0) {
+                users[i].setName(new String(name));
+            }
+        }
+        mUserDao.insertAll(users);
+        return Arrays.asList(users);
+    }
+
+    private static List<User> readAll(CloseableIterator<User> iterator) {
+        List<User> result = new ArrayList<>();
+        while (iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        // the iterator already closed itself after the last row, so this has no effect
+        iterator.close();
+        return result;
+    }
+}
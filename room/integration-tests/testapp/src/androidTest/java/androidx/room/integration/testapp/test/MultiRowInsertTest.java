@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.integration.testapp.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteConstraintException;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.SmallTest;
+import android.support.test.runner.AndroidJUnit4;
+
+import androidx.room.Room;
+import androidx.room.integration.testapp.TestDatabase;
+import androidx.room.integration.testapp.dao.UserDao;
+import androidx.room.integration.testapp.vo.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts more users than fit into one multi-row INSERT, so that conflicts happen in different
+ * statements than the rows they conflict with.
+ */
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class MultiRowInsertTest {
+    // User has 9 columns, so a statement inserts 999 / 9 rows.
+    private static final int ROWS_PER_INSERT = 111;
+    private static final int EXISTING_ID = ROWS_PER_INSERT + 10;
+    private static final int DUPLICATE_ID = 5;
+
+    private TestDatabase mDb;
+    private UserDao mUserDao;
+
+    @Before
+    public void createDb() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        mDb = Room.inMemoryDatabaseBuilder(context, TestDatabase.class).build();
+        mUserDao = mDb.getUserDao();
+        User existing = TestUtil.createUser(EXISTING_ID);
+        existing.setName("existing");
+        mUserDao.insert(existing);
+    }
+
+    @After
+    public void closeDb() {
+        mDb.close();
+    }
+
+    @Test
+    public void insertAll() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 2 * ROWS_PER_INSERT + 2; i++) {
+            if (i != EXISTING_ID) {
+                users.add(TestUtil.createUser(i));
+            }
+        }
+        mUserDao.insertAll(users.toArray(new User[0]));
+        assertThat(mUserDao.count(), is(2 * ROWS_PER_INSERT + 2));
+        assertThat(mUserDao.load(0), is(users.get(0)));
+        // the last user is inserted by itself
+        assertThat(mUserDao.load(2 * ROWS_PER_INSERT + 1), is(users.get(users.size() - 1)));
+    }
+
+    @Test
+    public void abort() {
+        try {
+            mUserDao.insertAll(createUsers().toArray(new User[0]));
+            fail("Expected a constraint violation");
+        } catch (SQLiteConstraintException expected) {
+            // the conflict is in the second statement
+        }
+        // the rows of the first statement are rolled back with the transaction
+        assertThat(mUserDao.count(), is(1));
+        assertThat(mUserDao.load(EXISTING_ID).getName(), is("existing"));
+    }
+
+    @Test
+    public void replace() {
+        List<User> users = createUsers();
+        mUserDao.insertOrReplaceAll(users);
+        assertThat(mUserDao.count(), is(2 * ROWS_PER_INSERT));
+        assertThat(mUserDao.load(EXISTING_ID), is(users.get(EXISTING_ID)));
+        assertThat(mUserDao.load(DUPLICATE_ID).getName(), is("duplicate"));
+    }
+
+    @Test
+    public void ignore() {
+        List<User> users = createUsers();
+        mUserDao.insertOrIgnoreAll(users);
+        assertThat(mUserDao.count(), is(2 * ROWS_PER_INSERT));
+        assertThat(mUserDao.load(EXISTING_ID).getName(), is("existing"));
+        assertThat(mUserDao.load(DUPLICATE_ID), is(users.get(DUPLICATE_ID)));
+    }
+
+    /**
+     * Creates two full statements of users, one of which already exists, and a last user that
+     * is inserted by itself and duplicates a user of the first statement.
+     */
+    private static List<User> createUsers() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 2 * ROWS_PER_INSERT; i++) {
+            users.add(TestUtil.createUser(i));
+        }
+        User duplicate = TestUtil.createUser(DUPLICATE_ID);
+        duplicate.setName("duplicate");
+        users.add(duplicate);
+        return users;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.integration.testapp.test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.SmallTest;
+import android.support.test.runner.AndroidJUnit4;
+
+import androidx.annotation.NonNull;
+import androidx.room.QueryInfo;
+import androidx.room.QueryObserver;
+import androidx.room.Room;
+import androidx.room.integration.testapp.TestDatabase;
+import androidx.room.integration.testapp.vo.User;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class QueryObserverTest {
+    @Test
+    public void reportsQuery() {
+        RecordingObserver observer = new RecordingObserver(false, -1);
+        TestDatabase db = createDatabase(observer);
+        db.getUserDao().insert(TestUtil.createUser(3));
+        assertThat(db.getUserDao().load(3), notNullValue());
+
+        QueryInfo info = observer.mQueries.get(observer.mQueries.size() - 1);
+        assertThat(info.getSql(), is("select * from user where mId = ?"));
+        assertThat(info.getRowCount(), is(1));
+        assertThat(info.getCaller().getClassName(), containsString("UserDao_Impl"));
+        assertThat(info.getCaller().getMethodName(), is("load"));
+        assertThat(info.getBindArgs(), is(nullValue()));
+        assertThat(info.getQueryPlan(), is(nullValue()));
+    }
+
+    @Test
+    public void reportsBindArgsAndQueryPlan() {
+        RecordingObserver observer = new RecordingObserver(true, 0);
+        TestDatabase db = createDatabase(observer);
+        db.getUserDao().findUsersByName("george");
+
+        QueryInfo info = observer.mQueries.get(observer.mQueries.size() - 1);
+        assertThat(info.getRowCount(), is(0));
+        assertThat(info.getBindArgs(), is(Collections.<Object>singletonList("george")));
+        // there is no index on the name, so the whole table is scanned
+        assertThat(info.getQueryPlan(), containsString("SCAN"));
+    }
+
+    private TestDatabase createDatabase(QueryObserver observer) {
+        Context context = InstrumentationRegistry.getTargetContext();
+        return Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .setQueryObserver(observer)
+                .build();
+    }
+
+    private static class RecordingObserver extends QueryObserver {
+        final List<QueryInfo> mQueries = Collections.synchronizedList(
+                new ArrayList<QueryInfo>());
+
+        RecordingObserver(boolean includeBindArgs, long queryPlanThresholdMillis) {
+            super(includeBindArgs, queryPlanThresholdMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void onQuery(@NonNull QueryInfo info) {
+            mQueries.add(info);
+        }
+    }
+}
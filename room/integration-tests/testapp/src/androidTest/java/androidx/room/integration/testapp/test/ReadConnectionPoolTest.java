@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.integration.testapp.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.MediumTest;
+import android.support.test.filters.SdkSuppress;
+import android.support.test.runner.AndroidJUnit4;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.integration.testapp.TestDatabase;
+import androidx.room.integration.testapp.vo.User;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks which connection queries run on when a read connection pool is requested.
+ */
+@MediumTest
+@RunWith(AndroidJUnit4.class)
+@SdkSuppress(minSdkVersion = 16)
+public class ReadConnectionPoolTest {
+    private static final String DATABASE_NAME = "read-pool.db";
+    private static final int POOL_SIZE = 2;
+
+    private Context mContext;
+    private RecordingOpenHelperFactory mFactory;
+    private TestDatabase mDatabase;
+
+    @Before
+    public void setup() {
+        mContext = InstrumentationRegistry.getTargetContext();
+        mContext.deleteDatabase(DATABASE_NAME);
+        mFactory = new RecordingOpenHelperFactory();
+    }
+
+    @After
+    public void closeDatabase() {
+        if (mDatabase != null) {
+            mDatabase.close();
+        }
+        mContext.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void queryOutsideTransaction_usesReader() {
+        openDatabase(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING);
+        User user = TestUtil.createUser(3);
+        mDatabase.getUserDao().insert(user);
+        int readers = mFactory.mReaders.size();
+
+        assertThat(mDatabase.getUserDao().load(3), is(user));
+        assertThat(mFactory.mReaders.size(), is(readers + 1));
+        SupportSQLiteDatabase reader = mFactory.mReaders.get(readers);
+        assertThat(reader.isReadOnly(), is(true));
+        assertThat(reader, not(sameInstance(
+                mDatabase.getOpenHelper().getWritableDatabase())));
+    }
+
+    @Test
+    public void queryInTransaction_usesWriter() {
+        openDatabase(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING);
+        final int readers = mFactory.mReaders.size();
+        mDatabase.runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                User user = TestUtil.createUser(3);
+                mDatabase.getUserDao().insert(user);
+                // a reader would not see the uncommitted row
+                assertThat(mDatabase.getUserDao().load(3), is(user));
+            }
+        });
+        assertThat(mFactory.mReaders.size(), is(readers));
+    }
+
+    @Test
+    public void withoutWal_poolIsDisabled() {
+        openDatabase(RoomDatabase.JournalMode.TRUNCATE);
+        mDatabase.getUserDao().insert(TestUtil.createUser(3));
+        mDatabase.getUserDao().load(3);
+        assertThat(mFactory.mReaders.size(), is(0));
+        // the open helper does not hand out readers either
+        assertThat(mDatabase.getOpenHelper().getReadableDatabase().isReadOnly(), is(false));
+    }
+
+    @Test
+    public void inMemory_poolIsDisabled() {
+        mDatabase = Room.inMemoryDatabaseBuilder(mContext, TestDatabase.class)
+                .openHelperFactory(mFactory)
+                .setReadConnectionPoolSize(POOL_SIZE)
+                .build();
+        mDatabase.getUserDao().insert(TestUtil.createUser(3));
+        mDatabase.getUserDao().load(3);
+        assertThat(mFactory.mReaders.size(), is(0));
+        assertThat(mDatabase.getOpenHelper().getReadableDatabase().isReadOnly(), is(false));
+    }
+
+    @Test
+    public void close_closesReaders() {
+        openDatabase(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING);
+        mDatabase.getUserDao().insert(TestUtil.createUser(3));
+        for (int i = 0; i < POOL_SIZE; i++) {
+            mDatabase.getUserDao().load(3);
+        }
+        assertThat(mFactory.mReaders.isEmpty(), is(false));
+        mDatabase.close();
+        for (SupportSQLiteDatabase reader : mFactory.mReaders) {
+            assertThat(reader.isOpen(), is(false));
+        }
+        mDatabase = null;
+    }
+
+    private void openDatabase(RoomDatabase.JournalMode journalMode) {
+        mDatabase = Room.databaseBuilder(mContext, TestDatabase.class, DATABASE_NAME)
+                .openHelperFactory(mFactory)
+                .setJournalMode(journalMode)
+                .setReadConnectionPoolSize(POOL_SIZE)
+                .build();
+    }
+
+    /**
+     * Creates framework open helpers with a read connection pool and records the databases
+     * their {@link SupportSQLiteOpenHelper#getReadableDatabase()} returns.
+     */
+    private static class RecordingOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+        final List<SupportSQLiteDatabase> mReaders = new ArrayList<>();
+        private final SupportSQLiteOpenHelper.Factory mDelegate =
+                new FrameworkSQLiteOpenHelperFactory(POOL_SIZE);
+
+        @Override
+        public SupportSQLiteOpenHelper create(SupportSQLiteOpenHelper.Configuration config) {
+            final SupportSQLiteOpenHelper helper = mDelegate.create(config);
+            return new SupportSQLiteOpenHelper() {
+                @Override
+                public String getDatabaseName() {
+                    return helper.getDatabaseName();
+                }
+
+                @Override
+                public void setWriteAheadLoggingEnabled(boolean enabled) {
+                    helper.setWriteAheadLoggingEnabled(enabled);
+                }
+
+                @Override
+                public SupportSQLiteDatabase getWritableDatabase() {
+                    return helper.getWritableDatabase();
+                }
+
+                @Override
+                public SupportSQLiteDatabase getReadableDatabase() {
+                    SupportSQLiteDatabase database = helper.getReadableDatabase();
+                    if (database.isReadOnly()) {
+                        synchronized (mReaders) {
+                            mReaders.add(database);
+                        }
+                    }
+                    return database;
+                }
+
+                @Override
+                public void close() {
+                    helper.close();
+                }
+            };
+        }
+    }
+}
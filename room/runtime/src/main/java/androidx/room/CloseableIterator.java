@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An {@link Iterator} over the rows of a query that holds an open cursor until it is closed.
+ * <p>
+ * Query methods can return a {@code CloseableIterator} to read a large result one row at a time.
+ * The cursor is closed automatically once the last row is read. If you stop iterating before
+ * that, you must call {@link #close()}, preferably in a {@code finally} block:
+ * <pre>
+ * CloseableIterator&lt;User&gt; users = userDao.iterateUsers();
+ * try {
+ *     while (users.hasNext()) {
+ *         if (!export(users.next())) {
+ *             break;
+ *         }
+ *     }
+ * } finally {
+ *     users.close();
+ * }
+ * </pre>
+ *
+ * @param <T> The type of the items returned by the iterator.
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+    /**
+     * Closes the cursor of the query. Calling this method more than once, or after the last row
+     * was read, has no effect.
+     */
+    @Override
+    void close();
+}
@@ -25,6 +25,7 @@ import androidx.sqlite.db.SupportSQLiteOpenHelper;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Configuration class for a {@link RoomDatabase}.
@@ -71,6 +72,38 @@ public class DatabaseConfiguration {
      */
     public final boolean requireMigration;
 
+    /**
+     * The number of read-only connections queries are spread over, or 0 if all queries use the
+     * writable connection.
+     */
+    public final int readConnectionPoolSize;
+
+    /**
+     * The number of compiled statements each connection keeps, or 0 to use the SQLite
+     * implementation's default.
+     */
+    public final int statementCacheSize;
+
+    /**
+     * The executor that loads {@link Relation} fields in parallel, or null if they are loaded
+     * sequentially.
+     */
+    @Nullable
+    public final Executor relationQueryExecutor;
+
+    /**
+     * The observer that is notified of queries, or null if queries are not observed.
+     */
+    @Nullable
+    public final QueryObserver queryObserver;
+
+    /**
+     * The SQL statements that are compiled into the statement cache when the database is opened
+     * with {@link RoomDatabase#openAsync(Executor)}, or null if none are.
+     */
+    @Nullable
+    public final List<String> prewarmStatements;
+
     /**
      * The collection of schema versions from which migrations aren't required.
      */
@@ -102,6 +135,47 @@ public class DatabaseConfiguration {
             RoomDatabase.JournalMode journalMode,
             boolean requireMigration,
             @Nullable Set<Integer> migrationNotRequiredFrom) {
+        this(context, name, sqliteOpenHelperFactory, migrationContainer, callbacks,
+                allowMainThreadQueries, journalMode, requireMigration, migrationNotRequiredFrom, 0,
+                0, null, null, null);
+    }
+
+    /**
+     * Creates a database configuration with the given values.
+     *
+     * @param context The application context.
+     * @param name Name of the database, can be null if it is in memory.
+     * @param sqliteOpenHelperFactory The open helper factory to use.
+     * @param migrationContainer The migration container for migrations.
+     * @param callbacks The list of callbacks for database events.
+     * @param allowMainThreadQueries Whether to allow main thread reads/writes or not.
+     * @param journalMode The journal mode. This has to be either TRUNCATE or WRITE_AHEAD_LOGGING.
+     * @param requireMigration True if Room should require a valid migration if version changes,
+     *                        instead of recreating the tables.
+     * @param migrationNotRequiredFrom The collection of schema versions from which migrations
+     *                                 aren't required.
+     * @param readConnectionPoolSize The number of read-only connections used for queries.
+     * @param statementCacheSize The number of compiled statements each connection keeps.
+     * @param relationQueryExecutor The executor that loads relations in parallel, if any.
+     * @param queryObserver The observer that is notified of queries, if any.
+     * @param prewarmStatements The statements compiled when the database is opened, if any.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public DatabaseConfiguration(@NonNull Context context, @Nullable String name,
+            @NonNull SupportSQLiteOpenHelper.Factory sqliteOpenHelperFactory,
+            @NonNull RoomDatabase.MigrationContainer migrationContainer,
+            @Nullable List<RoomDatabase.Callback> callbacks,
+            boolean allowMainThreadQueries,
+            RoomDatabase.JournalMode journalMode,
+            boolean requireMigration,
+            @Nullable Set<Integer> migrationNotRequiredFrom,
+            int readConnectionPoolSize,
+            int statementCacheSize,
+            @Nullable Executor relationQueryExecutor,
+            @Nullable QueryObserver queryObserver,
+            @Nullable List<String> prewarmStatements) {
         this.sqliteOpenHelperFactory = sqliteOpenHelperFactory;
         this.context = context;
         this.name = name;
@@ -111,6 +185,11 @@ public class DatabaseConfiguration {
         this.journalMode = journalMode;
         this.requireMigration = requireMigration;
         this.mMigrationNotRequiredFrom = migrationNotRequiredFrom;
+        this.readConnectionPoolSize = readConnectionPoolSize;
+        this.statementCacheSize = statementCacheSize;
+        this.relationQueryExecutor = relationQueryExecutor;
+        this.queryObserver = queryObserver;
+        this.prewarmStatements = prewarmStatements;
     }
 
     /**
@@ -16,10 +16,15 @@
 
 package androidx.room;
 
+import android.os.Build;
+
 import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
 import androidx.sqlite.db.SupportSQLiteStatement;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -34,6 +39,20 @@ import java.util.List;
 @SuppressWarnings({"WeakerAccess", "unused"})
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
+    /**
+     * The maximum number of rows in a multi-row insert, which is SQLite's default limit of terms in
+     * a compound SELECT that older versions also apply to VALUES lists.
+     */
+    private static final int MAX_ROWS_PER_INSERT = 500;
+    private static final String VALUES_KEYWORD = ") VALUES ";
+
+    private final RoomDatabase mDatabase;
+    // lazily derived from createQuery(), see getRowsPerInsert()
+    private String mInsertPrefix;
+    private String mRowPlaceholders;
+    private int mColumnCount;
+    private volatile int mRowsPerInsert;
+
     /**
      * Creates an InsertionAdapter that can insert the entity type T into the given database.
      *
@@ -41,6 +60,7 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
      */
     public EntityInsertionAdapter(RoomDatabase database) {
         super(database);
+        mDatabase = database;
     }
 
     /**
@@ -73,15 +93,7 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
      * @param entities Entities to insert
      */
     public final void insert(T[] entities) {
-        final SupportSQLiteStatement stmt = acquire();
-        try {
-            for (T entity : entities) {
-                bind(stmt, entity);
-                stmt.executeInsert();
-            }
-        } finally {
-            release(stmt);
-        }
+        insert(Arrays.asList(entities));
     }
 
     /**
@@ -90,6 +102,27 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
      * @param entities Entities to insert
      */
     public final void insert(Iterable<T> entities) {
+        final int rowsPerInsert = getRowsPerInsert();
+        if (rowsPerInsert < 2) {
+            insertEach(entities);
+            return;
+        }
+        final List<T> chunk = new ArrayList<>(rowsPerInsert);
+        for (T entity : entities) {
+            chunk.add(entity);
+            if (chunk.size() == rowsPerInsert) {
+                insertChunk(chunk);
+                chunk.clear();
+            }
+        }
+        if (chunk.size() == 1) {
+            insert(chunk.get(0));
+        } else if (!chunk.isEmpty()) {
+            insertChunk(chunk);
+        }
+    }
+
+    private void insertEach(Iterable<T> entities) {
         final SupportSQLiteStatement stmt = acquire();
         try {
             for (T entity : entities) {
@@ -101,6 +134,75 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
         }
     }
 
+    /**
+     * Inserts the given entities with a single {@code INSERT ... VALUES (...), (...)} statement,
+     * binding each entity at the offset of its row.
+     */
+    private void insertChunk(List<T> entities) {
+        final int rowCount = entities.size();
+        final StringBuilder builder = new StringBuilder(mInsertPrefix.length()
+                + rowCount * (mRowPlaceholders.length() + 1));
+        builder.append(mInsertPrefix).append(mRowPlaceholders);
+        for (int i = 1; i < rowCount; i++) {
+            builder.append(',').append(mRowPlaceholders);
+        }
+        final String sql = builder.toString();
+        final SupportSQLiteStatement stmt = mDatabase.acquireStatement(sql);
+        try {
+            final int columnCount = mColumnCount;
+            final OffsetStatement rowStatement = new OffsetStatement(stmt);
+            for (int i = 0; i < rowCount; i++) {
+                rowStatement.mOffset = i * columnCount;
+                bind(rowStatement, entities.get(i));
+            }
+            stmt.executeInsert();
+        } finally {
+            mDatabase.releaseStatement(sql, stmt);
+        }
+    }
+
+    private static int countPlaceholders(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns how many entities can be inserted by a single statement, or 1 if entities have to
+     * be inserted one by one.
+     */
+    private int getRowsPerInsert() {
+        if (mRowsPerInsert != 0) {
+            return mRowsPerInsert;
+        }
+        int rowsPerInsert = 1;
+        if (supportsMultiRowInsert()) {
+            final String query = createQuery();
+            final int valuesIndex = query.lastIndexOf(VALUES_KEYWORD);
+            if (valuesIndex > 0) {
+                mInsertPrefix = query.substring(0, valuesIndex + VALUES_KEYWORD.length());
+                mRowPlaceholders = query.substring(valuesIndex + VALUES_KEYWORD.length()).trim();
+                mColumnCount = countPlaceholders(mRowPlaceholders);
+                if (mColumnCount > 0) {
+                    rowsPerInsert = Math.min(MAX_ROWS_PER_INSERT,
+                            RoomDatabase.MAX_BIND_PARAMETER_CNT / mColumnCount);
+                }
+            }
+        }
+        mRowsPerInsert = Math.max(1, rowsPerInsert);
+        return mRowsPerInsert;
+    }
+
+    @VisibleForTesting
+    boolean supportsMultiRowInsert() {
+        // multi-row VALUES lists are supported since SQLite 3.7.11, which shipped with API 16.
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+    }
+
     /**
      * Inserts the given entity into the database and returns the row id.
      *
@@ -248,4 +350,77 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
             release(stmt);
         }
     }
+
+    /**
+     * Forwards bindings to a multi-row statement, shifted to the parameters of one of its rows.
+     * Everything else is forwarded as is and applies to the whole statement.
+     */
+    private static class OffsetStatement implements SupportSQLiteStatement {
+        private final SupportSQLiteStatement mDelegate;
+        int mOffset;
+
+        OffsetStatement(SupportSQLiteStatement delegate) {
+            mDelegate = delegate;
+        }
+
+        @Override
+        public void bindNull(int index) {
+            mDelegate.bindNull(mOffset + index);
+        }
+
+        @Override
+        public void bindLong(int index, long value) {
+            mDelegate.bindLong(mOffset + index, value);
+        }
+
+        @Override
+        public void bindDouble(int index, double value) {
+            mDelegate.bindDouble(mOffset + index, value);
+        }
+
+        @Override
+        public void bindString(int index, String value) {
+            mDelegate.bindString(mOffset + index, value);
+        }
+
+        @Override
+        public void bindBlob(int index, byte[] value) {
+            mDelegate.bindBlob(mOffset + index, value);
+        }
+
+        @Override
+        public void clearBindings() {
+            mDelegate.clearBindings();
+        }
+
+        @Override
+        public void execute() {
+            mDelegate.execute();
+        }
+
+        @Override
+        public int executeUpdateDelete() {
+            return mDelegate.executeUpdateDelete();
+        }
+
+        @Override
+        public long executeInsert() {
+            return mDelegate.executeInsert();
+        }
+
+        @Override
+        public long simpleQueryForLong() {
+            return mDelegate.simpleQueryForLong();
+        }
+
+        @Override
+        public String simpleQueryForString() {
+            return mDelegate.simpleQueryForString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            mDelegate.close();
+        }
+    }
 }
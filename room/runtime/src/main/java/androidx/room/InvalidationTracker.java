@@ -28,6 +28,8 @@ import androidx.annotation.WorkerThread;
 import androidx.arch.core.internal.SafeIterableMap;
 import androidx.collection.ArrayMap;
 import androidx.collection.ArraySet;
+import androidx.collection.LongSparseArray;
+import androidx.collection.SparseArrayCompat;
 import androidx.arch.core.executor.ArchTaskExecutor;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 import androidx.sqlite.db.SupportSQLiteStatement;
@@ -38,7 +40,13 @@ import java.util.Collections;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -60,6 +68,9 @@ import java.util.concurrent.locks.Lock;
 // UPDATE or INSERT action within the body of the trigger. However if an ON CONFLICT clause is
 // specified as part of the statement causing the trigger to fire, then conflict handling policy of
 // the outer statement is used instead.
+// Tables observed by a RowObserver get a second set of triggers that log the rowid of every
+// modified row into another in memory table. Since there is one log row per modified row, this
+// log is emptied each time it is read, and rows logged while there is no RowObserver are dropped.
 public class InvalidationTracker {
 
     private static final String[] TRIGGERS = new String[]{"UPDATE", "DELETE", "INSERT"};
@@ -76,6 +87,34 @@ public class InvalidationTracker {
             + TABLE_ID_COLUMN_NAME
             + " INTEGER)";
 
+    private static final String ROW_UPDATE_TABLE_NAME = "room_row_modification_log";
+
+    private static final String ROW_ID_COLUMN_NAME = "row_id";
+
+    private static final String CREATE_ROW_VERSION_TABLE_SQL = "CREATE TEMP TABLE "
+            + ROW_UPDATE_TABLE_NAME
+            + "(" + VERSION_COLUMN_NAME
+            + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + TABLE_ID_COLUMN_NAME
+            + " INTEGER, "
+            + ROW_ID_COLUMN_NAME
+            + " INTEGER)";
+
+    @VisibleForTesting
+    static final String SELECT_UPDATED_ROWS_SQL = "SELECT * FROM " + ROW_UPDATE_TABLE_NAME
+            + " WHERE " + VERSION_COLUMN_NAME
+            + " > ? ORDER BY " + VERSION_COLUMN_NAME + " ASC;";
+
+    private static final String ROW_CLEANUP_SQL = "DELETE FROM " + ROW_UPDATE_TABLE_NAME
+            + " WHERE " + VERSION_COLUMN_NAME + " <= ?";
+
+    @VisibleForTesting
+    static final String ROW_TABLE_CLEANUP_SQL = "DELETE FROM " + ROW_UPDATE_TABLE_NAME
+            + " WHERE " + TABLE_ID_COLUMN_NAME + " = ?";
+
+    @VisibleForTesting
+    static final String ROW_CLEAR_SQL = "DELETE FROM " + ROW_UPDATE_TABLE_NAME;
+
     @VisibleForTesting
     static final String CLEANUP_SQL = "DELETE FROM " + UPDATE_TABLE_NAME
             + " WHERE " + VERSION_COLUMN_NAME + " NOT IN( SELECT MAX("
@@ -103,16 +142,38 @@ public class InvalidationTracker {
     // max id in the last syc
     private long mMaxVersion = 0;
 
+    // max id in the row modification log in the last sync
+    private long mMaxRowVersion = 0;
+
+    // rowids modified since the last sync, keyed by table id. Only used while refreshing.
+    private final SparseArrayCompat<LongSparseArray<Object>> mUpdatedRows =
+            new SparseArrayCompat<>();
+
+    // number of RowObservers, row modifications are only read if there is any.
+    private final AtomicInteger mRowObserverCount = new AtomicInteger();
+
     private final RoomDatabase mDatabase;
 
     AtomicBoolean mPendingRefresh = new AtomicBoolean(false);
 
+    // coalescing window and latency bound in nanoseconds, 0 if refreshes are not delayed.
+    private volatile long mCoalescingWindowNanos;
+    private volatile long mMaxLatencyNanos;
+    // uptime of the first and the latest refresh request since the last refresh started.
+    private volatile long mFirstRequestNanos;
+    private volatile long mLastRequestNanos;
+
+    private final AtomicLong mRefreshCount = new AtomicLong();
+    private final AtomicLong mSuppressedRefreshCount = new AtomicLong();
+
     private volatile boolean mInitialized = false;
 
     private volatile SupportSQLiteStatement mCleanupStatement;
 
     private ObservedTableTracker mObservedTableTracker;
 
+    private ObservedTableTracker mObservedRowTracker;
+
     // should be accessed with synchronization only.
     @VisibleForTesting
     final SafeIterableMap<Observer, ObserverWrapper> mObserverMap = new SafeIterableMap<>();
@@ -127,6 +188,7 @@ public class InvalidationTracker {
     public InvalidationTracker(RoomDatabase database, String... tableNames) {
         mDatabase = database;
         mObservedTableTracker = new ObservedTableTracker(tableNames.length);
+        mObservedRowTracker = new ObservedTableTracker(tableNames.length);
         mTableIdLookup = new ArrayMap<>();
         final int size = tableNames.length;
         mTableNames = new String[size];
@@ -156,6 +218,7 @@ public class InvalidationTracker {
                 database.execSQL("PRAGMA temp_store = MEMORY;");
                 database.execSQL("PRAGMA recursive_triggers='ON';");
                 database.execSQL(CREATE_VERSION_TABLE_SQL);
+                database.execSQL(CREATE_ROW_VERSION_TABLE_SQL);
                 database.setTransactionSuccessful();
             } finally {
                 database.endTransaction();
@@ -176,6 +239,16 @@ public class InvalidationTracker {
                 .append("`");
     }
 
+    private static void appendRowTriggerName(StringBuilder builder, String tableName,
+            String triggerType) {
+        builder.append("`")
+                .append("room_row_modification_trigger_")
+                .append(tableName)
+                .append("_")
+                .append(triggerType)
+                .append("`");
+    }
+
     private void stopTrackingTable(SupportSQLiteDatabase writableDb, int tableId) {
         final String tableName = mTableNames[tableId];
         StringBuilder stringBuilder = new StringBuilder();
@@ -207,6 +280,59 @@ public class InvalidationTracker {
         }
     }
 
+    private void stopTrackingRows(SupportSQLiteDatabase writableDb, int tableId) {
+        final String tableName = mTableNames[tableId];
+        StringBuilder stringBuilder = new StringBuilder();
+        for (String trigger : TRIGGERS) {
+            stringBuilder.setLength(0);
+            stringBuilder.append("DROP TRIGGER IF EXISTS ");
+            appendRowTriggerName(stringBuilder, tableName, trigger);
+            writableDb.execSQL(stringBuilder.toString());
+        }
+        // nobody reads the rows the triggers logged anymore.
+        writableDb.execSQL(ROW_TABLE_CLEANUP_SQL, new Object[]{tableId});
+    }
+
+    private void startTrackingRows(SupportSQLiteDatabase writableDb, int tableId) {
+        final String tableName = mTableNames[tableId];
+        StringBuilder stringBuilder = new StringBuilder();
+        for (String trigger : TRIGGERS) {
+            stringBuilder.setLength(0);
+            stringBuilder.append("CREATE TEMP TRIGGER IF NOT EXISTS ");
+            appendRowTriggerName(stringBuilder, tableName, trigger);
+            stringBuilder.append(" AFTER ")
+                    .append(trigger)
+                    .append(" ON `")
+                    .append(tableName)
+                    .append("` BEGIN ");
+            // an update may change the rowid, in which case both rows are modified.
+            if (!"INSERT".equals(trigger)) {
+                appendRowLogInsert(stringBuilder, tableId, "OLD");
+            }
+            if ("INSERT".equals(trigger)) {
+                appendRowLogInsert(stringBuilder, tableId, "NEW");
+            } else if ("UPDATE".equals(trigger)) {
+                stringBuilder.append("INSERT INTO ")
+                        .append(ROW_UPDATE_TABLE_NAME)
+                        .append(" SELECT null, ")
+                        .append(tableId)
+                        .append(", NEW.rowid WHERE NEW.rowid != OLD.rowid; ");
+            }
+            stringBuilder.append("END");
+            writableDb.execSQL(stringBuilder.toString());
+        }
+    }
+
+    private static void appendRowLogInsert(StringBuilder builder, int tableId, String row) {
+        builder.append("INSERT INTO ")
+                .append(ROW_UPDATE_TABLE_NAME)
+                .append(" VALUES(null, ")
+                .append(tableId)
+                .append(", ")
+                .append(row)
+                .append(".rowid); ");
+    }
+
     /**
      * Adds the given observer to the observers list and it will be notified if any table it
      * observes changes.
@@ -218,6 +344,8 @@ public class InvalidationTracker {
      * <p>
      * If one of the tables in the Observer does not exist in the database, this method throws an
      * {@link IllegalArgumentException}.
+     * <p>
+     * If the observer is a {@link RowObserver}, it is only notified when one of its rows changes.
      *
      * @param observer The observer which listens the database for changes.
      */
@@ -242,11 +370,18 @@ public class InvalidationTracker {
         synchronized (mObserverMap) {
             currentObserver = mObserverMap.putIfAbsent(observer, wrapper);
         }
-        if (currentObserver == null && mObservedTableTracker.onAdded(tableIds)) {
+        if (currentObserver == null && wrapper.mRowIds != null) {
+            mRowObserverCount.incrementAndGet();
+        }
+        if (currentObserver == null && getTracker(wrapper).onAdded(tableIds)) {
             syncTriggers();
         }
     }
 
+    private ObservedTableTracker getTracker(ObserverWrapper wrapper) {
+        return wrapper.mRowIds != null ? mObservedRowTracker : mObservedTableTracker;
+    }
+
     /**
      * Adds an observer but keeps a weak reference back to it.
      * <p>
@@ -274,7 +409,10 @@ public class InvalidationTracker {
         synchronized (mObserverMap) {
             wrapper = mObserverMap.remove(observer);
         }
-        if (wrapper != null && mObservedTableTracker.onRemoved(wrapper.mTableIds)) {
+        if (wrapper != null && wrapper.mRowIds != null) {
+            mRowObserverCount.decrementAndGet();
+        }
+        if (wrapper != null && getTracker(wrapper).onRemoved(wrapper.mTableIds)) {
             syncTriggers();
         }
     }
@@ -318,6 +456,7 @@ public class InvalidationTracker {
                     // so that the last transaction can flip it on again.
                     return;
                 }
+                mRefreshCount.incrementAndGet();
 
                 mCleanupStatement.executeUpdateDelete();
                 mQueryArgs[0] = mMaxVersion;
@@ -327,13 +466,13 @@ public class InvalidationTracker {
                     SupportSQLiteDatabase db = mDatabase.getOpenHelper().getWritableDatabase();
                     try {
                         db.beginTransaction();
-                        hasUpdatedTable = checkUpdatedTable();
+                        hasUpdatedTable = checkUpdatedTable() | checkUpdatedRows();
                         db.setTransactionSuccessful();
                     } finally {
                         db.endTransaction();
                     }
                 } else {
-                    hasUpdatedTable = checkUpdatedTable();
+                    hasUpdatedTable = checkUpdatedTable() | checkUpdatedRows();
                 }
             } catch (IllegalStateException | SQLiteException exception) {
                 // may happen if db is closed. just log.
@@ -345,10 +484,51 @@ public class InvalidationTracker {
             if (hasUpdatedTable) {
                 synchronized (mObserverMap) {
                     for (Map.Entry<Observer, ObserverWrapper> entry : mObserverMap) {
-                        entry.getValue().checkForInvalidation(mTableVersions);
+                        entry.getValue().checkForInvalidation(mTableVersions, mUpdatedRows);
                     }
                 }
             }
+            mUpdatedRows.clear();
+        }
+
+        private boolean checkUpdatedRows() {
+            if (mRowObserverCount.get() == 0) {
+                // the triggers keep logging rows until they are dropped by the next sync, or for
+                // good if a RowObserver is added back before that. Drop those rows so they neither
+                // pile up nor invalidate the next RowObserver.
+                if (mObservedRowTracker.hasTriggers()) {
+                    mDatabase.getOpenHelper().getWritableDatabase().execSQL(ROW_CLEAR_SQL);
+                }
+                return false;
+            }
+            boolean hasUpdatedRow = false;
+            Cursor cursor = mDatabase.query(SELECT_UPDATED_ROWS_SQL,
+                    new Object[]{mMaxRowVersion});
+            //noinspection TryFinallyCanBeTryWithResources
+            try {
+                while (cursor.moveToNext()) {
+                    final long version = cursor.getLong(0);
+                    final int tableId = cursor.getInt(1);
+                    final long rowId = cursor.getLong(2);
+
+                    LongSparseArray<Object> rows = mUpdatedRows.get(tableId);
+                    if (rows == null) {
+                        rows = new LongSparseArray<>();
+                        mUpdatedRows.put(tableId, rows);
+                    }
+                    rows.put(rowId, Boolean.TRUE);
+                    hasUpdatedRow = true;
+                    // result is ordered so we can safely do this assignment
+                    mMaxRowVersion = version;
+                }
+            } finally {
+                cursor.close();
+            }
+            if (hasUpdatedRow) {
+                mDatabase.getOpenHelper().getWritableDatabase().execSQL(ROW_CLEANUP_SQL,
+                        new Object[]{mMaxRowVersion});
+            }
+            return hasUpdatedRow;
         }
 
         private boolean checkUpdatedTable() {
@@ -372,19 +552,99 @@ public class InvalidationTracker {
         }
     };
 
+    /**
+     * Waits until no refresh has been requested for the coalescing window, or until the oldest
+     * pending request is as old as the latency bound, and then enqueues the refresh.
+     */
+    @VisibleForTesting
+    final Runnable mDelayedRefreshRunnable = new Runnable() {
+        @Override
+        public void run() {
+            final long deadline = Math.min(mLastRequestNanos + mCoalescingWindowNanos,
+                    mFirstRequestNanos + mMaxLatencyNanos);
+            final long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                RefreshScheduler.INSTANCE.schedule(this, remaining, TimeUnit.NANOSECONDS);
+            } else {
+                ArchTaskExecutor.getInstance().executeOnDiskIO(mRefreshRunnable);
+            }
+        }
+    };
+
     /**
      * Enqueues a task to refresh the list of updated tables.
      * <p>
      * This method is automatically called when {@link RoomDatabase#endTransaction()} is called but
      * if you have another connection to the database or directly use {@link
      * SupportSQLiteDatabase}, you may need to call this manually.
+     * <p>
+     * Calls made while a refresh is already pending are merged into it. If a coalescing window
+     * is set, the refresh additionally waits for the window to pass without further calls.
+     *
+     * @see #setCoalescingWindow(long, long, TimeUnit)
      */
     @SuppressWarnings("WeakerAccess")
     public void refreshVersionsAsync() {
         // TODO we should consider doing this sync instead of async.
+        final long window = mCoalescingWindowNanos;
+        final long now = window > 0 ? System.nanoTime() : 0;
+        mLastRequestNanos = now;
         if (mPendingRefresh.compareAndSet(false, true)) {
-            ArchTaskExecutor.getInstance().executeOnDiskIO(mRefreshRunnable);
+            if (window > 0) {
+                mFirstRequestNanos = now;
+                RefreshScheduler.INSTANCE.schedule(mDelayedRefreshRunnable, window,
+                        TimeUnit.NANOSECONDS);
+            } else {
+                ArchTaskExecutor.getInstance().executeOnDiskIO(mRefreshRunnable);
+            }
+        } else {
+            mSuppressedRefreshCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Sets how long refreshes requested by {@link #refreshVersionsAsync()} are delayed so that
+     * a burst of writes notifies observers once.
+     * <p>
+     * After a refresh is requested, the tracker waits until no further refresh has been
+     * requested for {@code window}, but no longer than {@code maxLatency} after the first
+     * request, before it checks the database for updated tables. All the writes in between
+     * result in a single {@link Observer#onInvalidated(Set)} call per observer, with the union
+     * of the updated tables.
+     * <p>
+     * By default there is no window and the refresh is enqueued right away.
+     *
+     * @param window     The time without refresh requests after which the refresh runs, or 0 to
+     *                   disable coalescing.
+     * @param maxLatency The longest time a refresh is delayed after it is first requested. It
+     *                   is raised to {@code window} if it is smaller.
+     * @param unit       The unit of {@code window} and {@code maxLatency}.
+     */
+    public void setCoalescingWindow(long window, long maxLatency, @NonNull TimeUnit unit) {
+        if (window < 0 || maxLatency < 0) {
+            throw new IllegalArgumentException("Coalescing window and latency cannot be negative");
         }
+        mMaxLatencyNanos = unit.toNanos(Math.max(window, maxLatency));
+        mCoalescingWindowNanos = unit.toNanos(window);
+    }
+
+    /**
+     * Returns the number of times the tracker checked the database for updated tables.
+     *
+     * @return The number of refreshes performed.
+     */
+    public long getRefreshCount() {
+        return mRefreshCount.get();
+    }
+
+    /**
+     * Returns the number of calls to {@link #refreshVersionsAsync()} that did not result in a
+     * refresh of their own because they were merged into a pending one.
+     *
+     * @return The number of refreshes suppressed by coalescing.
+     */
+    public long getSuppressedRefreshCount() {
+        return mSuppressedRefreshCount.get();
     }
 
     /**
@@ -414,27 +674,48 @@ public class InvalidationTracker {
                     // there is a potential race condition where another mSyncTriggers runnable
                     // can start running right after we get the tables list to sync.
                     final int[] tablesToSync = mObservedTableTracker.getTablesToSync();
-                    if (tablesToSync == null) {
+                    final int[] rowTablesToSync = mObservedRowTracker.getTablesToSync();
+                    if (tablesToSync == null && rowTablesToSync == null) {
                         return;
                     }
-                    final int limit = tablesToSync.length;
                     try {
                         database.beginTransaction();
-                        for (int tableId = 0; tableId < limit; tableId++) {
-                            switch (tablesToSync[tableId]) {
-                                case ObservedTableTracker.ADD:
-                                    startTrackingTable(database, tableId);
-                                    break;
-                                case ObservedTableTracker.REMOVE:
-                                    stopTrackingTable(database, tableId);
-                                    break;
+                        if (tablesToSync != null) {
+                            final int limit = tablesToSync.length;
+                            for (int tableId = 0; tableId < limit; tableId++) {
+                                switch (tablesToSync[tableId]) {
+                                    case ObservedTableTracker.ADD:
+                                        startTrackingTable(database, tableId);
+                                        break;
+                                    case ObservedTableTracker.REMOVE:
+                                        stopTrackingTable(database, tableId);
+                                        break;
+                                }
+                            }
+                        }
+                        if (rowTablesToSync != null) {
+                            final int limit = rowTablesToSync.length;
+                            for (int tableId = 0; tableId < limit; tableId++) {
+                                switch (rowTablesToSync[tableId]) {
+                                    case ObservedTableTracker.ADD:
+                                        startTrackingRows(database, tableId);
+                                        break;
+                                    case ObservedTableTracker.REMOVE:
+                                        stopTrackingRows(database, tableId);
+                                        break;
+                                }
                             }
                         }
                         database.setTransactionSuccessful();
                     } finally {
                         database.endTransaction();
                     }
-                    mObservedTableTracker.onSyncCompleted();
+                    if (tablesToSync != null) {
+                        mObservedTableTracker.onSyncCompleted();
+                    }
+                    if (rowTablesToSync != null) {
+                        mObservedRowTracker.onSyncCompleted();
+                    }
                 } finally {
                     closeLock.unlock();
                 }
@@ -474,12 +755,15 @@ public class InvalidationTracker {
         private final long[] mVersions;
         final Observer mObserver;
         private final Set<String> mSingleTableSet;
+        // sorted rowids of a RowObserver, null for table observers.
+        final long[] mRowIds;
 
         ObserverWrapper(Observer observer, int[] tableIds, String[] tableNames, long[] versions) {
             mObserver = observer;
             mTableIds = tableIds;
             mTableNames = tableNames;
             mVersions = versions;
+            mRowIds = observer.mRowIds;
             if (tableIds.length == 1) {
                 ArraySet<String> set = new ArraySet<>();
                 set.add(mTableNames[0]);
@@ -489,7 +773,12 @@ public class InvalidationTracker {
             }
         }
 
-        void checkForInvalidation(long[] versions) {
+        void checkForInvalidation(long[] versions,
+                SparseArrayCompat<LongSparseArray<Object>> updatedRows) {
+            if (mRowIds != null) {
+                checkForRowInvalidation(updatedRows);
+                return;
+            }
             Set<String> invalidatedTables = null;
             final int size = mTableIds.length;
             for (int index = 0; index < size; index++) {
@@ -513,6 +802,20 @@ public class InvalidationTracker {
                 mObserver.onInvalidated(invalidatedTables);
             }
         }
+
+        private void checkForRowInvalidation(
+                SparseArrayCompat<LongSparseArray<Object>> updatedRows) {
+            final LongSparseArray<Object> rows = updatedRows.get(mTableIds[0]);
+            if (rows == null) {
+                return;
+            }
+            for (long rowId : mRowIds) {
+                if (rows.indexOfKey(rowId) >= 0) {
+                    mObserver.onInvalidated(mSingleTableSet);
+                    return;
+                }
+            }
+        }
     }
 
     /**
@@ -520,6 +823,9 @@ public class InvalidationTracker {
      */
     public abstract static class Observer {
         final String[] mTables;
+        // sorted rowids of a RowObserver, or of the RowObserver a WeakObserver wraps.
+        @Nullable
+        final long[] mRowIds;
 
         /**
          * Observes the given list of tables.
@@ -531,6 +837,7 @@ public class InvalidationTracker {
         protected Observer(@NonNull String firstTable, String... rest) {
             mTables = Arrays.copyOf(rest, rest.length + 1);
             mTables[rest.length] = firstTable;
+            mRowIds = null;
         }
 
         /**
@@ -541,6 +848,12 @@ public class InvalidationTracker {
         public Observer(@NonNull String[] tables) {
             // copy tables in case user modifies them afterwards
             mTables = Arrays.copyOf(tables, tables.length);
+            mRowIds = null;
+        }
+
+        Observer(@NonNull String[] tables, @Nullable long[] rowIds) {
+            mTables = tables;
+            mRowIds = rowIds;
         }
 
         /**
@@ -553,6 +866,32 @@ public class InvalidationTracker {
     }
 
 
+    /**
+     * An observer that is only notified when specific rows of a table change.
+     * <p>
+     * Rows are identified by their {@code rowid}, which is the value of the primary key for
+     * tables with an {@code INTEGER} primary key. Observing rows installs additional triggers
+     * that record every modified row, so it is useful for large tables where most writes do not
+     * affect the observed rows, but makes each write to the table a little slower.
+     */
+    public abstract static class RowObserver extends Observer {
+        /**
+         * Observes the given rows of a table.
+         *
+         * @param table  The table name
+         * @param rowIds The rowids of the rows to observe.
+         */
+        protected RowObserver(@NonNull String table, @NonNull long... rowIds) {
+            super(new String[]{table}, sortedCopy(rowIds));
+        }
+
+        private static long[] sortedCopy(long[] rowIds) {
+            final long[] copy = Arrays.copyOf(rowIds, rowIds.length);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
     /**
      * Keeps a list of tables we should observe. Invalidation tracker lazily syncs this list w/
      * triggers in the database.
@@ -653,6 +992,20 @@ public class InvalidationTracker {
             }
         }
 
+        /**
+         * @return true if the last sync left triggers on any table.
+         */
+        boolean hasTriggers() {
+            synchronized (this) {
+                for (boolean state : mTriggerStates) {
+                    if (state) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+
         /**
          * if getTablesToSync returned non-null, the called should call onSyncCompleted once it
          * is done.
@@ -664,17 +1017,46 @@ public class InvalidationTracker {
         }
     }
 
+    /**
+     * Delays refreshes of all trackers that have a coalescing window. Its single thread only
+     * hands refreshes over to the disk IO executor, so it never runs queries itself.
+     */
+    static class RefreshScheduler {
+        static final ScheduledExecutorService INSTANCE;
+
+        static {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(@NonNull Runnable runnable) {
+                            Thread thread = new Thread(runnable, "Room invalidation scheduler");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            // let the thread go away when no database uses a coalescing window.
+            executor.setKeepAliveTime(10, TimeUnit.SECONDS);
+            executor.allowCoreThreadTimeOut(true);
+            INSTANCE = executor;
+        }
+
+        private RefreshScheduler() {
+        }
+    }
+
     /**
      * An Observer wrapper that keeps a weak reference to the given object.
      * <p>
      * This class with automatically unsubscribe when the wrapped observer goes out of memory.
+     * If the wrapped observer is a {@link RowObserver}, it is still only notified when one of its
+     * rows changes.
      */
     static class WeakObserver extends Observer {
         final InvalidationTracker mTracker;
         final WeakReference<Observer> mDelegateRef;
 
         WeakObserver(InvalidationTracker tracker, Observer delegate) {
-            super(delegate.mTables);
+            super(delegate.mTables, delegate.mRowIds);
             mTracker = tracker;
             mDelegateRef = new WeakReference<>(delegate);
         }
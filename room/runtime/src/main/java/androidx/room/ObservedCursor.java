@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteProgram;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+/**
+ * A cursor that reports the statistics of its query to a {@link QueryObserver} when it is
+ * closed.
+ */
+class ObservedCursor extends CursorWrapper {
+    private final SupportSQLiteDatabase mDatabase;
+    private final QueryObserver mObserver;
+    private final String mSql;
+    private final Object[] mBindArgs;
+    private final StackTraceElement mCaller;
+    private final long mExecutionTimeNanos;
+    private final long mExecutedAtNanos;
+    private final int mRowCount;
+    private boolean mReported;
+
+    private ObservedCursor(Cursor cursor, SupportSQLiteDatabase database, QueryObserver observer,
+            String sql, Object[] bindArgs, StackTraceElement caller, long executionTimeNanos,
+            long executedAtNanos, int rowCount) {
+        super(cursor);
+        mDatabase = database;
+        mObserver = observer;
+        mSql = sql;
+        mBindArgs = bindArgs;
+        mCaller = caller;
+        mExecutionTimeNanos = executionTimeNanos;
+        mExecutedAtNanos = executedAtNanos;
+        mRowCount = rowCount;
+    }
+
+    /**
+     * Runs the query on the given database and returns a cursor that reports it once closed.
+     */
+    static Cursor query(@NonNull SupportSQLiteDatabase database,
+            @NonNull SupportSQLiteQuery query, @NonNull QueryObserver observer) {
+        final StackTraceElement caller = findCaller(new Throwable().getStackTrace());
+        // the query may be released and reused before the cursor is closed
+        final String sql = query.getSql();
+        final Object[] bindArgs = captureBindArgs(query);
+        final long start = System.nanoTime();
+        final Cursor cursor = database.query(query);
+        final int rowCount;
+        try {
+            // counting the rows makes SQLite step through the whole result
+            rowCount = cursor.getCount();
+        } catch (RuntimeException e) {
+            cursor.close();
+            throw e;
+        }
+        final long executedAt = System.nanoTime();
+        return new ObservedCursor(cursor, database, observer, sql, bindArgs, caller,
+                executedAt - start, executedAt, rowCount);
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        if (mReported) {
+            return;
+        }
+        mReported = true;
+        final long mappingTimeNanos = System.nanoTime() - mExecutedAtNanos;
+        String queryPlan = null;
+        if (mObserver.mQueryPlanThresholdNanos >= 0
+                && mExecutionTimeNanos + mappingTimeNanos >= mObserver.mQueryPlanThresholdNanos) {
+            queryPlan = explain();
+        }
+        mObserver.onQuery(new QueryInfo(mSql, mObserver.mIncludeBindArgs ? mBindArgs : null,
+                mCaller, mExecutionTimeNanos, mappingTimeNanos, mRowCount, queryPlan));
+    }
+
+    @Nullable
+    private String explain() {
+        try {
+            final Cursor cursor = mDatabase.query(
+                    new SimpleSQLiteQuery("EXPLAIN QUERY PLAN " + mSql, mBindArgs));
+            try {
+                int detailIndex = cursor.getColumnIndex("detail");
+                if (detailIndex == -1) {
+                    detailIndex = cursor.getColumnCount() - 1;
+                }
+                final StringBuilder plan = new StringBuilder();
+                while (cursor.moveToNext()) {
+                    if (plan.length() > 0) {
+                        plan.append('\n');
+                    }
+                    plan.append(cursor.getString(detailIndex));
+                }
+                return plan.toString();
+            } finally {
+                cursor.close();
+            }
+        } catch (RuntimeException e) {
+            // the plan is only informational, do not fail the caller because of it
+            Log.w(Room.LOG_TAG, "Cannot explain query " + mSql, e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the first frame of a generated class, which is the DAO method that runs the query
+     * or the class that computes the value of an observable query.
+     */
+    @VisibleForTesting
+    @Nullable
+    static StackTraceElement findCaller(@NonNull StackTraceElement[] stackTrace) {
+        for (StackTraceElement element : stackTrace) {
+            final String className = element.getClassName();
+            // generated DAOs are named <Dao>_Impl and may run queries in inner classes
+            if (className.contains("_Impl") && !className.startsWith("androidx.room.")) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    @VisibleForTesting
+    @NonNull
+    static Object[] captureBindArgs(@NonNull SupportSQLiteQuery query) {
+        final BindArgsRecorder recorder = new BindArgsRecorder(query.getArgCount());
+        query.bindTo(recorder);
+        return recorder.mArgs;
+    }
+
+    /**
+     * Records the arguments a query binds instead of binding them to a statement.
+     */
+    private static class BindArgsRecorder implements SupportSQLiteProgram {
+        Object[] mArgs;
+
+        BindArgsRecorder(int argCount) {
+            mArgs = new Object[argCount];
+        }
+
+        private void set(int index, Object value) {
+            if (index > mArgs.length) {
+                Object[] args = new Object[index];
+                System.arraycopy(mArgs, 0, args, 0, mArgs.length);
+                mArgs = args;
+            }
+            mArgs[index - 1] = value;
+        }
+
+        @Override
+        public void bindNull(int index) {
+            set(index, null);
+        }
+
+        @Override
+        public void bindLong(int index, long value) {
+            set(index, value);
+        }
+
+        @Override
+        public void bindDouble(int index, double value) {
+            set(index, value);
+        }
+
+        @Override
+        public void bindString(int index, String value) {
+            set(index, value);
+        }
+
+        @Override
+        public void bindBlob(int index, byte[] value) {
+            set(index, value);
+        }
+
+        @Override
+        public void clearBindings() {
+            mArgs = new Object[mArgs.length];
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The statistics of a query, reported to a {@link QueryObserver}.
+ */
+public final class QueryInfo {
+    @NonNull
+    private final String mSql;
+    @Nullable
+    private final List<Object> mBindArgs;
+    @Nullable
+    private final StackTraceElement mCaller;
+    private final long mExecutionTimeNanos;
+    private final long mMappingTimeNanos;
+    private final int mRowCount;
+    @Nullable
+    private final String mQueryPlan;
+
+    QueryInfo(@NonNull String sql, @Nullable Object[] bindArgs,
+            @Nullable StackTraceElement caller, long executionTimeNanos, long mappingTimeNanos,
+            int rowCount, @Nullable String queryPlan) {
+        mSql = sql;
+        mBindArgs = bindArgs == null ? null
+                : Collections.unmodifiableList(Arrays.asList(bindArgs));
+        mCaller = caller;
+        mExecutionTimeNanos = executionTimeNanos;
+        mMappingTimeNanos = mappingTimeNanos;
+        mRowCount = rowCount;
+        mQueryPlan = queryPlan;
+    }
+
+    /**
+     * @return The SQL of the query.
+     */
+    @NonNull
+    public String getSql() {
+        return mSql;
+    }
+
+    /**
+     * Returns the bind arguments of the query, in the order of their indices. Each argument is
+     * null or a {@link Long}, {@link Double}, {@link String} or {@code byte[]}.
+     *
+     * @return The bind arguments, or null if the observer does not include them.
+     */
+    @Nullable
+    public List<Object> getBindArgs() {
+        return mBindArgs;
+    }
+
+    /**
+     * Returns the stack frame that ran the query, which is the generated implementation of a
+     * DAO method. For queries of observable return types such as {@code LiveData}, this is the
+     * method of the class that computes the value.
+     *
+     * @return The calling frame, or null if the query was not run by a DAO.
+     */
+    @Nullable
+    public StackTraceElement getCaller() {
+        return mCaller;
+    }
+
+    /**
+     * Returns the time it took to run the query and count the rows of its result.
+     *
+     * @return The execution time in nanoseconds.
+     */
+    public long getExecutionTimeNanos() {
+        return mExecutionTimeNanos;
+    }
+
+    /**
+     * Returns the time between the query returning and its cursor being closed, which is
+     * mostly spent reading the rows into objects.
+     *
+     * @return The mapping time in nanoseconds.
+     */
+    public long getMappingTimeNanos() {
+        return mMappingTimeNanos;
+    }
+
+    /**
+     * @return The number of rows returned by the query.
+     */
+    public int getRowCount() {
+        return mRowCount;
+    }
+
+    /**
+     * Returns the output of {@code EXPLAIN QUERY PLAN} for the query, one step per line. A
+     * step such as {@code SCAN TABLE User} shows that the query reads the whole table.
+     *
+     * @return The query plan, or null if the query was faster than the threshold of the
+     * observer.
+     */
+    @Nullable
+    public String getQueryPlan() {
+        return mQueryPlan;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryInfo{sql='" + mSql + "', caller=" + mCaller
+                + ", executionTimeNanos=" + mExecutionTimeNanos
+                + ", mappingTimeNanos=" + mMappingTimeNanos
+                + ", rowCount=" + mRowCount + '}';
+    }
+}
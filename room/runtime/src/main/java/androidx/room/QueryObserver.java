@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An observer that is notified of every query run through a {@link RoomDatabase}, which can be
+ * used to find slow queries and queries that scan whole tables.
+ * <p>
+ * A query is reported once its cursor is closed, on the thread that closes it. Reporting a
+ * query makes Room count the rows of its result before returning the cursor and walk the stack
+ * to find the calling DAO method, so an observer should only be set while profiling.
+ * <p>
+ * Only queries are observed; inserts, updates and deletes are not reported.
+ *
+ * @see RoomDatabase.Builder#setQueryObserver(QueryObserver)
+ */
+public abstract class QueryObserver {
+    final boolean mIncludeBindArgs;
+    final long mQueryPlanThresholdNanos;
+
+    /**
+     * Creates an observer that does not receive bind arguments or query plans.
+     */
+    public QueryObserver() {
+        this(false, -1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates an observer that receives the query plans of slow queries.
+     * <p>
+     * For queries whose execution and mapping time add up to at least the given threshold,
+     * Room runs {@code EXPLAIN QUERY PLAN} with the same arguments after the cursor is closed
+     * and reports the result in {@link QueryInfo#getQueryPlan()}.
+     *
+     * @param includeBindArgs  Whether to report the bind arguments of queries, which may hold
+     *                         personal data. If false, {@link QueryInfo#getBindArgs()} is null.
+     * @param queryPlanThreshold The minimum time a query has to take for its plan to be
+     *                           captured, or a negative value to never capture plans.
+     * @param unit             The unit of the threshold.
+     */
+    public QueryObserver(boolean includeBindArgs, long queryPlanThreshold,
+            @NonNull TimeUnit unit) {
+        mIncludeBindArgs = includeBindArgs;
+        mQueryPlanThresholdNanos = queryPlanThreshold < 0 ? -1 : unit.toNanos(queryPlanThreshold);
+    }
+
+    /**
+     * Called after the cursor of a query is closed.
+     *
+     * @param info The statistics of the query.
+     */
+    public abstract void onQuery(@NonNull QueryInfo info);
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the queries that load the {@link Relation} fields of a query result on several threads.
+ * <p>
+ * The calling thread takes part in running the queries, and helpers posted to the executor only
+ * pick up queries that have not been started yet. The caller therefore never waits for a query
+ * that is still queued, so a busy or single threaded executor (or one the caller itself runs on)
+ * only makes the queries run sequentially instead of blocking.
+ */
+class RelationQueryRunner {
+
+    private RelationQueryRunner() {
+    }
+
+    /**
+     * Runs all of the given queries and returns once they have finished.
+     *
+     * @param executor The executor to run helpers on.
+     * @param maxThreads The maximum number of threads, including the caller, to run queries on.
+     * @param queries The queries to run.
+     * @throws RuntimeException The first exception thrown by one of the queries.
+     */
+    static void run(@NonNull Executor executor, int maxThreads, @NonNull Runnable... queries) {
+        final Batch batch = new Batch(queries);
+        final int helpers = Math.min(maxThreads, queries.length) - 1;
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(batch);
+            } catch (RejectedExecutionException ignored) {
+                // the caller runs the queries the executor does not take
+                break;
+            }
+        }
+        batch.run();
+        batch.await();
+    }
+
+    private static class Batch implements Runnable {
+        private final Runnable[] mQueries;
+        private final AtomicInteger mNextQuery = new AtomicInteger();
+        private final CountDownLatch mRemaining;
+        private final AtomicReference<Throwable> mFailure = new AtomicReference<>();
+
+        Batch(Runnable[] queries) {
+            mQueries = queries;
+            mRemaining = new CountDownLatch(queries.length);
+        }
+
+        @Override
+        public void run() {
+            int index;
+            while ((index = mNextQuery.getAndIncrement()) < mQueries.length) {
+                try {
+                    if (mFailure.get() == null) {
+                        mQueries[index].run();
+                    }
+                } catch (Throwable t) {
+                    mFailure.compareAndSet(null, t);
+                } finally {
+                    mRemaining.countDown();
+                }
+            }
+        }
+
+        void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    mRemaining.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // the queries cannot be cancelled, so keep waiting for the helpers
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            final Throwable failure = mFailure.get();
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw new RuntimeException("Exception while loading relations", failure);
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.WorkerThread;
+import androidx.collection.LruCache;
 import androidx.collection.SparseArrayCompat;
 import androidx.core.app.ActivityManagerCompat;
 import androidx.arch.core.executor.ArchTaskExecutor;
@@ -40,12 +41,17 @@ import androidx.sqlite.db.SupportSQLiteQuery;
 import androidx.sqlite.db.SupportSQLiteStatement;
 import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -68,12 +74,32 @@ public abstract class RoomDatabase {
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public static final int MAX_BIND_PARAMETER_CNT = 999;
+    /**
+     * The largest statement cache size SQLite connections accept, see
+     * {@link android.database.sqlite.SQLiteDatabase#MAX_SQL_CACHE_SIZE}.
+     */
+    private static final int MAX_STATEMENT_CACHE_SIZE = 100;
+    /**
+     * The number of statements cached when no size is set, which matches the default size of
+     * the framework's per connection cache.
+     */
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 25;
     // set by the generated open helper.
     protected volatile SupportSQLiteDatabase mDatabase;
     private SupportSQLiteOpenHelper mOpenHelper;
     private final InvalidationTracker mInvalidationTracker;
     private boolean mAllowMainThreadQueries;
     boolean mWriteAheadLoggingEnabled;
+    private boolean mReadConnectionPoolEnabled;
+    private int mReadConnectionPoolSize;
+    @Nullable
+    private Executor mRelationQueryExecutor;
+    @Nullable
+    private QueryObserver mQueryObserver;
+    @Nullable
+    private List<String> mPrewarmStatements;
+    // Compiled statements that are not in use, keyed by their SQL.
+    private StatementCache mStatementCache;
 
     @Nullable
     protected List<Callback> mCallbacks;
@@ -117,6 +143,14 @@ public abstract class RoomDatabase {
         mCallbacks = configuration.callbacks;
         mAllowMainThreadQueries = configuration.allowMainThreadQueries;
         mWriteAheadLoggingEnabled = wal;
+        mReadConnectionPoolEnabled = wal && configuration.name != null
+                && configuration.readConnectionPoolSize > 0;
+        mReadConnectionPoolSize = configuration.readConnectionPoolSize;
+        mRelationQueryExecutor = configuration.relationQueryExecutor;
+        mQueryObserver = configuration.queryObserver;
+        mPrewarmStatements = configuration.prewarmStatements;
+        mStatementCache = new StatementCache(configuration.statementCacheSize > 0
+                ? configuration.statementCacheSize : DEFAULT_STATEMENT_CACHE_SIZE);
     }
 
     /**
@@ -175,6 +209,47 @@ public abstract class RoomDatabase {
         return db != null && db.isOpen();
     }
 
+    /**
+     * Opens the database on the given executor, instead of on the thread that first accesses it.
+     * <p>
+     * Opening the database creates it or runs the necessary {@link Migration}s, which may take
+     * long. Their progress is reported to {@link Callback#onMigrationStep(SupportSQLiteDatabase,
+     * Migration, int, int)}. Once the database is open, the statements added with
+     * {@link Builder#addPrewarmStatements(String...)} are compiled so that their first use does
+     * not have to.
+     * <p>
+     * Queries that run while the database is being opened wait for it to be open.
+     *
+     * @param executor The executor to open the database on.
+     * @return A future that completes once the database is open, or fails with the exception
+     * that opening it threw.
+     */
+    @NonNull
+    public Future<Void> openAsync(@NonNull Executor executor) {
+        final FutureTask<Void> task = new FutureTask<>(new Runnable() {
+            @Override
+            public void run() {
+                open();
+            }
+        }, null);
+        executor.execute(task);
+        return task;
+    }
+
+    private void open() {
+        final SupportSQLiteDatabase database = mOpenHelper.getWritableDatabase();
+        if (mReadConnectionPoolEnabled) {
+            mOpenHelper.getReadableDatabase();
+        }
+        if (mPrewarmStatements != null) {
+            for (String sql : mPrewarmStatements) {
+                final int generation = mStatementCache.getGeneration();
+                mStatementCache.release(sql,
+                        mStatementCache.track(database.compileStatement(sql), generation));
+            }
+        }
+    }
+
     /**
      * Closes the database if it is already open.
      */
@@ -182,6 +257,8 @@ public abstract class RoomDatabase {
         if (isOpen()) {
             try {
                 mCloseLock.lock();
+                // cached statements belong to the connection that is being closed.
+                mStatementCache.invalidate();
                 mOpenHelper.close();
             } finally {
                 mCloseLock.unlock();
@@ -220,7 +297,7 @@ public abstract class RoomDatabase {
      * @return A Cursor obtained by running the given query in the Room database.
      */
     public Cursor query(String query, @Nullable Object[] args) {
-        return mOpenHelper.getWritableDatabase().query(new SimpleSQLiteQuery(query, args));
+        return queryDatabase(new SimpleSQLiteQuery(query, args));
     }
 
     /**
@@ -231,7 +308,49 @@ public abstract class RoomDatabase {
      */
     public Cursor query(SupportSQLiteQuery query) {
         assertNotMainThread();
-        return mOpenHelper.getWritableDatabase().query(query);
+        return queryDatabase(query);
+    }
+
+    private Cursor queryDatabase(SupportSQLiteQuery query) {
+        if (mQueryObserver != null) {
+            return ObservedCursor.query(getQueryDatabase(), query, mQueryObserver);
+        }
+        return getQueryDatabase().query(query);
+    }
+
+    /**
+     * Returns the database to run a query on. If a read connection pool is enabled, queries that
+     * are not part of a transaction run on a read-only connection so that they do not wait for
+     * each other or for the writer. Queries in a transaction must see its uncommitted changes, so
+     * they always run on the writable database.
+     */
+    private SupportSQLiteDatabase getQueryDatabase() {
+        if (mReadConnectionPoolEnabled && !inTransaction()) {
+            return mOpenHelper.getReadableDatabase();
+        }
+        return mOpenHelper.getWritableDatabase();
+    }
+
+    /**
+     * Runs the queries that load the {@link Relation} fields of a query result.
+     * <p>
+     * If a relation query executor is set and the read connection pool is enabled, the queries
+     * run in parallel on separate read-only connections. Inside a transaction they must see its
+     * uncommitted changes, so they always run one after the other on the calling thread.
+     *
+     * @param queries The queries to run, which must not depend on each other.
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void runRelationQueries(@NonNull Runnable... queries) {
+        if (mRelationQueryExecutor != null && mReadConnectionPoolEnabled && queries.length > 1
+                && !inTransaction()) {
+            RelationQueryRunner.run(mRelationQueryExecutor, mReadConnectionPoolSize, queries);
+            return;
+        }
+        for (Runnable query : queries) {
+            query.run();
+        }
     }
 
     /**
@@ -245,6 +364,67 @@ public abstract class RoomDatabase {
         return mOpenHelper.getWritableDatabase().compileStatement(sql);
     }
 
+    /**
+     * Returns a compiled statement for the given SQL, reusing a cached one if possible. The
+     * statement must be given back with {@link #releaseStatement(String, SupportSQLiteStatement)}
+     * once it is executed and must not be used after that.
+     *
+     * @param sql The query to compile.
+     * @return The compiled query.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    // used in generated code
+    public SupportSQLiteStatement acquireStatement(@NonNull String sql) {
+        assertNotMainThread();
+        final SupportSQLiteStatement statement = mStatementCache.take(sql);
+        if (statement != null) {
+            return statement;
+        }
+        final int generation = mStatementCache.getGeneration();
+        return mStatementCache.track(
+                mOpenHelper.getWritableDatabase().compileStatement(sql), generation);
+    }
+
+    /**
+     * Puts a statement returned by {@link #acquireStatement(String)} back into the cache, or
+     * closes it if the database has been closed since it was acquired.
+     *
+     * @param sql The query the statement was compiled from.
+     * @param statement The statement, which will not be used by the caller anymore.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    // used in generated code
+    public void releaseStatement(@NonNull String sql, @NonNull SupportSQLiteStatement statement) {
+        statement.clearBindings();
+        mStatementCache.release(sql, statement);
+    }
+
+    /**
+     * Returns the number of times an insert, update or delete of a DAO found a compiled statement
+     * for its SQL in the statement cache.
+     *
+     * @return The number of statement cache hits.
+     * @see Builder#setStatementCacheSize(int)
+     */
+    public int getStatementCacheHitCount() {
+        return mStatementCache.hitCount();
+    }
+
+    /**
+     * Returns the number of times an insert, update or delete of a DAO had to compile its SQL
+     * because no cached statement was available. SELECT queries are not counted.
+     *
+     * @return The number of statement cache misses.
+     * @see Builder#setStatementCacheSize(int)
+     */
+    public int getStatementCacheMissCount() {
+        return mStatementCache.missCount();
+    }
+
     /**
      * Wrapper for {@link SupportSQLiteDatabase#beginTransaction()}.
      */
@@ -409,6 +589,11 @@ public abstract class RoomDatabase {
         private SupportSQLiteOpenHelper.Factory mFactory;
         private boolean mAllowMainThreadQueries;
         private JournalMode mJournalMode;
+        private int mReadConnectionPoolSize;
+        private int mStatementCacheSize;
+        private Executor mRelationQueryExecutor;
+        private QueryObserver mQueryObserver;
+        private ArrayList<String> mPrewarmStatements;
         private boolean mRequireMigration;
         /**
          * Migrations, mapped by from-to pairs.
@@ -516,6 +701,113 @@ public abstract class RoomDatabase {
             return this;
         }
 
+        /**
+         * Sets the number of read-only connections that Room spreads queries over.
+         * <p>
+         * By default, every query and write goes through a single database connection, so
+         * queries running on different threads wait for each other. With a read connection pool,
+         * queries that are not part of a transaction run on one of {@code size} read-only
+         * connections in parallel with each other and with writes, while inserts, updates,
+         * deletes and transactions keep using the single writable connection.
+         * <p>
+         * The pool requires {@link JournalMode#WRITE_AHEAD_LOGGING} and is ignored for other
+         * journal modes and for databases created with
+         * {@link Room#inMemoryDatabaseBuilder(Context, Class)}. It is provided by the default
+         * {@link FrameworkSQLiteOpenHelperFactory}; a factory set with
+         * {@link #openHelperFactory(SupportSQLiteOpenHelper.Factory)} has to return read-only
+         * connections from {@link SupportSQLiteOpenHelper#getReadableDatabase()} itself.
+         * <p>
+         * When the pool is enabled, {@link RoomDatabase#query(SupportSQLiteQuery)} must only be
+         * used for statements that do not modify the database.
+         * <p>
+         * The default value is 0, which disables the pool.
+         *
+         * @param size The number of read-only connections.
+         * @return this
+         */
+        @NonNull
+        public Builder<T> setReadConnectionPoolSize(int size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("Read connection pool size cannot be negative: "
+                        + size);
+            }
+            mReadConnectionPoolSize = size;
+            return this;
+        }
+
+        /**
+         * Sets the executor used to load the {@link Relation} fields of query results in
+         * parallel.
+         * <p>
+         * When a query returns a POJO with several {@link Relation} fields, Room runs one query
+         * per relation to fetch the related rows. With an executor set, these queries run
+         * concurrently on the read-only connections of the pool, see
+         * {@link #setReadConnectionPoolSize(int)}. The thread running the query takes part in
+         * loading the relations, so an executor without idle threads only makes them load
+         * sequentially.
+         * <p>
+         * Relations of queries that run in a transaction, for instance because the DAO method is
+         * annotated with {@link Transaction}, are always loaded sequentially on the calling
+         * thread so that they see the changes of the transaction.
+         * <p>
+         * The executor is ignored if the read connection pool is not enabled. By default, it is
+         * not set and relations are loaded sequentially.
+         *
+         * @param executor The executor to run relation queries on.
+         * @return this
+         */
+        @NonNull
+        public Builder<T> setRelationQueryExecutor(@NonNull Executor executor) {
+            mRelationQueryExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets an observer that is notified of every query run on the database, with its SQL,
+         * the calling DAO method, its execution and mapping time and the number of rows it
+         * returned.
+         * <p>
+         * Observing queries slows them down, see {@link QueryObserver}.
+         *
+         * @param observer The observer to report queries to.
+         * @return this
+         */
+        @NonNull
+        public Builder<T> setQueryObserver(@NonNull QueryObserver observer) {
+            mQueryObserver = observer;
+            return this;
+        }
+
+        /**
+         * Sets the number of compiled statements that are kept for reuse.
+         * <p>
+         * Every database connection caches this many compiled queries, so running a SELECT query
+         * whose SQL is still in that cache skips parsing it again. Room does not keep compiled
+         * SELECT queries itself, since cursors cannot reuse them.
+         * <p>
+         * Room additionally keeps this many idle compiled statements of the inserts, updates and
+         * deletes of DAOs, including the statements added with
+         * {@link #addPrewarmStatements(String...)}. Its hits and misses are reported by
+         * {@link RoomDatabase#getStatementCacheHitCount()} and
+         * {@link RoomDatabase#getStatementCacheMissCount()}. Increasing the size helps DAOs that
+         * run many different queries repeatedly, at the cost of memory for each cached
+         * statement.
+         * <p>
+         * The default value is 0, which uses the default size of the SQLite implementation.
+         *
+         * @param size The number of statements to cache, at most 100.
+         * @return this
+         */
+        @NonNull
+        public Builder<T> setStatementCacheSize(int size) {
+            if (size < 0 || size > MAX_STATEMENT_CACHE_SIZE) {
+                throw new IllegalArgumentException("Statement cache size must be between 0 and "
+                        + MAX_STATEMENT_CACHE_SIZE + ": " + size);
+            }
+            mStatementCacheSize = size;
+            return this;
+        }
+
         /**
          * Allows Room to destructively recreate database tables if {@link Migration}s that would
          * migrate old database schemas to the latest schema version are not found.
@@ -586,6 +878,30 @@ public abstract class RoomDatabase {
             return this;
         }
 
+        /**
+         * Adds SQL statements that are compiled into the statement cache when the database is
+         * opened with {@link RoomDatabase#openAsync(Executor)}, so that the DAO methods using them
+         * do not have to compile them the first time they run.
+         * <p>
+         * This applies to {@link Insert}, {@link Update} and {@link Delete} methods and to
+         * {@link Query} methods that modify the database. SELECT queries are not compiled ahead,
+         * since they are only cached by the database connection.
+         * <p>
+         * Statements that do not fit into the statement cache are dropped again, see
+         * {@link #setStatementCacheSize(int)}.
+         *
+         * @param sql The SQL of the statements, as it appears in the DAO.
+         * @return this
+         */
+        @NonNull
+        public Builder<T> addPrewarmStatements(@NonNull String... sql) {
+            if (mPrewarmStatements == null) {
+                mPrewarmStatements = new ArrayList<>();
+            }
+            Collections.addAll(mPrewarmStatements, sql);
+            return this;
+        }
+
         /**
          * Creates the databases and initializes it.
          * <p>
@@ -621,13 +937,15 @@ public abstract class RoomDatabase {
             }
 
             if (mFactory == null) {
-                mFactory = new FrameworkSQLiteOpenHelperFactory();
+                mFactory = new FrameworkSQLiteOpenHelperFactory(mReadConnectionPoolSize);
             }
             DatabaseConfiguration configuration =
                     new DatabaseConfiguration(mContext, mName, mFactory, mMigrationContainer,
                             mCallbacks, mAllowMainThreadQueries,
                             mJournalMode.resolve(mContext),
-                            mRequireMigration, mMigrationsNotRequiredFrom);
+                            mRequireMigration, mMigrationsNotRequiredFrom,
+                            mReadConnectionPoolSize, mStatementCacheSize,
+                            mRelationQueryExecutor, mQueryObserver, mPrewarmStatements);
             T db = Room.getGeneratedImplementation(mDatabaseClass, DB_IMPL_SUFFIX);
             db.init(configuration);
             return db;
@@ -733,6 +1051,101 @@ public abstract class RoomDatabase {
         }
     }
 
+    /**
+     * An LRU cache of compiled statements that are not in use. A statement is removed from the
+     * cache while it is in use, so threads running the same SQL at the same time each get their
+     * own statement and the last one to finish puts its statement back.
+     * <p>
+     * The cache also remembers which statements were compiled on the current connection, so that
+     * a statement that is released after the database was closed or reopened is closed instead of
+     * being cached.
+     */
+    private static class StatementCache extends LruCache<String, SupportSQLiteStatement> {
+        // statements of the current connection, both cached and in use.
+        private final Set<SupportSQLiteStatement> mCompiled = Collections.newSetFromMap(
+                new IdentityHashMap<SupportSQLiteStatement, Boolean>());
+        // incremented whenever the connection the statements are compiled on is closed.
+        private int mGeneration;
+
+        StatementCache(int maxSize) {
+            super(maxSize);
+        }
+
+        synchronized int getGeneration() {
+            return mGeneration;
+        }
+
+        /**
+         * Remembers a statement compiled on the connection of the given generation, unless the
+         * connection has been closed since.
+         */
+        synchronized SupportSQLiteStatement track(SupportSQLiteStatement statement,
+                int generation) {
+            if (generation == mGeneration) {
+                mCompiled.add(statement);
+            }
+            return statement;
+        }
+
+        /**
+         * Caches a statement that is not in use anymore, or closes it if it was not compiled on
+         * the current connection.
+         */
+        void release(String sql, SupportSQLiteStatement statement) {
+            synchronized (this) {
+                if (mCompiled.contains(statement)) {
+                    put(sql, statement);
+                    return;
+                }
+            }
+            closeQuietly(statement);
+        }
+
+        /**
+         * Closes the cached statements and forgets the ones in use, which are closed when they
+         * are released.
+         */
+        synchronized void invalidate() {
+            evictAll();
+            mCompiled.clear();
+            mGeneration++;
+        }
+
+        /**
+         * Removes and returns the cached statement for the given SQL, or returns null and
+         * counts a miss if there is none.
+         */
+        synchronized SupportSQLiteStatement take(String sql) {
+            // LruCache synchronizes on itself, which makes the lookup and removal atomic.
+            final SupportSQLiteStatement statement = get(sql);
+            if (statement != null) {
+                remove(sql);
+            }
+            return statement;
+        }
+
+        @Override
+        protected void entryRemoved(boolean evicted, @NonNull String key,
+                @NonNull SupportSQLiteStatement oldValue,
+                @Nullable SupportSQLiteStatement newValue) {
+            // statements taken out of the cache are still in use, only close dropped ones.
+            if (evicted || (newValue != null && newValue != oldValue)) {
+                synchronized (this) {
+                    mCompiled.remove(oldValue);
+                }
+                closeQuietly(oldValue);
+            }
+        }
+
+        private static void closeQuietly(SupportSQLiteStatement statement) {
+            try {
+                statement.close();
+            } catch (IOException ignored) {
+                // closing a compiled statement does not do any I/O.
+            }
+        }
+    }
+
     /**
      * Callback for {@link RoomDatabase}.
      */
@@ -754,5 +1167,20 @@ public abstract class RoomDatabase {
          */
         public void onOpen(@NonNull SupportSQLiteDatabase db) {
         }
+
+        /**
+         * Called after each {@link Migration} that is run while the database is opened, in the
+         * same transaction as the migration. This can be used to report the progress of long
+         * migrations, for instance while the database is opened with
+         * {@link RoomDatabase#openAsync(Executor)}.
+         *
+         * @param db The database.
+         * @param migration The migration that has been run.
+         * @param step The index of the migration among the migrations that are run.
+         * @param stepCount The number of migrations that are run.
+         */
+        public void onMigrationStep(@NonNull SupportSQLiteDatabase db,
+                @NonNull Migration migration, int step, int stepCount) {
+        }
     }
 }
@@ -48,6 +48,7 @@ public class RoomOpenHelper extends SupportSQLiteOpenHelper.Callback {
      */
     @NonNull // b/64290754
     private final String mLegacyHash;
+    private final int mStatementCacheSize;
 
     public RoomOpenHelper(@NonNull DatabaseConfiguration configuration, @NonNull Delegate delegate,
             @NonNull String identityHash, @NonNull String legacyHash) {
@@ -56,6 +57,7 @@ public class RoomOpenHelper extends SupportSQLiteOpenHelper.Callback {
         mDelegate = delegate;
         mIdentityHash = identityHash;
         mLegacyHash = legacyHash;
+        mStatementCacheSize = configuration.statementCacheSize;
     }
 
     public RoomOpenHelper(@NonNull DatabaseConfiguration configuration, @NonNull Delegate delegate,
@@ -66,6 +68,10 @@ public class RoomOpenHelper extends SupportSQLiteOpenHelper.Callback {
     @Override
     public void onConfigure(SupportSQLiteDatabase db) {
         super.onConfigure(db);
+        // read connections are configured after open too, so this cannot use mConfiguration.
+        if (mStatementCacheSize > 0) {
+            db.setMaxSqlCacheSize(mStatementCacheSize);
+        }
     }
 
     @Override
@@ -82,8 +88,11 @@ public class RoomOpenHelper extends SupportSQLiteOpenHelper.Callback {
             List<Migration> migrations = mConfiguration.migrationContainer.findMigrationPath(
                     oldVersion, newVersion);
             if (migrations != null) {
-                for (Migration migration : migrations) {
+                final int stepCount = migrations.size();
+                for (int step = 0; step < stepCount; step++) {
+                    final Migration migration = migrations.get(step);
                     migration.migrate(db);
+                    dispatchMigrationStep(db, migration, step, stepCount);
                 }
                 mDelegate.validateMigration(db);
                 updateIdentity(db);
@@ -105,6 +114,17 @@ public class RoomOpenHelper extends SupportSQLiteOpenHelper.Callback {
         }
     }
 
+    private void dispatchMigrationStep(SupportSQLiteDatabase db, Migration migration, int step,
+            int stepCount) {
+        //noinspection ConstantConditions
+        final List<RoomDatabase.Callback> callbacks = mConfiguration.callbacks;
+        if (callbacks != null) {
+            for (RoomDatabase.Callback callback : callbacks) {
+                callback.onMigrationStep(db, migration, step, stepCount);
+            }
+        }
+    }
+
     @Override
     public void onDowngrade(SupportSQLiteDatabase db, int oldVersion, int newVersion) {
         onUpgrade(db, oldVersion, newVersion);
@@ -27,7 +27,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * it can be used by other threads.
  * <p>
  * To avoid re-entry even within the same thread, this class allows only 1 time access to the shared
- * statement until it is released.
+ * statement until it is released. While it is in use, statements are taken from the statement
+ * cache of the {@link RoomDatabase} and put back when they are released.
  *
  * @hide
  */
@@ -61,8 +62,9 @@ public abstract class SharedSQLiteStatement {
     }
 
     private SupportSQLiteStatement createNewStatement() {
+        // prewarmed statements are taken from the database's statement cache.
         String query = createQuery();
-        return mDatabase.compileStatement(query);
+        return mDatabase.acquireStatement(query);
     }
 
     private SupportSQLiteStatement getStmt(boolean canUseCached) {
@@ -95,6 +97,9 @@ public abstract class SharedSQLiteStatement {
     public void release(SupportSQLiteStatement statement) {
         if (statement == mStmt) {
             mLock.set(false);
+        } else {
+            // a one off statement goes back to the statement cache for the next one.
+            mDatabase.releaseStatement(createQuery(), statement);
         }
     }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.paging;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.paging.ItemKeyedDataSource;
+import androidx.room.InvalidationTracker;
+import androidx.room.RoomDatabase;
+import androidx.room.RoomSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A data source implementation that pages the query by seeking on an integer key column instead
+ * of using an offset.
+ * <p>
+ * Each page is loaded with {@code WHERE key > ? ORDER BY key LIMIT ?}, starting after the key of
+ * the last loaded item, so SQLite can jump to the page through the index on the key instead of
+ * walking and discarding all preceding rows. Loading a page deep into the results therefore costs
+ * the same as loading the first page. The key is expected to be unique and indexed, such as an
+ * {@code INTEGER} primary key, and items are returned in ascending key order. Room only uses it
+ * for queries that are not ordered otherwise, see {@link PageKeyedLimitOffsetDataSource}.
+ * <p>
+ * The number of items is only counted if the {@link androidx.paging.PagedList} uses
+ * placeholders.
+ *
+ * @param <T> Data type returned by the data source.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public abstract class KeysetDataSource<T> extends ItemKeyedDataSource<Long, T> {
+    private final RoomSQLiteQuery mSourceQuery;
+    private final String mCountQuery;
+    private final String mCountBeforeQuery;
+    private final String mLoadFromQuery;
+    private final String mLoadAfterQuery;
+    private final String mLoadBeforeQuery;
+    private final RoomDatabase mDb;
+    @SuppressWarnings("FieldCanBeLocal")
+    private final InvalidationTracker.Observer mObserver;
+    private final boolean mInTransaction;
+
+    protected KeysetDataSource(RoomDatabase db, SupportSQLiteQuery query, String keyColumn,
+            boolean inTransaction, String... tables) {
+        this(db, RoomSQLiteQuery.copyFrom(query), keyColumn, inTransaction, tables);
+    }
+
+    protected KeysetDataSource(RoomDatabase db, RoomSQLiteQuery query, String keyColumn,
+            boolean inTransaction, String... tables) {
+        mDb = db;
+        mSourceQuery = query;
+        mInTransaction = inTransaction;
+        final String source = "SELECT * FROM ( " + mSourceQuery.getSql() + " )";
+        final String key = "`" + keyColumn + "`";
+        mCountQuery = "SELECT COUNT(*) FROM ( " + mSourceQuery.getSql() + " )";
+        mCountBeforeQuery = mCountQuery + " WHERE " + key + " < ?";
+        mLoadFromQuery = source + " WHERE " + key + " >= ? ORDER BY " + key + " ASC LIMIT ?";
+        mLoadAfterQuery = source + " WHERE " + key + " > ? ORDER BY " + key + " ASC LIMIT ?";
+        mLoadBeforeQuery = source + " WHERE " + key + " < ? ORDER BY " + key + " DESC LIMIT ?";
+        mObserver = new InvalidationTracker.Observer(tables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+        db.getInvalidationTracker().addWeakObserver(mObserver);
+    }
+
+    @Override
+    public boolean isInvalid() {
+        mDb.getInvalidationTracker().refreshVersionsSync();
+        return super.isInvalid();
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    protected abstract List<T> convertRows(Cursor cursor);
+
+    @Override
+    public void loadInitial(@NonNull LoadInitialParams<Long> params,
+            @NonNull LoadInitialCallback<T> callback) {
+        final long fromKey = params.requestedInitialKey == null
+                ? Long.MIN_VALUE : params.requestedInitialKey;
+        final List<T> list = load(mLoadFromQuery, fromKey, params.requestedLoadSize);
+        if (!params.placeholdersEnabled) {
+            callback.onResult(list);
+            return;
+        }
+        if (list.isEmpty()) {
+            callback.onResult(list, 0, 0);
+            return;
+        }
+        // only the rows before the first item are counted through the key index.
+        final int position = count(mCountBeforeQuery, getKey(list.get(0)));
+        final int totalCount = count(mCountQuery, null);
+        if (position + list.size() <= totalCount) {
+            callback.onResult(list, position, totalCount);
+        } else {
+            // DB modified between load and count
+            invalidate();
+        }
+    }
+
+    @Override
+    public void loadAfter(@NonNull LoadParams<Long> params,
+            @NonNull LoadCallback<T> callback) {
+        callback.onResult(load(mLoadAfterQuery, params.key, params.requestedLoadSize));
+    }
+
+    @Override
+    public void loadBefore(@NonNull LoadParams<Long> params,
+            @NonNull LoadCallback<T> callback) {
+        final List<T> list = load(mLoadBeforeQuery, params.key, params.requestedLoadSize);
+        // rows are loaded in descending key order so that the limit keeps the closest ones.
+        Collections.reverse(list);
+        callback.onResult(list);
+    }
+
+    private int count(String sql, Long key) {
+        final int argCount = mSourceQuery.getArgCount();
+        final RoomSQLiteQuery sqLiteQuery = RoomSQLiteQuery.acquire(sql,
+                key == null ? argCount : argCount + 1);
+        sqLiteQuery.copyArgumentsFrom(mSourceQuery);
+        if (key != null) {
+            sqLiteQuery.bindLong(argCount + 1, key);
+        }
+        Cursor cursor = mDb.query(sqLiteQuery);
+        try {
+            if (cursor.moveToFirst()) {
+                return cursor.getInt(0);
+            }
+            return 0;
+        } finally {
+            cursor.close();
+            sqLiteQuery.release();
+        }
+    }
+
+    private List<T> load(String sql, long key, int loadCount) {
+        final RoomSQLiteQuery sqLiteQuery = RoomSQLiteQuery.acquire(sql,
+                mSourceQuery.getArgCount() + 2);
+        sqLiteQuery.copyArgumentsFrom(mSourceQuery);
+        sqLiteQuery.bindLong(sqLiteQuery.getArgCount() - 1, key);
+        sqLiteQuery.bindLong(sqLiteQuery.getArgCount(), loadCount);
+        if (mInTransaction) {
+            mDb.beginTransaction();
+            Cursor cursor = null;
+            try {
+                cursor = mDb.query(sqLiteQuery);
+                List<T> rows = convertRows(cursor);
+                mDb.setTransactionSuccessful();
+                return rows;
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+                mDb.endTransaction();
+                sqLiteQuery.release();
+            }
+        } else {
+            Cursor cursor = mDb.query(sqLiteQuery);
+            //noinspection TryFinallyCanBeTryWithResources
+            try {
+                return convertRows(cursor);
+            } finally {
+                cursor.close();
+                sqLiteQuery.release();
+            }
+        }
+    }
+}
@@ -39,6 +39,10 @@ import java.util.Set;
  * ORDER BY statement but that requires a more complex API. This solution is technically equal to
  * receiving a {@link Cursor} from a large query but avoids the need to manually manage it, and
  * never returns inconsistent data if it is invalidated.
+ * <p>
+ * The number of rows is only counted if the {@link androidx.paging.PagedList} uses placeholders.
+ * See {@link KeysetDataSource} for a data source that does not slow down when paging deep into
+ * the results.
  *
  * @param <T> Data type returned by the data source.
  *
@@ -107,6 +111,21 @@ public abstract class LimitOffsetDataSource<T> extends PositionalDataSource<T> {
     @Override
     public void loadInitial(@NonNull LoadInitialParams params,
             @NonNull LoadInitialCallback<T> callback) {
+        if (!params.placeholdersEnabled) {
+            // the count is only needed for placeholders, so try to load without it.
+            final int position = params.requestedStartPosition / params.pageSize
+                    * params.pageSize;
+            List<T> list = loadRange(position, params.requestedLoadSize);
+            if (list == null) {
+                invalidate();
+                return;
+            }
+            if (!list.isEmpty() || position == 0) {
+                callback.onResult(list, position);
+                return;
+            }
+            // the requested position is past the end of the data, find the last page below.
+        }
         int totalCount = countItems();
         if (totalCount == 0) {
             callback.onResult(Collections.<T>emptyList(), 0, 0);
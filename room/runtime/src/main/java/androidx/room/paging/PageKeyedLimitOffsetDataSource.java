@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.paging.PageKeyedDataSource;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pages a {@link LimitOffsetDataSource} with {@code Long} keys, which are the positions of the
+ * pages.
+ * <p>
+ * This is used for {@code DataSource.Factory<Long, T>} queries that cannot be paged by
+ * {@link KeysetDataSource} because they order the rows by something else than their key.
+ *
+ * @param <T> Data type returned by the data source.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class PageKeyedLimitOffsetDataSource<T> extends PageKeyedDataSource<Long, T> {
+    private final LimitOffsetDataSource<T> mSource;
+
+    public PageKeyedLimitOffsetDataSource(LimitOffsetDataSource<T> source) {
+        mSource = source;
+        mSource.addInvalidatedCallback(new InvalidatedCallback() {
+            @Override
+            public void onInvalidated() {
+                invalidate();
+            }
+        });
+    }
+
+    @Override
+    public boolean isInvalid() {
+        return mSource.isInvalid() || super.isInvalid();
+    }
+
+    @Override
+    public void loadInitial(@NonNull LoadInitialParams<Long> params,
+            @NonNull LoadInitialCallback<Long, T> callback) {
+        final List<T> list = mSource.loadRange(0, params.requestedLoadSize);
+        if (list == null) {
+            invalidate();
+            return;
+        }
+        final Long nextKey = getNextKey(0, list, params.requestedLoadSize);
+        if (!params.placeholdersEnabled) {
+            callback.onResult(list, null, nextKey);
+            return;
+        }
+        final int totalCount = mSource.countItems();
+        if (list.size() <= totalCount) {
+            callback.onResult(list, 0, totalCount, null, nextKey);
+        } else {
+            // DB modified between load and count
+            invalidate();
+        }
+    }
+
+    @Override
+    public void loadBefore(@NonNull LoadParams<Long> params,
+            @NonNull LoadCallback<Long, T> callback) {
+        // pages are only loaded from the start, so there is never a page before.
+        callback.onResult(Collections.<T>emptyList(), null);
+    }
+
+    @Override
+    public void loadAfter(@NonNull LoadParams<Long> params,
+            @NonNull LoadCallback<Long, T> callback) {
+        final int position = (int) (long) params.key;
+        final List<T> list = mSource.loadRange(position, params.requestedLoadSize);
+        if (list != null) {
+            callback.onResult(list, getNextKey(position, list, params.requestedLoadSize));
+        } else {
+            invalidate();
+        }
+    }
+
+    private static <T> Long getNextKey(int position, List<T> list, int requestedLoadSize) {
+        // a short page is the last one.
+        return list.size() < requestedLoadSize ? null : (long) (position + list.size());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.util;
+
+import androidx.annotation.RestrictTo;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * @hide
+ *
+ * Splits the arguments of an {@code IN (...)} list into chunks that fit into SQLite's bind
+ * argument limit, so that a query can be run once per chunk.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class ChunkUtil {
+
+    private ChunkUtil() {
+    }
+
+    /**
+     * Splits the given items into collections of at most {@code chunkSize} items.
+     * <p>
+     * If the items have to be split, duplicates are removed first so that a row matching an item
+     * is not returned or modified once for every chunk the item is in.
+     *
+     * @param items The items to split.
+     * @param chunkSize The maximum number of items in a chunk.
+     * @param <T> The type of the items.
+     * @return The chunks, or a list holding the items as is if they fit into a single chunk.
+     */
+    public static <T> List<Collection<T>> chunk(Collection<T> items, int chunkSize) {
+        if (items.size() <= chunkSize) {
+            return Collections.singletonList(items);
+        }
+        final List<T> distinct = new ArrayList<>(new LinkedHashSet<>(items));
+        final List<Collection<T>> chunks = new ArrayList<>(
+                (distinct.size() + chunkSize - 1) / chunkSize);
+        for (int start = 0; start < distinct.size(); start += chunkSize) {
+            chunks.add(distinct.subList(start, Math.min(distinct.size(), start + chunkSize)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Splits the given array into arrays of the same type with at most {@code chunkSize} items.
+     * <p>
+     * If the array has to be split, duplicates are removed first, see
+     * {@link #chunk(Collection, int)}.
+     *
+     * @param array The array to split, which may be an array of primitives.
+     * @param chunkSize The maximum number of items in a chunk.
+     * @param <A> The type of the array.
+     * @return The chunks, or a list holding the array itself if it fits into a single chunk.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> List<A> chunkArray(A array, int chunkSize) {
+        final int length = Array.getLength(array);
+        if (length <= chunkSize) {
+            return Collections.singletonList(array);
+        }
+        final LinkedHashSet<Object> distinct = new LinkedHashSet<>(length);
+        for (int i = 0; i < length; i++) {
+            distinct.add(Array.get(array, i));
+        }
+        final Class<?> componentType = array.getClass().getComponentType();
+        final List<A> chunks = new ArrayList<>((distinct.size() + chunkSize - 1) / chunkSize);
+        A chunk = null;
+        int index = 0;
+        int remaining = distinct.size();
+        for (Object item : distinct) {
+            if (chunk == null) {
+                chunk = (A) Array.newInstance(componentType, Math.min(remaining, chunkSize));
+                chunks.add(chunk);
+                index = 0;
+            }
+            Array.set(chunk, index++, item);
+            remaining--;
+            if (index == chunkSize) {
+                chunk = null;
+            }
+        }
+        return chunks;
+    }
+}
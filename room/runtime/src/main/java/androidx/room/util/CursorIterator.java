@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.util;
+
+import android.database.Cursor;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.room.CloseableIterator;
+import androidx.room.RoomSQLiteQuery;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator that converts the rows of a query result one at a time, as they are requested.
+ * <p>
+ * Unlike a {@link java.util.List} result, only the cursor window that is currently being read is
+ * kept in memory, which makes it possible to walk very large results. The cursor is closed and the
+ * query is released once the last row is read. If the iteration is abandoned before that, the
+ * iterator must be closed through {@link #close()}.
+ *
+ * @param <T> The type of the items returned by the iterator.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public abstract class CursorIterator<T> implements CloseableIterator<T> {
+    private final Cursor mCursor;
+    @Nullable
+    private final RoomSQLiteQuery mQuery;
+    private boolean mHasNext;
+    private boolean mAdvanced;
+    private boolean mClosed;
+
+    /**
+     * @param cursor The cursor to read rows from.
+     * @param query The query that was used to create the cursor, released when the cursor is
+     *              closed. Can be {@code null} if the query does not need to be released.
+     */
+    protected CursorIterator(Cursor cursor, @Nullable RoomSQLiteQuery query) {
+        mCursor = cursor;
+        mQuery = query;
+    }
+
+    /**
+     * Converts the row the given cursor is positioned on.
+     *
+     * @param cursor The cursor, positioned on the row to convert.
+     * @return The item for the row.
+     */
+    protected abstract T convertRow(Cursor cursor);
+
+    @Override
+    public boolean hasNext() {
+        if (mClosed) {
+            return false;
+        }
+        if (!mAdvanced) {
+            mHasNext = mCursor.moveToNext();
+            mAdvanced = true;
+            if (!mHasNext) {
+                close();
+            }
+        }
+        return mHasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        mAdvanced = false;
+        return convertRow(mCursor);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Query results cannot be modified");
+    }
+
+    @Override
+    public void close() {
+        if (mClosed) {
+            return;
+        }
+        mClosed = true;
+        mHasNext = false;
+        mCursor.close();
+        if (mQuery != null) {
+            mQuery.release();
+        }
+    }
+}
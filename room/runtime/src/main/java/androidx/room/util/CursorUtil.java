@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.util;
+
+import android.database.Cursor;
+
+import androidx.annotation.RestrictTo;
+
+/**
+ * @hide
+ *
+ * Cursor utilities for Room generated code.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class CursorUtil {
+
+    private CursorUtil() {
+    }
+
+    /**
+     * Returns the index of the given column, which Room expects to be at the given index based on
+     * the query's result columns at compile time.
+     * <p>
+     * Checking the expected index first avoids resolving the column name against all columns of
+     * the cursor. If the column is not there, for instance because the schema changed without the
+     * query being recompiled, this falls back to looking the column up by name.
+     *
+     * @param c The cursor.
+     * @param name The name of the column.
+     * @param expectedIndex The index of the column in the compile time result of the query.
+     * @return The index of the column.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public static int getColumnIndexOrThrow(Cursor c, String name, int expectedIndex) {
+        if (expectedIndex < c.getColumnCount() && name.equals(c.getColumnName(expectedIndex))) {
+            return expectedIndex;
+        }
+        return c.getColumnIndexOrThrow(name);
+    }
+}
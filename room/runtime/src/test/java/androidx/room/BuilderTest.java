@@ -39,6 +39,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 @SuppressWarnings("ArraysAsListWithZeroOrOneArgument")
 @RunWith(JUnit4.class)
@@ -255,6 +256,78 @@ public class BuilderTest {
         assertThat(db, instanceOf(BuilderTest_TestDatabase_Impl.class));
         DatabaseConfiguration config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
         assertThat(config.journalMode, is(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING));
+        assertThat(config.readConnectionPoolSize, is(0));
+    }
+
+    @Test
+    public void createReadConnectionPool() {
+        Context context = mock(Context.class);
+        TestDatabase db = Room.databaseBuilder(context, TestDatabase.class, "foo")
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .setReadConnectionPoolSize(4)
+                .build();
+        DatabaseConfiguration config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
+        assertThat(config.readConnectionPoolSize, is(4));
+        assertThat(config.sqliteOpenHelperFactory,
+                instanceOf(FrameworkSQLiteOpenHelperFactory.class));
+    }
+
+    @Test
+    public void createRelationQueryExecutor() {
+        Context context = mock(Context.class);
+        Executor executor = mock(Executor.class);
+        TestDatabase db = Room.databaseBuilder(context, TestDatabase.class, "foo")
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .setReadConnectionPoolSize(2)
+                .setRelationQueryExecutor(executor)
+                .build();
+        DatabaseConfiguration config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
+        assertThat(config.relationQueryExecutor, is(executor));
+    }
+
+    @Test
+    public void createQueryObserver() {
+        Context context = mock(Context.class);
+        QueryObserver observer = mock(QueryObserver.class);
+        TestDatabase db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .setQueryObserver(observer)
+                .build();
+        DatabaseConfiguration config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
+        assertThat(config.queryObserver, is(observer));
+    }
+
+    @Test
+    public void createPrewarmStatements() {
+        Context context = mock(Context.class);
+        TestDatabase db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .addPrewarmStatements("DELETE FROM foo WHERE id = ?")
+                .addPrewarmStatements("UPDATE foo SET name = ?", "DELETE FROM foo")
+                .build();
+        DatabaseConfiguration config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
+        assertThat(config.prewarmStatements, is(asList("DELETE FROM foo WHERE id = ?",
+                "UPDATE foo SET name = ?", "DELETE FROM foo")));
+    }
+
+    @Test
+    public void createStatementCacheSize() {
+        Context context = mock(Context.class);
+        TestDatabase db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .setStatementCacheSize(50)
+                .build();
+        DatabaseConfiguration config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
+        assertThat(config.statementCacheSize, is(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooLargeStatementCacheSize() {
+        Room.inMemoryDatabaseBuilder(mock(Context.class), TestDatabase.class)
+                .setStatementCacheSize(101);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeReadConnectionPoolSize() {
+        Room.databaseBuilder(mock(Context.class), TestDatabase.class, "foo")
+                .setReadConnectionPoolSize(-1);
     }
 
     @Test
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class EntityInsertionAdapterTest {
+    private static final String ROW = "(?,?,?)";
+    // RoomDatabase.MAX_BIND_PARAMETER_CNT / 3 columns
+    private static final int ROWS_PER_INSERT = 333;
+
+    private RoomDatabase mDb;
+    private SupportSQLiteStatement mSingleRowStmt;
+    private List<String> mChunkQueries;
+    private List<SupportSQLiteStatement> mChunkStmts;
+
+    @Before
+    public void init() {
+        mDb = mock(RoomDatabase.class);
+        mSingleRowStmt = mock(SupportSQLiteStatement.class);
+        mChunkQueries = new ArrayList<>();
+        mChunkStmts = new ArrayList<>();
+        when(mDb.acquireStatement(anyString())).thenAnswer(
+                new Answer<SupportSQLiteStatement>() {
+                    @Override
+                    public SupportSQLiteStatement answer(InvocationOnMock invocation) {
+                        String sql = (String) invocation.getArguments()[0];
+                        if (!sql.contains("),(")) {
+                            return mSingleRowStmt;
+                        }
+                        SupportSQLiteStatement stmt = mock(SupportSQLiteStatement.class);
+                        mChunkQueries.add(sql);
+                        mChunkStmts.add(stmt);
+                        return stmt;
+                    }
+                });
+    }
+
+    @Test
+    public void chunkSize() {
+        new TestAdapter(mDb, "(?)", true).insert(createEntities(501));
+        // one column is limited by the rows SQLite accepts in a VALUES list.
+        assertThat(mChunkQueries.size(), is(1));
+        assertThat(countRows(mChunkQueries.get(0), "(?)"), is(500));
+        verify(mSingleRowStmt, times(1)).executeInsert();
+
+        mChunkQueries.clear();
+        mChunkStmts.clear();
+        new TestAdapter(mDb, ROW, true).insert(createEntities(2 * ROWS_PER_INSERT + 2));
+        assertThat(mChunkQueries.size(), is(3));
+        assertThat(countRows(mChunkQueries.get(0), ROW), is(ROWS_PER_INSERT));
+        assertThat(countRows(mChunkQueries.get(1), ROW), is(ROWS_PER_INSERT));
+        assertThat(countRows(mChunkQueries.get(2), ROW), is(2));
+        for (int i = 0; i < mChunkStmts.size(); i++) {
+            verify(mChunkStmts.get(i)).executeInsert();
+            verify(mDb).releaseStatement(mChunkQueries.get(i), mChunkStmts.get(i));
+        }
+    }
+
+    @Test
+    public void tailOfOneRowUsesSingleRowInsert() {
+        new TestAdapter(mDb, ROW, true).insert(createEntities(ROWS_PER_INSERT + 1));
+        assertThat(mChunkQueries.size(), is(1));
+        assertThat(countRows(mChunkQueries.get(0), ROW), is(ROWS_PER_INSERT));
+        verify(mSingleRowStmt).bindLong(1, ROWS_PER_INSERT * 3);
+        verify(mSingleRowStmt).bindLong(2, ROWS_PER_INSERT * 3 + 1);
+        verify(mSingleRowStmt).bindLong(3, ROWS_PER_INSERT * 3 + 2);
+        verify(mSingleRowStmt, times(1)).executeInsert();
+    }
+
+    @Test
+    public void bindsRowsAtTheirOffset() {
+        new TestAdapter(mDb, ROW, true).insert(createEntities(3));
+        assertThat(mChunkQueries.size(), is(1));
+        assertThat(mChunkQueries.get(0),
+                is("INSERT OR ABORT INTO `Entity` (`a`,`b`,`c`) VALUES (?,?,?),(?,?,?),(?,?,?)"));
+        SupportSQLiteStatement stmt = mChunkStmts.get(0);
+        for (int index = 1; index <= 9; index++) {
+            // entity i binds i * 3 + column to the parameters of its row
+            verify(stmt).bindLong(index, index - 1);
+        }
+        verify(stmt, times(1)).executeInsert();
+        verify(mSingleRowStmt, never()).executeInsert();
+    }
+
+    @Test
+    public void insertsOneByOneBelowApi16() {
+        new TestAdapter(mDb, ROW, false).insert(createEntities(ROWS_PER_INSERT + 1));
+        assertThat(mChunkQueries.size(), is(0));
+        verify(mSingleRowStmt, times(ROWS_PER_INSERT + 1)).executeInsert();
+    }
+
+    @Test
+    public void insertsOneByOneWhenRowExceedsBindLimit() {
+        StringBuilder row = new StringBuilder("(?");
+        for (int i = 1; i < RoomDatabase.MAX_BIND_PARAMETER_CNT / 2 + 1; i++) {
+            row.append(",?");
+        }
+        row.append(')');
+        new TestAdapter(mDb, row.toString(), true).insert(createEntities(3));
+        assertThat(mChunkQueries.size(), is(0));
+        verify(mSingleRowStmt, times(3)).executeInsert();
+    }
+
+    private static List<long[]> createEntities(int count) {
+        List<long[]> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entities.add(new long[] {i * 3, i * 3 + 1, i * 3 + 2});
+        }
+        return entities;
+    }
+
+    private static int countRows(String query, String row) {
+        String values = query.substring(query.indexOf(" VALUES ") + " VALUES ".length());
+        return (values.length() + 1) / (row.length() + 1);
+    }
+
+    private static class TestAdapter extends EntityInsertionAdapter<long[]> {
+        private final String mRow;
+        private final boolean mMultiRow;
+
+        TestAdapter(RoomDatabase database, String row, boolean multiRow) {
+            super(database);
+            mRow = row;
+            mMultiRow = multiRow;
+        }
+
+        @Override
+        protected String createQuery() {
+            return "INSERT OR ABORT INTO `Entity` (`a`,`b`,`c`) VALUES " + mRow;
+        }
+
+        @Override
+        protected void bind(SupportSQLiteStatement statement, long[] entity) {
+            // entities only bind the columns the row has placeholders for
+            for (int i = 0; i < entity.length && i < mRow.length() / 2; i++) {
+                statement.bindLong(i + 1, entity[i]);
+            }
+        }
+
+        @Override
+        boolean supportsMultiRowInsert() {
+            return mMultiRow;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -64,18 +65,19 @@ public class InvalidationTrackerTest {
     private InvalidationTracker mTracker;
     private RoomDatabase mRoomDatabase;
     private SupportSQLiteOpenHelper mOpenHelper;
+    private SupportSQLiteDatabase mSqliteDb;
     @Rule
     public JunitTaskExecutorRule mTaskExecutorRule = new JunitTaskExecutorRule(1, true);
 
     @Before
     public void setup() {
         mRoomDatabase = mock(RoomDatabase.class);
-        SupportSQLiteDatabase sqliteDb = mock(SupportSQLiteDatabase.class);
+        mSqliteDb = mock(SupportSQLiteDatabase.class);
         final SupportSQLiteStatement statement = mock(SupportSQLiteStatement.class);
         mOpenHelper = mock(SupportSQLiteOpenHelper.class);
 
-        doReturn(statement).when(sqliteDb).compileStatement(eq(InvalidationTracker.CLEANUP_SQL));
-        doReturn(sqliteDb).when(mOpenHelper).getWritableDatabase();
+        doReturn(statement).when(mSqliteDb).compileStatement(eq(InvalidationTracker.CLEANUP_SQL));
+        doReturn(mSqliteDb).when(mOpenHelper).getWritableDatabase();
         doReturn(true).when(mRoomDatabase).isOpen();
         ReentrantLock closeLock = new ReentrantLock();
         doReturn(closeLock).when(mRoomDatabase).getCloseLock();
@@ -83,7 +85,7 @@ public class InvalidationTrackerTest {
         doReturn(mOpenHelper).when(mRoomDatabase).getOpenHelper();
 
         mTracker = new InvalidationTracker(mRoomDatabase, "a", "B", "i");
-        mTracker.internalInit(sqliteDb);
+        mTracker.internalInit(mSqliteDb);
     }
 
     @Before
@@ -180,6 +182,22 @@ public class InvalidationTrackerTest {
         verify(mTaskExecutorRule.getTaskExecutor()).executeOnDiskIO(mTracker.mRefreshRunnable);
     }
 
+    @Test
+    public void coalesceRefreshes() throws Exception {
+        LatchObserver observer = new LatchObserver(1, "a");
+        mTracker.addObserver(observer);
+        mTracker.setCoalescingWindow(50, 1000, TimeUnit.MILLISECONDS);
+        setVersions(1, 0, 2, 0, 3, 0);
+        for (int i = 0; i < 5; i++) {
+            mTracker.refreshVersionsAsync();
+        }
+        assertThat(observer.await(), is(true));
+        drainTasks();
+        assertThat(mTracker.getRefreshCount(), is(1L));
+        assertThat(mTracker.getSuppressedRefreshCount(), is(4L));
+        assertThat(mTracker.mTableVersions, is(new long[]{3, 0, 0}));
+    }
+
     @Test
     public void observe1Table() throws Exception {
         LatchObserver observer = new LatchObserver(1, "a");
@@ -231,6 +249,90 @@ public class InvalidationTrackerTest {
         assertThat(observer.await(), is(false));
     }
 
+    @Test
+    public void observeRows() throws Exception {
+        final AtomicInteger invalidations = new AtomicInteger();
+        mTracker.addObserver(new InvalidationTracker.RowObserver("a", 42, 3) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                assertThat(tables, hasItem("a"));
+                invalidations.incrementAndGet();
+            }
+        });
+        setVersions();
+        setRowVersions(1, 0, 7, 2, 1, 42);
+        refreshSync();
+        assertThat(invalidations.get(), is(0));
+
+        setVersions();
+        setRowVersions(3, 0, 8, 4, 0, 42);
+        refreshSync();
+        assertThat(invalidations.get(), is(1));
+
+        setVersions();
+        setRowVersions();
+        refreshSync();
+        assertThat(invalidations.get(), is(1));
+    }
+
+    @Test
+    public void weakRowObserver_observesRows() throws Exception {
+        RowCountingObserver observer = new RowCountingObserver(3);
+        mTracker.addWeakObserver(observer);
+        setVersions(1, 0);
+        setRowVersions(1, 0, 7);
+        refreshSync();
+        assertThat(observer.mInvalidations.get(), is(0));
+
+        setVersions(2, 0);
+        setRowVersions(2, 0, 3);
+        refreshSync();
+        assertThat(observer.mInvalidations.get(), is(1));
+    }
+
+    @Test
+    public void removeRowObserver_dropsLoggedRows() throws Exception {
+        RowCountingObserver observer = new RowCountingObserver(3);
+        mTracker.addObserver(observer);
+        mTracker.removeObserver(observer);
+        verify(mSqliteDb).execSQL(InvalidationTracker.ROW_TABLE_CLEANUP_SQL, new Object[]{0});
+
+        // the triggers are gone, so the log is not read or cleared anymore.
+        setVersions();
+        refreshSync();
+        verify(mSqliteDb, never()).execSQL(InvalidationTracker.ROW_CLEAR_SQL);
+    }
+
+    @Test
+    public void addRowObserverBackBeforeSync() throws Exception {
+        RowCountingObserver first = new RowCountingObserver(3);
+        mTracker.addObserver(first);
+        // triggers are not synced inside a transaction, so they outlive the observer.
+        doReturn(true).when(mSqliteDb).inTransaction();
+        mTracker.removeObserver(first);
+        verify(mSqliteDb, never()).execSQL(InvalidationTracker.ROW_TABLE_CLEANUP_SQL,
+                new Object[]{0});
+
+        // rows logged while nobody observes them are dropped instead of read.
+        setVersions();
+        setRowVersions(1, 0, 3);
+        refreshSync();
+        verify(mSqliteDb).execSQL(InvalidationTracker.ROW_CLEAR_SQL);
+        assertThat(first.mInvalidations.get(), is(0));
+
+        RowCountingObserver second = new RowCountingObserver(3);
+        mTracker.addObserver(second);
+        setVersions();
+        setRowVersions();
+        refreshSync();
+        assertThat(second.mInvalidations.get(), is(0));
+
+        setVersions();
+        setRowVersions(2, 0, 3);
+        refreshSync();
+        assertThat(second.mInvalidations.get(), is(1));
+    }
+
     @Test
     public void locale() {
         LatchObserver observer = new LatchObserver(1, "I");
@@ -272,6 +374,37 @@ public class InvalidationTrackerTest {
         );
     }
 
+    /**
+     * Triples of VERSION, TABLE_ID, ROW_ID
+     */
+    private void setRowVersions(final int... triples) throws InterruptedException {
+        drainTasks();
+        Cursor cursor = mock(Cursor.class);
+        final AtomicInteger index = new AtomicInteger(-3);
+        when(cursor.moveToNext()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                return index.addAndGet(3) < triples.length;
+            }
+        });
+        when(cursor.getInt(anyInt())).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) throws Throwable {
+                return triples[index.intValue() + (Integer) invocation.getArguments()[0]];
+            }
+        });
+        when(cursor.getLong(anyInt())).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) throws Throwable {
+                return (long) triples[index.intValue() + (Integer) invocation.getArguments()[0]];
+            }
+        });
+        doReturn(cursor).when(mRoomDatabase).query(
+                Mockito.eq(InvalidationTracker.SELECT_UPDATED_ROWS_SQL),
+                any(Object[].class)
+        );
+    }
+
     private Cursor createCursorWithValues(final int... keyValuePairs) {
         Cursor cursor = mock(Cursor.class);
         final AtomicInteger index = new AtomicInteger(-2);
@@ -337,4 +470,17 @@ public class InvalidationTrackerTest {
             leak.add(arr);
         } while (leak.get((int) (Math.random() * leak.size())).get() != null);
     }
+
+    private static class RowCountingObserver extends InvalidationTracker.RowObserver {
+        final AtomicInteger mInvalidations = new AtomicInteger();
+
+        RowCountingObserver(long rowId) {
+            super("a", rowId);
+        }
+
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            mInvalidations.incrementAndGet();
+        }
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ObservedCursorTest {
+    @Test
+    public void captureBindArgs() {
+        RoomSQLiteQuery query = RoomSQLiteQuery.acquire("SELECT * FROM foo", 5);
+        query.bindLong(1, 3);
+        query.bindString(2, "bar");
+        query.bindDouble(3, 1.5);
+        query.bindNull(4);
+        byte[] blob = new byte[]{1, 2};
+        query.bindBlob(5, blob);
+        Object[] args = ObservedCursor.captureBindArgs(query);
+        assertThat(args, is(new Object[]{3L, "bar", 1.5, null, blob}));
+    }
+
+    @Test
+    public void captureNoBindArgs() {
+        RoomSQLiteQuery query = RoomSQLiteQuery.acquire("SELECT * FROM foo", 0);
+        assertThat(ObservedCursor.captureBindArgs(query), is(new Object[0]));
+    }
+
+    @Test
+    public void findDaoCaller() {
+        StackTraceElement dao = new StackTraceElement("foo.bar.UserDao_Impl", "loadUsers",
+                "UserDao_Impl.java", 30);
+        StackTraceElement[] stackTrace = new StackTraceElement[]{
+                new StackTraceElement("androidx.room.ObservedCursor", "query", null, 1),
+                new StackTraceElement("androidx.room.RoomDatabase", "query", null, 2),
+                dao,
+                new StackTraceElement("foo.bar.MainActivity", "onCreate", null, 3)
+        };
+        assertThat(ObservedCursor.findCaller(stackTrace), is(dao));
+    }
+
+    @Test
+    public void findObservableQueryCaller() {
+        StackTraceElement compute = new StackTraceElement("foo.bar.UserDao_Impl$4", "compute",
+                "UserDao_Impl.java", 52);
+        StackTraceElement[] stackTrace = new StackTraceElement[]{
+                new StackTraceElement("androidx.room.RoomDatabase", "query", null, 2),
+                compute,
+                new StackTraceElement("androidx.lifecycle.ComputableLiveData$2", "run", null, 3)
+        };
+        assertThat(ObservedCursor.findCaller(stackTrace), is(compute));
+    }
+
+    @Test
+    public void noDaoCaller() {
+        StackTraceElement[] stackTrace = new StackTraceElement[]{
+                new StackTraceElement("androidx.room.RoomDatabase", "query", null, 2),
+                new StackTraceElement("foo.bar.MainActivity", "onCreate", null, 3)
+        };
+        assertThat(ObservedCursor.findCaller(stackTrace), is(nullValue()));
+    }
+}
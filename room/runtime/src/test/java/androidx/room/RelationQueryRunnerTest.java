@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnit4.class)
+public class RelationQueryRunnerTest {
+    private ExecutorService mExecutor;
+
+    @Before
+    public void setup() {
+        mExecutor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void runsAllQueries() {
+        final AtomicInteger count = new AtomicInteger();
+        Runnable[] queries = new Runnable[10];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new Runnable() {
+                @Override
+                public void run() {
+                    count.incrementAndGet();
+                }
+            };
+        }
+        RelationQueryRunner.run(mExecutor, 4, queries);
+        assertThat(count.get(), is(10));
+    }
+
+    @Test
+    public void runsInParallel() {
+        // both queries wait for each other, so they only finish if they run concurrently
+        final CountDownLatch started = new CountDownLatch(2);
+        Runnable query = new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        RelationQueryRunner.run(mExecutor, 2, query, query);
+    }
+
+    @Test
+    public void usesCallerThread() {
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        Runnable query = new Runnable() {
+            @Override
+            public void run() {
+                threads.add(Thread.currentThread());
+            }
+        };
+        RelationQueryRunner.run(mExecutor, 1, query, query, query);
+        assertThat(threads, is(Collections.singleton(Thread.currentThread())));
+    }
+
+    @Test
+    public void doesNotWaitForQueuedHelpers() {
+        final AtomicInteger count = new AtomicInteger();
+        // an executor that never runs its tasks
+        Executor stalled = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+            }
+        };
+        Runnable query = new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+        RelationQueryRunner.run(stalled, 4, query, query, query);
+        assertThat(count.get(), is(3));
+    }
+
+    @Test
+    public void rejectedHelpers() {
+        final AtomicInteger count = new AtomicInteger();
+        Executor rejecting = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        Runnable query = new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+        RelationQueryRunner.run(rejecting, 4, query, query);
+        assertThat(count.get(), is(2));
+    }
+
+    @Test
+    public void rethrowsFailure() {
+        final IllegalStateException failure = new IllegalStateException("fail");
+        Runnable ok = new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+        Runnable failing = new Runnable() {
+            @Override
+            public void run() {
+                throw failure;
+            }
+        };
+        IllegalStateException thrown = null;
+        try {
+            RelationQueryRunner.run(mExecutor, 4, ok, failing, ok);
+        } catch (IllegalStateException e) {
+            thrown = e;
+        }
+        assertThat(thrown, is(sameInstance(failure)));
+    }
+}
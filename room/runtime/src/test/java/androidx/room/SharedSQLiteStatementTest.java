@@ -21,6 +21,7 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -44,7 +45,7 @@ public class SharedSQLiteStatementTest {
     @Before
     public void init() {
         mDb = mock(RoomDatabase.class);
-        when(mDb.compileStatement(anyString())).thenAnswer(new Answer<SupportSQLiteStatement>() {
+        when(mDb.acquireStatement(anyString())).thenAnswer(new Answer<SupportSQLiteStatement>() {
 
             @Override
             public SupportSQLiteStatement answer(InvocationOnMock invocation) throws Throwable {
@@ -89,6 +90,16 @@ public class SharedSQLiteStatementTest {
         assertThat(stmt1, is(stmt2));
     }
 
+    @Test
+    public void releaseOneOffStatementToCache() {
+        SupportSQLiteStatement stmt1 = mSharedStmt.acquire();
+        SupportSQLiteStatement stmt2 = mSharedStmt.acquire();
+        mSharedStmt.release(stmt2);
+        verify(mDb).releaseStatement("foo", stmt2);
+        mSharedStmt.release(stmt1);
+        verify(mDb, never()).releaseStatement("foo", stmt1);
+    }
+
     @Test
     public void getFromAnotherThreadWhileHolding() throws ExecutionException, InterruptedException {
         SupportSQLiteStatement stmt1 = mSharedStmt.acquire();
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+
+@RunWith(JUnit4.class)
+public class StatementCacheTest {
+    private StatementCacheTest_TestDatabase_Impl mDb;
+
+    @Before
+    public void init() {
+        mDb = (StatementCacheTest_TestDatabase_Impl) Room
+                .inMemoryDatabaseBuilder(mock(Context.class), TestDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        SupportSQLiteDatabase database = mock(SupportSQLiteDatabase.class);
+        when(database.isOpen()).thenReturn(true);
+        mDb.mDatabase = database;
+    }
+
+    @Test
+    public void releasedStatementIsReused() throws IOException {
+        SupportSQLiteStatement statement = mDb.acquireStatement("foo");
+        mDb.releaseStatement("foo", statement);
+        assertThat(mDb.acquireStatement("foo"), sameInstance(statement));
+        assertThat(mDb.getStatementCacheHitCount(), is(1));
+        verify(statement, never()).close();
+    }
+
+    @Test
+    public void statementReleasedAfterCloseIsClosed() throws IOException {
+        SupportSQLiteStatement statement = mDb.acquireStatement("foo");
+        mDb.close();
+        mDb.releaseStatement("foo", statement);
+        verify(statement).close();
+        assertThat(mDb.acquireStatement("foo"), not(sameInstance(statement)));
+    }
+
+    @Test
+    public void statementReleasedAfterReopenIsClosed() throws IOException {
+        SupportSQLiteStatement stale = mDb.acquireStatement("foo");
+        mDb.close();
+        SupportSQLiteStatement current = mDb.acquireStatement("foo");
+        mDb.releaseStatement("foo", stale);
+        mDb.releaseStatement("foo", current);
+        verify(stale).close();
+        verify(current, never()).close();
+        assertThat(mDb.acquireStatement("foo"), sameInstance(current));
+    }
+
+    abstract static class TestDatabase extends RoomDatabase {
+    }
+}
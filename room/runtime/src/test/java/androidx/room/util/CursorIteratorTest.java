@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.database.Cursor;
+
+import androidx.room.RoomSQLiteQuery;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.NoSuchElementException;
+
+@RunWith(JUnit4.class)
+public class CursorIteratorTest {
+    private Cursor mCursor;
+    private RoomSQLiteQuery mQuery;
+    private int mConvertedRows;
+
+    @Before
+    public void setup() {
+        mCursor = mock(Cursor.class);
+        mQuery = mock(RoomSQLiteQuery.class);
+        when(mCursor.moveToNext()).thenReturn(true, true, false);
+        when(mCursor.getLong(0)).thenReturn(1L, 2L);
+    }
+
+    @Test
+    public void convertsRowsWhenTheyAreRead() {
+        CursorIterator<Long> iterator = createIterator();
+        assertThat(mConvertedRows, is(0));
+        assertThat(iterator.hasNext(), is(true));
+        // hasNext only moves the cursor
+        assertThat(mConvertedRows, is(0));
+        assertThat(iterator.next(), is(1L));
+        assertThat(mConvertedRows, is(1));
+        verify(mCursor, times(1)).moveToNext();
+    }
+
+    @Test
+    public void closesAfterLastRow() {
+        CursorIterator<Long> iterator = createIterator();
+        assertThat(iterator.next(), is(1L));
+        assertThat(iterator.next(), is(2L));
+        verify(mCursor, never()).close();
+        assertThat(iterator.hasNext(), is(false));
+        verify(mCursor).close();
+        verify(mQuery).release();
+        // closing again has no effect
+        iterator.close();
+        verify(mCursor, times(1)).close();
+        verify(mQuery, times(1)).release();
+    }
+
+    @Test
+    public void closeEarly() {
+        CursorIterator<Long> iterator = createIterator();
+        assertThat(iterator.next(), is(1L));
+        iterator.close();
+        verify(mCursor).close();
+        verify(mQuery).release();
+        assertThat(iterator.hasNext(), is(false));
+        verify(mCursor, times(1)).moveToNext();
+        assertThat(mConvertedRows, is(1));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void nextAfterClose() {
+        CursorIterator<Long> iterator = createIterator();
+        iterator.close();
+        iterator.next();
+    }
+
+    private CursorIterator<Long> createIterator() {
+        return new CursorIterator<Long>(mCursor, mQuery) {
+            @Override
+            protected Long convertRow(Cursor cursor) {
+                mConvertedRows++;
+                return cursor.getLong(0);
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.database.Cursor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CursorUtilTest {
+    private Cursor mCursor;
+
+    @Before
+    public void setup() {
+        mCursor = mock(Cursor.class);
+        when(mCursor.getColumnCount()).thenReturn(2);
+        when(mCursor.getColumnName(0)).thenReturn("id");
+        when(mCursor.getColumnName(1)).thenReturn("name");
+        when(mCursor.getColumnIndexOrThrow("id")).thenReturn(0);
+        when(mCursor.getColumnIndexOrThrow("name")).thenReturn(1);
+    }
+
+    @Test
+    public void expectedIndex() {
+        assertThat(CursorUtil.getColumnIndexOrThrow(mCursor, "name", 1), is(1));
+        verify(mCursor, never()).getColumnIndexOrThrow(anyString());
+    }
+
+    @Test
+    public void differentColumn() {
+        assertThat(CursorUtil.getColumnIndexOrThrow(mCursor, "name", 0), is(1));
+    }
+
+    @Test
+    public void outOfBounds() {
+        assertThat(CursorUtil.getColumnIndexOrThrow(mCursor, "id", 2), is(0));
+        verify(mCursor, never()).getColumnName(2);
+    }
+}
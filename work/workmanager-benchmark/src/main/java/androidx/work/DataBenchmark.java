@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the serialization of {@link Data} against the {@link ObjectOutputStream} based format
+ * it was persisted in before, for typical worker inputs. The serialized sizes are printed once per
+ * trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataBenchmark {
+    /**
+     * The shape of the payload: a few primitives and strings, primitive arrays or string arrays
+     * with repeated values.
+     */
+    @Param({"primitives", "arrays", "strings"})
+    public String payload;
+
+    private Data mData;
+    private byte[] mBytes;
+    private byte[] mObjectStreamBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        Data.Builder builder = new Data.Builder();
+        switch (payload) {
+            case "primitives":
+                builder.putBoolean("requiresUpload", true)
+                        .putInt("retryCount", 3)
+                        .putLong("timestamp", 1528300800000L)
+                        .putDouble("progress", 0.75)
+                        .putString("uri", "content://media/external/images/media/1234");
+                break;
+            case "arrays":
+                int[] ids = new int[200];
+                long[] sizes = new long[200];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = i * 13;
+                    sizes[i] = i * 4096L;
+                }
+                builder.putIntArray("ids", ids).putLongArray("sizes", sizes);
+                break;
+            case "strings":
+                String[] names = new String[100];
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = "album-" + (i % 10);
+                }
+                builder.putStringArray("albums", names).putString("owner", "album-0");
+                break;
+            default:
+                throw new IllegalArgumentException(payload);
+        }
+        mData = builder.build();
+        mBytes = Data.toByteArray(mData);
+        mObjectStreamBytes = toObjectStream(mData.getKeyValueMap());
+        System.out.println(payload + ": " + mBytes.length + " bytes, "
+                + mObjectStreamBytes.length + " bytes with ObjectOutputStream");
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return Data.toByteArray(mData);
+    }
+
+    @Benchmark
+    public Data deserialize() {
+        return Data.fromByteArray(mBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeObjectStream() throws IOException {
+        return toObjectStream(mData.getKeyValueMap());
+    }
+
+    @Benchmark
+    public Map<String, Object> deserializeObjectStream()
+            throws IOException, ClassNotFoundException {
+        return fromObjectStream(mObjectStreamBytes);
+    }
+
+    private static byte[] toObjectStream(Map<String, Object> values) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeInt(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            objectOutputStream.writeUTF(entry.getKey());
+            objectOutputStream.writeObject(entry.getValue());
+        }
+        objectOutputStream.close();
+        return outputStream.toByteArray();
+    }
+
+    private static Map<String, Object> fromObjectStream(byte[] bytes)
+            throws IOException, ClassNotFoundException {
+        Map<String, Object> map = new HashMap<>();
+        ObjectInputStream objectInputStream =
+                new ObjectInputStream(new ByteArrayInputStream(bytes));
+        for (int i = objectInputStream.readInt(); i > 0; i--) {
+            map.put(objectInputStream.readUTF(), objectInputStream.readObject());
+        }
+        objectInputStream.close();
+        return map;
+    }
+}
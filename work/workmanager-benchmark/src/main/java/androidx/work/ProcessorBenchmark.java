@@ -0,0 +1,227 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bookkeeping of {@code androidx.work.impl.Processor} under contention, with every
+ * method synchronized on the instance as it was before, against the concurrent collections it
+ * uses now.
+ * <p>
+ * The Processor itself needs an Android context and database, so both designs are reproduced
+ * here with the same collections and listener dispatch. Each operation starts a unit of work,
+ * queries it and finishes it, which notifies two listeners that query the bookkeeping in turn,
+ * as the schedulers' listeners do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ProcessorBenchmark {
+    @Param({"synchronized", "concurrent"})
+    public String bookkeeping;
+
+    private Bookkeeping mBookkeeping;
+
+    @Setup
+    public void setup() {
+        mBookkeeping = bookkeeping.equals("synchronized")
+                ? new SynchronizedBookkeeping() : new ConcurrentBookkeeping();
+        for (int i = 0; i < 2; i++) {
+            mBookkeeping.addExecutionListener(new Listener() {
+                @Override
+                public void onExecuted(String workSpecId) {
+                    mBookkeeping.isCancelled(workSpecId);
+                    mBookkeeping.hasWork();
+                }
+            });
+        }
+    }
+
+    /**
+     * The ids of the work a benchmark thread starts and finishes.
+     */
+    @State(Scope.Thread)
+    public static class WorkIds {
+        private final String[] mIds = new String[1024];
+        private int mNext;
+
+        @Setup
+        public void setup() {
+            for (int i = 0; i < mIds.length; i++) {
+                mIds[i] = UUID.randomUUID().toString();
+            }
+        }
+
+        String next() {
+            mNext = (mNext + 1) & (mIds.length - 1);
+            return mIds[mNext];
+        }
+    }
+
+    @Benchmark
+    public boolean startAndFinish(WorkIds workIds) {
+        String id = workIds.next();
+        mBookkeeping.startWork(id);
+        boolean isEnqueued = mBookkeeping.isEnqueued(id);
+        mBookkeeping.onExecuted(id);
+        return isEnqueued;
+    }
+
+    @Benchmark
+    public boolean isEnqueued(WorkIds workIds) {
+        return mBookkeeping.isEnqueued(workIds.next());
+    }
+
+    interface Listener {
+        void onExecuted(String workSpecId);
+    }
+
+    interface Bookkeeping {
+        boolean startWork(String id);
+
+        boolean isEnqueued(String id);
+
+        boolean isCancelled(String id);
+
+        boolean hasWork();
+
+        void addExecutionListener(Listener listener);
+
+        void onExecuted(String id);
+    }
+
+    /**
+     * The bookkeeping of the Processor before, guarded by its monitor.
+     */
+    static class SynchronizedBookkeeping implements Bookkeeping {
+        private final Map<String, Object> mEnqueuedWorkMap = new HashMap<>();
+        private final Set<String> mCancelledIds = new HashSet<>();
+        private final List<Listener> mOuterListeners = new ArrayList<>();
+
+        @Override
+        public synchronized boolean startWork(String id) {
+            if (mEnqueuedWorkMap.containsKey(id)) {
+                return false;
+            }
+            mEnqueuedWorkMap.put(id, new Object());
+            return true;
+        }
+
+        @Override
+        public synchronized boolean isEnqueued(String id) {
+            return mEnqueuedWorkMap.containsKey(id);
+        }
+
+        @Override
+        public synchronized boolean isCancelled(String id) {
+            return mCancelledIds.contains(id);
+        }
+
+        @Override
+        public synchronized boolean hasWork() {
+            return !mEnqueuedWorkMap.isEmpty();
+        }
+
+        @Override
+        public synchronized void addExecutionListener(Listener listener) {
+            mOuterListeners.add(listener);
+        }
+
+        @Override
+        public synchronized void onExecuted(String id) {
+            mEnqueuedWorkMap.remove(id);
+            for (Listener listener : mOuterListeners) {
+                listener.onExecuted(id);
+            }
+        }
+    }
+
+    /**
+     * The bookkeeping of the Processor now, in concurrent collections.
+     */
+    static class ConcurrentBookkeeping implements Bookkeeping {
+        private final ConcurrentMap<String, Object> mEnqueuedWorkMap = new ConcurrentHashMap<>();
+        private final Set<String> mCancelledIds =
+                Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        private final List<Listener> mOuterListeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean startWork(String id) {
+            if (mEnqueuedWorkMap.containsKey(id)) {
+                return false;
+            }
+            return mEnqueuedWorkMap.putIfAbsent(id, new Object()) == null;
+        }
+
+        @Override
+        public boolean isEnqueued(String id) {
+            return mEnqueuedWorkMap.containsKey(id);
+        }
+
+        @Override
+        public boolean isCancelled(String id) {
+            return mCancelledIds.contains(id);
+        }
+
+        @Override
+        public boolean hasWork() {
+            return !mEnqueuedWorkMap.isEmpty();
+        }
+
+        @Override
+        public void addExecutionListener(Listener listener) {
+            mOuterListeners.add(listener);
+        }
+
+        @Override
+        public void onExecuted(String id) {
+            mEnqueuedWorkMap.remove(id);
+            for (Listener listener : mOuterListeners) {
+                listener.onExecuted(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.SmallTest;
+import android.support.test.runner.AndroidJUnit4;
+
+import androidx.work.Data;
+import androidx.work.DatabaseTest;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.worker.TestWorker;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+@RunWith(AndroidJUnit4.class)
+public class BlobStoreTest extends DatabaseTest {
+
+    private static final byte[] CONTENTS = {1, 2, 3, 4, 5};
+
+    private BlobStore mBlobStore;
+    private OneTimeWorkRequest mWork;
+
+    @Before
+    public void setUp() {
+        mBlobStore = new BlobStore(InstrumentationRegistry.getTargetContext(), mDatabase);
+        mWork = new OneTimeWorkRequest.Builder(TestWorker.class).build();
+        insertWork(mWork);
+    }
+
+    @Test
+    @SmallTest
+    public void testWriteAndOpen() throws IOException {
+        String reference = mBlobStore.write(mWork.getStringId(),
+                new ByteArrayInputStream(CONTENTS));
+        assertThat(readFully(mBlobStore.open(reference)), is(CONTENTS));
+    }
+
+    @Test
+    @SmallTest
+    public void testWriteAndMap() throws IOException {
+        String reference = mBlobStore.write(mWork.getStringId(), ByteBuffer.wrap(CONTENTS));
+        ByteBuffer buffer = mBlobStore.map(reference);
+        byte[] mapped = new byte[buffer.remaining()];
+        buffer.get(mapped);
+        assertThat(mapped, is(CONTENTS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SmallTest
+    public void testOpen_invalidReference() throws IOException {
+        mBlobStore.open("androidx.work.blob:../../databases/androidx.work.workdb");
+    }
+
+    @Test
+    @SmallTest
+    public void testSetReferences() throws IOException {
+        String kept = mBlobStore.write(mWork.getStringId(), ByteBuffer.wrap(CONTENTS));
+        mBlobStore.write(mWork.getStringId(), ByteBuffer.wrap(CONTENTS));
+
+        Data output = new Data.Builder()
+                .putStringArray("blobs", new String[] {kept, null, "not a blob"})
+                .build();
+        mBlobStore.setReferences(mWork.getStringId(), output);
+
+        assertThat(mDatabase.workBlobDao().getBlobIdsForWorkSpecId(mWork.getStringId()),
+                containsInAnyOrder(kept.substring(kept.indexOf(':') + 1)));
+    }
+
+    @Test
+    @SmallTest
+    public void testSetReferences_keepsInputReferences() throws IOException {
+        String reference = mBlobStore.write(mWork.getStringId(), ByteBuffer.wrap(CONTENTS));
+        OneTimeWorkRequest reader = new OneTimeWorkRequest.Builder(TestWorker.class)
+                .setInputData(new Data.Builder().putString("blob", reference).build())
+                .build();
+        insertWork(reader);
+        mBlobStore.addReferences(reader.getStringId(), reader.getWorkSpec().input);
+        mBlobStore.setReferences(reader.getStringId(), Data.EMPTY);
+
+        mDatabase.workSpecDao().delete(mWork.getStringId());
+        mBlobStore.prune();
+        assertThat(readFully(mBlobStore.open(reference)), is(CONTENTS));
+    }
+
+    @Test
+    @SmallTest
+    public void testPrune() throws IOException {
+        String reference = mBlobStore.write(mWork.getStringId(), ByteBuffer.wrap(CONTENTS));
+        mBlobStore.prune();
+        assertThat(readFully(mBlobStore.open(reference)), is(CONTENTS));
+
+        mDatabase.workSpecDao().delete(mWork.getStringId());
+        assertThat(mDatabase.workBlobDao().getReferencedBlobIds(), is(empty()));
+        mBlobStore.prune();
+        try {
+            mBlobStore.open(reference);
+            throw new AssertionError("Blob was not pruned");
+        } catch (IOException expected) {
+            // the blob was deleted.
+        }
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        try {
+            byte[] buffer = new byte[CONTENTS.length + 1];
+            int length = 0;
+            int count;
+            while ((count = inputStream.read(buffer, length, buffer.length - length)) > 0) {
+                length += count;
+            }
+            byte[] result = new byte[length];
+            System.arraycopy(buffer, 0, result, 0, length);
+            return result;
+        } finally {
+            inputStream.close();
+        }
+    }
+}
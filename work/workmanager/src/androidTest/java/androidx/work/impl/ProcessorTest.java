@@ -19,9 +19,12 @@ package androidx.work.impl;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
 import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.LargeTest;
 import android.support.test.filters.SmallTest;
 import android.support.test.runner.AndroidJUnit4;
 
@@ -34,8 +37,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(AndroidJUnit4.class)
 public class ProcessorTest extends DatabaseTest {
@@ -81,4 +88,76 @@ public class ProcessorTest extends DatabaseTest {
         mProcessor.startWork(work.getStringId());
         assertThat(mProcessor.hasWork(), is(true));
     }
+
+    @Test
+    @SmallTest
+    public void testStartWork_rejectedWorkCanBeStartedAgain() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        Processor processor = new Processor(
+                InstrumentationRegistry.getTargetContext().getApplicationContext(),
+                new Configuration.Builder().build(),
+                mDatabase,
+                Collections.singletonList(mock(Scheduler.class)),
+                executor);
+        ExecutionListener listener = mock(ExecutionListener.class);
+        processor.addExecutionListener(listener);
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(InfiniteTestWorker.class).build();
+        String id = work.getStringId();
+        insertWork(work);
+
+        processor.startWork(id);
+        verify(listener).onExecuted(id, false, true);
+        assertThat(processor.isEnqueued(id), is(false));
+        // The rejected work is not mistaken for work that is still enqueued.
+        assertThat(processor.startWork(id), is(true));
+    }
+
+    @Test
+    @LargeTest
+    public void testOnExecuted_concurrentCompletions() throws InterruptedException {
+        final int threadCount = 8;
+        final int completionsPerThread = 10_000;
+        final AtomicInteger executed = new AtomicInteger();
+        mProcessor.addExecutionListener(new ExecutionListener() {
+            @Override
+            public void onExecuted(
+                    @NonNull String workSpecId,
+                    boolean isSuccessful,
+                    boolean needsReschedule) {
+                executed.incrementAndGet();
+            }
+        });
+
+        List<Thread> threads = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            final String prefix = "thread" + i + "-";
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < completionsPerThread; j++) {
+                        String id = prefix + j;
+                        mProcessor.isEnqueued(id);
+                        mProcessor.onExecuted(id, true, false);
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        // Listeners may come and go while work finishes.
+        ExecutionListener transientListener = mock(ExecutionListener.class);
+        for (int i = 0; i < 100; i++) {
+            mProcessor.addExecutionListener(transientListener);
+            mProcessor.removeExecutionListener(transientListener);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(executed.get(), is(threadCount * completionsPerThread));
+        assertThat(mProcessor.hasWork(), is(false));
+    }
 }
@@ -63,6 +63,7 @@ import android.support.test.filters.MediumTest;
 import android.support.test.filters.SdkSuppress;
 import android.support.test.filters.SmallTest;
 import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
 
 import androidx.work.BackoffPolicy;
 import androidx.work.Configuration;
@@ -97,6 +98,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -107,6 +109,8 @@ import java.util.concurrent.TimeUnit;
 @RunWith(AndroidJUnit4.class)
 public class WorkManagerImplTest {
 
+    private static final String TAG = "WorkManagerImplTest";
+
     private WorkDatabase mDatabase;
     private WorkManagerImpl mWorkManagerImpl;
 
@@ -197,6 +201,34 @@ public class WorkManagerImplTest {
         assertThat(workSpecDao.getWorkSpec(work3.getStringId()), is(notNullValue()));
     }
 
+    @Test
+    @LargeTest
+    public void testEnqueue_insertLargeBatches() {
+        for (int workCount : new int[] {1_000, 10_000}) {
+            List<OneTimeWorkRequest> workList = new ArrayList<>(workCount);
+            for (int i = 0; i < workCount; ++i) {
+                workList.add(new OneTimeWorkRequest.Builder(TestWorker.class)
+                        .addTag("batch")
+                        .build());
+            }
+
+            long startTime = System.nanoTime();
+            mWorkManagerImpl.synchronous().enqueueSync(workList);
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            Log.i(TAG, String.format("Enqueued %d requests in %d ms (%d requests/s)",
+                    workCount, elapsedMillis, workCount * 1000L / Math.max(elapsedMillis, 1)));
+
+            WorkSpecDao workSpecDao = mDatabase.workSpecDao();
+            assertThat(workSpecDao.getWorkSpec(workList.get(0).getStringId()),
+                    is(notNullValue()));
+            assertThat(workSpecDao.getWorkSpec(workList.get(workCount - 1).getStringId()),
+                    is(notNullValue()));
+            assertThat(mDatabase.workTagDao().getTagsForWorkSpecId(
+                    workList.get(workCount - 1).getStringId()),
+                    containsInAnyOrder(TestWorker.class.getName(), "batch"));
+        }
+    }
+
     @Test
     @SmallTest
     public void testEnqueue_insertMultipleWork_continuationBlocking() {
@@ -416,6 +448,24 @@ public class WorkManagerImplTest {
         assertThat(workTagDao.getWorkSpecIdsWithTag(thirdTag), emptyCollectionOf(String.class));
     }
 
+    @Test
+    @SmallTest
+    public void testEnqueue_insertBlobReferences() {
+        String blobId = UUID.randomUUID().toString();
+        OneTimeWorkRequest work0 = new OneTimeWorkRequest.Builder(TestWorker.class)
+                .setInputData(new Data.Builder()
+                        .putString("blob", "androidx.work.blob:" + blobId)
+                        .build())
+                .build();
+        OneTimeWorkRequest work1 = new OneTimeWorkRequest.Builder(TestWorker.class).build();
+        mWorkManagerImpl.synchronous().enqueueSync(work0, work1);
+
+        assertThat(mDatabase.workBlobDao().getBlobIdsForWorkSpecId(work0.getStringId()),
+                contains(blobId));
+        assertThat(mDatabase.workBlobDao().getBlobIdsForWorkSpecId(work1.getStringId()),
+                emptyCollectionOf(String.class));
+    }
+
     @Test
     @SmallTest
     public void testEnqueue_insertPeriodicWork() {
@@ -30,6 +30,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
@@ -73,6 +74,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -572,6 +575,23 @@ public class WorkerWrapperTest extends DatabaseTest {
         assertThat(periodicWorkSpecAfterFirstRun.state, is(ENQUEUED));
     }
 
+    @Test
+    @SmallTest
+    public void testRetry_releasesBlobs() throws IOException {
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(RetryWorker.class).build();
+        insertWork(work);
+        new BlobStore(mContext, mDatabase).write(work.getStringId(),
+                ByteBuffer.wrap(new byte[] {1, 2, 3}));
+        new WorkerWrapper.Builder(mContext, mConfiguration, mDatabase, work.getStringId())
+                .withListener(mMockListener)
+                .build()
+                .run();
+
+        verify(mMockListener).onExecuted(work.getStringId(), false, true);
+        assertThat(mDatabase.workBlobDao().getBlobIdsForWorkSpecId(work.getStringId()),
+                is(empty()));
+    }
+
     @Test
     @SmallTest
     public void testScheduler() {
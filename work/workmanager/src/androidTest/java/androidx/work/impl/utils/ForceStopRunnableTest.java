@@ -18,6 +18,7 @@ package androidx.work.impl.utils;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -31,14 +32,20 @@ import android.support.test.InstrumentationRegistry;
 import android.support.test.filters.SmallTest;
 import android.support.test.runner.AndroidJUnit4;
 
+import androidx.work.impl.BlobStore;
 import androidx.work.impl.WorkDatabase;
 import androidx.work.impl.WorkManagerImpl;
+import androidx.work.impl.model.WorkBlobDao;
 import androidx.work.impl.model.WorkSpecDao;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
 @SmallTest
 @RunWith(AndroidJUnit4.class)
 public class ForceStopRunnableTest {
@@ -47,6 +54,7 @@ public class ForceStopRunnableTest {
     private WorkManagerImpl mWorkManager;
     private WorkDatabase mWorkDatabase;
     private WorkSpecDao mWorkSpecDao;
+    private WorkBlobDao mWorkBlobDao;
     private Preferences mPreferences;
     private ForceStopRunnable mRunnable;
 
@@ -56,9 +64,11 @@ public class ForceStopRunnableTest {
         mWorkManager = mock(WorkManagerImpl.class);
         mWorkDatabase = mock(WorkDatabase.class);
         mWorkSpecDao = mock(WorkSpecDao.class);
+        mWorkBlobDao = mock(WorkBlobDao.class);
         mPreferences = mock(Preferences.class);
         when(mWorkManager.getWorkDatabase()).thenReturn(mWorkDatabase);
         when(mWorkDatabase.workSpecDao()).thenReturn(mWorkSpecDao);
+        when(mWorkDatabase.workBlobDao()).thenReturn(mWorkBlobDao);
         when(mWorkManager.getPreferences()).thenReturn(mPreferences);
         mRunnable = new ForceStopRunnable(mContext, mWorkManager);
     }
@@ -99,4 +109,23 @@ public class ForceStopRunnableTest {
         runnable.run();
         verify(mPreferences, times(1)).setNeedsReschedule(false);
     }
+
+    @Test
+    public void test_prunesUnreferencedBlobs() throws IOException {
+        // The blob's WorkSpec has been pruned when the database was opened.
+        BlobStore blobStore = new BlobStore(mContext, mWorkDatabase);
+        String reference = blobStore.write("id", ByteBuffer.wrap(new byte[] {1, 2, 3}));
+        when(mWorkBlobDao.getReferencedBlobIds()).thenReturn(Collections.<String>emptyList());
+
+        ForceStopRunnable runnable = spy(mRunnable);
+        when(runnable.shouldRescheduleWorkers()).thenReturn(false);
+        when(runnable.isForceStopped()).thenReturn(false);
+        runnable.run();
+        try {
+            blobStore.open(reference).close();
+            fail("Blob was not pruned");
+        } catch (IOException expected) {
+            // the blob was deleted.
+        }
+    }
 }
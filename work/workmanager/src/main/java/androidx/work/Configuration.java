@@ -121,6 +121,10 @@ public final class Configuration {
 
         /**
          * Specifies a custom {@link Executor} for WorkManager.
+         * <p>
+         * Work is only run by {@link Priority} when the {@link Executor} is a
+         * {@link java.util.concurrent.ThreadPoolExecutor}, as {@link WorkManager} needs to know
+         * how many threads it has to keep some of them for {@link Priority#HIGH} work.
          *
          * @param executor An {@link Executor} for processing work
          * @return This {@link Builder} instance
@@ -22,10 +22,8 @@ import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -35,7 +33,8 @@ import java.util.Map;
  * This is a lightweight container, and should not be considered your data store.  As such, there is
  * an enforced {@link #MAX_DATA_BYTES} limit on the serialized (byte array) size of the payloads.
  * This class will throw {@link IllegalStateException}s if you try to serialize or deserialize past
- * this limit.
+ * this limit.  Larger payloads can be passed between {@link Worker}s as blobs, see
+ * {@link Worker#writeBlob(java.io.InputStream)}.
  */
 
 public final class Data {
@@ -293,37 +292,12 @@ public final class Data {
      */
     @TypeConverter
     public static @NonNull byte[] toByteArray(@NonNull Data data) throws IllegalStateException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ObjectOutputStream objectOutputStream = null;
-        try {
-            objectOutputStream = new ObjectOutputStream(outputStream);
-            objectOutputStream.writeInt(data.size());
-            for (Map.Entry<String, Object> entry : data.mValues.entrySet()) {
-                objectOutputStream.writeUTF(entry.getKey());
-                objectOutputStream.writeObject(entry.getValue());
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (objectOutputStream != null) {
-                try {
-                    objectOutputStream.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-            try {
-                outputStream.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-
-        if (outputStream.size() > MAX_DATA_BYTES) {
+        byte[] bytes = DataSerializer.write(data.mValues);
+        if (bytes.length > MAX_DATA_BYTES) {
             throw new IllegalStateException(
                     "Data cannot occupy more than " + MAX_DATA_BYTES + "KB when serialized");
         }
-        return outputStream.toByteArray();
+        return bytes;
     }
 
     /**
@@ -341,6 +315,20 @@ public final class Data {
         }
 
         Map<String, Object> map = new HashMap<>();
+        if (DataSerializer.isSerialized(bytes)) {
+            try {
+                DataSerializer.read(bytes, map);
+            } catch (IllegalArgumentException e) {
+                e.printStackTrace();
+            }
+        } else {
+            // persisted before Data had its own format.
+            readObjectStream(bytes, map);
+        }
+        return new Data(map);
+    }
+
+    private static void readObjectStream(byte[] bytes, Map<String, Object> map) {
         ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
         ObjectInputStream objectInputStream = null;
         try {
@@ -364,7 +352,6 @@ public final class Data {
                 e.printStackTrace();
             }
         }
-        return new Data(map);
     }
 
     @Override
@@ -0,0 +1,520 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work;
+
+import android.support.annotation.NonNull;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes and reads the compact binary format {@link Data} is persisted in.
+ * <p>
+ * A serialized {@link Data} starts with {@link #MAGIC} and {@link #VERSION}, followed by the
+ * number of entries, a table of the distinct keys and string values and then every entry as the
+ * index of its key in the table, a type tag and the value. Integers are written as zig-zag
+ * varints, so that small values of either sign take a byte or two, strings as indices into the
+ * table and arrays as their length followed by their elements, without boxing them. Arrays that
+ * contain nulls flag this in their length and are followed by a bitmap of the null elements, which
+ * are skipped when writing the elements.
+ */
+final class DataSerializer {
+    /**
+     * The first byte of the format. Streams written by {@link java.io.ObjectOutputStream}, which
+     * {@link Data} used to be persisted with, start with {@code 0xACED}.
+     */
+    static final byte MAGIC = (byte) 0xDA;
+    static final byte VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int TYPE_NULL = 0;
+    private static final int TYPE_BOOLEAN = 1;
+    private static final int TYPE_INT = 2;
+    private static final int TYPE_LONG = 3;
+    private static final int TYPE_FLOAT = 4;
+    private static final int TYPE_DOUBLE = 5;
+    private static final int TYPE_STRING = 6;
+    private static final int TYPE_BOOLEAN_ARRAY = 7;
+    private static final int TYPE_INT_ARRAY = 8;
+    private static final int TYPE_LONG_ARRAY = 9;
+    private static final int TYPE_FLOAT_ARRAY = 10;
+    private static final int TYPE_DOUBLE_ARRAY = 11;
+    private static final int TYPE_STRING_ARRAY = 12;
+
+    private DataSerializer() {
+    }
+
+    /**
+     * @return {@code true} if the given bytes were written by {@link #write(Map)}
+     */
+    static boolean isSerialized(@NonNull byte[] bytes) {
+        return bytes.length >= 2 && bytes[0] == MAGIC;
+    }
+
+    /**
+     * Serializes the given values, which must be of one of the types {@link Data} supports.
+     *
+     * @param values The values to serialize
+     * @return The serialized values
+     */
+    static @NonNull byte[] write(@NonNull Map<String, Object> values) {
+        StringTable strings = new StringTable();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            strings.add(entry.getKey());
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                strings.add((String) value);
+            } else if (value instanceof String[]) {
+                for (String element : (String[]) value) {
+                    if (element != null) {
+                        strings.add(element);
+                    }
+                }
+            }
+        }
+
+        Output out = new Output();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarint(values.size());
+        out.writeVarint(strings.mStrings.size());
+        for (String string : strings.mStrings) {
+            byte[] utf8 = string.getBytes(UTF_8);
+            out.writeVarint(utf8.length);
+            out.writeBytes(utf8);
+        }
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            out.writeVarint(strings.indexOf(entry.getKey()));
+            writeValue(out, strings, entry.getValue());
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeValue(Output out, StringTable strings, Object value) {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeByte((Boolean) value ? 1 : 0);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INT);
+            out.writeZigZag((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeZigZag((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFixed32(Float.floatToIntBits((Float) value));
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeFixed64(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            out.writeVarint(strings.indexOf((String) value));
+        } else if (value instanceof Boolean[]) {
+            Boolean[] array = (Boolean[]) value;
+            out.writeByte(TYPE_BOOLEAN_ARRAY);
+            writeArrayHeader(out, array);
+            // pack the values eight to a byte, like the null bitmap.
+            int bits = 0;
+            int bitCount = 0;
+            for (Boolean element : array) {
+                if (element != null) {
+                    if (element) {
+                        bits |= 1 << bitCount;
+                    }
+                    if (++bitCount == 8) {
+                        out.writeByte(bits);
+                        bits = 0;
+                        bitCount = 0;
+                    }
+                }
+            }
+            if (bitCount > 0) {
+                out.writeByte(bits);
+            }
+        } else if (value instanceof Integer[]) {
+            Integer[] array = (Integer[]) value;
+            out.writeByte(TYPE_INT_ARRAY);
+            writeArrayHeader(out, array);
+            for (Integer element : array) {
+                if (element != null) {
+                    out.writeZigZag(element);
+                }
+            }
+        } else if (value instanceof Long[]) {
+            Long[] array = (Long[]) value;
+            out.writeByte(TYPE_LONG_ARRAY);
+            writeArrayHeader(out, array);
+            for (Long element : array) {
+                if (element != null) {
+                    out.writeZigZag(element);
+                }
+            }
+        } else if (value instanceof Float[]) {
+            Float[] array = (Float[]) value;
+            out.writeByte(TYPE_FLOAT_ARRAY);
+            writeArrayHeader(out, array);
+            for (Float element : array) {
+                if (element != null) {
+                    out.writeFixed32(Float.floatToIntBits(element));
+                }
+            }
+        } else if (value instanceof Double[]) {
+            Double[] array = (Double[]) value;
+            out.writeByte(TYPE_DOUBLE_ARRAY);
+            writeArrayHeader(out, array);
+            for (Double element : array) {
+                if (element != null) {
+                    out.writeFixed64(Double.doubleToLongBits(element));
+                }
+            }
+        } else if (value instanceof String[]) {
+            String[] array = (String[]) value;
+            out.writeByte(TYPE_STRING_ARRAY);
+            writeArrayHeader(out, array);
+            for (String element : array) {
+                if (element != null) {
+                    out.writeVarint(strings.indexOf(element));
+                }
+            }
+        } else {
+            throw new IllegalArgumentException(
+                    String.format("Value of type %s cannot be serialized", value.getClass()));
+        }
+    }
+
+    /**
+     * Writes the length of the given array and, if it contains nulls, the bitmap of its null
+     * elements.
+     */
+    private static void writeArrayHeader(Output out, Object[] array) {
+        int nullCount = 0;
+        for (Object element : array) {
+            if (element == null) {
+                nullCount++;
+            }
+        }
+        out.writeVarint(((long) array.length << 1) | (nullCount > 0 ? 1 : 0));
+        if (nullCount > 0) {
+            byte[] bitmap = new byte[(array.length + 7) / 8];
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == null) {
+                    bitmap[i >>> 3] |= 1 << (i & 7);
+                }
+            }
+            out.writeBytes(bitmap);
+        }
+    }
+
+    /**
+     * Deserializes values written by {@link #write(Map)} into the given map.
+     *
+     * @param bytes The serialized values
+     * @param values The map to put the values into
+     * @throws IllegalArgumentException if the bytes are malformed or of an unsupported version, in
+     *         which case the values read before the malformed one are in the map
+     */
+    static void read(@NonNull byte[] bytes, @NonNull Map<String, Object> values) {
+        Input in = new Input(bytes);
+        if ((byte) in.readByte() != MAGIC) {
+            throw new IllegalArgumentException("Not a serialized Data");
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported Data version " + version);
+        }
+        int size = in.readLength();
+        String[] strings = new String[in.readLength()];
+        for (int i = 0; i < strings.length; i++) {
+            int length = in.readLength();
+            strings[i] = new String(bytes, in.skip(length), length, UTF_8);
+        }
+        for (int i = 0; i < size; i++) {
+            String key = in.readString(strings);
+            values.put(key, readValue(in, strings));
+        }
+    }
+
+    private static Object readValue(Input in, String[] strings) {
+        int type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_BOOLEAN:
+                return in.readByte() != 0;
+            case TYPE_INT:
+                return (int) in.readZigZag();
+            case TYPE_LONG:
+                return in.readZigZag();
+            case TYPE_FLOAT:
+                return Float.intBitsToFloat(in.readFixed32());
+            case TYPE_DOUBLE:
+                return Double.longBitsToDouble(in.readFixed64());
+            case TYPE_STRING:
+                return in.readString(strings);
+            case TYPE_BOOLEAN_ARRAY: {
+                boolean[] nulls = readArrayHeader(in);
+                Boolean[] array = new Boolean[nulls.length];
+                int bits = 0;
+                int bitCount = 8;
+                for (int i = 0; i < array.length; i++) {
+                    if (!nulls[i]) {
+                        if (bitCount == 8) {
+                            bits = in.readByte();
+                            bitCount = 0;
+                        }
+                        array[i] = (bits & (1 << bitCount++)) != 0;
+                    }
+                }
+                return array;
+            }
+            case TYPE_INT_ARRAY: {
+                boolean[] nulls = readArrayHeader(in);
+                Integer[] array = new Integer[nulls.length];
+                for (int i = 0; i < array.length; i++) {
+                    if (!nulls[i]) {
+                        array[i] = (int) in.readZigZag();
+                    }
+                }
+                return array;
+            }
+            case TYPE_LONG_ARRAY: {
+                boolean[] nulls = readArrayHeader(in);
+                Long[] array = new Long[nulls.length];
+                for (int i = 0; i < array.length; i++) {
+                    if (!nulls[i]) {
+                        array[i] = in.readZigZag();
+                    }
+                }
+                return array;
+            }
+            case TYPE_FLOAT_ARRAY: {
+                boolean[] nulls = readArrayHeader(in);
+                Float[] array = new Float[nulls.length];
+                for (int i = 0; i < array.length; i++) {
+                    if (!nulls[i]) {
+                        array[i] = Float.intBitsToFloat(in.readFixed32());
+                    }
+                }
+                return array;
+            }
+            case TYPE_DOUBLE_ARRAY: {
+                boolean[] nulls = readArrayHeader(in);
+                Double[] array = new Double[nulls.length];
+                for (int i = 0; i < array.length; i++) {
+                    if (!nulls[i]) {
+                        array[i] = Double.longBitsToDouble(in.readFixed64());
+                    }
+                }
+                return array;
+            }
+            case TYPE_STRING_ARRAY: {
+                boolean[] nulls = readArrayHeader(in);
+                String[] array = new String[nulls.length];
+                for (int i = 0; i < array.length; i++) {
+                    if (!nulls[i]) {
+                        array[i] = in.readString(strings);
+                    }
+                }
+                return array;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown Data value type " + type);
+        }
+    }
+
+    /**
+     * Reads the length of an array and, if it contains nulls, the bitmap of its null elements.
+     *
+     * @return Whether each element of the array is null
+     */
+    private static boolean[] readArrayHeader(Input in) {
+        long header = in.readVarint();
+        // every element takes at least a bit, which bounds the length of valid arrays.
+        if ((header >>> 1) > (long) in.remaining() * 8) {
+            throw new IllegalArgumentException("Malformed Data array length");
+        }
+        boolean[] nulls = new boolean[(int) (header >>> 1)];
+        if ((header & 1) != 0) {
+            int bitmap = in.skip((nulls.length + 7) / 8);
+            for (int i = 0; i < nulls.length; i++) {
+                nulls[i] = (in.mBytes[bitmap + (i >>> 3)] & (1 << (i & 7))) != 0;
+            }
+        }
+        return nulls;
+    }
+
+    /**
+     * The distinct keys and string values of a {@link Data}, in the order they are written.
+     */
+    private static final class StringTable {
+        final List<String> mStrings = new ArrayList<>();
+        private final Map<String, Integer> mIndices = new HashMap<>();
+
+        void add(String string) {
+            if (!mIndices.containsKey(string)) {
+                mIndices.put(string, mStrings.size());
+                mStrings.add(string);
+            }
+        }
+
+        int indexOf(String string) {
+            return mIndices.get(string);
+        }
+    }
+
+    private static final class Output {
+        private byte[] mBytes = new byte[64];
+        private int mSize;
+
+        private void ensureCapacity(int count) {
+            if (mSize + count > mBytes.length) {
+                mBytes = Arrays.copyOf(mBytes, Math.max(mBytes.length * 2, mSize + count));
+            }
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            mBytes[mSize++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, mBytes, mSize, bytes.length);
+            mSize += bytes.length;
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                mBytes[mSize++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            mBytes[mSize++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeFixed32(int value) {
+            ensureCapacity(4);
+            for (int i = 0; i < 4; i++) {
+                mBytes[mSize++] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        void writeFixed64(long value) {
+            ensureCapacity(8);
+            for (int i = 0; i < 8; i++) {
+                mBytes[mSize++] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(mBytes, mSize);
+        }
+    }
+
+    private static final class Input {
+        final byte[] mBytes;
+        private int mPosition;
+
+        Input(byte[] bytes) {
+            mBytes = bytes;
+        }
+
+        int remaining() {
+            return mBytes.length - mPosition;
+        }
+
+        /**
+         * Skips the given number of bytes.
+         *
+         * @return The position of the first skipped byte
+         */
+        int skip(int count) {
+            if (count > remaining()) {
+                throw new IllegalArgumentException("Truncated Data");
+            }
+            int position = mPosition;
+            mPosition += count;
+            return position;
+        }
+
+        int readByte() {
+            return mBytes[skip(1)] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed Data varint");
+        }
+
+        int readLength() {
+            long value = readVarint();
+            if (value > remaining()) {
+                throw new IllegalArgumentException("Malformed Data length " + value);
+            }
+            return (int) value;
+        }
+
+        long readZigZag() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        int readFixed32() {
+            int position = skip(4);
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value |= (mBytes[position + i] & 0xFF) << (i * 8);
+            }
+            return value;
+        }
+
+        long readFixed64() {
+            int position = skip(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (long) (mBytes[position + i] & 0xFF) << (i * 8);
+            }
+            return value;
+        }
+
+        String readString(String[] strings) {
+            long index = readVarint();
+            if (index >= strings.length) {
+                throw new IllegalArgumentException("Malformed Data string index " + index);
+            }
+            return strings[(int) index];
+        }
+    }
+}
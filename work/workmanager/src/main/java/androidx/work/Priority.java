@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work;
+
+/**
+ * The priority of a {@link WorkRequest}, which decides how soon it runs once its constraints are
+ * met while other work is already running.
+ */
+public enum Priority {
+
+    /**
+     * Latency-sensitive work, which runs ahead of queued work of lower priority and has a thread
+     * kept free for it while it is queued or running, so that it is not held up by long running
+     * work of lower priority
+     */
+    HIGH,
+
+    /**
+     * The priority of work which does not specify one
+     */
+    DEFAULT,
+
+    /**
+     * Long running or bulk work, which only ever uses part of the threads available to
+     * {@link WorkManager}
+     */
+    LOW
+}
@@ -171,6 +171,10 @@ public abstract class WorkManager {
 
     /**
      * Enqueues one or more items for background processing.
+     * <p>
+     * All of the requests are written in a single transaction, and scheduling is only triggered
+     * once for all of them.  When enqueuing many requests, this is considerably faster than
+     * enqueuing them one at a time.
      *
      * @param workRequests One or more {@link WorkRequest} to enqueue
      */
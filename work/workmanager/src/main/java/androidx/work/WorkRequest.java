@@ -157,6 +157,17 @@ public abstract class WorkRequest {
             return getThis();
         }
 
+        /**
+         * Sets the {@link Priority} of the work.  The default is {@link Priority#DEFAULT}.
+         *
+         * @param priority The {@link Priority} to run the work with
+         * @return The current {@link Builder}
+         */
+        public @NonNull B setPriority(@NonNull Priority priority) {
+            mWorkSpec.priority = priority;
+            return getThis();
+        }
+
         /**
          * Add input {@link Data} to the work.
          *
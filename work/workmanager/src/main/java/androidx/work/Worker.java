@@ -26,8 +26,12 @@ import android.support.annotation.RequiresApi;
 import android.support.annotation.RestrictTo;
 import android.support.annotation.WorkerThread;
 
+import androidx.work.impl.BlobStore;
 import androidx.work.impl.Extras;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -201,6 +205,75 @@ public abstract class Worker {
         return mOutputData;
     }
 
+    /**
+     * Writes a payload that is too large for {@link Data} into a blob, which is stored by
+     * {@link WorkManager} next to its database.  The returned blob reference can be put into the
+     * output {@link Data} with {@link Data.Builder#putString(String, String)}, and work that
+     * depends on this one can read the blob with {@link #openBlob(String)} or
+     * {@link #mapBlob(String)}.
+     * <p>
+     * A blob is kept until this work is pruned, or until all work that was enqueued with a
+     * reference to it in its input has been pruned, whichever comes last.  Blobs that are not
+     * referenced by the output {@link Data} are deleted once this work has finished.
+     *
+     * @param source The stream to read the contents of the blob from
+     * @return The reference to the blob
+     * @throws IOException if the blob cannot be written
+     */
+    @WorkerThread
+    public final @NonNull String writeBlob(@NonNull InputStream source) throws IOException {
+        return getBlobStore().write(mId.toString(), source);
+    }
+
+    /**
+     * Writes the remaining contents of a buffer into a blob.  See {@link #writeBlob(InputStream)}.
+     *
+     * @param source The buffer to write
+     * @return The reference to the blob
+     * @throws IOException if the blob cannot be written
+     */
+    @WorkerThread
+    public final @NonNull String writeBlob(@NonNull ByteBuffer source) throws IOException {
+        return getBlobStore().write(mId.toString(), source);
+    }
+
+    /**
+     * Opens a blob written by {@link #writeBlob(InputStream)}, usually by work this one depends
+     * on.
+     *
+     * @param reference The reference to the blob, as found in the input {@link Data}
+     * @return A stream of the contents of the blob, which has to be closed by the caller
+     * @throws IllegalArgumentException if the reference is not a blob reference
+     * @throws IOException if the blob cannot be read
+     */
+    @WorkerThread
+    public final @NonNull InputStream openBlob(@NonNull String reference) throws IOException {
+        return getBlobStore().open(reference);
+    }
+
+    /**
+     * Maps a blob written by {@link #writeBlob(InputStream)} into memory, which avoids copying its
+     * contents.
+     *
+     * @param reference The reference to the blob, as found in the input {@link Data}
+     * @return A read-only buffer of the contents of the blob
+     * @throws IllegalArgumentException if the reference is not a blob reference
+     * @throws IOException if the blob cannot be read
+     */
+    @WorkerThread
+    public final @NonNull ByteBuffer mapBlob(@NonNull String reference) throws IOException {
+        return getBlobStore().map(reference);
+    }
+
+    private @NonNull BlobStore getBlobStore() {
+        BlobStore blobStore = mExtras.getBlobStore();
+        if (blobStore == null) {
+            throw new IllegalStateException("Blobs are only available to Workers run by "
+                    + "WorkManager");
+        }
+        return blobStore;
+    }
+
     /**
      * Returns {@code true} if this Worker has been told to stop.  This could be because of an
      * explicit cancellation signal by the user, or because the system has decided to preempt the
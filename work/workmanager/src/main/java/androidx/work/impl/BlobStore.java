@@ -0,0 +1,305 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+import android.support.annotation.WorkerThread;
+import android.util.Log;
+
+import androidx.work.Data;
+import androidx.work.impl.model.WorkBlob;
+import androidx.work.impl.model.WorkBlobDao;
+import androidx.work.impl.model.WorkSpec;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stores payloads that are too large for {@link Data} in files, which {@link Data} refers to by
+ * blob references.
+ * <p>
+ * Every blob is referred to by the {@link WorkSpec}s that wrote it, were enqueued with a reference
+ * to it in their input or output a reference to it, which are tracked in the {@link WorkBlob}
+ * table. Once no {@link WorkSpec} refers to a blob anymore, because they have been pruned, have
+ * been retried or have output other data, the blob is deleted by {@link #prune()}.
+ * This happens when work is pruned and whenever WorkManager is initialized.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class BlobStore {
+
+    private static final String TAG = "BlobStore";
+    private static final String DIRECTORY_NAME = "androidx.work.blobs";
+    private static final String REFERENCE_PREFIX = "androidx.work.blob:";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final File mDirectory;
+    private final WorkDatabase mWorkDatabase;
+
+    public BlobStore(@NonNull Context context, @NonNull WorkDatabase workDatabase) {
+        mDirectory = new File(context.getFilesDir(), DIRECTORY_NAME);
+        mWorkDatabase = workDatabase;
+    }
+
+    /**
+     * Writes a blob with the contents of the given stream.
+     *
+     * @param workSpecId The id of the {@link WorkSpec} writing the blob
+     * @param source The stream to read the contents of the blob from
+     * @return The reference to the blob, which can be put into {@link Data}
+     * @throws IOException if the blob cannot be written
+     */
+    @WorkerThread
+    public @NonNull String write(@NonNull String workSpecId, @NonNull InputStream source)
+            throws IOException {
+        String blobId = createBlob(workSpecId);
+        boolean written = false;
+        try {
+            FileOutputStream outputStream = new FileOutputStream(getFile(blobId));
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int count;
+                while ((count = source.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, count);
+                }
+            } finally {
+                outputStream.close();
+            }
+            written = true;
+        } finally {
+            if (!written) {
+                deleteBlob(workSpecId, blobId);
+            }
+        }
+        return REFERENCE_PREFIX + blobId;
+    }
+
+    /**
+     * Writes a blob with the remaining contents of the given buffer.
+     *
+     * @param workSpecId The id of the {@link WorkSpec} writing the blob
+     * @param source The buffer to write
+     * @return The reference to the blob, which can be put into {@link Data}
+     * @throws IOException if the blob cannot be written
+     */
+    @WorkerThread
+    public @NonNull String write(@NonNull String workSpecId, @NonNull ByteBuffer source)
+            throws IOException {
+        String blobId = createBlob(workSpecId);
+        boolean written = false;
+        try {
+            FileOutputStream outputStream = new FileOutputStream(getFile(blobId));
+            try {
+                FileChannel channel = outputStream.getChannel();
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+            } finally {
+                outputStream.close();
+            }
+            written = true;
+        } finally {
+            if (!written) {
+                deleteBlob(workSpecId, blobId);
+            }
+        }
+        return REFERENCE_PREFIX + blobId;
+    }
+
+    /**
+     * Opens a blob for reading.
+     *
+     * @param reference The reference to the blob
+     * @return A stream of the contents of the blob
+     * @throws IllegalArgumentException if the reference is not a blob reference
+     * @throws IOException if the blob cannot be read
+     */
+    @WorkerThread
+    public @NonNull InputStream open(@NonNull String reference) throws IOException {
+        return new FileInputStream(getFile(requireBlobId(reference)));
+    }
+
+    /**
+     * Maps a blob into memory.
+     *
+     * @param reference The reference to the blob
+     * @return A read-only buffer of the contents of the blob
+     * @throws IllegalArgumentException if the reference is not a blob reference
+     * @throws IOException if the blob cannot be read
+     */
+    @WorkerThread
+    public @NonNull ByteBuffer map(@NonNull String reference) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(getFile(requireBlobId(reference)), "r");
+        try {
+            FileChannel channel = file.getChannel();
+            // the mapping stays valid after the file is closed.
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Records that a {@link WorkSpec} refers to the blobs its input refers to, so that they are
+     * kept until it is pruned. This is called when work is enqueued.
+     *
+     * @param workSpecId The id of the {@link WorkSpec}
+     * @param input The input of the {@link WorkSpec}
+     */
+    public void addReferences(@NonNull String workSpecId, @NonNull Data input) {
+        Set<String> blobIds = new HashSet<>();
+        addBlobIds(blobIds, input);
+        if (blobIds.isEmpty()) {
+            return;
+        }
+
+        WorkBlobDao workBlobDao = mWorkDatabase.workBlobDao();
+        mWorkDatabase.beginTransaction();
+        try {
+            for (String blobId : blobIds) {
+                workBlobDao.insert(new WorkBlob(blobId, workSpecId));
+            }
+            mWorkDatabase.setTransactionSuccessful();
+        } finally {
+            mWorkDatabase.endTransaction();
+        }
+    }
+
+    /**
+     * Replaces the blobs a {@link WorkSpec} refers to by the blobs its input and output refer to.
+     * This keeps the blobs the work needs to run again and the blobs passed on to dependent work,
+     * while blobs that were only used by the work itself can be pruned.
+     *
+     * @param workSpecId The id of the {@link WorkSpec}
+     * @param output The output of the {@link WorkSpec}
+     */
+    public void setReferences(@NonNull String workSpecId, @NonNull Data output) {
+        Set<String> blobIds = new HashSet<>();
+        addBlobIds(blobIds, output);
+
+        WorkBlobDao workBlobDao = mWorkDatabase.workBlobDao();
+        mWorkDatabase.beginTransaction();
+        try {
+            WorkSpec workSpec = mWorkDatabase.workSpecDao().getWorkSpec(workSpecId);
+            if (workSpec != null) {
+                addBlobIds(blobIds, workSpec.input);
+            }
+            workBlobDao.deleteForWorkSpecId(workSpecId);
+            for (String blobId : blobIds) {
+                workBlobDao.insert(new WorkBlob(blobId, workSpecId));
+            }
+            mWorkDatabase.setTransactionSuccessful();
+        } finally {
+            mWorkDatabase.endTransaction();
+        }
+    }
+
+    /**
+     * Deletes the blobs that no {@link WorkSpec} refers to.
+     */
+    @WorkerThread
+    public void prune() {
+        // a blob is referenced before its file is created, so the files have to be listed before
+        // the references are read for a blob that is being written not to be deleted.
+        File[] files = mDirectory.listFiles();
+        if (files == null || files.length == 0) {
+            return;
+        }
+        Set<String> referencedBlobIds =
+                new HashSet<>(mWorkDatabase.workBlobDao().getReferencedBlobIds());
+        for (File file : files) {
+            if (!referencedBlobIds.contains(file.getName()) && !file.delete()) {
+                Log.w(TAG, String.format("Could not delete blob %s", file.getName()));
+            }
+        }
+    }
+
+    private String createBlob(String workSpecId) throws IOException {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            throw new IOException("Could not create blob directory " + mDirectory);
+        }
+        String blobId = UUID.randomUUID().toString();
+        mWorkDatabase.workBlobDao().insert(new WorkBlob(blobId, workSpecId));
+        return blobId;
+    }
+
+    private void deleteBlob(String workSpecId, String blobId) {
+        mWorkDatabase.workBlobDao().delete(new WorkBlob(blobId, workSpecId));
+        File file = getFile(blobId);
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, String.format("Could not delete blob %s", blobId));
+        }
+    }
+
+    private File getFile(String blobId) {
+        return new File(mDirectory, blobId);
+    }
+
+    private static void addBlobIds(Set<String> blobIds, Data data) {
+        for (Object value : data.getKeyValueMap().values()) {
+            if (value instanceof String[]) {
+                for (String element : (String[]) value) {
+                    addBlobId(blobIds, element);
+                }
+            } else if (value instanceof String) {
+                addBlobId(blobIds, (String) value);
+            }
+        }
+    }
+
+    private static void addBlobId(Set<String> blobIds, String value) {
+        String blobId = getBlobId(value);
+        if (blobId != null) {
+            blobIds.add(blobId);
+        }
+    }
+
+    private static String requireBlobId(String reference) {
+        String blobId = getBlobId(reference);
+        if (blobId == null) {
+            throw new IllegalArgumentException(
+                    String.format("%s is not a blob reference", reference));
+        }
+        return blobId;
+    }
+
+    private static @Nullable String getBlobId(@Nullable String value) {
+        if (value == null || !value.startsWith(REFERENCE_PREFIX)) {
+            return null;
+        }
+        String blobId = value.substring(REFERENCE_PREFIX.length());
+        // blob ids are used as file names, so only accept the ids this class generates.
+        try {
+            return UUID.fromString(blobId).toString().equals(blobId) ? blobId : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -41,15 +41,25 @@ public class Extras {
     private @NonNull Set<String> mTags;
     private @Nullable RuntimeExtras mRuntimeExtras;
     private int mRunAttemptCount;
+    private @Nullable BlobStore mBlobStore;
 
     public Extras(@NonNull Data inputData,
             @NonNull List<String> tags,
             @Nullable RuntimeExtras runtimeExtras,
             int runAttemptCount) {
+        this(inputData, tags, runtimeExtras, runAttemptCount, null);
+    }
+
+    public Extras(@NonNull Data inputData,
+            @NonNull List<String> tags,
+            @Nullable RuntimeExtras runtimeExtras,
+            int runAttemptCount,
+            @Nullable BlobStore blobStore) {
         mInputData = inputData;
         mTags = new HashSet<>(tags);
         mRuntimeExtras = runtimeExtras;
         mRunAttemptCount = runAttemptCount;
+        mBlobStore = blobStore;
     }
 
     public @NonNull Data getInputData() {
@@ -68,6 +78,10 @@ public class Extras {
         return mRunAttemptCount;
     }
 
+    public @Nullable BlobStore getBlobStore() {
+        return mBlobStore;
+    }
+
     /**
      * Extra runtime information for Workers.
      *
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+
+import androidx.work.Priority;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs work on an {@link Executor} in lanes by {@link Priority}.
+ * <p>
+ * Each lane has its own queue and a bound on the number of its tasks that may run at once, and
+ * no more tasks are handed to the {@link Executor} than it has threads.  Whenever a thread frees
+ * up, the oldest task of the highest priority lane that is below its bound runs next.
+ * {@link Priority#LOW} work never takes up more than half of the threads, and
+ * {@link Priority#DEFAULT} work leaves one thread free while {@link Priority#HIGH} work is queued
+ * or running, so that a flood of long running work cannot hold up more {@link Priority#HIGH}
+ * work.  Without {@link Priority#HIGH} work, {@link Priority#DEFAULT} work may use all threads.
+ * <p>
+ * The number of threads is only known for {@link ThreadPoolExecutor}s, such as the default
+ * {@link androidx.work.Configuration} executor.  Tasks are handed to any other {@link Executor}
+ * as soon as they are queued.
+ * <p>
+ * Tasks are handed to the {@link Executor} from whichever thread queues or finishes a task.  A
+ * task the {@link Executor} rejects is reported to the {@link RejectionListener}, if there is
+ * one, instead of surfacing on that thread.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class LaneExecutor {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final Executor mExecutor;
+    private final int mMaxRunning;
+    private final Lane[] mLanes;
+    private final @Nullable RejectionListener mRejectionListener;
+    private int mRunning;
+
+    /**
+     * @param executor The {@link Executor} running the tasks
+     * @param rejectionListener The {@link RejectionListener} to report rejected tasks to
+     */
+    public LaneExecutor(
+            @NonNull Executor executor,
+            @Nullable RejectionListener rejectionListener) {
+        this(executor, getMaxRunning(executor), rejectionListener);
+    }
+
+    /**
+     * @param executor The {@link Executor} running the tasks
+     * @param maxRunning The number of tasks the {@link Executor} can run at once
+     * @param rejectionListener The {@link RejectionListener} to report rejected tasks to, or
+     *                          {@code null} to throw the {@link RejectedExecutionException}
+     */
+    public LaneExecutor(
+            @NonNull Executor executor,
+            int maxRunning,
+            @Nullable RejectionListener rejectionListener) {
+        if (maxRunning < 1) {
+            throw new IllegalArgumentException("maxRunning must be at least 1");
+        }
+        mExecutor = executor;
+        mMaxRunning = maxRunning;
+        mRejectionListener = rejectionListener;
+        mLanes = new Lane[PRIORITIES.length];
+        for (Priority priority : PRIORITIES) {
+            mLanes[priority.ordinal()] = new Lane(getLaneLimit(priority, maxRunning));
+        }
+    }
+
+    /**
+     * Queues a task in the lane of the given {@link Priority}.
+     *
+     * @param priority The {@link Priority} of the task
+     * @param task The task to run
+     */
+    public void execute(@NonNull Priority priority, @NonNull Runnable task) {
+        Lane lane = mLanes[priority.ordinal()];
+        synchronized (this) {
+            lane.mQueue.add(new LaneTask(lane, task, System.nanoTime()));
+        }
+        dispatch();
+    }
+
+    /**
+     * @param priority The {@link Priority} of the lane
+     * @return The number of tasks waiting in the lane
+     */
+    public synchronized int getQueueDepth(@NonNull Priority priority) {
+        return mLanes[priority.ordinal()].mQueue.size();
+    }
+
+    /**
+     * @param priority The {@link Priority} of the lane
+     * @return The number of tasks of the lane which have been handed to the {@link Executor} and
+     * have not finished yet
+     */
+    public synchronized int getRunningCount(@NonNull Priority priority) {
+        return mLanes[priority.ordinal()].mRunning;
+    }
+
+    /**
+     * @param priority The {@link Priority} of the lane
+     * @return The average time in milliseconds tasks of the lane waited in its queue
+     */
+    public synchronized long getAverageWaitMillis(@NonNull Priority priority) {
+        Lane lane = mLanes[priority.ordinal()];
+        return lane.mStarted == 0 ? 0 : lane.mTotalWaitNanos / lane.mStarted / 1000000;
+    }
+
+    /**
+     * @param priority The {@link Priority} of the lane
+     * @return The longest time in milliseconds a task of the lane waited in its queue
+     */
+    public synchronized long getMaxWaitMillis(@NonNull Priority priority) {
+        return mLanes[priority.ordinal()].mMaxWaitNanos / 1000000;
+    }
+
+    private void dispatch() {
+        List<LaneTask> tasks = null;
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (int i = 0; i < mLanes.length && mRunning < mMaxRunning; i++) {
+                Lane lane = mLanes[i];
+                int limit = getLimit(lane);
+                while (mRunning < mMaxRunning
+                        && lane.mRunning < limit
+                        && !lane.mQueue.isEmpty()) {
+                    LaneTask task = lane.mQueue.removeFirst();
+                    task.mWaitNanos = now - task.mQueuedAtNanos;
+                    lane.mTotalWaitNanos += task.mWaitNanos;
+                    lane.mMaxWaitNanos = Math.max(lane.mMaxWaitNanos, task.mWaitNanos);
+                    lane.mStarted++;
+                    lane.mRunning++;
+                    mRunning++;
+                    if (tasks == null) {
+                        tasks = new ArrayList<>();
+                    }
+                    tasks.add(task);
+                }
+            }
+        }
+
+        // Tasks are handed over outside of the lock, as the executor may run them right away.
+        if (tasks != null) {
+            int handedOver = 0;
+            RejectedExecutionException rejection = null;
+            try {
+                for (; handedOver < tasks.size(); handedOver++) {
+                    mExecutor.execute(tasks.get(handedOver));
+                }
+            } catch (RejectedExecutionException exception) {
+                rejection = exception;
+            } finally {
+                if (handedOver < tasks.size()) {
+                    release(tasks, handedOver);
+                }
+            }
+            if (rejection != null) {
+                if (mRejectionListener == null) {
+                    throw rejection;
+                }
+                mRejectionListener.onRejected(tasks.get(handedOver).mTask, rejection);
+            }
+        }
+    }
+
+    /**
+     * Releases the tasks the {@link Executor} did not take, from the one it rejected on. The
+     * rejected task is given up on, while the tasks after it are queued again at the head of
+     * their lanes, in their original order.
+     */
+    private synchronized void release(List<LaneTask> tasks, int rejected) {
+        for (int i = tasks.size() - 1; i >= rejected; i--) {
+            LaneTask task = tasks.get(i);
+            Lane lane = task.mLane;
+            lane.mRunning--;
+            mRunning--;
+            lane.mStarted--;
+            lane.mTotalWaitNanos -= task.mWaitNanos;
+            if (i > rejected) {
+                lane.mQueue.addFirst(task);
+            }
+        }
+    }
+
+    private int getLimit(Lane lane) {
+        Lane high = mLanes[Priority.HIGH.ordinal()];
+        if (lane == mLanes[Priority.DEFAULT.ordinal()]
+                && high.mRunning == 0 && high.mQueue.isEmpty()) {
+            // Only hold a thread back while there is high priority work to use it.
+            return mMaxRunning;
+        }
+        return lane.mLimit;
+    }
+
+    private void onFinished(Lane lane) {
+        synchronized (this) {
+            lane.mRunning--;
+            mRunning--;
+        }
+        dispatch();
+    }
+
+    private static int getMaxRunning(Executor executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executor;
+            // Pools with an unbounded queue never grow past their core size.
+            return Math.max(1, Math.max(threadPoolExecutor.getCorePoolSize(),
+                    threadPoolExecutor.getQueue().remainingCapacity() == Integer.MAX_VALUE
+                            ? 0 : threadPoolExecutor.getMaximumPoolSize()));
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private static int getLaneLimit(Priority priority, int maxRunning) {
+        switch (priority) {
+            case HIGH:
+                return maxRunning;
+            case LOW:
+                return Math.max(1, maxRunning / 2);
+            default:
+                // Keep one thread for high priority work while there is any.
+                return Math.max(1, maxRunning - 1);
+        }
+    }
+
+    /**
+     * Is told about tasks the {@link Executor} rejected, which will not run.
+     */
+    public interface RejectionListener {
+        /**
+         * Called on the thread that handed the task to the {@link Executor}, which may be the
+         * thread of another task that just finished.
+         *
+         * @param task The task that was rejected
+         * @param exception The exception the {@link Executor} rejected the task with
+         */
+        void onRejected(@NonNull Runnable task, @NonNull RejectedExecutionException exception);
+    }
+
+    /**
+     * The queue and bookkeeping of a {@link Priority}.
+     */
+    private static class Lane {
+        final int mLimit;
+        final Deque<LaneTask> mQueue = new ArrayDeque<>();
+        int mRunning;
+        int mStarted;
+        long mTotalWaitNanos;
+        long mMaxWaitNanos;
+
+        Lane(int limit) {
+            mLimit = limit;
+        }
+    }
+
+    private class LaneTask implements Runnable {
+        final Lane mLane;
+        final Runnable mTask;
+        final long mQueuedAtNanos;
+        long mWaitNanos;
+
+        LaneTask(Lane lane, Runnable task, long queuedAtNanos) {
+            mLane = lane;
+            mTask = task;
+            mQueuedAtNanos = queuedAtNanos;
+        }
+
+        @Override
+        public void run() {
+            try {
+                mTask.run();
+            } finally {
+                onFinished(mLane);
+            }
+        }
+    }
+}
@@ -21,32 +21,41 @@ import android.support.annotation.RestrictTo;
 import android.util.Log;
 
 import androidx.work.Configuration;
+import androidx.work.Priority;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * A Processor can intelligently schedule and execute work on demand.
+ * <p>
+ * The Processor does not hold a lock of its own: its bookkeeping is kept in concurrent collections,
+ * so that queries do not block and many units of work can finish at the same time.
+ * <p>
+ * Work the {@link Executor} rejects is forgotten and reported to the {@link ExecutionListener}s as
+ * unsuccessful and in need of a reschedule, so that it can be started again.
  *
  * @hide
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-public class Processor implements ExecutionListener {
+public class Processor implements ExecutionListener, LaneExecutor.RejectionListener {
     private static final String TAG = "Processor";
 
-    private Context mAppContext;
-    private Configuration mConfiguration;
-    private WorkDatabase mWorkDatabase;
-    private Map<String, WorkerWrapper> mEnqueuedWorkMap;
-    private List<Scheduler> mSchedulers;
-    private Executor mExecutor;
+    private final Context mAppContext;
+    private final Configuration mConfiguration;
+    private final WorkDatabase mWorkDatabase;
+    private final ConcurrentMap<String, WorkerWrapper> mEnqueuedWorkMap;
+    private final List<Scheduler> mSchedulers;
+    private final LaneExecutor mLaneExecutor;
 
-    private Set<String> mCancelledIds;
+    private final Set<String> mCancelledIds;
 
     private final List<ExecutionListener> mOuterListeners;
 
@@ -59,11 +68,12 @@ public class Processor implements ExecutionListener {
         mAppContext = appContext;
         mConfiguration = configuration;
         mWorkDatabase = workDatabase;
-        mEnqueuedWorkMap = new HashMap<>();
+        mEnqueuedWorkMap = new ConcurrentHashMap<>();
         mSchedulers = schedulers;
-        mExecutor = executor;
-        mCancelledIds = new HashSet<>();
-        mOuterListeners = new ArrayList<>();
+        mLaneExecutor = new LaneExecutor(executor, this);
+        mCancelledIds = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        // Listeners are rarely added or removed, but iterated every time work finishes.
+        mOuterListeners = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -72,7 +82,7 @@ public class Processor implements ExecutionListener {
      * @param id The work id to execute.
      * @return {@code true} if the work was successfully enqueued for processing
      */
-    public synchronized boolean startWork(String id) {
+    public boolean startWork(String id) {
         return startWork(id, null);
     }
 
@@ -83,7 +93,7 @@ public class Processor implements ExecutionListener {
      * @param runtimeExtras The {@link Extras.RuntimeExtras} for this work, if any.
      * @return {@code true} if the work was successfully enqueued for processing
      */
-    public synchronized boolean startWork(String id, Extras.RuntimeExtras runtimeExtras) {
+    public boolean startWork(String id, Extras.RuntimeExtras runtimeExtras) {
         // Work may get triggered multiple times if they have passing constraints and new work with
         // those constraints are added.
         if (mEnqueuedWorkMap.containsKey(id)) {
@@ -97,19 +107,38 @@ public class Processor implements ExecutionListener {
                         .withSchedulers(mSchedulers)
                         .withRuntimeExtras(runtimeExtras)
                         .build();
-        mEnqueuedWorkMap.put(id, workWrapper);
-        mExecutor.execute(workWrapper);
-        Log.d(TAG, String.format("%s: processing %s", getClass().getSimpleName(), id));
+        // Only one of concurrent calls for the same work gets to enqueue it.
+        if (mEnqueuedWorkMap.putIfAbsent(id, workWrapper) != null) {
+            Log.d(TAG, String.format("Work %s is already enqueued for processing", id));
+            return false;
+        }
+        Priority priority = mWorkDatabase.workSpecDao().getPriority(id);
+        if (priority == null) {
+            // The WorkerWrapper handles WorkSpecs that no longer exist.
+            priority = Priority.DEFAULT;
+        }
+        mLaneExecutor.execute(priority, workWrapper);
+        Log.d(TAG, String.format("%s: processing %s with priority %s (%d queued)",
+                getClass().getSimpleName(), id, priority,
+                mLaneExecutor.getQueueDepth(priority)));
         return true;
     }
 
+    /**
+     * @return The {@link LaneExecutor} running work, which keeps track of the queue depth and
+     * wait times of each {@link Priority}.
+     */
+    public @NonNull LaneExecutor getLaneExecutor() {
+        return mLaneExecutor;
+    }
+
     /**
      * Stops a unit of work.
      *
      * @param id The work id to stop
      * @return {@code true} if the work was stopped successfully
      */
-    public synchronized boolean stopWork(String id) {
+    public boolean stopWork(String id) {
         Log.d(TAG, String.format("Processor stopping %s", id));
         WorkerWrapper wrapper = mEnqueuedWorkMap.remove(id);
         if (wrapper != null) {
@@ -127,7 +156,7 @@ public class Processor implements ExecutionListener {
      * @param id The work id to stop and cancel
      * @return {@code true} if the work was stopped successfully
      */
-    public synchronized boolean stopAndCancelWork(String id) {
+    public boolean stopAndCancelWork(String id) {
         Log.d(TAG, String.format("Processor cancelling %s", id));
         mCancelledIds.add(id);
         WorkerWrapper wrapper = mEnqueuedWorkMap.remove(id);
@@ -146,14 +175,14 @@ public class Processor implements ExecutionListener {
      * @param id The work id to query
      * @return {@code true} if the id has already been marked as cancelled
      */
-    public synchronized boolean isCancelled(String id) {
+    public boolean isCancelled(String id) {
         return mCancelledIds.contains(id);
     }
 
     /**
      * @return {@code true} if the processor has work to process.
      */
-    public synchronized boolean hasWork() {
+    public boolean hasWork() {
         return !mEnqueuedWorkMap.isEmpty();
     }
 
@@ -161,7 +190,7 @@ public class Processor implements ExecutionListener {
      * @param workSpecId The {@link androidx.work.impl.model.WorkSpec} id
      * @return {@code true} if the id was enqueued in the processor.
      */
-    public synchronized boolean isEnqueued(@NonNull String workSpecId) {
+    public boolean isEnqueued(@NonNull String workSpecId) {
         return mEnqueuedWorkMap.containsKey(workSpecId);
     }
 
@@ -170,8 +199,7 @@ public class Processor implements ExecutionListener {
      *
      * @param executionListener The {@link ExecutionListener} to add
      */
-    public synchronized void addExecutionListener(ExecutionListener executionListener) {
-        // TODO(sumir): Let's get some synchronization guarantees here.
+    public void addExecutionListener(ExecutionListener executionListener) {
         mOuterListeners.add(executionListener);
     }
 
@@ -180,13 +208,28 @@ public class Processor implements ExecutionListener {
      *
      * @param executionListener The {@link ExecutionListener} to remove
      */
-    public synchronized void removeExecutionListener(ExecutionListener executionListener) {
-        // TODO(sumir): Let's get some synchronization guarantees here.
+    public void removeExecutionListener(ExecutionListener executionListener) {
         mOuterListeners.remove(executionListener);
     }
 
     @Override
-    public synchronized void onExecuted(
+    public void onRejected(@NonNull Runnable task, @NonNull RejectedExecutionException exception) {
+        for (Map.Entry<String, WorkerWrapper> entry : mEnqueuedWorkMap.entrySet()) {
+            String workSpecId = entry.getKey();
+            // Only forget the work if it was not enqueued again since.
+            if (entry.getValue() == task && mEnqueuedWorkMap.remove(workSpecId, task)) {
+                Log.e(TAG, String.format("Executor rejected %s; rescheduling", workSpecId),
+                        exception);
+                for (ExecutionListener executionListener : mOuterListeners) {
+                    executionListener.onExecuted(workSpecId, false, true);
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onExecuted(
             @NonNull String workSpecId,
             boolean isSuccessful,
             boolean needsReschedule) {
@@ -195,7 +238,6 @@ public class Processor implements ExecutionListener {
         Log.d(TAG, String.format("%s %s executed; isSuccessful = %s, reschedule = %s",
                 getClass().getSimpleName(), workSpecId, isSuccessful, needsReschedule));
 
-        // TODO(sumir): Let's get some synchronization guarantees here.
         for (ExecutionListener executionListener : mOuterListeners) {
             executionListener.onExecuted(workSpecId, isSuccessful, needsReschedule);
         }
@@ -17,6 +17,8 @@
 package androidx.work.impl;
 
 import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_3_4;
+import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_4_5;
+import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_5_6;
 import static androidx.work.impl.WorkDatabaseMigrations.VERSION_2;
 import static androidx.work.impl.WorkDatabaseMigrations.VERSION_3;
 import static androidx.work.impl.model.WorkTypeConverters.StateIds.COMPLETED_STATES;
@@ -37,6 +39,8 @@ import androidx.work.impl.model.Dependency;
 import androidx.work.impl.model.DependencyDao;
 import androidx.work.impl.model.SystemIdInfo;
 import androidx.work.impl.model.SystemIdInfoDao;
+import androidx.work.impl.model.WorkBlob;
+import androidx.work.impl.model.WorkBlobDao;
 import androidx.work.impl.model.WorkName;
 import androidx.work.impl.model.WorkNameDao;
 import androidx.work.impl.model.WorkSpec;
@@ -58,8 +62,9 @@ import java.util.concurrent.TimeUnit;
         WorkSpec.class,
         WorkTag.class,
         SystemIdInfo.class,
-        WorkName.class},
-        version = 4)
+        WorkName.class,
+        WorkBlob.class},
+        version = 6)
 @TypeConverters(value = {Data.class, WorkTypeConverters.class})
 public abstract class WorkDatabase extends RoomDatabase {
 
@@ -106,6 +111,8 @@ public abstract class WorkDatabase extends RoomDatabase {
                 .addMigrations(
                         new WorkDatabaseMigrations.WorkMigration(context, VERSION_2, VERSION_3))
                 .addMigrations(MIGRATION_3_4)
+                .addMigrations(MIGRATION_4_5)
+                .addMigrations(MIGRATION_5_6)
                 .fallbackToDestructiveMigration()
                 .build();
     }
@@ -163,4 +170,9 @@ public abstract class WorkDatabase extends RoomDatabase {
      * @return The Data Access Object for {@link WorkName}s.
      */
     public abstract WorkNameDao workNameDao();
+
+    /**
+     * @return The Data Access Object for {@link WorkBlob}s.
+     */
+    public abstract WorkBlobDao workBlobDao();
 }
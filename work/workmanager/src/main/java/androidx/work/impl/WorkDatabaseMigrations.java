@@ -44,6 +44,8 @@ public class WorkDatabaseMigrations {
     public static final int VERSION_2 = 2;
     public static final int VERSION_3 = 3;
     public static final int VERSION_4 = 4;
+    public static final int VERSION_5 = 5;
+    public static final int VERSION_6 = 6;
 
     private static final String CREATE_SYSTEM_ID_INFO =
             "CREATE TABLE IF NOT EXISTS `SystemIdInfo` (`work_spec_id` TEXT NOT NULL, `system_id`"
@@ -60,6 +62,19 @@ public class WorkDatabaseMigrations {
                     + " AND schedule_requested_at=" + WorkSpec.SCHEDULE_NOT_REQUESTED_YET
                     + " AND interval_duration<>0";
 
+    private static final String CREATE_WORK_BLOB =
+            "CREATE TABLE IF NOT EXISTS `WorkBlob` (`blob_id` TEXT NOT NULL, `work_spec_id` TEXT"
+                    + " NOT NULL, PRIMARY KEY(`blob_id`, `work_spec_id`),"
+                    + " FOREIGN KEY(`work_spec_id`) REFERENCES `WorkSpec`(`id`)"
+                    + " ON UPDATE CASCADE ON DELETE CASCADE )";
+
+    private static final String CREATE_INDEX_WORK_BLOB_WORK_SPEC_ID =
+            "CREATE  INDEX `index_WorkBlob_work_spec_id` ON `WorkBlob` (`work_spec_id`)";
+
+    private static final String WORK_SPEC_ADD_PRIORITY =
+            "ALTER TABLE workspec ADD COLUMN `priority` INTEGER NOT NULL DEFAULT "
+                    + WorkTypeConverters.PriorityIds.DEFAULT;
+
     private static final String REMOVE_ALARM_INFO = "DROP TABLE IF EXISTS alarmInfo";
 
     /**
@@ -108,4 +123,27 @@ public class WorkDatabaseMigrations {
             }
         }
     };
+
+    /**
+     * Adds the {@code WorkBlob} table, which keeps track of the {@link WorkSpec}s referring to
+     * blobs in the {@link BlobStore}.
+     */
+    public static Migration MIGRATION_4_5 = new Migration(VERSION_4, VERSION_5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(CREATE_WORK_BLOB);
+            database.execSQL(CREATE_INDEX_WORK_BLOB_WORK_SPEC_ID);
+        }
+    };
+
+    /**
+     * Adds the {@code priority} column to the {@link WorkSpec} table, which gives existing work
+     * the default priority.
+     */
+    public static Migration MIGRATION_5_6 = new Migration(VERSION_5, VERSION_6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(WORK_SPEC_ADD_PRIORITY);
+        }
+    };
 }
@@ -71,6 +71,7 @@ public class WorkerWrapper implements Runnable {
     private WorkSpecDao mWorkSpecDao;
     private DependencyDao mDependencyDao;
     private WorkTagDao mWorkTagDao;
+    private BlobStore mBlobStore;
 
     private volatile boolean mInterrupted;
 
@@ -87,6 +88,7 @@ public class WorkerWrapper implements Runnable {
         mWorkSpecDao = mWorkDatabase.workSpecDao();
         mDependencyDao = mWorkDatabase.dependencyDao();
         mWorkTagDao = mWorkDatabase.workTagDao();
+        mBlobStore = new BlobStore(mAppContext, mWorkDatabase);
     }
 
     @WorkerThread
@@ -143,7 +145,8 @@ public class WorkerWrapper implements Runnable {
                 input,
                 mWorkTagDao.getTagsForWorkSpecId(mWorkSpecId),
                 mRuntimeExtras,
-                mWorkSpec.runAttemptCount);
+                mWorkSpec.runAttemptCount,
+                mBlobStore);
 
         // Not always creating a worker here, as the WorkerWrapper.Builder can set a worker override
         // in test mode.
@@ -312,6 +315,9 @@ public class WorkerWrapper implements Runnable {
                 // Update Data as necessary.
                 Data output = mWorker.getOutputData();
                 mWorkSpecDao.setOutput(mWorkSpecId, output);
+                mBlobStore.setReferences(mWorkSpecId, output);
+            } else {
+                mBlobStore.setReferences(mWorkSpecId, Data.EMPTY);
             }
 
             mWorkDatabase.setTransactionSuccessful();
@@ -341,6 +347,8 @@ public class WorkerWrapper implements Runnable {
             mWorkSpecDao.setState(ENQUEUED, mWorkSpecId);
             // TODO(xbhatnag): Period Start Time is confusing for non-periodic work. Rename.
             mWorkSpecDao.setPeriodStartTime(mWorkSpecId, System.currentTimeMillis());
+            // The output of this attempt is discarded, so are the blobs it wrote.
+            mBlobStore.setReferences(mWorkSpecId, Data.EMPTY);
             mWorkDatabase.setTransactionSuccessful();
         } finally {
             mWorkDatabase.endTransaction();
@@ -356,6 +364,8 @@ public class WorkerWrapper implements Runnable {
             mWorkSpecDao.setPeriodStartTime(mWorkSpecId, nextPeriodStartTime);
             mWorkSpecDao.setState(ENQUEUED, mWorkSpecId);
             mWorkSpecDao.resetWorkSpecRunAttemptCount(mWorkSpecId);
+            // Periodic work has no output, so no blob written by this period is passed on.
+            mBlobStore.setReferences(mWorkSpecId, Data.EMPTY);
             if (Build.VERSION.SDK_INT < WorkManagerImpl.MIN_JOB_SCHEDULER_API_LEVEL) {
                 // We only need to reset the schedule_requested_at bit for the AlarmManager
                 // implementation because AlarmManager does not know about periodic WorkRequests.
@@ -389,6 +399,7 @@ public class WorkerWrapper implements Runnable {
             // Update Data as necessary.
             Data output = mWorker.getOutputData();
             mWorkSpecDao.setOutput(mWorkSpecId, output);
+            mBlobStore.setReferences(mWorkSpecId, output);
 
             // Unblock Dependencies and set Period Start Time
             long currentTimeMillis = System.currentTimeMillis();
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl.model;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.arch.persistence.room.ForeignKey;
+import android.arch.persistence.room.Index;
+import android.support.annotation.NonNull;
+import android.support.annotation.RestrictTo;
+
+/**
+ * Database entity that defines a reference from a {@link WorkSpec} to a blob in the
+ * {@link androidx.work.impl.BlobStore}. A blob is kept as long as any {@link WorkSpec} refers to
+ * it.
+ *
+ * @hide
+ */
+
+@Entity(foreignKeys = {
+        @ForeignKey(
+                entity = WorkSpec.class,
+                parentColumns = "id",
+                childColumns = "work_spec_id",
+                onDelete = ForeignKey.CASCADE,
+                onUpdate = ForeignKey.CASCADE)},
+        primaryKeys = {"blob_id", "work_spec_id"},
+        indices = {@Index(value = {"work_spec_id"})})
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class WorkBlob {
+
+    @NonNull
+    @ColumnInfo(name = "blob_id")
+    public final String blobId;
+
+    @NonNull
+    @ColumnInfo(name = "work_spec_id")
+    public final String workSpecId;
+
+    public WorkBlob(@NonNull String blobId, @NonNull String workSpecId) {
+        this.blobId = blobId;
+        this.workSpecId = workSpecId;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl.model;
+
+import static android.arch.persistence.room.OnConflictStrategy.IGNORE;
+
+import android.arch.persistence.room.Dao;
+import android.arch.persistence.room.Delete;
+import android.arch.persistence.room.Insert;
+import android.arch.persistence.room.Query;
+
+import java.util.List;
+
+/**
+ * The Data Access Object for {@link WorkBlob}s.
+ */
+@Dao
+public interface WorkBlobDao {
+
+    /**
+     * Inserts a {@link WorkBlob} into the table.
+     *
+     * @param workBlob The {@link WorkBlob} to insert
+     */
+    @Insert(onConflict = IGNORE)
+    void insert(WorkBlob workBlob);
+
+    /**
+     * Deletes a {@link WorkBlob} from the table.
+     *
+     * @param workBlob The {@link WorkBlob} to delete
+     */
+    @Delete
+    void delete(WorkBlob workBlob);
+
+    /**
+     * Deletes all {@link WorkBlob}s of a given {@link WorkSpec} id.
+     *
+     * @param id The id of the {@link WorkSpec}
+     */
+    @Query("DELETE FROM workblob WHERE work_spec_id=:id")
+    void deleteForWorkSpecId(String id);
+
+    /**
+     * Retrieves the ids of all blobs that are referred to by a {@link WorkSpec}.
+     *
+     * @return The ids of all referenced blobs
+     */
+    @Query("SELECT DISTINCT blob_id FROM workblob")
+    List<String> getReferencedBlobIds();
+
+    /**
+     * Retrieves the ids of all blobs referred to by a given {@link WorkSpec} id.
+     *
+     * @param id The id of the {@link WorkSpec}
+     * @return The ids of the blobs referenced by that {@link WorkSpec}
+     */
+    @Query("SELECT blob_id FROM workblob WHERE work_spec_id=:id")
+    List<String> getBlobIdsForWorkSpecId(String id);
+}
@@ -36,6 +36,7 @@ import android.util.Log;
 import androidx.work.BackoffPolicy;
 import androidx.work.Constraints;
 import androidx.work.Data;
+import androidx.work.Priority;
 import androidx.work.State;
 import androidx.work.WorkRequest;
 import androidx.work.WorkStatus;
@@ -125,6 +126,10 @@ public class WorkSpec {
     @ColumnInfo(name = "schedule_requested_at")
     public long scheduleRequestedAt = SCHEDULE_NOT_REQUESTED_YET;
 
+    @ColumnInfo(name = "priority")
+    @NonNull
+    public Priority priority = Priority.DEFAULT;
+
     public WorkSpec(@NonNull String id, @NonNull String workerClassName) {
         this.id = id;
         this.workerClassName = workerClassName;
@@ -268,6 +273,7 @@ public class WorkSpec {
         if (!input.equals(workSpec.input)) return false;
         if (!output.equals(workSpec.output)) return false;
         if (!constraints.equals(workSpec.constraints)) return false;
+        if (priority != workSpec.priority) return false;
         return backoffPolicy == workSpec.backoffPolicy;
     }
 
@@ -289,6 +295,7 @@ public class WorkSpec {
         result = 31 * result + (int) (periodStartTime ^ (periodStartTime >>> 32));
         result = 31 * result + (int) (minimumRetentionDuration ^ (minimumRetentionDuration >>> 32));
         result = 31 * result + (int) (scheduleRequestedAt ^ (scheduleRequestedAt >>> 32));
+        result = 31 * result + priority.hashCode();
         return result;
     }
 
@@ -28,6 +28,7 @@ import android.arch.persistence.room.Transaction;
 import android.support.annotation.NonNull;
 
 import androidx.work.Data;
+import androidx.work.Priority;
 import androidx.work.State;
 
 import java.util.List;
@@ -46,6 +47,14 @@ public interface WorkSpecDao {
     @Insert(onConflict = IGNORE)
     void insertWorkSpec(WorkSpec workSpec);
 
+    /**
+     * Attempts to insert {@link WorkSpec}s into the database.
+     *
+     * @param workSpecs The {@link WorkSpec}s to insert
+     */
+    @Insert(onConflict = IGNORE)
+    void insertWorkSpecs(List<WorkSpec> workSpecs);
+
     /**
      * Deletes {@link WorkSpec}s from the database.
      *
@@ -68,7 +77,7 @@ public interface WorkSpecDao {
      * @return The {@link WorkSpec}s with the requested IDs
      */
     @Query("SELECT * FROM workspec WHERE id IN (:ids)")
-    WorkSpec[] getWorkSpecs(List<String> ids);
+    List<WorkSpec> getWorkSpecs(List<String> ids);
 
     /**
      * Retrieves {@link WorkSpec}s labelled with a given name.
@@ -141,6 +150,15 @@ public interface WorkSpecDao {
     @Query("SELECT state FROM workspec WHERE id=:id")
     State getState(String id);
 
+    /**
+     * Retrieves the priority of a {@link WorkSpec}.
+     *
+     * @param id The identifier for the {@link WorkSpec}
+     * @return The priority of the {@link WorkSpec}
+     */
+    @Query("SELECT priority FROM workspec WHERE id=:id")
+    Priority getPriority(String id);
+
     /**
      * For a {@link WorkSpec} identifier, retrieves its {@link WorkSpec.WorkStatusPojo}.
      *
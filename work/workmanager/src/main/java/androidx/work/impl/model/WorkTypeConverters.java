@@ -31,6 +31,7 @@ import android.net.Uri;
 import androidx.work.BackoffPolicy;
 import androidx.work.ContentUriTriggers;
 import androidx.work.NetworkType;
+import androidx.work.Priority;
 import androidx.work.State;
 
 import java.io.ByteArrayInputStream;
@@ -67,6 +68,15 @@ public class WorkTypeConverters {
         int LINEAR = 1;
     }
 
+    /**
+     * Integer identifiers that map to {@link Priority}.
+     */
+    public interface PriorityIds {
+        int LOW = 0;
+        int DEFAULT = 1;
+        int HIGH = 2;
+    }
+
     /**
      * Integer identifiers that map to {@link NetworkType}.
      */
@@ -186,6 +196,54 @@ public class WorkTypeConverters {
         }
     }
 
+    /**
+     * TypeConverter for a Priority to an int.
+     *
+     * @param priority The input Priority
+     * @return The associated int constant
+     */
+    @TypeConverter
+    public static int priorityToInt(Priority priority) {
+        switch (priority) {
+            case LOW:
+                return PriorityIds.LOW;
+
+            case DEFAULT:
+                return PriorityIds.DEFAULT;
+
+            case HIGH:
+                return PriorityIds.HIGH;
+
+            default:
+                throw new IllegalArgumentException(
+                        "Could not convert " + priority + " to int");
+        }
+    }
+
+    /**
+     * TypeConverter for an int to a Priority.
+     *
+     * @param value The input integer
+     * @return The associated Priority enum value
+     */
+    @TypeConverter
+    public static Priority intToPriority(int value) {
+        switch (value) {
+            case PriorityIds.LOW:
+                return Priority.LOW;
+
+            case PriorityIds.DEFAULT:
+                return Priority.DEFAULT;
+
+            case PriorityIds.HIGH:
+                return Priority.HIGH;
+
+            default:
+                throw new IllegalArgumentException(
+                        "Could not convert " + value + " to Priority");
+        }
+    }
+
     /**
      * TypeConverter for a NetworkType to an int.
      *
@@ -38,6 +38,7 @@ import androidx.work.Data;
 import androidx.work.ExistingWorkPolicy;
 import androidx.work.State;
 import androidx.work.WorkRequest;
+import androidx.work.impl.BlobStore;
 import androidx.work.impl.Schedulers;
 import androidx.work.impl.WorkContinuationImpl;
 import androidx.work.impl.WorkDatabase;
@@ -236,6 +237,13 @@ public class EnqueueRunnable implements Runnable {
             }
         }
 
+        // Collect all rows first, so that each table is written by a single DAO call that binds
+        // one insert statement for all rows instead of acquiring it for every request.
+        List<WorkSpec> workSpecs = new ArrayList<>(workList.size());
+        List<Dependency> dependencies = new ArrayList<>();
+        List<WorkTag> workTags = new ArrayList<>();
+        List<WorkName> workNames = new ArrayList<>();
+
         boolean needsScheduling = false;
         for (WorkRequest work : workList) {
             WorkSpec workSpec = work.getWorkSpec();
@@ -263,23 +271,38 @@ public class EnqueueRunnable implements Runnable {
                 needsScheduling = true;
             }
 
-            workDatabase.workSpecDao().insertWorkSpec(workSpec);
+            workSpecs.add(workSpec);
 
             if (hasPrerequisite) {
                 for (String prerequisiteId : prerequisiteIds) {
-                    Dependency dep = new Dependency(work.getStringId(), prerequisiteId);
-                    workDatabase.dependencyDao().insertDependency(dep);
+                    dependencies.add(new Dependency(work.getStringId(), prerequisiteId));
                 }
             }
 
             for (String tag : work.getTags()) {
-                workDatabase.workTagDao().insert(new WorkTag(tag, work.getStringId()));
+                workTags.add(new WorkTag(tag, work.getStringId()));
             }
 
             if (isNamed) {
-                workDatabase.workNameDao().insert(new WorkName(name, work.getStringId()));
+                workNames.add(new WorkName(name, work.getStringId()));
             }
         }
+
+        // WorkSpecs are inserted first, as the other tables refer to them.
+        workDatabase.workSpecDao().insertWorkSpecs(workSpecs);
+        BlobStore blobStore = new BlobStore(workManagerImpl.getApplicationContext(), workDatabase);
+        for (WorkSpec workSpec : workSpecs) {
+            blobStore.addReferences(workSpec.id, workSpec.input);
+        }
+        if (!dependencies.isEmpty()) {
+            workDatabase.dependencyDao().insertDependencies(dependencies);
+        }
+        if (!workTags.isEmpty()) {
+            workDatabase.workTagDao().insertAll(workTags);
+        }
+        if (!workNames.isEmpty()) {
+            workDatabase.workNameDao().insertAll(workNames);
+        }
         return needsScheduling;
     }
 
@@ -31,6 +31,7 @@ import android.support.annotation.RestrictTo;
 import android.support.annotation.VisibleForTesting;
 import android.util.Log;
 
+import androidx.work.impl.BlobStore;
 import androidx.work.impl.WorkManagerImpl;
 
 import java.util.concurrent.TimeUnit;
@@ -73,6 +74,8 @@ public class ForceStopRunnable implements Runnable {
             Log.d(TAG, "Application was force-stopped, rescheduling.");
             mWorkManager.rescheduleEligibleWork();
         }
+        // Opening the database prunes old work, which only drops the references to its blobs.
+        new BlobStore(mContext, mWorkManager.getWorkDatabase()).prune();
         mWorkManager.onForceStopRunnableCompleted();
     }
 
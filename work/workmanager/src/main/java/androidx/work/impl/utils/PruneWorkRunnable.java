@@ -18,6 +18,7 @@ package androidx.work.impl.utils;
 
 import android.support.annotation.RestrictTo;
 
+import androidx.work.impl.BlobStore;
 import androidx.work.impl.WorkDatabase;
 import androidx.work.impl.WorkManagerImpl;
 import androidx.work.impl.model.WorkSpecDao;
@@ -26,6 +27,7 @@ import androidx.work.impl.model.WorkSpecDao;
  * A Runnable that prunes work in the background.  Pruned work meets the following criteria:
  * - Is finished (succeeded, failed, or cancelled)
  * - Has zero unfinished dependents
+ * Blobs that are no longer referenced by any work are deleted as well.
  *
  * @hide
  */
@@ -43,5 +45,7 @@ public class PruneWorkRunnable implements Runnable {
         WorkDatabase workDatabase = mWorkManagerImpl.getWorkDatabase();
         WorkSpecDao workSpecDao = workDatabase.workSpecDao();
         workSpecDao.pruneFinishedWorkWithZeroDependentsIgnoringKeepForAtLeast();
+        // the references of the pruned work are deleted with it.
+        new BlobStore(mWorkManagerImpl.getApplicationContext(), workDatabase).prune();
     }
 }
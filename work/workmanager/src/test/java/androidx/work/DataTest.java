@@ -24,6 +24,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -86,6 +90,78 @@ public class DataTest {
         assertThat(restoredData.getIntArray(KEY2), is(equalTo(expectedValue2)));
     }
 
+    @Test
+    public void testSerializeAllTypes() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("boolean", true);
+        map.put("int", -1);
+        map.put("long", Long.MIN_VALUE);
+        map.put("float", Float.NaN);
+        map.put("double", -0.5);
+        map.put("String", "\u00fc\u20ac\ud83d\ude00");
+        map.put("null", null);
+        map.put("boolean array", new Boolean[]{true, null, false, true, true, false, false, true,
+                true, false});
+        map.put("int array", new Integer[]{Integer.MIN_VALUE, null, 0, Integer.MAX_VALUE});
+        map.put("long array", new Long[]{Long.MAX_VALUE, -300L});
+        map.put("float array", new Float[]{1.5f, null});
+        map.put("double array", new Double[]{});
+        map.put("String array", new String[]{"String", null, "other", "String"});
+        Data data = new Data.Builder().putAll(map).build();
+
+        Data restoredData = Data.fromByteArray(Data.toByteArray(data));
+
+        assertThat(restoredData.size(), is(map.size()));
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            assertThat(entry.getKey(), restoredData.getKeyValueMap().get(entry.getKey()),
+                    is(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void testDeserializeObjectStream() throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        map.put("int", 1);
+        map.put("String", "two");
+        map.put("long array", new Long[]{1L, 2L, 3L});
+        map.put("null", null);
+
+        Data restoredData = Data.fromByteArray(toObjectStream(map));
+
+        assertThat(restoredData.getInt("int", 0), is(1));
+        assertThat(restoredData.getString("String"), is("two"));
+        assertThat(restoredData.getLongArray("long array"), is(new long[]{1L, 2L, 3L}));
+        assertThat(restoredData.getKeyValueMap().containsKey("null"), is(true));
+    }
+
+    @Test
+    public void testSerializedSizeSmallerThanObjectStream() throws IOException {
+        Data data = new Data.Builder()
+                .putInt("int", 42)
+                .putLong("long", 1234567890L)
+                .putString(KEY1, "value1")
+                .putIntArray(KEY2, new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10})
+                .build();
+
+        assertThat(Data.toByteArray(data).length * 4 < toObjectStream(data.getKeyValueMap()).length,
+                is(true));
+    }
+
+    @Test
+    public void testDeserializeTruncated() {
+        Data data = new Data.Builder()
+                .putString(KEY1, "value1")
+                .putIntArray(KEY2, new int[]{1, 2, 3})
+                .build();
+        byte[] byteArray = Data.toByteArray(data);
+
+        for (int length = 0; length < byteArray.length; length++) {
+            // malformed payloads are read as far as possible instead of failing the work.
+            Data restoredData = Data.fromByteArray(Arrays.copyOf(byteArray, length));
+            assertThat(restoredData.size() < 2, is(true));
+        }
+    }
+
     @Test
     public void testSerializePastMaxSize() {
         int[] payload = new int[Data.MAX_DATA_BYTES + 1];
@@ -148,4 +224,19 @@ public class DataTest {
         }
         assertThat(caughtIllegalArgumentException, is(true));
     }
+
+    /**
+     * Writes the given values the way {@link Data} was persisted before it had its own format.
+     */
+    private static byte[] toObjectStream(Map<String, Object> values) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeInt(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            objectOutputStream.writeUTF(entry.getKey());
+            objectOutputStream.writeObject(entry.getValue());
+        }
+        objectOutputStream.close();
+        return outputStream.toByteArray();
+    }
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import androidx.work.Priority;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+public class LaneExecutorTest {
+
+    private ManualExecutor mExecutor;
+    private LaneExecutor mLaneExecutor;
+    private List<String> mRan;
+
+    @Before
+    public void setUp() {
+        mExecutor = new ManualExecutor();
+        mLaneExecutor = new LaneExecutor(mExecutor, 4, null);
+        mRan = new ArrayList<>();
+    }
+
+    @Test
+    public void testExecute_boundsLowPriorityWork() {
+        for (int i = 0; i < 4; i++) {
+            mLaneExecutor.execute(Priority.LOW, task("low" + i));
+        }
+        assertThat(mLaneExecutor.getRunningCount(Priority.LOW), is(2));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.LOW), is(2));
+    }
+
+    @Test
+    public void testExecute_reservesThreadWhileHighPriorityWorkRuns() {
+        mLaneExecutor.execute(Priority.HIGH, task("high"));
+        for (int i = 0; i < 5; i++) {
+            mLaneExecutor.execute(Priority.DEFAULT, task("default" + i));
+        }
+        assertThat(mLaneExecutor.getRunningCount(Priority.DEFAULT), is(3));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.DEFAULT), is(2));
+
+        // Once the high priority work is done, default work may use its thread.
+        mExecutor.runNext();
+        assertThat(mLaneExecutor.getRunningCount(Priority.DEFAULT), is(4));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.DEFAULT), is(1));
+    }
+
+    @Test
+    public void testExecute_runsHighPriorityWorkOnNextFreeThread() {
+        for (int i = 0; i < 5; i++) {
+            mLaneExecutor.execute(Priority.DEFAULT, task("default" + i));
+        }
+        assertThat(mLaneExecutor.getRunningCount(Priority.DEFAULT), is(4));
+
+        mLaneExecutor.execute(Priority.HIGH, task("high"));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.HIGH), is(1));
+        mExecutor.runNext();
+        assertThat(mLaneExecutor.getRunningCount(Priority.HIGH), is(1));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.DEFAULT), is(1));
+    }
+
+    @Test
+    public void testExecute_defaultWorkUsesAllThreadsOfThreadPool() {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+        try {
+            LaneExecutor laneExecutor = new LaneExecutor(executor, null);
+            final Object lock = new Object();
+            synchronized (lock) {
+                for (int i = 0; i < 3; i++) {
+                    laneExecutor.execute(Priority.DEFAULT, new Runnable() {
+                        @Override
+                        public void run() {
+                            synchronized (lock) {
+                                mRan.add("default");
+                            }
+                        }
+                    });
+                }
+                assertThat(laneExecutor.getRunningCount(Priority.DEFAULT), is(2));
+                assertThat(laneExecutor.getQueueDepth(Priority.DEFAULT), is(1));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testExecute_runsHighestPriorityFirst() {
+        for (int i = 0; i < 4; i++) {
+            mLaneExecutor.execute(Priority.HIGH, task("high" + i));
+        }
+        mLaneExecutor.execute(Priority.LOW, task("low"));
+        mLaneExecutor.execute(Priority.DEFAULT, task("default"));
+        mLaneExecutor.execute(Priority.HIGH, task("high4"));
+
+        mExecutor.runNext();
+        // The freed up thread goes to the high priority task queued last.
+        assertThat(mLaneExecutor.getQueueDepth(Priority.HIGH), is(0));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.DEFAULT), is(1));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.LOW), is(1));
+
+        mExecutor.runNext();
+        assertThat(mLaneExecutor.getQueueDepth(Priority.DEFAULT), is(0));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.LOW), is(1));
+    }
+
+    @Test
+    public void testExecute_recordsWaitTimes() throws InterruptedException {
+        mLaneExecutor = new LaneExecutor(mExecutor, 1, null);
+        mLaneExecutor.execute(Priority.DEFAULT, task("first"));
+        mLaneExecutor.execute(Priority.DEFAULT, task("second"));
+        Thread.sleep(20);
+        mExecutor.runNext();
+
+        assertThat(mLaneExecutor.getMaxWaitMillis(Priority.DEFAULT) >= 20, is(true));
+        assertThat(mLaneExecutor.getAverageWaitMillis(Priority.DEFAULT) >= 10, is(true));
+        assertThat(mLaneExecutor.getMaxWaitMillis(Priority.HIGH), is(0L));
+    }
+
+    @Test
+    public void testExecute_runsAllTasks() {
+        mLaneExecutor.execute(Priority.LOW, task("low"));
+        mLaneExecutor.execute(Priority.DEFAULT, task("default"));
+        mLaneExecutor.execute(Priority.HIGH, task("high"));
+        while (mExecutor.runNext()) {
+            // Run until no task is left.
+        }
+        assertThat(mRan.size(), is(3));
+        assertThat(mLaneExecutor.getRunningCount(Priority.LOW), is(0));
+    }
+
+    @Test
+    public void testExecute_releasesRejectedTask() {
+        mLaneExecutor = new LaneExecutor(mExecutor, 2, null);
+        mLaneExecutor.execute(Priority.DEFAULT, task("running"));
+
+        mExecutor.mRejectNext = true;
+        try {
+            mLaneExecutor.execute(Priority.HIGH, task("rejected"));
+            throw new AssertionError("The task was not rejected");
+        } catch (RejectedExecutionException expected) {
+            // The executor did not take the task.
+        }
+        assertThat(mLaneExecutor.getRunningCount(Priority.HIGH), is(0));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.HIGH), is(0));
+
+        // The capacity of the rejected task is available again.
+        mLaneExecutor.execute(Priority.HIGH, task("high"));
+        assertThat(mLaneExecutor.getRunningCount(Priority.HIGH), is(1));
+        while (mExecutor.runNext()) {
+            // Run until no task is left.
+        }
+        assertThat(mRan.toString(), is("[running, high]"));
+        assertThat(mLaneExecutor.getRunningCount(Priority.DEFAULT), is(0));
+        assertThat(mLaneExecutor.getRunningCount(Priority.HIGH), is(0));
+    }
+
+    @Test
+    public void testExecute_reportsTaskRejectedAfterAnotherFinished() {
+        final List<Runnable> rejected = new ArrayList<>();
+        mLaneExecutor = new LaneExecutor(mExecutor, 1, new LaneExecutor.RejectionListener() {
+            @Override
+            public void onRejected(Runnable task, RejectedExecutionException exception) {
+                rejected.add(task);
+            }
+        });
+        Runnable second = task("second");
+        mLaneExecutor.execute(Priority.DEFAULT, task("first"));
+        mLaneExecutor.execute(Priority.DEFAULT, second);
+
+        // The second task is handed over on the thread of the first one, which must not fail.
+        mExecutor.mRejectNext = true;
+        mExecutor.runNext();
+        assertThat(rejected.size(), is(1));
+        assertThat(rejected.get(0), is(second));
+        assertThat(mLaneExecutor.getRunningCount(Priority.DEFAULT), is(0));
+        assertThat(mLaneExecutor.getQueueDepth(Priority.DEFAULT), is(0));
+        assertThat(mRan.toString(), is("[first]"));
+    }
+
+    @Test
+    public void testExecute_usesThreadsOfThreadPool() {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+        try {
+            LaneExecutor laneExecutor = new LaneExecutor(executor, null);
+            final Object lock = new Object();
+            synchronized (lock) {
+                for (int i = 0; i < 3; i++) {
+                    laneExecutor.execute(Priority.HIGH, new Runnable() {
+                        @Override
+                        public void run() {
+                            synchronized (lock) {
+                                mRan.add("high");
+                            }
+                        }
+                    });
+                }
+                assertThat(laneExecutor.getRunningCount(Priority.HIGH), is(2));
+                assertThat(laneExecutor.getQueueDepth(Priority.HIGH), is(1));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Runnable task(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                mRan.add(name);
+            }
+        };
+    }
+
+    /**
+     * An {@link Executor} which runs its tasks one at a time when asked to.
+     */
+    private static class ManualExecutor implements Executor {
+        private final List<Runnable> mTasks = new ArrayList<>();
+        boolean mRejectNext;
+
+        @Override
+        public void execute(Runnable command) {
+            if (mRejectNext) {
+                mRejectNext = false;
+                throw new RejectedExecutionException();
+            }
+            mTasks.add(command);
+        }
+
+        boolean runNext() {
+            if (mTasks.isEmpty()) {
+                return false;
+            }
+            mTasks.remove(0).run();
+            return true;
+        }
+    }
+}